@@ -90,6 +90,38 @@ public class ArrayUtils {
         return newArray;
     }
 
+    /**
+     * Make a copy of an array of primitives (int[], long[], double[], etc.),
+     * this is a complete copy since the values in the array are not objects
+     * 
+     * @param array any array of primitives
+     * @return a copy of the array (same type and size)
+     * @throws IllegalArgumentException if the array is not an array of primitives
+     */
+    public static Object copyPrimitives(Object array) {
+        Object copy;
+        if (array instanceof int[]) {
+            copy = ((int[]) array).clone();
+        } else if (array instanceof long[]) {
+            copy = ((long[]) array).clone();
+        } else if (array instanceof double[]) {
+            copy = ((double[]) array).clone();
+        } else if (array instanceof float[]) {
+            copy = ((float[]) array).clone();
+        } else if (array instanceof byte[]) {
+            copy = ((byte[]) array).clone();
+        } else if (array instanceof short[]) {
+            copy = ((short[]) array).clone();
+        } else if (array instanceof char[]) {
+            copy = ((char[]) array).clone();
+        } else if (array instanceof boolean[]) {
+            copy = ((boolean[]) array).clone();
+        } else {
+            throw new IllegalArgumentException("array must be an array of primitives: " + array);
+        }
+        return copy;
+    }
+
     /**
      * Make a template copy of an array (empty copy which is the same size and type)
      * @param <T>
@@ -26,7 +26,10 @@ import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @param <T> the class type
@@ -41,6 +44,7 @@ public class ClassData<T> {
     private final List<Annotation> annotations;
     private final List<Constructor<T>> constructors;
     private final List<Field> fields;
+    private final Map<String, Field> namesToFields;
     private final List<Method> methods;
     private final List<Class<?>> interfaces;
     private final List<Class<?>> superclasses;
@@ -77,6 +81,39 @@ public class ClassData<T> {
         Collections.sort(constructors, new MemberComparator());
         // remove duplicates from the list of interfaces
         ArrayUtils.removeDuplicates(interfaces);
+        namesToFields = makeFieldIndex(type, fields, superclasses, interfaces);
+    }
+
+    /**
+     * Makes the index of field names to fields, when more than one field has the same name
+     * the field which shadows the others is used (the one declared closest to the type,
+     * superclasses are checked before interfaces)
+     */
+    private static Map<String, Field> makeFieldIndex(Class<?> type, List<Field> fields, List<Class<?>> superclasses, List<Class<?>> interfaces) {
+        Map<Class<?>, Integer> depths = new IdentityHashMap<Class<?>, Integer>();
+        depths.put(type, 0);
+        for (Class<?> superclass : superclasses) {
+            depths.put(superclass, depths.size());
+        }
+        for (Class<?> iface : interfaces) {
+            if (! depths.containsKey(iface)) {
+                depths.put(iface, depths.size());
+            }
+        }
+        Map<String, Field> index = new HashMap<String, Field>(fields.size() * 2);
+        for (Field field : fields) {
+            Field current = index.get(field.getName());
+            if (current == null
+                    || depth(depths, field) < depth(depths, current)) {
+                index.put(field.getName(), field);
+            }
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    private static int depth(Map<Class<?>, Integer> depths, Field field) {
+        Integer depth = depths.get(field.getDeclaringClass());
+        return depth == null ? Integer.MAX_VALUE : depth;
     }
 
     /**
@@ -238,6 +275,16 @@ public class ClassData<T> {
         return fields;
     }
 
+    /**
+     * Get a field by name (this includes the non-visible fields),
+     * if a field is shadowed by a field with the same name in a subclass then the subclass field is returned
+     * @param name the name of the field
+     * @return the field OR null if there is no field with this name
+     */
+    public Field getField(String name) {
+        return namesToFields.get(name);
+    }
+
     /**
      * @return all methods for the class this data represents
      */
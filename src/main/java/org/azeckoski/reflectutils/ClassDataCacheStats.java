@@ -0,0 +1,161 @@
+/**
+ * $Id$
+ * $URL$
+ * ClassDataCacheStats.java - reflectutils - Oct 18, 2026 4:05:12 PM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils;
+
+import org.azeckoski.reflectutils.ClassFields.FieldFindMode;
+
+/**
+ * Immutable snapshot of the statistics for the {@link ClassDataCacher},
+ * get this from {@link ClassDataCacher#snapshot()}
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public final class ClassDataCacheStats {
+
+    private final long lookups;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long builds;
+    private final long buildTimeNanos;
+    private final long[] modeHits;
+    private final long[] modeMisses;
+
+    public ClassDataCacheStats(long lookups, long hits, long misses, long evictions, long builds, long buildTimeNanos) {
+        this(lookups, hits, misses, evictions, builds, buildTimeNanos, null, null);
+    }
+
+    /**
+     * @param modeHits the hits for each {@link FieldFindMode} (indexed by the ordinal), null if not known
+     * @param modeMisses the misses for each {@link FieldFindMode} (indexed by the ordinal), null if not known
+     */
+    public ClassDataCacheStats(long lookups, long hits, long misses, long evictions, long builds, long buildTimeNanos, 
+            long[] modeHits, long[] modeMisses) {
+        this.lookups = lookups;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.builds = builds;
+        this.buildTimeNanos = buildTimeNanos;
+        this.modeHits = copyModeCounts(modeHits);
+        this.modeMisses = copyModeCounts(modeMisses);
+    }
+
+    private static long[] copyModeCounts(long[] counts) {
+        long[] copy = new long[FieldFindMode.values().length];
+        if (counts != null) {
+            System.arraycopy(counts, 0, copy, 0, Math.min(counts.length, copy.length));
+        }
+        return copy;
+    }
+
+    /**
+     * @return the total number of lookups in the cache
+     */
+    public long getLookups() {
+        return lookups;
+    }
+
+    /**
+     * @return the number of lookups which found the class data in the cache
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups which did not find the class data in the cache
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @param mode the field find mode
+     * @return the number of lookups for this mode which found the class data in the cache
+     */
+    public long getHits(FieldFindMode mode) {
+        return modeHits[mode.ordinal()];
+    }
+
+    /**
+     * @param mode the field find mode
+     * @return the number of lookups for this mode which did not find the class data in the cache
+     */
+    public long getMisses(FieldFindMode mode) {
+        return modeMisses[mode.ordinal()];
+    }
+
+    /**
+     * @param mode the field find mode
+     * @return the ratio of hits to lookups for this mode (0.0 - 1.0), 1.0 if there have been no lookups
+     */
+    public double getHitRatio(FieldFindMode mode) {
+        long modeLookups = modeHits[mode.ordinal()] + modeMisses[mode.ordinal()];
+        return modeLookups == 0 ? 1.0 : (double) modeHits[mode.ordinal()] / (double) modeLookups;
+    }
+
+    /**
+     * @return the ratio of hits to lookups (0.0 - 1.0), 1.0 if there have been no lookups
+     */
+    public double getHitRatio() {
+        return lookups == 0 ? 1.0 : (double) hits / (double) lookups;
+    }
+
+    /**
+     * @return the number of cached entries which were discarded (replaced because the mode did not match or removed by clearing the cache),
+     * entries which are garbage collected are not included
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of times class data was built (class analyzed)
+     */
+    public long getBuilds() {
+        return builds;
+    }
+
+    /**
+     * @return the total time spent building class data in nanoseconds
+     */
+    public long getBuildTimeNanos() {
+        return buildTimeNanos;
+    }
+
+    /**
+     * @return the average time to build the class data for a class in nanoseconds (0 if nothing was built)
+     */
+    public long getAverageBuildTimeNanos() {
+        return builds == 0 ? 0 : buildTimeNanos / builds;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("lookups=").append(lookups).append(":hits=").append(hits).append(":misses=").append(misses)
+            .append(":hitRatio=").append(getHitRatio()).append(":evictions=").append(evictions)
+            .append(":builds=").append(builds).append(":buildTimeMs=").append(buildTimeNanos / 1000000);
+        for (FieldFindMode mode : FieldFindMode.values()) {
+            long modeLookups = getHits(mode) + getMisses(mode);
+            if (modeLookups > 0) {
+                sb.append(":").append(mode).append("=").append(getHits(mode)).append("/").append(modeLookups);
+            }
+        }
+        return sb.toString();
+    }
+
+}
@@ -19,7 +19,27 @@ import org.azeckoski.reflectutils.refmap.ReferenceMap;
 import org.azeckoski.reflectutils.refmap.ReferenceType;
 
 import java.lang.ref.SoftReference;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Class which provides access to the analysis objects and the cached reflection data
@@ -70,7 +90,8 @@ public class ClassDataCacher {
     protected FieldFindMode fieldFindMode = FieldFindMode.HYBRID;
     /**
      * Set the mode used to find fields on classes (default {@link FieldFindMode#HYBRID}) <br/>
-     * <b>WARNING</b>: changing modes will clear the existing cache
+     * NOTE: the class data for each mode is cached separately so changing the mode does not clear the cache
+     * (unless a custom cache map is being used, see {@link #setReflectionCache(Map)})
      * 
      * @param fieldFindMode see FieldFindMode enum for details
      * @see FieldFindMode
@@ -79,10 +100,6 @@ public class ClassDataCacher {
         if (fieldFindMode == null) {
             fieldFindMode = FieldFindMode.HYBRID;
         }
-        if (! this.fieldFindMode.equals(fieldFindMode)) {
-            // need to clear the cache if we change the mode
-            getReflectionCache().clear();
-        }
         this.fieldFindMode = fieldFindMode;
     }
     public FieldFindMode getFieldFindMode() {
@@ -92,15 +109,11 @@ public class ClassDataCacher {
     protected boolean includeClassField = false;
     /**
      * Setting to determine if the result of "getClass()" should be included in the reflection data <br/>
-     * <b>WARNING</b>: changing this will clear the existing cache
+     * NOTE: the class data with and without the class field are cached separately so changing this does not clear the cache
      * 
      * @param includeClassField if true then getClass() will be treated as a readable field called "class", default is false
      */    
     public void setIncludeClassField(boolean includeClassField) {
-        if (this.includeClassField != includeClassField) {
-            // need to clear the cache if we change this
-            getReflectionCache().clear();
-        }
         this.includeClassField = includeClassField;
     }
     public boolean isIncludeClassField() {
@@ -108,37 +121,285 @@ public class ClassDataCacher {
     }
 
 
+    protected boolean useAccessors = true;
+    /**
+     * Setting to determine if the cached class data should generate direct accessors for property getters and setters,
+     * these are used instead of reflection when getting and setting values (see {@link ClassFields#setUseAccessors(boolean)}) <br/>
+     * <b>WARNING</b>: changing this will clear the existing cache
+     * 
+     * @param useAccessors if true then accessors will be generated when possible, default is true
+     */
+    public void setUseAccessors(boolean useAccessors) {
+        if (this.useAccessors != useAccessors) {
+            // need to clear the cache if we change this
+            clearCache();
+        }
+        this.useAccessors = useAccessors;
+    }
+    public boolean isUseAccessors() {
+        return useAccessors;
+    }
+
+
+    protected boolean useMetadataProviders = true;
+    /**
+     * Setting to determine if the build time metadata ({@link ClassMetadataProvider}) should be used
+     * for the classes which have it, when used those classes are not analyzed with reflection
+     * (this only applies to the {@link FieldFindMode#HYBRID} mode without the class field) <br/>
+     * <b>WARNING</b>: changing this will clear the existing cache
+     * 
+     * @param useMetadataProviders if true then the metadata providers are used, default is true
+     */
+    public void setUseMetadataProviders(boolean useMetadataProviders) {
+        if (this.useMetadataProviders != useMetadataProviders) {
+            // need to clear the cache if we change this
+            clearCache();
+        }
+        this.useMetadataProviders = useMetadataProviders;
+    }
+    public boolean isUseMetadataProviders() {
+        return useMetadataProviders;
+    }
+
+    /**
+     * Holds the metadata providers (class name -> provider) found in each classloader,
+     * loaded the first time a class from that classloader is built
+     */
+    protected final ReferenceMap<ClassLoader, Map<String, ClassMetadataProvider>> metadataProviders = 
+        new ReferenceMap<ClassLoader, Map<String, ClassMetadataProvider>>(ReferenceType.WEAK, ReferenceType.SOFT);
+
+    /**
+     * Finds the build time metadata for a class using the {@link ServiceLoader} on the classloader of the class
+     * 
+     * @param cls any class
+     * @return the metadata provider for this class OR null if there is none
+     */
+    protected ClassMetadataProvider getMetadataProvider(Class<?> cls) {
+        ClassLoader loader = cls.getClassLoader();
+        if (loader == null) {
+            return null; // system classes never have metadata
+        }
+        Map<String, ClassMetadataProvider> providers = metadataProviders.get(loader);
+        if (providers == null) {
+            providers = new HashMap<String, ClassMetadataProvider>();
+            Iterator<ClassMetadataProvider> it = ServiceLoader.load(ClassMetadataProvider.class, loader).iterator();
+            while (true) {
+                try {
+                    if (! it.hasNext()) {
+                        break;
+                    }
+                } catch (ServiceConfigurationError e) {
+                    // the provider lists could not be read, this fails the same way every time so stop here
+                    System.err.println("WARN: Failed to find class metadata providers, will use reflection for the classes in this classloader: " + e);
+                    break;
+                }
+                try {
+                    ClassMetadataProvider provider = it.next();
+                    providers.put(provider.getTypeName(), provider);
+                } catch (ServiceConfigurationError e) {
+                    // only this provider failed so the others can still be loaded
+                    System.err.println("WARN: Failed to load class metadata provider, will use reflection for that class: " + e);
+                }
+            }
+            metadataProviders.put(loader, providers);
+        }
+        ClassMetadataProvider provider = providers.get(cls.getName());
+        if (provider != null && provider.getType() != cls) {
+            provider = null; // same name from a different classloader
+        }
+        return provider;
+    }
+
+    /**
+     * Makes the class fields for a class, uses the build time metadata when there is some for the class
+     * and reflection otherwise
+     * 
+     * @param cls any class
+     * @param mode the mode for searching the class for fields
+     * @param includeClassField if true then the class field is included
+     * @return the class fields analysis object
+     */
+    protected <T> ClassFields<T> makeClassFields(Class<T> cls, FieldFindMode mode, boolean includeClassField) {
+        ClassFields<T> cf = null;
+        if (useMetadataProviders 
+                && FieldFindMode.HYBRID.equals(mode) 
+                && ! includeClassField) {
+            ClassMetadataProvider provider = getMetadataProvider(cls);
+            if (provider != null) {
+                cf = ClassFields.fromMetadata(provider);
+            }
+        }
+        if (cf == null) {
+            cf = new ClassFields<T>(cls, mode, false, includeClassField);
+        }
+        cf.setUseAccessors(useAccessors);
+        return cf;
+    }
+
+
+    protected volatile StatsCounter stats = new StatsCounter();
+    /**
+     * Setting to turn the cache statistics on or off,
+     * when off there is no statistics work done at all when getting class data <br/>
+     * Turning the statistics on again starts them from 0
+     * 
+     * @param statsEnabled if true then cache statistics are recorded, default is true
+     */
+    public void setStatsEnabled(boolean statsEnabled) {
+        if (statsEnabled) {
+            if (this.stats == null) {
+                this.stats = new StatsCounter();
+            }
+        } else {
+            this.stats = null;
+        }
+    }
+    public boolean isStatsEnabled() {
+        return stats != null;
+    }
+    /**
+     * @return an immutable snapshot of the current cache statistics (all 0 if the statistics are disabled)
+     */
+    @SuppressWarnings("deprecation")
+    public ClassDataCacheStats snapshot() {
+        StatsCounter s = stats;
+        ClassDataCacheStats snapshot;
+        if (s == null) {
+            snapshot = new ClassDataCacheStats(0, 0, 0, 0, 0, 0);
+        } else {
+            snapshot = s.snapshot();
+        }
+        // keep the old public counters in line with the snapshot
+        lookups = (int) snapshot.getLookups();
+        cacheHits = (int) snapshot.getHits();
+        cacheMisses = (int) snapshot.getMisses();
+        return snapshot;
+    }
+
+    /**
+     * @deprecated use {@link #snapshot()} and {@link ClassDataCacheStats#getLookups()},
+     * this is no longer counted on each lookup, it is only updated when a snapshot is taken
+     */
+    @Deprecated
     public int lookups = 0;
+    /**
+     * @deprecated use {@link #snapshot()} and {@link ClassDataCacheStats#getHits()},
+     * this is no longer counted on each lookup, it is only updated when a snapshot is taken
+     */
+    @Deprecated
     public int cacheHits = 0;
+    /**
+     * @deprecated use {@link #snapshot()} and {@link ClassDataCacheStats#getMisses()},
+     * this is no longer counted on each lookup, it is only updated when a snapshot is taken
+     */
+    @Deprecated
     public int cacheMisses = 0;
 
+    /**
+     * The types of storage which can be used for the cache of class data
+     */
+    public static enum CacheType {
+        /**
+         * Stores the class data in a map (weak class keys and soft values by default),
+         * the map can be replaced using {@link ClassDataCacher#setReflectionCache(Map)}
+         */
+        MAP,
+        /**
+         * Stores the class data in a {@link ClassValue} attached to each class,
+         * this is the fastest lookup and does not stop classloaders from unloading,
+         * but the class data is held as long as the class is loaded (it is not soft referenced)
+         */
+        CLASS_VALUE
+    }
+
+    protected CacheType cacheType = CacheType.MAP;
+    /**
+     * Set the type of storage used to cache the class data (default {@link CacheType#MAP}) <br/>
+     * <b>WARNING</b>: changing this will clear the existing cache
+     * 
+     * @param cacheType the type of cache storage, null for the default
+     */
+    public void setCacheType(CacheType cacheType) {
+        if (cacheType == null) {
+            cacheType = CacheType.MAP;
+        }
+        if (! this.cacheType.equals(cacheType)) {
+            clearCache();
+        }
+        this.cacheType = cacheType;
+    }
+    public CacheType getCacheType() {
+        return cacheType;
+    }
+
+    protected final ClassValueCache classValueCache = new ClassValueCache();
+
+    /**
+     * The number of cache slots for each class (one for each mode with and without the class field)
+     */
+    protected static final int SLOTS = FieldFindMode.values().length * 2;
+    /**
+     * @return the cache slot for this variant of the class data
+     */
+    protected static int slot(FieldFindMode mode, boolean includeClassField) {
+        return (mode.ordinal() * 2) + (includeClassField ? 1 : 0);
+    }
+
+    protected ReferenceMap<Class<?>, AtomicReferenceArray<ClassFields<?>>> variantCache = null;
+    /**
+     * @return the internal cache which holds all the variants (slots) of the class data for each class
+     */
+    protected ReferenceMap<Class<?>, AtomicReferenceArray<ClassFields<?>>> getVariantCache() {
+        if (variantCache == null) {
+            // internally we are using the ReferenceMap (from the Guice codebase)
+            // modeled after the groovy reflection caching (weak -> soft)
+            variantCache = new ReferenceMap<Class<?>, AtomicReferenceArray<ClassFields<?>>>(ReferenceType.WEAK, ReferenceType.SOFT);
+        }
+        return variantCache;
+    }
+
+    /**
+     * The map view of the internal cache which is returned by {@link #getReflectionCache()} when there is no custom cache map
+     */
+    protected final InternalCacheView internalCache = new InternalCacheView();
+
     @SuppressWarnings("unchecked")
     protected Map<Class<?>, ClassFields> reflectionCache = null;
+    /**
+     * Get the map which holds the class data when the cache type is {@link CacheType#MAP},
+     * all the cache lookups go through this method so it can be overridden to supply the cache map <br/>
+     * This is the custom cache map if one was set, otherwise it is a view of the internal cache which shows
+     * the class data for the current field find mode and include class field setting
+     * (the internal cache also holds the class data for the other modes but those are not in the view)
+     * 
+     * @return the cache map (never null)
+     */
     @SuppressWarnings("unchecked")
     protected Map<Class<?>, ClassFields> getReflectionCache() {
-        if (reflectionCache == null) {
-            // internally we are using the ReferenceMap (from the Guice codebase)
-            // modeled after the groovy reflection caching (weak -> soft)
-            reflectionCache = new ReferenceMap<Class<?>,ClassFields>(ReferenceType.WEAK, ReferenceType.SOFT);
+        if (reflectionCache != null) {
+            return reflectionCache;
         }
-        return reflectionCache;
+        // the view holds ClassFields<?> values, the raw type is only in the signature to stay compatible
+        return castMap(internalCache);
+    }
+    @SuppressWarnings("unchecked")
+    private static <K, V> Map<K, V> castMap(Map<?, ?> map) {
+        return (Map<K, V>) map;
     }
     /**
      * Set the cache to be used for holding the reflection data, 
      * this allows control over where the reflection caches are stored,
      * this should store the data in a way that it will not hold open the classloader the class comes from <br/>
-     * Note that you can set this to a map implementation which does not store anything to disable caching if you like
+     * Note that you can set this to a map implementation which does not store anything to disable caching if you like <br/>
+     * NOTE: a custom map only holds one variant of the class data for each class, when the field find mode
+     * or include class field setting does not match then the cached class data is replaced
      * 
      * @param reflectionCache a cache for holding class cache data (implements map), null to use the default internal cache
      */
     @SuppressWarnings("unchecked")
     public void setReflectionCache(Map<Class<?>, ClassFields> reflectionCache) {
-        if (reflectionCache != null) {
-            this.reflectionCache.clear();
-            this.reflectionCache = reflectionCache;
-        } else {
-            getReflectionCache();
-        }
+        clearCache();
+        this.reflectionCache = reflectionCache;
     }
 
     /**
@@ -176,18 +437,162 @@ public class ClassDataCacher {
                 mode = this.fieldFindMode;
             }
         }
-        lookups++;
-        ClassFields<T> cf = getReflectionCache().get(cls);
-        if (cf != null && !mode.equals(cf.getFieldFindMode())) {
-            cf = null;
-        }
+        StatsCounter s = stats;
+        ClassFields<T> cf = getCachedClassFields(cls, mode);
         if (cf == null) {
-            // make new and put in cache
-            cf = new ClassFields<T>(cls, mode, false, this.includeClassField);
-            getReflectionCache().put(cls, cf);
-            cacheMisses++;
+            // make new and put in cache (or wait for the thread already making it)
+            cf = buildClassFields(cls, mode);
+            if (s != null) {
+                s.misses.increment();
+                s.modeMisses[mode.ordinal()].increment();
+            }
+        } else if (s != null) {
+            s.hits.increment();
+            s.modeHits[mode.ordinal()].increment();
+        }
+        return cf;
+    }
+
+    /**
+     * Get the class fields from the cache storage
+     * @param cls any class
+     * @param mode the mode for searching the class for fields
+     * @return the cached class fields OR null if they are not cached
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> ClassFields<T> getCachedClassFields(Class<T> cls, FieldFindMode mode) {
+        ClassFields<T> cf;
+        if (cacheType == CacheType.CLASS_VALUE) {
+            cf = classValueCache.get(cls, slot(mode, includeClassField));
         } else {
-            cacheHits++;
+            Map<Class<?>, ?> cache = getReflectionCache();
+            if (cache == internalCache) {
+                cf = (ClassFields<T>) internalCache.get(cls, slot(mode, includeClassField));
+            } else {
+                cf = (ClassFields<T>) cache.get(cls);
+                if (cf != null 
+                        && (!mode.equals(cf.getFieldFindMode()) || includeClassField != cf.isIncludeClassField())) {
+                    // only one variant can be held for each class so this one will be replaced
+                    cf = null;
+                }
+            }
+        }
+        if (cf == null && ! pinned.isEmpty()) {
+            // pinned class data goes back into the cache if it was removed
+            AtomicReferenceArray<ClassFields<?>> slots = pinned.get(cls);
+            if (slots != null) {
+                cf = (ClassFields<T>) slots.get(slot(mode, includeClassField));
+                if (cf != null) {
+                    putCachedClassFields(cls, cf);
+                }
+            }
+        }
+        return cf;
+    }
+
+    /**
+     * Put class fields into the cache storage
+     * @param cls the class
+     * @param cf the class fields for that class
+     */
+    protected void putCachedClassFields(Class<?> cls, ClassFields<?> cf) {
+        int slot = slot(cf.getFieldFindMode(), cf.isIncludeClassField());
+        if (cacheType == CacheType.CLASS_VALUE) {
+            classValueCache.put(cls, slot, cf);
+        } else {
+            Map<Class<?>, ?> cache = getReflectionCache();
+            if (cache == internalCache) {
+                internalCache.put(cls, slot, cf);
+            } else {
+                ClassFields<?> replaced = getReflectionCache().put(cls, cf);
+                if (replaced != null && replaced != cf) {
+                    StatsCounter s = stats;
+                    if (s != null) {
+                        s.evictions.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Clears the cache storage (all types)
+     */
+    protected void clearCache() {
+        pinned.clear();
+        Map<Class<?>, ?> cache = getReflectionCache();
+        if (cache != null) {
+            // may be null when a subclass which supplies the cache is still being constructed
+            cache.clear();
+        }
+        getVariantCache().clear();
+        classValueCache.clear();
+    }
+
+    /**
+     * Holds the builds of class data which are currently running so that concurrent lookups
+     * of the same class wait for the running build instead of analyzing the class again
+     */
+    protected final ConcurrentHashMap<BuildKey, FutureTask<ClassFields<?>>> runningBuilds = new ConcurrentHashMap<BuildKey, FutureTask<ClassFields<?>>>();
+
+    /**
+     * Builds the class fields for a class and puts it in the cache,
+     * only one thread will build the class fields for a class (and mode) at a time,
+     * any other threads which need the same class fields will wait for that build to finish
+     * 
+     * @param cls any class
+     * @param mode the mode for searching the class for fields
+     * @return the class fields analysis object
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> ClassFields<T> buildClassFields(final Class<T> cls, final FieldFindMode mode) {
+        final boolean includeClassField = this.includeClassField;
+        BuildKey key = new BuildKey(cls, mode, includeClassField);
+        FutureTask<ClassFields<?>> build = runningBuilds.get(key);
+        if (build == null) {
+            FutureTask<ClassFields<?>> task = new FutureTask<ClassFields<?>>(new Callable<ClassFields<?>>() {
+                public ClassFields<?> call() {
+                    // another build may have finished just before this one started
+                    ClassFields<T> cf = getCachedClassFields(cls, mode);
+                    if (cf == null) {
+                        StatsCounter s = stats;
+                        long start = (s != null ? System.nanoTime() : 0);
+                        cf = makeClassFields(cls, mode, includeClassField);
+                        putCachedClassFields(cls, cf);
+                        if (s != null) {
+                            s.buildTime.add(System.nanoTime() - start);
+                            s.builds.increment();
+                        }
+                    }
+                    return cf;
+                }
+            });
+            build = runningBuilds.putIfAbsent(key, task);
+            if (build == null) {
+                // this thread does the build
+                build = task;
+                try {
+                    task.run();
+                } finally {
+                    runningBuilds.remove(key, task);
+                }
+            }
+        }
+        ClassFields<T> cf;
+        try {
+            cf = (ClassFields<T>) build.get();
+        } catch (InterruptedException e) {
+            // keep the interrupt and make the class fields without waiting
+            Thread.currentThread().interrupt();
+            cf = makeClassFields(cls, mode, includeClassField);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Failure building class data for class ("+cls+"): " + cause, cause);
         }
         return cf;
     }
@@ -242,23 +647,406 @@ public class ClassDataCacher {
         return cf.getClassData();
     }
 
+    /**
+     * The class data which was pinned by preloading (class -> slots), this is held strongly so that
+     * the preloaded class data stays available even if the cache releases it when memory is low<br/>
+     * This holds the classes (and so their classloaders) open until they are unpinned or the cache is cleared,
+     * it cannot be weak because the class data itself holds the class
+     */
+    protected final ConcurrentHashMap<Class<?>, AtomicReferenceArray<ClassFields<?>>> pinned = new ConcurrentHashMap<Class<?>, AtomicReferenceArray<ClassFields<?>>>();
+
+    /**
+     * Pin the class data so it is always available (until the cache is cleared)
+     * @param cls the class
+     * @param cf the class fields for that class
+     */
+    protected void pin(Class<?> cls, ClassFields<?> cf) {
+        AtomicReferenceArray<ClassFields<?>> slots = pinned.get(cls);
+        if (slots == null) {
+            AtomicReferenceArray<ClassFields<?>> newSlots = new AtomicReferenceArray<ClassFields<?>>(SLOTS);
+            slots = pinned.putIfAbsent(cls, newSlots);
+            if (slots == null) {
+                slots = newSlots;
+            }
+        }
+        slots.set(slot(cf.getFieldFindMode(), cf.isIncludeClassField()), cf);
+    }
+
+    /**
+     * @return the number of classes which have pinned class data
+     */
+    public int getPinnedCount() {
+        return pinned.size();
+    }
+
+    /**
+     * Unpin the class data for a class so the cache can release it normally,
+     * the class data stays in the cache until it is released or cleared
+     * @param cls the class
+     * @return true if the class was pinned
+     * @throws IllegalArgumentException if cls is null
+     */
+    public boolean unpin(Class<?> cls) {
+        if (cls == null) {
+            throw new IllegalArgumentException("cls cannot be null");
+        }
+        return pinned.remove(cls) != null;
+    }
+
+    /**
+     * Unpin the class data for all classes which were loaded by a classloader (or any classloader under it),
+     * call this when a classloader is discarded (e.g. when a webapp is undeployed) so the pins do not hold it open
+     * @param classLoader the classloader
+     * @return the number of classes which were unpinned
+     * @throws IllegalArgumentException if classLoader is null
+     */
+    public int unpin(ClassLoader classLoader) {
+        if (classLoader == null) {
+            throw new IllegalArgumentException("classLoader cannot be null");
+        }
+        int count = 0;
+        for (Class<?> cls : pinned.keySet()) {
+            for (ClassLoader cl = cls.getClassLoader(); cl != null; cl = cl.getParent()) {
+                if (cl == classLoader) {
+                    if (pinned.remove(cls) != null) {
+                        count++;
+                    }
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Analyzes (and caches) a set of classes ahead of time so that the cost of the reflection is not paid
+     * when the classes are first used, the classes are analyzed in parallel and the results are pinned
+     * so they stay in the cache even when memory is low<br/>
+     * This uses the current field find mode and include class field settings<br/>
+     * <b>NOTE:</b> pinned classes (and their classloaders) are held strongly until they are unpinned
+     * with {@link #unpin(Class)} or {@link #unpin(ClassLoader)} or the cache is cleared,
+     * unpin the classes of a classloader before it is discarded or it cannot be garbage collected
+     * 
+     * @param classes the classes to analyze
+     * @param parallelism the number of threads to use, 0 or less to use the number of processors
+     * @return the report of the preload (the build times and any failures)
+     * @throws IllegalArgumentException if classes is null
+     */
+    public ClassDataPreloadReport preload(Collection<Class<?>> classes, int parallelism) {
+        if (classes == null) {
+            throw new IllegalArgumentException("classes cannot be null");
+        }
+        return preload(classes, parallelism, new LinkedHashMap<String, Throwable>(0), System.nanoTime());
+    }
+
+    /**
+     * Analyzes (and caches) all the classes in a package (and the packages under it) ahead of time,
+     * the classes are found using the context classloader,
+     * see {@link #preload(Collection, int)} for details (including how long the classes stay pinned)
+     * 
+     * @param packageName the package to preload the classes from (e.g. org.azeckoski.model)
+     * @param parallelism the number of threads to use, 0 or less to use the number of processors
+     * @return the report of the preload (the build times and any failures, including classes which could not be loaded)
+     * @throws IllegalArgumentException if the package name is null or empty
+     */
+    public ClassDataPreloadReport preload(String packageName, int parallelism) {
+        long start = System.nanoTime();
+        ClassLoader cl = ClassLoaderUtils.getCurrentClassLoader();
+        List<String> names = ClassLoaderUtils.getClassNamesInPackage(packageName, cl);
+        List<Class<?>> classes = new ArrayList<Class<?>>(names.size());
+        Map<String, Throwable> failures = new LinkedHashMap<String, Throwable>();
+        for (String name : names) {
+            try {
+                classes.add( Class.forName(name, false, cl) );
+            } catch (ClassNotFoundException e) {
+                failures.put(name, e);
+            } catch (LinkageError e) {
+                failures.put(name, e);
+            }
+        }
+        return preload(classes, parallelism, failures, start);
+    }
+
+    private ClassDataPreloadReport preload(Collection<Class<?>> classes, int parallelism, Map<String, Throwable> loadFailures, long start) {
+        if (parallelism <= 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        final FieldFindMode mode = this.fieldFindMode;
+        final Map<String, Long> buildTimes = new ConcurrentHashMap<String, Long>();
+        final Map<String, Throwable> failures = new ConcurrentHashMap<String, Throwable>(loadFailures);
+        final AtomicInteger alreadyCached = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>(classes.size());
+            for (final Class<?> cls : classes) {
+                if (cls == null) {
+                    continue;
+                }
+                tasks.add( pool.submit(new Runnable() {
+                    public void run() {
+                        long classStart = System.nanoTime();
+                        try {
+                            if (getCachedClassFields(cls, mode) != null) {
+                                alreadyCached.incrementAndGet();
+                            }
+                            ClassFields<?> cf = getClassFields(cls, mode);
+                            pin(cls, cf);
+                            buildTimes.put(cls.getName(), System.nanoTime() - classStart);
+                        } catch (RuntimeException e) {
+                            failures.put(cls.getName(), e);
+                        } catch (LinkageError e) {
+                            failures.put(cls.getName(), e);
+                        }
+                    }
+                }) );
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return new ClassDataPreloadReport(buildTimes, failures, alreadyCached.get(), System.nanoTime() - start);
+    }
+
     /**
      * Clears all cached objects
      */
     public void clear() {
-        getReflectionCache().clear(); 
+        StatsCounter s = stats;
+        if (s != null) {
+            s.evictions.add( size() );
+        }
+        clearCache();
     }
 
     /**
      * @return the size of the cache (number of cached {@link ClassFields} entries)
      */
     public int size() {
-        return getReflectionCache().size();
+        int size;
+        if (cacheType == CacheType.CLASS_VALUE) {
+            size = classValueCache.size();
+        } else {
+            Map<Class<?>, ?> cache = getReflectionCache();
+            if (cache == internalCache) {
+                size = internalCache.variantCount();
+            } else {
+                size = cache.size();
+            }
+        }
+        return size;
     }
 
     @Override
     public String toString() {
-        return "Cache::c="+ClassDataCacher.timesCreated+":s="+singleton+":fieldMode="+fieldFindMode+":lookups="+lookups+"::cache:hits="+cacheHits+":misses="+cacheMisses+":size="+size()+":singleton="+singleton;
+        return "Cache::c="+ClassDataCacher.timesCreated+":s="+singleton+":fieldMode="+fieldFindMode+"::cache:"+(stats == null ? "stats=off" : snapshot())+":size="+size()+":singleton="+singleton;
+    }
+
+    /**
+     * Map view of the internal cache (see {@link ClassDataCacher#getVariantCache()}),
+     * the map methods work with the class data for the current field find mode and include class field setting,
+     * {@link #entrySet()} is a snapshot of the cached classes so changes to it do not change the cache
+     */
+    protected class InternalCacheView extends AbstractMap<Class<?>, ClassFields<?>> {
+
+        /**
+         * @return the class data in a slot for a class OR null if it is not cached
+         */
+        public ClassFields<?> get(Class<?> cls, int slot) {
+            AtomicReferenceArray<ClassFields<?>> slots = getVariantCache().get(cls);
+            return (slots == null ? null : slots.get(slot));
+        }
+
+        /**
+         * Put the class data in a slot for a class
+         * @return the class data which was in the slot before OR null if none
+         */
+        public ClassFields<?> put(Class<?> cls, int slot, ClassFields<?> cf) {
+            ReferenceMap<Class<?>, AtomicReferenceArray<ClassFields<?>>> cache = getVariantCache();
+            AtomicReferenceArray<ClassFields<?>> slots = cache.get(cls);
+            if (slots == null) {
+                AtomicReferenceArray<ClassFields<?>> newSlots = new AtomicReferenceArray<ClassFields<?>>(SLOTS);
+                slots = cache.putIfAbsent(cls, newSlots);
+                if (slots == null) {
+                    slots = newSlots;
+                }
+            }
+            return slots.getAndSet(slot, cf);
+        }
+
+        /**
+         * @return the number of class data entries in all the slots of all the classes
+         */
+        public int variantCount() {
+            int count = 0;
+            for (AtomicReferenceArray<ClassFields<?>> slots : getVariantCache().values()) {
+                for (int i = 0; i < slots.length(); i++) {
+                    if (slots.get(i) != null) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        private int currentSlot() {
+            return slot(fieldFindMode, includeClassField);
+        }
+
+        @Override
+        public ClassFields<?> get(Object key) {
+            if (! (key instanceof Class)) {
+                return null;
+            }
+            return get((Class<?>) key, currentSlot());
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public ClassFields<?> put(Class<?> key, ClassFields<?> value) {
+            if (key == null || value == null) {
+                throw new IllegalArgumentException("key and value cannot be null");
+            }
+            return put(key, slot(value.getFieldFindMode(), value.isIncludeClassField()), value);
+        }
+
+        @Override
+        public ClassFields<?> remove(Object key) {
+            if (! (key instanceof Class)) {
+                return null;
+            }
+            AtomicReferenceArray<ClassFields<?>> slots = getVariantCache().get(key);
+            return (slots == null ? null : slots.getAndSet(currentSlot(), null));
+        }
+
+        @Override
+        public void clear() {
+            getVariantCache().clear();
+        }
+
+        @Override
+        public Set<Entry<Class<?>, ClassFields<?>>> entrySet() {
+            int slot = currentSlot();
+            Set<Entry<Class<?>, ClassFields<?>>> entries = new LinkedHashSet<Entry<Class<?>, ClassFields<?>>>();
+            for (Entry<Class<?>, AtomicReferenceArray<ClassFields<?>>> entry : getVariantCache().entrySet()) {
+                ClassFields<?> cf = entry.getValue().get(slot);
+                if (cf != null) {
+                    entries.add( new SimpleImmutableEntry<Class<?>, ClassFields<?>>(entry.getKey(), cf) );
+                }
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * Identifies a build of the class data (the class and the settings which change the class data)
+     */
+    protected static final class BuildKey {
+        private final Class<?> cls;
+        private final FieldFindMode mode;
+        private final boolean includeClassField;
+        public BuildKey(Class<?> cls, FieldFindMode mode, boolean includeClassField) {
+            this.cls = cls;
+            this.mode = mode;
+            this.includeClassField = includeClassField;
+        }
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (! (obj instanceof BuildKey)) {
+                return false;
+            }
+            BuildKey other = (BuildKey) obj;
+            return cls == other.cls && mode == other.mode && includeClassField == other.includeClassField;
+        }
+        @Override
+        public int hashCode() {
+            return (cls.hashCode() * 31 + mode.hashCode()) * 31 + (includeClassField ? 1 : 0);
+        }
+    }
+
+    /**
+     * Cache storage which uses a {@link ClassValue} to attach the class data to each class,
+     * there is a slot for each variant of the class data (see {@link ClassDataCacher#slot(FieldFindMode, boolean)})
+     */
+    @SuppressWarnings("unchecked")
+    protected static class ClassValueCache {
+        private volatile ClassValue<AtomicReferenceArray<ClassFields<?>>> values = makeValues();
+        private final AtomicInteger count = new AtomicInteger();
+
+        private static ClassValue<AtomicReferenceArray<ClassFields<?>>> makeValues() {
+            return new ClassValue<AtomicReferenceArray<ClassFields<?>>>() {
+                @Override
+                protected AtomicReferenceArray<ClassFields<?>> computeValue(Class<?> type) {
+                    return new AtomicReferenceArray<ClassFields<?>>(SLOTS);
+                }
+            };
+        }
+
+        public <T> ClassFields<T> get(Class<T> cls, int slot) {
+            return (ClassFields<T>) values.get(cls).get(slot);
+        }
+
+        public void put(Class<?> cls, int slot, ClassFields<?> cf) {
+            if (values.get(cls).getAndSet(slot, cf) == null) {
+                count.incrementAndGet();
+            }
+        }
+
+        /**
+         * Replaces the class value so all the old values are released
+         */
+        public void clear() {
+            values = makeValues();
+            count.set(0);
+        }
+
+        public int size() {
+            return count.get();
+        }
+    }
+
+    /**
+     * Holds the striped counters for the cache statistics (safe to update from many threads at once)
+     */
+    protected static class StatsCounter {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+        final LongAdder builds = new LongAdder();
+        final LongAdder buildTime = new LongAdder();
+        final LongAdder[] modeHits = makeAdders(FieldFindMode.values().length);
+        final LongAdder[] modeMisses = makeAdders(FieldFindMode.values().length);
+
+        private static LongAdder[] makeAdders(int count) {
+            LongAdder[] adders = new LongAdder[count];
+            for (int i = 0; i < count; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+
+        private static long[] sums(LongAdder[] adders) {
+            long[] sums = new long[adders.length];
+            for (int i = 0; i < adders.length; i++) {
+                sums[i] = adders[i].sum();
+            }
+            return sums;
+        }
+
+        public ClassDataCacheStats snapshot() {
+            long h = hits.sum();
+            long m = misses.sum();
+            return new ClassDataCacheStats(h + m, h, m, evictions.sum(), builds.sum(), buildTime.sum(), 
+                    sums(modeHits), sums(modeMisses));
+        }
     }
 
     // STATIC access
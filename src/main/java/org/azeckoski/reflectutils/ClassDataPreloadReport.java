@@ -0,0 +1,122 @@
+/**
+ * $Id$
+ * $URL$
+ * ClassDataPreloadReport.java - reflectutils - Oct 18, 2026 7:48:26 PM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Immutable report of the results of preloading class data,
+ * get this from {@link ClassDataCacher#preload(java.util.Collection, int)}
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public final class ClassDataPreloadReport {
+
+    private final Map<String, Long> buildTimes;
+    private final Map<String, Throwable> failures;
+    private final int alreadyCached;
+    private final long elapsedTimeNanos;
+
+    /**
+     * @param buildTimes the time in nanoseconds to get the class data for each class (class name -> nanos)
+     * @param failures the failures for classes which could not be loaded or analyzed (class name -> failure)
+     * @param alreadyCached the number of classes which were already in the cache
+     * @param elapsedTimeNanos the total (wall clock) time the preload took
+     */
+    public ClassDataPreloadReport(Map<String, Long> buildTimes, Map<String, Throwable> failures, int alreadyCached, long elapsedTimeNanos) {
+        // sort so the slowest classes are first
+        List<Entry<String, Long>> entries = new ArrayList<Entry<String, Long>>(buildTimes.entrySet());
+        Collections.sort(entries, new Comparator<Entry<String, Long>>() {
+            public int compare(Entry<String, Long> o1, Entry<String, Long> o2) {
+                return o2.getValue().compareTo(o1.getValue());
+            }
+        });
+        Map<String, Long> times = new LinkedHashMap<String, Long>(entries.size());
+        for (Entry<String, Long> entry : entries) {
+            times.put(entry.getKey(), entry.getValue());
+        }
+        this.buildTimes = Collections.unmodifiableMap(times);
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<String, Throwable>(failures));
+        this.alreadyCached = alreadyCached;
+        this.elapsedTimeNanos = elapsedTimeNanos;
+    }
+
+    /**
+     * @return the time in nanoseconds to get the class data for each class which was preloaded
+     * (class name -> nanos), ordered from the slowest to the fastest
+     */
+    public Map<String, Long> getBuildTimes() {
+        return buildTimes;
+    }
+
+    /**
+     * @return the classes which could not be loaded or analyzed (class name -> failure)
+     */
+    public Map<String, Throwable> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return the number of classes which were preloaded (does not include failures)
+     */
+    public int getClassCount() {
+        return buildTimes.size();
+    }
+
+    /**
+     * @return the number of the preloaded classes which were already in the cache
+     */
+    public int getAlreadyCached() {
+        return alreadyCached;
+    }
+
+    /**
+     * @return the total of the build times for all classes in nanoseconds
+     */
+    public long getTotalBuildTimeNanos() {
+        long total = 0;
+        for (Long time : buildTimes.values()) {
+            total += time;
+        }
+        return total;
+    }
+
+    /**
+     * @return the time the whole preload took in nanoseconds
+     */
+    public long getElapsedTimeNanos() {
+        return elapsedTimeNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("classes=").append(getClassCount()).append(":alreadyCached=").append(alreadyCached)
+            .append(":failures=").append(failures.size()).append(":elapsedMs=").append(elapsedTimeNanos / 1000000)
+            .append(":buildTimeMs=").append(getTotalBuildTimeNanos() / 1000000);
+        if (! buildTimes.isEmpty()) {
+            Entry<String, Long> slowest = buildTimes.entrySet().iterator().next();
+            sb.append(":slowest=").append(slowest.getKey()).append("(").append(slowest.getValue() / 1000).append("us)");
+        }
+        return sb.toString();
+    }
+
+}
@@ -29,6 +29,8 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * @param <T> the class type
@@ -166,6 +168,13 @@ public class ClassFields<T> {
         return fieldFindMode;
     }
 
+    /**
+     * @return true if the "class" field (the result of getClass()) is included as a read only field (cannot be changed)
+     */
+    public boolean isIncludeClassField() {
+        return includeClassField;
+    }
+
     /**
      * @return the list of fields we are explicitly skipping over
      */
@@ -184,18 +193,10 @@ public class ClassFields<T> {
     /**
      * Get the field names but filter the fields to return
      * @param filter (optional) indicates the fields to return the names for, can be null for defaults
-     * @return the list of field names
+     * @return the list of field names (this is a read only view, copy it to change it)
      */
     public List<String> getFieldNames(FieldsFilter filter) {
-        List<String> names = new ArrayList<String>();
-        for (Entry<String, ClassProperty> entry : namesToProperties.getEntries()) {
-            String name = entry.getKey();
-            ClassProperty cp = entry.getValue();
-            if ( isFieldInFilter(cp, filter) ) {
-                names.add(name);
-            }
-        }
-        return names;
+        return new PropertyNamesList(getSharedClassProperties(filter));
     }
 
     /**
@@ -209,19 +210,10 @@ public class ClassFields<T> {
     /**
      * Get the types for fields in a class but filter the fields to get the types for
      * @param filter (optional) indicates the fields to return the types for, can be null for defaults
-     * @return the map of fieldName -> field type
+     * @return the map of fieldName -> field type (this is a read only view, copy it to change it)
      */
     public Map<String, Class<?>> getFieldTypes(FieldsFilter filter) {
-        OrderedMap<String, Class<?>> fieldTypes = new ArrayOrderedMap<String, Class<?>>();
-        fieldTypes.setName(getStoredClass().getName());
-        for (Entry<String, ClassProperty> entry : namesToProperties.getEntries()) {
-            String name = entry.getKey();
-            ClassProperty cp = entry.getValue();
-            if ( isFieldInFilter(cp, filter) ) {
-                fieldTypes.put(name, cp.getType());
-            }
-        }
-        return fieldTypes;
+        return new PropertyTypesMap(getSharedClassProperties(filter), filter);
     }
 
     /**
@@ -236,13 +228,7 @@ public class ClassFields<T> {
      * @return the number of fields
      */
     public int size(FieldsFilter filter) {
-        int size;
-        if (FieldsFilter.ALL.equals(filter)) {
-            size = namesToProperties.size();
-        } else {
-            size = getFieldNames(filter).size();
-        }
-        return size;
+        return getSharedClassProperties(filter).length;
     }
 
     /**
@@ -277,15 +263,11 @@ public class ClassFields<T> {
      * @return true if this fieldName is valid, false otherwise
      */
     public boolean isFieldNameValid(String name, FieldsFilter filter) {
-        boolean valid = namesToProperties.containsKey(name);
-        if (valid) {
+        boolean valid = false;
+        ClassProperty cp = namesToProperties.get(name);
+        if (cp != null) {
             // the field is real so check to see if it is in this filter
-            ClassProperty cp = getAnyPropertyOrFail(name);
-            if ( isFieldInFilter(cp, filter) ) {
-                valid = true;
-            } else {
-                valid = false;
-            }
+            valid = isFieldInFilter(cp, filter);
         }
         return valid;
     }
@@ -309,7 +291,7 @@ public class ClassFields<T> {
      * @return the set of all annotations on the class this refers to
      */
     public Set<Annotation> getClassAnnotations() {
-        return new HashSet<Annotation>( classData.getAnnotations() );
+        return new HashSet<Annotation>( getClassData().getAnnotations() );
     }
 
     /**
@@ -325,7 +307,7 @@ public class ClassFields<T> {
             throw new IllegalArgumentException("annotationType must not be null");
         }
         T annote = null;
-        List<Annotation> annotations = classData.getAnnotations();
+        List<Annotation> annotations = getClassData().getAnnotations();
         for (Annotation annotation : annotations) {
             if (annotationType.equals(annotation.annotationType())) {
                 annote = (T) annotation;
@@ -425,6 +407,152 @@ public class ClassFields<T> {
         return cp;
     }
 
+    /**
+     * Gets the class properties for the fields in a filter (in the same order as {@link #getFieldNames(FieldsFilter)})
+     * 
+     * @param filter (optional) indicates the fields to return the properties for, can be null for defaults
+     * @return a copy of the array of class properties in this filter (empty if there are none)
+     */
+    public ClassProperty[] getClassProperties(FieldsFilter filter) {
+        return getSharedClassProperties(filter).clone();
+    }
+
+    /**
+     * INTERNAL USAGE: the array is only made once for each filter so this is the cheapest way to go through the fields<br/>
+     * WARNING: the array is shared so it must not be modified or handed out
+     * 
+     * @param filter (optional) indicates the fields to return the properties for, can be null for defaults
+     * @return the shared array of class properties in this filter (empty if there are none)
+     */
+    ClassProperty[] getSharedClassProperties(FieldsFilter filter) {
+        if (filter == null) {
+            filter = FieldsFilter.COMPLETE;
+        }
+        ClassProperty[] cps = filteredProperties.get(filter.ordinal());
+        if (cps == null) {
+            List<ClassProperty> l = new ArrayList<ClassProperty>(namesToProperties.size());
+            for (Entry<String, ClassProperty> entry : namesToProperties.getEntries()) {
+                ClassProperty cp = entry.getValue();
+                if ( isFieldInFilter(cp, filter) ) {
+                    l.add(cp);
+                }
+            }
+            cps = l.toArray(new ClassProperty[l.size()]);
+            filteredProperties.set(filter.ordinal(), cps);
+        }
+        return cps;
+    }
+
+    /**
+     * Reads the values of the fields in a filter from an object into a row,
+     * the values are in the same order as {@link #getFieldNames(FieldsFilter)} and that order does not change,
+     * nothing is allocated by this so the same row can be reused for any number of objects
+     * (e.g. get the names once and then read every object into the same row)<br/>
+     * Fields in the filter which cannot be read (e.g. write only fields) are set to null in the row
+     * 
+     * @param bean an object of the class these fields are for
+     * @param filter (optional) indicates the fields to read, can be null for defaults
+     * @param row the array to put the values into, must be at least as long as the number of fields in the filter
+     * @return the number of values put into the row (the number of fields in the filter)
+     * @throws IllegalArgumentException if the bean is not the right type or the row is too short
+     * @throws org.azeckoski.reflectutils.exceptions.FieldGetValueException if a field value cannot be read
+     */
+    public int readInto(Object bean, FieldsFilter filter, Object[] row) {
+        ClassProperty[] cps = getSharedClassProperties(filter);
+        checkRow(bean, row, cps);
+        for (int i = 0; i < cps.length; i++) {
+            ClassProperty cp = cps[i];
+            row[i] = isGettable(cp) ? cp.getValue(bean) : null;
+        }
+        return cps.length;
+    }
+
+    /**
+     * Writes the values in a row into the fields of an object, this is the inverse of {@link #readInto(Object, FieldsFilter, Object[])}
+     * so the values must be in the same order as {@link #getFieldNames(FieldsFilter)}, 
+     * the values are not converted so they must already be the correct types for the fields<br/>
+     * Fields in the filter which cannot be written (e.g. read only fields) are skipped
+     * 
+     * @param row the values to write, must be at least as long as the number of fields in the filter
+     * @param filter (optional) indicates the fields which are in the row, can be null for defaults
+     * @param bean an object of the class these fields are for
+     * @return the number of fields which were written
+     * @throws IllegalArgumentException if the bean is not the right type or the row is too short
+     * @throws org.azeckoski.reflectutils.exceptions.FieldSetValueException if a field value cannot be written
+     */
+    public int writeFrom(Object[] row, FieldsFilter filter, Object bean) {
+        ClassProperty[] cps = getSharedClassProperties(filter);
+        checkRow(bean, row, cps);
+        int written = 0;
+        for (int i = 0; i < cps.length; i++) {
+            ClassProperty cp = cps[i];
+            if (isSettable(cp)) {
+                cp.setValue(bean, row[i]);
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Writes the values in a row into the complete fields of an object,
+     * see {@link #writeFrom(Object[], FieldsFilter, Object)}
+     */
+    public int writeFrom(Object[] row, Object bean) {
+        return writeFrom(row, null, bean);
+    }
+
+    /**
+     * Reads the values of some fields from a set of objects of this class into columns (one array per field),
+     * primitive fields are read into primitive arrays without boxing the values,
+     * see {@link ColumnBatch} for details
+     * 
+     * @param beans the objects to read (all must be instances of the class these fields are for)
+     * @param names the names of the fields to read, any readable field can be used
+     * @param pool (optional) the pool to split the reading of large sets of objects across,
+     * null to read all the values in the current thread
+     * @return the columns of values (in the order of the objects)
+     * @throws IllegalArgumentException if the beans are not the right type
+     * @throws FieldnameNotFoundException if a name is not a readable field
+     * @throws org.azeckoski.reflectutils.exceptions.FieldGetValueException if a field value cannot be read
+     */
+    public ColumnBatch readColumns(Object[] beans, String[] names, ForkJoinPool pool) {
+        return ColumnBatch.read(this, beans, names, pool);
+    }
+
+    /**
+     * Reads the values of some fields from a list of objects of this class into columns in the current thread,
+     * see {@link #readColumns(Object[], String[], ForkJoinPool)}
+     */
+    public ColumnBatch readColumns(List<?> beans, String... names) {
+        if (beans == null) {
+            throw new IllegalArgumentException("beans cannot be null");
+        }
+        return ColumnBatch.read(this, beans.toArray(), names, null);
+    }
+
+    private void checkRow(Object bean, Object[] row, ClassProperty[] cps) {
+        if (! getStoredClass().isInstance(bean)) {
+            throw new IllegalArgumentException("bean ("+bean+") must be an instance of " + getStoredClass().getName());
+        }
+        if (row == null || row.length < cps.length) {
+            throw new IllegalArgumentException("row must have room for the " + cps.length + " fields in " + getStoredClass().getName());
+        }
+    }
+
+    /**
+     * SPECIAL METHOD: accesses the internal data<br/>
+     * Finds a field property object for any field (not limited to only complete fields),
+     * this is the same as {@link #getClassProperty(String)} but it does not fail when the name is not found,
+     * use this when the field may not exist (e.g. copying between different classes)
+     * 
+     * @param name the fieldName
+     * @return the Property object which holds information about a field OR null if this fieldName is invalid
+     */
+    public ClassProperty findClassProperty(String name) {
+        return namesToProperties.get(name);
+    }
+
     /**
      * SPECIAL METHOD: accesses the internal data<br/>
      * Gets all the cached class properties objects related to this class<br/>
@@ -438,13 +566,50 @@ public class ClassFields<T> {
         return this.namesToProperties;
     }
 
+    /**
+     * SPECIAL METHOD: controls the generated accessors<br/>
+     * Enables generation of direct accessors for the getters and setters of the properties in this class,
+     * the accessors are made lazily (see {@link ClassProperty#getAccessor()}) and are used by
+     * {@link FieldUtils} instead of reflection when they are available
+     * 
+     * @param useAccessors if true then accessors are generated when possible, if false then reflection is always used (default false)
+     */
+    public void setUseAccessors(boolean useAccessors) {
+        if (this.useAccessors != useAccessors) {
+            for (ClassProperty cp : namesToProperties.values()) {
+                cp.setAccessorEnabled(useAccessors);
+            }
+            this.useAccessors = useAccessors;
+        }
+    }
+    /**
+     * @return true if generated accessors are enabled for this class
+     */
+    public boolean isUseAccessors() {
+        return useAccessors;
+    }
+
     /**
      * SPECIAL METHOD: accesses the internal data<br/>
      * Gets the internal cache object for the class which holds all fields, methods, constructors, and annotations
      * @return the class data cache object
      */
     public ClassData<T> getClassData() {
-        return this.classData;
+        ClassData<T> cd = this.classData;
+        if (cd == null) {
+            // precompiled class fields only make the class data if it is requested
+            cd = new ClassData<T>(fieldClass);
+            this.classData = cd;
+        }
+        return cd;
+    }
+
+    /**
+     * @return true if this was made from build time metadata (see {@link #fromMetadata(ClassMetadataProvider)})
+     * instead of analyzing the class with reflection
+     */
+    public boolean isPrecompiled() {
+        return precompiled;
     }
 
 
@@ -465,6 +630,10 @@ public class ClassFields<T> {
      * if true then include static fields, otherwise skip them (default is to skip)
      */
     private boolean includeStaticFields = false;
+    /**
+     * if true then the properties will generate accessors for direct access (instead of reflection) when possible
+     */
+    private boolean useAccessors = false;
     /**
      * includes all the field names which should be ignored for reflection
      */
@@ -473,9 +642,12 @@ public class ClassFields<T> {
      * includes all the field names which should be marked as transient
      */
     private final Set<String> transientFieldNames = new HashSet<String>();
+    private boolean precompiled = false;
     // WARNING: all these things can hold open a ClassLoader
-    private final ClassData<T> classData;
+    private final Class<T> fieldClass;
+    private volatile ClassData<T> classData;
     private final OrderedMap<String, ClassProperty> namesToProperties; // this contains all properties data (includes partials)
+    private final AtomicReferenceArray<ClassProperty[]> filteredProperties = new AtomicReferenceArray<ClassProperty[]>(FieldsFilter.values().length); // filter ordinal -> properties in that filter
 
     // PUBLIC constructors
 
@@ -505,6 +677,7 @@ public class ClassFields<T> {
             throw new IllegalArgumentException("Getter and setter methods must be the same length");
         }
         // set the field class
+        this.fieldClass = fieldClass;
         classData = new ClassData<T>(fieldClass);
         fieldFindMode = FieldFindMode.HYBRID;
         // set the properties
@@ -542,6 +715,7 @@ public class ClassFields<T> {
         if (fieldClass == null || descriptors == null || publicFields == null) {
             throw new IllegalArgumentException("None of the params can be null");
         }
+        this.fieldClass = fieldClass;
         classData = new ClassData<T>(fieldClass);
         fieldFindMode = FieldFindMode.HYBRID;
         namesToProperties = new ArrayOrderedMap<String, ClassProperty>(descriptors.length + publicFields.length);
@@ -608,6 +782,7 @@ public class ClassFields<T> {
         if (fieldClass == null) {
             throw new IllegalArgumentException("field class cannot be null");
         }
+        this.fieldClass = fieldClass;
         classData = new ClassData<T>(fieldClass);
         fieldFindMode = findMode;
         includeClassField = includeClassFields;
@@ -706,6 +881,40 @@ public class ClassFields<T> {
         populateAnnotationsFields();
     }
 
+    /**
+     * Make the class fields for a class which was analyzed at build time, this does not use reflection
+     * (the {@link ClassData} and annotations are only looked up if they are requested),
+     * this always uses the {@link FieldFindMode#HYBRID} mode and does not include the class field
+     * 
+     * @param metadata the build time metadata for the class (see {@link ClassMetadataProvider})
+     * @return the class fields made from the metadata
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ClassFields<T> fromMetadata(ClassMetadataProvider metadata) {
+        if (metadata == null) {
+            throw new IllegalArgumentException("metadata cannot be null");
+        }
+        Class<T> fieldClass = (Class<T>) metadata.getType();
+        if (fieldClass == null) {
+            throw new IllegalArgumentException("metadata must have a type: " + metadata);
+        }
+        return new ClassFields<T>(metadata, fieldClass);
+    }
+
+    /**
+     * Constructor for {@link #fromMetadata(ClassMetadataProvider)}
+     */
+    private ClassFields(ClassMetadataProvider metadata, Class<T> fieldClass) {
+        this.fieldClass = fieldClass;
+        fieldFindMode = FieldFindMode.HYBRID;
+        precompiled = true;
+        PropertyMetadata[] properties = metadata.getProperties();
+        namesToProperties = new ArrayOrderedMap<String, ClassProperty>(properties.length);
+        for (PropertyMetadata pm : properties) {
+            namesToProperties.put(pm.getName(), new ClassProperty.PrecompiledProperty(fieldClass, pm));
+        }
+    }
+
     // PRIVATE analyzer methods
 
     /**
@@ -715,13 +924,13 @@ public class ClassFields<T> {
     private ClassProperty getAnyPropertyOrFail(String name) {
         ClassProperty cp = namesToProperties.get(name);
         if (cp == null) {
-            throw new FieldnameNotFoundException(name);
+            throw new FieldnameNotFoundException("Could not find fieldName ("+name+") in class (" + fieldClass.getName() + ")", name, null);
         }
         return cp;
     }
 
     private Class<T> getStoredClass() {
-        return classData.getType();
+        return fieldClass;
     }
 
     /**
@@ -1028,53 +1237,126 @@ public class ClassFields<T> {
             int paramCount = method.getParameterTypes().length;
             // only include annotations on methods which *might* be fields (no args, 1 arg, or 2 args for the special ones)
             if (paramCount <= 2) {
-                try {
-                    String name = makeFieldNameFromMethod(method.getName());
-                    ClassProperty cp = getAnyPropertyOrFail(name);
+                String name = makeFieldNameFromMethod(method.getName());
+                ClassProperty cp = findClassProperty(name);
+                if (cp != null) {
                     Annotation[] annotations = method.getAnnotations();
                     for (Annotation annotation : annotations) {
                         if (annotation != null) cp.addAnnotation(annotation);
                     }
-                } catch (FieldnameNotFoundException e) {
-                    // nothing to do but keep going
                 }
             }
         }
         // get the annotations from all class fields
         for (Field field : classData.getFields()) {
-            try {
-                String fieldName = field.getName();
-                if (! includeStaticFields && isStatic(field)) {
-                    namesToProperties.remove(fieldName); // as a final check, take this out if it is in there
-                    continue; // skip statics
-                }
-                if (ignoredFieldNames.contains(fieldName)) {
-                    namesToProperties.remove(fieldName); // as a final check, take this out if it is in there
-                    continue; // skip ignored names
-                }
-                ClassProperty cp = getAnyPropertyOrFail(fieldName);
-                if (cp.getField() == null) {
-                    cp.setField(field); // ensure there is a field set for all methods
-                }
-                Annotation[] annotations = field.getAnnotations();
-                for (Annotation annotation : annotations) {
-                    if (annotation != null) cp.addAnnotation(annotation);
-                }
-            } catch (FieldnameNotFoundException e) {
-                // nothing to do but keep going
+            String fieldName = field.getName();
+            if (! includeStaticFields && isStatic(field)) {
+                namesToProperties.remove(fieldName); // as a final check, take this out if it is in there
+                continue; // skip statics
+            }
+            if (ignoredFieldNames.contains(fieldName)) {
+                namesToProperties.remove(fieldName); // as a final check, take this out if it is in there
+                continue; // skip ignored names
+            }
+            ClassProperty cp = findClassProperty(fieldName);
+            if (cp == null) {
+                continue; // nothing to do but keep going
+            }
+            if (cp.getField() == null) {
+                cp.setField(field); // ensure there is a field set for all methods
+            }
+            Annotation[] annotations = field.getAnnotations();
+            for (Annotation annotation : annotations) {
+                if (annotation != null) cp.addAnnotation(annotation);
             }
         }
         // now mark the transient fields as such
         for (String fieldName : transientFieldNames) {
-            try {
-                ClassProperty cp = getAnyPropertyOrFail(fieldName);
+            ClassProperty cp = findClassProperty(fieldName);
+            if (cp != null) {
                 cp.transientField = true;
-            } catch (FieldnameNotFoundException e) {
-                // nothing to do but keep going
             }
         }
     }
 
+    /**
+     * Read only list view of the names of a set of class properties
+     */
+    private static final class PropertyNamesList extends AbstractList<String> implements RandomAccess {
+        private final ClassProperty[] cps;
+        PropertyNamesList(ClassProperty[] cps) {
+            this.cps = cps;
+        }
+        @Override
+        public String get(int index) {
+            return cps[index].getFieldName();
+        }
+        @Override
+        public int size() {
+            return cps.length;
+        }
+    }
+
+    /**
+     * Read only map view of the names to types of a set of class properties (in the order of the properties)
+     */
+    private final class PropertyTypesMap extends AbstractMap<String, Class<?>> {
+        private final ClassProperty[] cps;
+        private final FieldsFilter filter;
+        PropertyTypesMap(ClassProperty[] cps, FieldsFilter filter) {
+            this.cps = cps;
+            this.filter = filter;
+        }
+        @Override
+        public Class<?> get(Object key) {
+            ClassProperty cp = getFilteredProperty(key);
+            return cp == null ? null : cp.getType();
+        }
+        @Override
+        public boolean containsKey(Object key) {
+            return getFilteredProperty(key) != null;
+        }
+        @Override
+        public int size() {
+            return cps.length;
+        }
+        private ClassProperty getFilteredProperty(Object key) {
+            ClassProperty cp = namesToProperties.get(key);
+            if (cp != null && ! isFieldInFilter(cp, filter)) {
+                cp = null;
+            }
+            return cp;
+        }
+        @Override
+        public Set<Entry<String, Class<?>>> entrySet() {
+            return new AbstractSet<Entry<String, Class<?>>>() {
+                @Override
+                public Iterator<Entry<String, Class<?>>> iterator() {
+                    return new Iterator<Entry<String, Class<?>>>() {
+                        private int index = 0;
+                        public boolean hasNext() {
+                            return index < cps.length;
+                        }
+                        public Entry<String, Class<?>> next() {
+                            if (index >= cps.length) {
+                                throw new NoSuchElementException();
+                            }
+                            ClassProperty cp = cps[index++];
+                            return new AbstractMap.SimpleImmutableEntry<String, Class<?>>(cp.getFieldName(), cp.getType());
+                        }
+                        public void remove() {
+                            throw new UnsupportedOperationException("field types cannot be modified");
+                        }
+                    };
+                }
+                @Override
+                public int size() {
+                    return cps.length;
+                }
+            };
+        }
+    }
+
     @Override
     public String toString() {
         return "(" + getStoredClass().getName() + "):mode="+fieldFindMode.name()+":" + getFieldNames(FieldsFilter.ALL);
@@ -14,9 +14,21 @@
 
 package org.azeckoski.reflectutils;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Enumeration;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 /**
  * Utilities to help with operations that deal in {@link ClassLoader} and {@link Class}
@@ -60,6 +72,91 @@ public class ClassLoaderUtils {
         return cl;
     }
 
+    /**
+     * Finds the names of all the classes in a package (and the packages under it) which are visible
+     * to the classloader, this looks in the directories and jar files for the package,
+     * anonymous and local classes and package-info are skipped<br/>
+     * NOTE: this does not load the classes
+     * 
+     * @param packageName a package name (e.g. org.azeckoski.reflectutils)
+     * @param cl the classloader to look in, null to use the current classloader (see {@link #getCurrentClassLoader()})
+     * @return the sorted list of the fully qualified class names (empty if none found)
+     * @throws IllegalArgumentException if the package name is null or empty
+     * @throws RuntimeException if the package locations cannot be read
+     */
+    public static List<String> getClassNamesInPackage(String packageName, ClassLoader cl) {
+        if (packageName == null || "".equals(packageName)) {
+            throw new IllegalArgumentException("packageName cannot be null or empty");
+        }
+        if (cl == null) {
+            cl = getCurrentClassLoader();
+        }
+        String path = packageName.replace('.', '/');
+        Set<String> names = new TreeSet<String>();
+        try {
+            Enumeration<URL> urls = cl.getResources(path);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                if ("file".equals(url.getProtocol())) {
+                    findClassNames(new File(new URI(url.toString())), packageName, names);
+                } else {
+                    URLConnection conn = url.openConnection();
+                    if (conn instanceof JarURLConnection) {
+                        conn.setUseCaches(false);
+                        JarFile jar = ((JarURLConnection) conn).getJarFile();
+                        try {
+                            Enumeration<JarEntry> entries = jar.entries();
+                            while (entries.hasMoreElements()) {
+                                String entryName = entries.nextElement().getName();
+                                if (entryName.startsWith(path + "/")) {
+                                    addClassName(entryName.replace('/', '.'), names);
+                                }
+                            }
+                        } finally {
+                            jar.close();
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failure reading the locations of package ("+packageName+"): " + e.getMessage(), e);
+        } catch (URISyntaxException e) {
+            throw new RuntimeException("Invalid location for package ("+packageName+"): " + e.getMessage(), e);
+        }
+        return new ArrayList<String>(names);
+    }
+
+    private static void findClassNames(File dir, String packageName, Set<String> names) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    findClassNames(file, packageName + "." + file.getName(), names);
+                } else {
+                    addClassName(packageName + "." + file.getName(), names);
+                }
+            }
+        }
+    }
+
+    private static final String CLASS_SUFFIX = ".class";
+    /**
+     * @param fileName the name of the class file with . instead of / (e.g. org.azeckoski.Thing.class)
+     */
+    private static void addClassName(String fileName, Set<String> names) {
+        if (fileName.endsWith(CLASS_SUFFIX)) {
+            String name = fileName.substring(0, fileName.length() - CLASS_SUFFIX.length());
+            if (name.endsWith("package-info") || name.endsWith("module-info")) {
+                return;
+            }
+            int dollar = name.lastIndexOf('$');
+            if (dollar >= 0 && dollar < name.length() - 1 
+                    && Character.isDigit(name.charAt(dollar + 1))) {
+                return; // anonymous or local class
+            }
+            names.add(name);
+        }
+    }
 
     /**
      * Returns a list of all superclasses and implemented interfaces by the supplied class,
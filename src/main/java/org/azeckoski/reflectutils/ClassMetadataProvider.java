@@ -0,0 +1,50 @@
+/**
+ * $Id$
+ * $URL$
+ * ClassMetadataProvider.java - reflectutils - Oct 18, 2026 6:05:40 PM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils;
+
+import java.util.ServiceLoader;
+
+import org.azeckoski.reflectutils.annotations.ReflectPrecompiled;
+
+/**
+ * Provides the field metadata for a class which was generated at build time
+ * (by the {@link org.azeckoski.reflectutils.processor.ReflectMetadataProcessor} for classes marked
+ * with {@link ReflectPrecompiled}) so that the class does not have to be analyzed with reflection<br/>
+ * The {@link ClassDataCacher} finds the providers using the {@link ServiceLoader}
+ * (META-INF/services/org.azeckoski.reflectutils.ClassMetadataProvider) and uses them instead
+ * of reflection for the default field find mode ({@link ClassFields.FieldFindMode#HYBRID})<br/>
+ * Implementations must have a public no argument constructor
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public interface ClassMetadataProvider {
+
+    /**
+     * @return the fully qualified (binary) name of the class this provides the metadata for
+     */
+    public String getTypeName();
+
+    /**
+     * @return the class this provides the metadata for
+     */
+    public Class<?> getType();
+
+    /**
+     * @return the metadata for all the properties (fields) of the class in field order,
+     * this must match the properties found by reflection in the {@link ClassFields.FieldFindMode#HYBRID} mode
+     */
+    public PropertyMetadata[] getProperties();
+
+}
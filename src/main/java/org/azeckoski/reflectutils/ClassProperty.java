@@ -24,6 +24,8 @@ import java.util.List;
 import java.util.Map;
 
 import org.azeckoski.reflectutils.annotations.ReflectTransient;
+import org.azeckoski.reflectutils.exceptions.FieldGetValueException;
+import org.azeckoski.reflectutils.exceptions.FieldSetValueException;
 import org.azeckoski.reflectutils.map.ArrayOrderedMap;
 import org.azeckoski.reflectutils.map.OrderedMap;
 
@@ -56,6 +58,11 @@ public class ClassProperty {
     protected boolean indexed = false;
     protected boolean arrayed = false;
 
+    protected boolean accessorEnabled = false;
+    private volatile boolean accessorChecked = false;
+    private volatile PropertyAccessor accessor;
+    private volatile PropertyHandles handles;
+
     private OrderedMap<Class<? extends Annotation>, Annotation> propertyAnnotations; // contains all annotations on this property
     protected void addAnnotation(Annotation annotation) {
         if (annotation != null) {
@@ -136,7 +143,7 @@ public class ClassProperty {
      * @return true if there is a getter and setter method available for this field (may not be public)
      */
     public boolean isProperty() {
-        return (getGetter() != null && getSetter() != null);
+        return (hasGetter() && hasSetter());
     }
     /**
      * @return true if the associated field object is set
@@ -160,13 +167,13 @@ public class ClassProperty {
      * @return true if this field value can be retrieved
      */
     public boolean isGettable() {
-        return (isField() || getGetter() != null);
+        return (isField() || hasGetter());
     }
     /**
      * @return true if this field value can be retrieved and is public (either the getter or the field)
      */
     public boolean isPublicGettable() {
-        return (isPublicField() || getGetter() != null);
+        return (isPublicField() || hasGetter());
     }
     /**
      * @return true if this field value can be set
@@ -174,7 +181,7 @@ public class ClassProperty {
     public boolean isSettable() {
         boolean settable = false;
         if (! finalField) { // no setting finals
-            if (isField() || getSetter() != null) {
+            if (isField() || hasSetter()) {
                 settable = true;
             }
         }
@@ -186,7 +193,7 @@ public class ClassProperty {
     public boolean isPublicSettable() {
         boolean settable = false;
         if (! finalField) { // no setting finals
-            if (isPublicField() || getSetter() != null) {
+            if (isPublicField() || hasSetter()) {
                 settable = true;
             }
         }
@@ -198,6 +205,24 @@ public class ClassProperty {
     public String getFieldName() {
         return fieldName;
     }
+    /**
+     * @return true if there is a getter method for this field
+     */
+    protected boolean hasGetter() {
+        return getGetter() != null;
+    }
+    /**
+     * @return true if there is a setter method for this field
+     */
+    protected boolean hasSetter() {
+        return getSetter() != null;
+    }
+    /**
+     * @return true if this property is only a field (no getter or setter methods), the field may not be public
+     */
+    protected boolean isFieldOnly() {
+        return getGetter() == null && getSetter() == null && getField() != null;
+    }
     public Method getGetter() {
         return getter;
     }
@@ -233,6 +258,21 @@ public class ClassProperty {
     }
     protected void setType(Class<?> type) {
         this.type = type;
+        indexed = false;
+        arrayed = false;
+        mapped = false;
+        if (type != null) {
+            if (type.isArray()) {
+                indexed = true;
+                arrayed = true;
+            }
+            if (Map.class.isAssignableFrom(type)) {
+                mapped = true;
+            }
+            if (List.class.isAssignableFrom(type)) {
+                indexed = true;
+            }
+        }
     }
     /**
      * @return true if this field is final
@@ -309,27 +349,149 @@ public class ClassProperty {
             Field f = getField();
             setType( f.getType() );
         }
-        indexed = false;
-        arrayed = false;
-        mapped = false;
-        Class<?> type = getType();
-        if (type != null) {
-            if (type.isArray()) {
-                indexed = true;
-                arrayed = true;
+    }
+    /**
+     * Gets the generated accessor for this property (made on first use),
+     * this is only available when accessors are enabled for the {@link ClassFields} this came from
+     * and the getter and/or setter are public methods that can be linked to directly
+     * 
+     * @return the accessor for the getter/setter OR null if there is none (use reflection instead)
+     */
+    public PropertyAccessor getAccessor() {
+        if (! accessorChecked) {
+            if (accessorEnabled) {
+                accessor = PropertyAccessorFactory.makeAccessor(this);
             }
-            if (Map.class.isAssignableFrom(type)) {
-                mapped = true;
+            accessorChecked = true;
+        }
+        return accessor;
+    }
+    /**
+     * Gets the method handles for getting and setting this property (made on first use),
+     * these are used instead of reflection when there is no generated accessor
+     * 
+     * @return the holder for the handles (never null but the handles in it may be null)
+     */
+    public PropertyHandles getHandles() {
+        PropertyHandles h = handles;
+        if (h == null) {
+            h = PropertyHandles.make(this);
+            handles = h;
+        }
+        return h;
+    }
+    /**
+     * Gets the value of this property from an object using the fastest access available
+     * (generated accessor, method handle, public field, getter method, or the field if there are no methods),
+     * the object must be an instance of the class this property came from
+     * 
+     * @param obj any object which has this property
+     * @return the value of the property
+     * @throws FieldGetValueException if the value cannot be retrieved
+     */
+    public Object getValue(Object obj) {
+        Object value;
+        PropertyAccessor accessor = getAccessor();
+        if (accessor != null && accessor.isReadable()) {
+            // generated accessor for the getter
+            try {
+                value = accessor.getValue(obj);
+            } catch (Exception e) {
+                // catching the general exception is correct here, translate the exception
+                throw new FieldGetValueException("Getter method failure getting value for name ("+fieldName+") from: " + obj, fieldName, obj, e);
             }
-            if (List.class.isAssignableFrom(type)) {
-                indexed = true;
+        } else if (getHandles().isReadable()) {
+            // method handle for the field or getter
+            try {
+                value = getHandles().getValue(obj);
+            } catch (Throwable e) {
+                // catching throwable is correct here (same as the reflection invoke wrapping), translate the exception
+                throw new FieldGetValueException("Handle failure getting value for name ("+fieldName+") from: " + obj, fieldName, obj, e);
+            }
+        } else if (isPublicField() || isFieldOnly()) {
+            Field f = getField();
+            try {
+                value = f.get(obj);
+            } catch (Exception e) {
+                // catching the general exception is correct here, translate the exception
+                throw new FieldGetValueException("Field get failure getting value for name ("+fieldName+") from: " + obj, fieldName, obj, e);
+            }
+        } else {
+            // must be a property then
+            Method method = getGetter();
+            try {
+                //noinspection RedundantArrayCreation
+                value = method.invoke(obj, new Object[0]);
+            } catch (Exception e) {
+                // catching the general exception is correct here, translate the exception
+                throw new FieldGetValueException("Getter method failure getting value for name ("+fieldName+") from: " + obj, fieldName, obj, e);
+            }
+        }
+        return value;
+    }
+    /**
+     * Sets the value of this property on an object using the fastest access available
+     * (generated accessor, method handle, public field, setter method, or the field if there are no methods),
+     * the value is not converted so it must already be the right type for the property
+     * 
+     * @param obj any object which has this property
+     * @param value the value to set
+     * @throws FieldSetValueException if the value cannot be set
+     */
+    public void setValue(Object obj, Object value) {
+        PropertyAccessor accessor = getAccessor();
+        if (accessor != null && accessor.isWriteable()) {
+            // generated accessor for the setter
+            try {
+                accessor.setValue(obj, value);
+            } catch (Exception e) {
+                // catching the general exception is correct here, translate the exception
+                throw new FieldSetValueException("Setter method failure setting value ("+value+") for name ("+fieldName+") on: " + obj, 
+                        fieldName, value, obj, e);
+            }
+        } else if (getHandles().isWriteable()) {
+            // method handle for the field or setter
+            try {
+                getHandles().setValue(obj, value);
+            } catch (Throwable e) {
+                // catching throwable is correct here (same as the reflection invoke wrapping), translate the exception
+                throw new FieldSetValueException("Handle failure setting value ("+value+") for name ("+fieldName+") on: " + obj, 
+                        fieldName, value, obj, e);
+            }
+        } else if (isPublicField() || isFieldOnly()) {
+            Field f = getField();
+            try {
+                f.set(obj, value);
+            } catch (Exception e) {
+                // catching the general exception is correct here, translate the exception
+                throw new FieldSetValueException("Field set failure setting value ("+value+") for name ("+fieldName+") on: " + obj, 
+                        fieldName, value, obj, e);
+            }
+        } else {
+            // must be a property then
+            Method method = getSetter();
+            try {
+                //noinspection RedundantArrayCreation
+                method.invoke(obj, new Object[] {value});
+            } catch (Exception e) {
+                throw new FieldSetValueException("Setter method failure setting value ("+value+") for name ("+fieldName+") on: " + obj, 
+                        fieldName, value, obj, e);
             }
         }
     }
+    /**
+     * Turns generated accessors on or off for this property, clears any existing accessor
+     * @param enabled if true then {@link #getAccessor()} will attempt to generate an accessor
+     */
+    protected void setAccessorEnabled(boolean enabled) {
+        accessorEnabled = enabled;
+        accessor = null;
+        accessorChecked = false;
+    }
     @Override
     public String toString() {
         return fieldName + "(" + (type == null ? "" : type.getSimpleName()) + ")["
-        +(field == null?"-":"F")+(getter == null?"-":"G")+(setter == null?"-":"S")+":"
+        +(isField()?"F":"-")+(hasGetter()?"G":"-")+(hasSetter()?"S":"-")+":"
         +(mapped?"M":"-")+(indexed?"I":"-")+(arrayed?"A":"-")+":"
         +(finalField?"F":"-")+(transientField?"T":"-")+(publicField?"P":"-")+(staticField?"S":"-")+"]";
     }
@@ -450,4 +612,165 @@ public class ClassProperty {
         }
     }
 
+    /**
+     * Version which is made from the build time metadata ({@link PropertyMetadata}) instead of reflection,
+     * the getter, setter, and field (and the annotations on them) are only looked up when they are requested
+     * and the generated accessor from the metadata is used to get and set the value
+     */
+    public static class PrecompiledProperty extends ClassProperty {
+        private final Class<?> ownerClass;
+        private final PropertyMetadata metadata;
+        private volatile boolean membersResolved = false;
+        private volatile boolean annotationsResolved = false;
+
+        /**
+         * @param ownerClass the class this property is part of
+         * @param metadata the build time metadata for this property
+         */
+        public PrecompiledProperty(Class<?> ownerClass, PropertyMetadata metadata) {
+            super(metadata.getName());
+            this.ownerClass = ownerClass;
+            this.metadata = metadata;
+            setType(metadata.getType());
+            int modifiers = metadata.getFieldModifiers();
+            if (modifiers >= 0) {
+                fieldModifiers = modifiers;
+                finalField = Modifier.isFinal(modifiers);
+                publicField = Modifier.isPublic(modifiers);
+                staticField = Modifier.isStatic(modifiers);
+            }
+            transientField = metadata.isTransient();
+        }
+
+        /**
+         * @return the build time metadata this property was made from
+         */
+        public PropertyMetadata getMetadata() {
+            return metadata;
+        }
+
+        @Override
+        protected boolean hasGetter() {
+            return metadata.getGetterName() != null;
+        }
+        @Override
+        protected boolean hasSetter() {
+            return metadata.getSetterName() != null;
+        }
+        @Override
+        public boolean isField() {
+            return metadata.isField();
+        }
+        @Override
+        public Method getGetter() {
+            resolveMembers();
+            return super.getGetter();
+        }
+        @Override
+        public Method getSetter() {
+            resolveMembers();
+            return super.getSetter();
+        }
+        @Override
+        public Field getField() {
+            resolveMembers();
+            return super.getField();
+        }
+        @Override
+        public PropertyAccessor getAccessor() {
+            return accessorEnabled ? metadata.getAccessor() : null;
+        }
+        @Override
+        protected Collection<Annotation> getAnnotationsCollection() {
+            resolveAnnotations();
+            return super.getAnnotationsCollection();
+        }
+        @Override
+        public <T extends Annotation> T getAnnotation(Class<T> annotationType) {
+            resolveAnnotations();
+            return super.getAnnotation(annotationType);
+        }
+
+        /**
+         * Looks up the getter, setter, and field objects (only done the first time they are needed)
+         */
+        private synchronized void resolveMembers() {
+            if (membersResolved) {
+                return;
+            }
+            ClassProperty cp = this;
+            try {
+                if (metadata.getGetterName() != null) {
+                    cp.getter = ownerClass.getMethod(metadata.getGetterName());
+                }
+                if (metadata.getSetterName() != null) {
+                    cp.setter = ownerClass.getMethod(metadata.getSetterName(), metadata.getSetterType());
+                }
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("The build time metadata for " + ownerClass 
+                        + " does not match the class (it may need to be regenerated): " + metadata, e);
+            }
+            if (metadata.isField()) {
+                cp.field = findField(ownerClass);
+            }
+            membersResolved = true;
+        }
+
+        /**
+         * Finds the field with the property name and the same modifiers as the metadata,
+         * checks the class, then the interfaces, and then the superclasses (same order as {@link ClassData})
+         */
+        private Field findField(Class<?> type) {
+            for (Field f : type.getDeclaredFields()) {
+                if (f.getName().equals(getFieldName()) 
+                        && f.getModifiers() == metadata.getFieldModifiers()) {
+                    if (! Modifier.isPublic(f.getModifiers())) {
+                        try {
+                            f.setAccessible(true);
+                        } catch (SecurityException e) {
+                            // oh well, this cannot be used directly then
+                        }
+                    }
+                    return f;
+                }
+            }
+            for (Class<?> iface : type.getInterfaces()) {
+                Field f = findField(iface);
+                if (f != null) {
+                    return f;
+                }
+            }
+            Class<?> superClass = type.getSuperclass();
+            return superClass == null ? null : findField(superClass);
+        }
+
+        /**
+         * Gets the annotations from the getter, setter, and field (only done the first time they are needed)
+         */
+        private synchronized void resolveAnnotations() {
+            if (annotationsResolved) {
+                return;
+            }
+            Method m = getGetter();
+            if (m != null) {
+                for (Annotation annotation : m.getAnnotations()) {
+                    addAnnotation(annotation);
+                }
+            }
+            m = getSetter();
+            if (m != null) {
+                for (Annotation annotation : m.getAnnotations()) {
+                    addAnnotation(annotation);
+                }
+            }
+            Field f = getField();
+            if (f != null) {
+                for (Annotation annotation : f.getAnnotations()) {
+                    addAnnotation(annotation);
+                }
+            }
+            annotationsResolved = true;
+        }
+    }
+
 }
@@ -0,0 +1,306 @@
+/**
+ * $Id$
+ * $URL$
+ * ColumnBatch.java - reflectutils - Oct 18, 2026 9:12:37 PM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.azeckoski.reflectutils.exceptions.FieldGetValueException;
+import org.azeckoski.reflectutils.exceptions.FieldnameNotFoundException;
+
+/**
+ * Holds the values of some fields from a set of objects of the same class as columns (one array per field),
+ * primitive fields are held in primitive arrays (int[], long[], double[], boolean[]) and are read without boxing
+ * and all other fields are held in Object[]<br/>
+ * Smaller primitive types are widened (byte/short/char go into int[] and float goes into double[]),
+ * get this from {@link ClassFields#readColumns(Object[], String[], ForkJoinPool)} or
+ * {@link FieldUtils#getFieldColumns(List, ForkJoinPool, String...)}
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public final class ColumnBatch {
+
+    /**
+     * The minimum number of rows for each task when the columns are read in parallel
+     */
+    public static final int MIN_ROWS_PER_TASK = 1024;
+
+    private final Class<?> beanClass;
+    private final List<String> names;
+    private final Class<?>[] types;
+    private final Object[] columns;
+    private final int rowCount;
+
+    private ColumnBatch(Class<?> beanClass, String[] names, Class<?>[] types, Object[] columns, int rowCount) {
+        this.beanClass = beanClass;
+        this.names = Collections.unmodifiableList(Arrays.asList(names));
+        this.types = types;
+        this.columns = columns;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * @return the class of the objects the columns were read from
+     */
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    /**
+     * @return the names of the fields in the order of the columns
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * @return the number of rows (objects) in every column
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @param name the field name
+     * @return the type of the values in the column (int.class, long.class, double.class, boolean.class, or Object.class)
+     * @throws FieldnameNotFoundException if there is no column for this name
+     */
+    public Class<?> getColumnType(String name) {
+        return types[indexOf(name)];
+    }
+
+    /**
+     * @param name the field name
+     * @return the column array for this field (int[], long[], double[], boolean[], or Object[]),
+     * this is not a copy so changes to it will change the column
+     * @throws FieldnameNotFoundException if there is no column for this name
+     */
+    public Object getColumn(String name) {
+        return columns[indexOf(name)];
+    }
+
+    /**
+     * @param name the field name
+     * @return the column array for an int (or byte, short, char) field
+     * @throws FieldnameNotFoundException if there is no column for this name
+     * @throws IllegalArgumentException if the column is not an int column
+     */
+    public int[] getIntColumn(String name) {
+        return (int[]) getTypedColumn(name, int.class);
+    }
+
+    /**
+     * @param name the field name
+     * @return the column array for a long field
+     * @throws FieldnameNotFoundException if there is no column for this name
+     * @throws IllegalArgumentException if the column is not a long column
+     */
+    public long[] getLongColumn(String name) {
+        return (long[]) getTypedColumn(name, long.class);
+    }
+
+    /**
+     * @param name the field name
+     * @return the column array for a double (or float) field
+     * @throws FieldnameNotFoundException if there is no column for this name
+     * @throws IllegalArgumentException if the column is not a double column
+     */
+    public double[] getDoubleColumn(String name) {
+        return (double[]) getTypedColumn(name, double.class);
+    }
+
+    /**
+     * @param name the field name
+     * @return the column array for a boolean field
+     * @throws FieldnameNotFoundException if there is no column for this name
+     * @throws IllegalArgumentException if the column is not a boolean column
+     */
+    public boolean[] getBooleanColumn(String name) {
+        return (boolean[]) getTypedColumn(name, boolean.class);
+    }
+
+    /**
+     * @param name the field name
+     * @return the column array for a field which is not primitive
+     * @throws FieldnameNotFoundException if there is no column for this name
+     * @throws IllegalArgumentException if the column is a primitive column
+     */
+    public Object[] getObjectColumn(String name) {
+        return (Object[]) getTypedColumn(name, Object.class);
+    }
+
+    private Object getTypedColumn(String name, Class<?> type) {
+        int index = indexOf(name);
+        if (! type.equals(types[index])) {
+            throw new IllegalArgumentException("column ("+name+") holds " + types[index] + " values and not " + type);
+        }
+        return columns[index];
+    }
+
+    private int indexOf(String name) {
+        int index = names.indexOf(name);
+        if (index < 0) {
+            throw new FieldnameNotFoundException("There is no column for field ("+name+") in the columns: " + names, name, null);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return beanClass.getName() + ":rows=" + rowCount + ":" + names;
+    }
+
+    /**
+     * Reads the columns for some fields from a set of objects,
+     * use {@link ClassFields#readColumns(Object[], String[], ForkJoinPool)} rather than calling this directly
+     * @param cf the class fields for the class of the objects
+     * @param beans the objects (all must be instances of the class)
+     * @param names the field names for the columns
+     * @param pool (optional) the pool to read the values in parallel with, null to read them in the current thread
+     * @return the columns
+     */
+    static ColumnBatch read(ClassFields<?> cf, Object[] beans, String[] names, ForkJoinPool pool) {
+        if (beans == null || names == null) {
+            throw new IllegalArgumentException("beans and names cannot be null");
+        }
+        Class<?> beanClass = cf.getFieldClass();
+        for (int i = 0; i < beans.length; i++) {
+            if (! beanClass.isInstance(beans[i])) {
+                throw new IllegalArgumentException("bean at index ("+i+") must be an instance of " + beanClass.getName() + ": " + beans[i]);
+            }
+        }
+        int rowCount = beans.length;
+        ClassProperty[] cps = new ClassProperty[names.length];
+        Class<?>[] types = new Class<?>[names.length];
+        Object[] columns = new Object[names.length];
+        for (int i = 0; i < names.length; i++) {
+            ClassProperty cp = cf.findClassProperty(names[i]);
+            if (cp == null || ! cp.isGettable()) {
+                throw new FieldnameNotFoundException("Could not find readable field with name ("+names[i]+") in class (" + beanClass.getName() + ")", names[i], null);
+            }
+            cps[i] = cp;
+            Class<?> type = PropertyHandles.getPrimitiveGetterType(cp.getType());
+            if (type == null || cp.getHandles().primitiveGetter == null) {
+                type = Object.class;
+            }
+            types[i] = type;
+            if (int.class.equals(type)) {
+                columns[i] = new int[rowCount];
+            } else if (long.class.equals(type)) {
+                columns[i] = new long[rowCount];
+            } else if (double.class.equals(type)) {
+                columns[i] = new double[rowCount];
+            } else if (boolean.class.equals(type)) {
+                columns[i] = new boolean[rowCount];
+            } else {
+                columns[i] = new Object[rowCount];
+            }
+        }
+        ColumnTask task = new ColumnTask(beans, cps, types, columns, 0, rowCount,
+                pool == null ? Integer.MAX_VALUE : Math.max(MIN_ROWS_PER_TASK, rowCount / (pool.getParallelism() * 4)) );
+        if (pool == null || rowCount <= MIN_ROWS_PER_TASK) {
+            task.fill();
+        } else {
+            pool.invoke(task);
+        }
+        return new ColumnBatch(beanClass, names.clone(), types, columns, rowCount);
+    }
+
+    /**
+     * Fills a range of rows in all the columns, splits itself until the ranges are small enough
+     */
+    @SuppressWarnings("serial")
+    private static final class ColumnTask extends RecursiveAction {
+        private final Object[] beans;
+        private final ClassProperty[] cps;
+        private final Class<?>[] types;
+        private final Object[] columns;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        ColumnTask(Object[] beans, ClassProperty[] cps, Class<?>[] types, Object[] columns, int from, int to, int threshold) {
+            this.beans = beans;
+            this.cps = cps;
+            this.types = types;
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                fill();
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ColumnTask(beans, cps, types, columns, from, middle, threshold),
+                        new ColumnTask(beans, cps, types, columns, middle, to, threshold));
+            }
+        }
+
+        /**
+         * Fills the rows of this task one column at a time
+         */
+        void fill() {
+            for (int c = 0; c < cps.length; c++) {
+                ClassProperty cp = cps[c];
+                Class<?> type = types[c];
+                MethodHandle mh = cp.getHandles().primitiveGetter;
+                int row = from;
+                try {
+                    if (int.class.equals(type)) {
+                        int[] column = (int[]) columns[c];
+                        for (; row < to; row++) {
+                            column[row] = (int) mh.invokeExact(beans[row]);
+                        }
+                    } else if (long.class.equals(type)) {
+                        long[] column = (long[]) columns[c];
+                        for (; row < to; row++) {
+                            column[row] = (long) mh.invokeExact(beans[row]);
+                        }
+                    } else if (double.class.equals(type)) {
+                        double[] column = (double[]) columns[c];
+                        for (; row < to; row++) {
+                            column[row] = (double) mh.invokeExact(beans[row]);
+                        }
+                    } else if (boolean.class.equals(type)) {
+                        boolean[] column = (boolean[]) columns[c];
+                        for (; row < to; row++) {
+                            column[row] = (boolean) mh.invokeExact(beans[row]);
+                        }
+                    } else {
+                        Object[] column = (Object[]) columns[c];
+                        for (; row < to; row++) {
+                            column[row] = cp.getValue(beans[row]);
+                        }
+                    }
+                } catch (FieldGetValueException e) {
+                    throw e;
+                } catch (Throwable e) {
+                    // catching throwable is correct here (same as the reflection invoke wrapping), translate the exception
+                    throw new FieldGetValueException("Handle failure getting value for name ("+cp.getFieldName()+") from: " + beans[row],
+                            cp.getFieldName(), beans[row], e);
+                }
+            }
+        }
+    }
+
+}
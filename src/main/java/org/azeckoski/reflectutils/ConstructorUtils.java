@@ -43,7 +43,10 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.Vector;
 
+import org.azeckoski.reflectutils.annotations.ReflectImmutable;
 import org.azeckoski.reflectutils.map.ArrayOrderedMap;
+import org.azeckoski.reflectutils.refmap.ReferenceMap;
+import org.azeckoski.reflectutils.refmap.ReferenceType;
 
 /**
  * Class which provides methods for dealing with class constructors,
@@ -278,6 +281,77 @@ public class ConstructorUtils {
         return special;
     }
 
+    private static final ReferenceMap<Class<?>, Boolean> registeredImmutableClasses = 
+        new ReferenceMap<Class<?>, Boolean>(ReferenceType.WEAK, ReferenceType.STRONG);
+    /**
+     * Register a class as immutable (objects of the class never change once they are constructed),
+     * this does not make the class a simple type but allows the objects to be shared instead of copied
+     * when cloning with shared immutable objects, this is the same as marking the class with {@link ReflectImmutable}<br/>
+     * This is not inherited, subclasses must also be registered if they are immutable
+     * @param type any class
+     */
+    public static void registerImmutableClass(Class<?> type) {
+        checkNull(type);
+        registeredImmutableClasses.put(type, Boolean.TRUE);
+    }
+
+    /**
+     * Remove a class registered with {@link #registerImmutableClass(Class)}
+     * @param type any class
+     */
+    public static void unregisterImmutableClass(Class<?> type) {
+        checkNull(type);
+        registeredImmutableClasses.remove(type);
+    }
+
+    /**
+     * @param type any class
+     * @return true if objects of this class never change once they are constructed,
+     * this includes the simple types, enums, classes registered with {@link #registerImmutableClass(Class)},
+     * and classes marked with {@link ReflectImmutable}
+     */
+    public static boolean isClassImmutable(Class<?> type) {
+        checkNull(type);
+        boolean immutable = false;
+        if ( isClassSimple(type) 
+                || type.isEnum() 
+                || (type.getSuperclass() != null && type.getSuperclass().isEnum()) ) {
+            // enum constants with bodies are subclasses of the enum
+            immutable = true;
+        } else if ( registeredImmutableClasses.containsKey(type) 
+                || type.isAnnotationPresent(ReflectImmutable.class) ) {
+            immutable = true;
+        }
+        return immutable;
+    }
+
+    /**
+     * @param type any class
+     * @return true if this is one of the collections or maps which cannot be changed
+     * (e.g. from {@link Collections#unmodifiableList(List)}, {@link Collections#emptyMap()}, {@link Collections#singleton(Object)}),
+     * NOTE: the values in the collection may still be changeable
+     */
+    public static boolean isClassUnmodifiableCollection(Class<?> type) {
+        checkNull(type);
+        boolean unmodifiable = false;
+        Class<?> parent = type.getEnclosingClass();
+        if (parent != null 
+                && (isClassCollection(type) || isClassMap(type)) ) {
+            if (Collections.class.equals(parent)) {
+                String name = type.getSimpleName();
+                if (name.startsWith("Unmodifiable") 
+                        || name.startsWith("Empty") 
+                        || name.startsWith("Singleton")) {
+                    unmodifiable = true;
+                }
+            } else if ("java.util.ImmutableCollections".equals(parent.getName())) {
+                // the List.of, Set.of, Map.of collections in newer versions of java
+                unmodifiable = true;
+            }
+        }
+        return unmodifiable;
+    }
+
     /**
      * @param type any class
      * @return true if this class is a bean of some kind (i.e. not primitive, immutable, or a holder like a map)
@@ -0,0 +1,189 @@
+/**
+ * $Id$
+ * $URL$
+ * CopyPlan.java - reflectutils - Oct 18, 2026 11:02:45 PM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.azeckoski.reflectutils.ClassFields.FieldsFilter;
+import org.azeckoski.reflectutils.exceptions.FieldGetValueException;
+
+/**
+ * The compiled steps for copying the fields of one class into another class (or a map),
+ * each step is a field to read from the source and the field to write it to in the destination
+ * with the conversion needs worked out in advance so the copy does not have to look anything up by name<br/>
+ * Plans are made and cached by {@link DeepUtils}, a plan is only valid while the class fields it was made from are cached
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public final class CopyPlan {
+
+    private final ClassFields<?> sourceFields;
+    private final ClassFields<?> destFields;
+    private final Class<?> destClass;
+    private final String[] names;
+    private final ClassProperty[] readers;
+    private final ClassProperty[] writers;
+    private final Class<?>[] convertTypes;
+
+    private CopyPlan(ClassFields<?> sourceFields, ClassFields<?> destFields, Class<?> destClass,
+            String[] names, ClassProperty[] readers, ClassProperty[] writers, Class<?>[] convertTypes) {
+        this.sourceFields = sourceFields;
+        this.destFields = destFields;
+        this.destClass = destClass;
+        this.names = names;
+        this.readers = readers;
+        this.writers = writers;
+        this.convertTypes = convertTypes;
+    }
+
+    /**
+     * @return the class the values are read from
+     */
+    public Class<?> getSourceClass() {
+        return sourceFields.getFieldClass();
+    }
+
+    /**
+     * @return the class the values are written to OR null if they are written into a map
+     */
+    public Class<?> getDestinationClass() {
+        return destClass;
+    }
+
+    /**
+     * @return the number of steps (fields) in this plan
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return the field names for the steps in order
+     */
+    public List<String> getNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * @param step the step index
+     * @return the field name for this step
+     */
+    public String getName(int step) {
+        return names[step];
+    }
+
+    /**
+     * @param step the step index
+     * @return the property to write the value to OR null if the value must be set by name
+     * (the destination is a map or adaptable object or the field is not a normal property)
+     */
+    public ClassProperty getWriter(int step) {
+        return writers[step];
+    }
+
+    /**
+     * @param step the step index
+     * @return the type the value must be converted to before it is written OR null if no conversion is needed
+     */
+    public Class<?> getConvertType(int step) {
+        return convertTypes[step];
+    }
+
+    /**
+     * @param step the step index
+     * @param source the object to read from (must be an instance of the source class)
+     * @return the value of the field for this step
+     * @throws FieldGetValueException if the field cannot be read
+     */
+    public Object getValue(int step, Object source) {
+        return readers[step].getValue(source);
+    }
+
+    /**
+     * @param sourceFields the current class fields for the source class
+     * @param destFields the current class fields for the destination class (null if there are none)
+     * @return true if this plan was made from these class fields and can be used
+     */
+    boolean isCurrent(ClassFields<?> sourceFields, ClassFields<?> destFields) {
+        return this.sourceFields == sourceFields && this.destFields == destFields;
+    }
+
+    @Override
+    public String toString() {
+        return getSourceClass().getName() + "->" + (destClass == null ? "map" : destClass.getName()) + ":" + Arrays.toString(names);
+    }
+
+    /**
+     * Make the plan for copying the fields of a class
+     * @param sourceFields the class fields for the class to read the values from
+     * @param filter the filter for the fields to read
+     * @param destClass (optional) the class to write the values into, null if the values are written into a map
+     * @param destFields (optional) the class fields for the destination class,
+     * null if the destination takes any name (maps or adaptable objects)
+     * @param fieldNamesToSkip (optional) the names of fields to leave out of the plan
+     * @return the plan
+     */
+    static CopyPlan make(ClassFields<?> sourceFields, FieldsFilter filter, Class<?> destClass, ClassFields<?> destFields, Set<String> fieldNamesToSkip) {
+        List<String> names = new ArrayList<String>();
+        List<ClassProperty> readers = new ArrayList<ClassProperty>();
+        List<ClassProperty> writers = new ArrayList<ClassProperty>();
+        List<Class<?>> convertTypes = new ArrayList<Class<?>>();
+        for (ClassProperty cp : sourceFields.getSharedClassProperties(filter)) {
+            String name = cp.getFieldName();
+            if (ClassFields.FIELD_CLASS.equals(name)) {
+                continue; // No point in trying to set/get an object's class
+            }
+            if ( fieldNamesToSkip != null
+                    && fieldNamesToSkip.contains(name) ) {
+                continue; // skip to next
+            }
+            ClassProperty writer = null;
+            Class<?> convertType = null;
+            if (destClass != null && destFields != null) {
+                writer = destFields.findClassProperty(name);
+                if (writer == null) {
+                    if (destFields.getClassData().getField(name) == null) {
+                        continue; // field does not exist in the destination so it is skipped
+                    }
+                    // non-visible field is set by name
+                } else if (! writer.isSettable()) {
+                    continue; // setting it would always fail so it is skipped
+                } else {
+                    Class<?> readType = cp.getType();
+                    Class<?> writeType = writer.getType();
+                    if (! ConstructorUtils.classAssignable(readType, writeType)
+                            || (writeType.isPrimitive() && ! readType.isPrimitive()) ) {
+                        // nulls become the default for primitives
+                        convertType = writeType;
+                    }
+                }
+            }
+            names.add(name);
+            readers.add(cp);
+            writers.add(writer);
+            convertTypes.add(convertType);
+        }
+        return new CopyPlan(sourceFields, destFields, destClass,
+                names.toArray(new String[names.size()]),
+                readers.toArray(new ClassProperty[readers.size()]),
+                writers.toArray(new ClassProperty[writers.size()]),
+                convertTypes.toArray(new Class<?>[convertTypes.size()]));
+    }
+
+}
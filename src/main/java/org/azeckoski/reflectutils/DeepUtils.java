@@ -19,17 +19,31 @@ import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.azeckoski.reflectutils.ClassFields.FieldFindMode;
 import org.azeckoski.reflectutils.ClassFields.FieldsFilter;
+import org.azeckoski.reflectutils.annotations.ReflectImmutable;
 import org.azeckoski.reflectutils.beanutils.FieldAdapter;
 import org.azeckoski.reflectutils.exceptions.FieldGetValueException;
 import org.azeckoski.reflectutils.exceptions.FieldSetValueException;
 import org.azeckoski.reflectutils.exceptions.FieldnameNotFoundException;
 import org.azeckoski.reflectutils.map.ArrayOrderedMap;
+import org.azeckoski.reflectutils.refmap.ReferenceMap;
+import org.azeckoski.reflectutils.refmap.ReferenceType;
 
 /**
  * Class which provides methods for handling deep operations: <br/>
@@ -42,6 +56,12 @@ import org.azeckoski.reflectutils.map.ArrayOrderedMap;
  */
 public class DeepUtils {
 
+    /**
+     * A reasonable size threshold for the parallel deep operations,
+     * see {@link #deepClone(Object, int, String[], ForkJoinPool, int)}
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1000;
+
     /**
      * Empty constructor
      * <br/>
@@ -73,7 +93,10 @@ public class DeepUtils {
 
     /**
      * Deep clone an object and all the values in it into a brand new object of the same type,
-     * this will traverse the bean and will make new objects for all non-null values contained in the object
+     * this will traverse the bean and will make new objects for all non-null values contained in the object<br/>
+     * Objects which are referenced more than once (including loops back to a parent) are only cloned once
+     * and the clone references the same copy in each place, the copy is cloned down to the maxDepth
+     * from the highest place the object is referenced from
      * 
      * @param <T>
      * @param object any java object, this can be a list, map, array, or any simple
@@ -95,10 +118,77 @@ public class DeepUtils {
         return clone;
     }
 
+    /**
+     * Deep clone an object but share the immutable objects in it with the original instead of copying them,
+     * this works like {@link #deepClone(Object, int, String[])} but makes far fewer objects when the object
+     * holds lots of values which never change<br/>
+     * The shared objects are: simple types (strings, numbers, etc.), enums, classes registered with
+     * {@link ConstructorUtils#registerImmutableClass(Class)} or marked with {@link ReflectImmutable},
+     * and unmodifiable collections and maps (e.g. from {@link java.util.Collections#unmodifiableList(List)})
+     * when all the values in them can also be shared<br/>
+     * NOTE: the clone and the original will hold the same unmodifiable collections so changes to the collections
+     * they wrap will show up in both
+     * 
+     * @param <T>
+     * @param object any java object, this can be a list, map, array, or any simple
+     * object, it does not have to be a custom object or even a java bean,
+     * also works with DynaBeans
+     * @param maxDepth the number of objects to follow when traveling through the object and copying
+     * the values from it, 0 means to only copy the simple values in the object, any objects will
+     * be ignored and will end up as nulls, 1 means to follow the first objects found and copy all
+     * of their simple values as well, and so forth
+     * @param fieldNamesToSkip (optional) the names of fields to skip while cloning this object,
+     * this only has an effect on the bottom level of the object, any fields found
+     * on child objects will always be copied (if the maxDepth allows)
+     * @param shareImmutables if true then immutable objects are shared instead of copied,
+     * if false this is the same as {@link #deepClone(Object, int, String[])}
+     * @return the cloned object
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T deepClone(T object, int maxDepth, String[] fieldNamesToSkip, boolean shareImmutables) {
+        Set<String> skip = ArrayUtils.makeSetFromArray(fieldNamesToSkip);
+        T clone = (T) internalDeepClone(object, CopyDestination.ORIGINAL, maxDepth, skip, 0, true, false, 
+                new CloneState(Integer.MAX_VALUE, shareImmutables));
+        return clone;
+    }
+
+    /**
+     * Deep clone an object in parallel, this works exactly like {@link #deepClone(Object, int, String[])}
+     * and the result will be the same (including which values share a copy) but the elements of large arrays, collections, and maps
+     * and the independent object values of beans are cloned in separate tasks on the pool<br/>
+     * This is only worth doing for large objects (lots of elements or deeply nested beans),
+     * the sequential clone will be faster for small ones<br/>
+     * NOTE: the objects being cloned must not be changed by other threads during the clone
+     * 
+     * @param <T>
+     * @param object any java object, this can be a list, map, array, or any simple
+     * object, it does not have to be a custom object or even a java bean,
+     * also works with DynaBeans
+     * @param maxDepth the number of objects to follow when traveling through the object and copying
+     * the values from it, 0 means to only copy the simple values in the object, any objects will
+     * be ignored and will end up as nulls, 1 means to follow the first objects found and copy all
+     * of their simple values as well, and so forth
+     * @param fieldNamesToSkip (optional) the names of fields to skip while cloning this object,
+     * this only has an effect on the bottom level of the object, any fields found
+     * on child objects will always be copied (if the maxDepth allows)
+     * @param pool (optional) the pool to run the clone in, null to use the common pool
+     * @param parallelThreshold the size at which arrays, collections, and maps are split up and cloned in parallel
+     * (must be at least 1), smaller ones are cloned sequentially, see {@link #DEFAULT_PARALLEL_THRESHOLD}
+     * @return the cloned object
+     * @throws IllegalArgumentException if the parallelThreshold is less than 1
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T deepClone(T object, int maxDepth, String[] fieldNamesToSkip, ForkJoinPool pool, int parallelThreshold) {
+        Set<String> skip = ArrayUtils.makeSetFromArray(fieldNamesToSkip);
+        T clone = (T) parallelDeepClone(object, CopyDestination.ORIGINAL, maxDepth, skip, true, false, pool, parallelThreshold);
+        return clone;
+    }
+
     /**
      * Deep copies one object into another, this is primarily for copying between identical types of objects but
      * it can also handle copying between objects which are quite different, 
-     * this does not just do a reference copy of the values but actually creates new objects in the current classloader
+     * this does not just do a reference copy of the values but actually creates new objects in the current classloader<br/>
+     * Objects which are referenced more than once are only cloned once and references back to the original become the destination
      * 
      * @param orig the original object to copy from
      * @param dest the object to copy the values to (must have the same fields with the same types)
@@ -124,7 +214,9 @@ public class DeepUtils {
      * that there are no objects which are not part of java.lang or java.util in the new map<br/>
      * NOTE: This can handle simple objects (non-maps and non-beans) but will have to make up the initial map key
      * in the returned map, "data" will be used as the key<br/>
-     * NOTE: Nulls are allowed to pass through this method (i.e. passing in a null object results in a null output)
+     * NOTE: Nulls are allowed to pass through this method (i.e. passing in a null object results in a null output)<br/>
+     * NOTE: Objects which are referenced more than once at the same depth become the same map,
+     * maps never contain themselves so loops in the object are converted again down to the maxDepth
      * 
      * @param bean any java object
      * @param maxDepth the number of objects to follow when traveling through the object and copying
@@ -140,10 +232,50 @@ public class DeepUtils {
      * @param initialKey (optional) the initial key to use when simple objects are converted to maps, defaults to "data"
      * @return the resulting map which contains the cloned data from the object
      */
-    @SuppressWarnings("unchecked")
     public Map<String, Object> deepMap(Object object, int maxDepth, String[] fieldNamesToSkip, boolean ignoreNulls, boolean ignoreTransient, String initialKey) {
         Set<String> skip = ArrayUtils.makeSetFromArray(fieldNamesToSkip);
         Object clone = internalDeepClone(object, CopyDestination.MAP, maxDepth, skip, 0, ignoreNulls, ignoreTransient);
+        return makeDeepMap(clone, initialKey);
+    }
+
+    /**
+     * Converts an object to a map in parallel, this works exactly like {@link #deepMap(Object, int, String[], boolean, boolean, String)}
+     * and the result will be the same (including which maps are shared) but large arrays, collections, and maps and the independent
+     * object values of beans are converted in separate tasks on the pool<br/>
+     * NOTE: the objects being converted must not be changed by other threads during the conversion
+     * 
+     * @param object any java object
+     * @param maxDepth the number of objects to follow when traveling through the object and copying
+     * the values from it, 0 means to only copy the simple values in the object, any objects will
+     * be ignored and will end up as nulls, 1 means to follow the first objects found and copy all
+     * of their simple values as well, and so forth
+     * @param fieldNamesToSkip (optional) the names of fields to skip while cloning this object,
+     * this only has an effect on the bottom level of the object, any fields found
+     * on child objects will always be copied (if the maxDepth allows)
+     * @param ignoreNulls if true then nulls are not copied and the destination retains the value it has,
+     * if false then nulls are copied and the destination value will become a null if the original value is a null
+     * @param ignoreTransient if true then all transient fields will be skipped, useful when serializing
+     * @param initialKey (optional) the initial key to use when simple objects are converted to maps, defaults to "data"
+     * @param pool (optional) the pool to run the conversion in, null to use the common pool
+     * @param parallelThreshold the size at which arrays, collections, and maps are split up and converted in parallel
+     * (must be at least 1), smaller ones are converted sequentially, see {@link #DEFAULT_PARALLEL_THRESHOLD}
+     * @return the resulting map which contains the cloned data from the object
+     * @throws IllegalArgumentException if the parallelThreshold is less than 1
+     */
+    public Map<String, Object> deepMap(Object object, int maxDepth, String[] fieldNamesToSkip, boolean ignoreNulls, boolean ignoreTransient, String initialKey, 
+            ForkJoinPool pool, int parallelThreshold) {
+        Set<String> skip = ArrayUtils.makeSetFromArray(fieldNamesToSkip);
+        Object clone = parallelDeepClone(object, CopyDestination.MAP, maxDepth, skip, ignoreNulls, ignoreTransient, pool, parallelThreshold);
+        return makeDeepMap(clone, initialKey);
+    }
+
+    /**
+     * @param clone the result of a deep clone to a map
+     * @param initialKey (optional) the key to wrap non-map values with, defaults to "data"
+     * @return the map or null if the clone is null
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> makeDeepMap(Object clone, String initialKey) {
         Map<String, Object> map = null;
         if (clone != null) {
             if ( ConstructorUtils.isClassMap(clone.getClass())) {
@@ -202,7 +334,7 @@ public class DeepUtils {
                                 // need to construct the destination
                                 if (value.getClass().isArray() && targetType.isArray()) {
                                     // special case for array to array since the destination must match
-                                    dest = ArrayUtils.template((Object[])value);
+                                    dest = Array.newInstance(value.getClass().getComponentType(), Array.getLength(value));
                                 } else {
                                     dest = getConstructorUtils().constructClass(targetType);
                                 }
@@ -288,140 +420,78 @@ public class DeepUtils {
      * @param ignoreTransient if true then all transient fields will be skipped, useful when serializing
      * @return the object or map which has been cloned
      */
-    @SuppressWarnings("unchecked")
     protected Object internalDeepClone(Object bean, CopyDestination dest, int maxDepth, Set<String> fieldNamesToSkip, int currentDepth, boolean ignoreNulls, boolean ignoreTransient) {
+        return internalDeepClone(bean, dest, maxDepth, fieldNamesToSkip, currentDepth, ignoreNulls, ignoreTransient, new CloneState(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Runs the deep clone as a task in the pool so the parts of the object can be cloned in parallel
+     * @param pool (optional) the pool to use, null to use the common pool
+     * @param parallelThreshold the size at which arrays, collections, and maps are cloned in parallel
+     * @return the object or map which has been cloned
+     * @see #internalDeepClone(Object, CopyDestination, int, Set, int, boolean, boolean, CloneState)
+     */
+    protected Object parallelDeepClone(final Object bean, final CopyDestination dest, final int maxDepth, final Set<String> fieldNamesToSkip, 
+            final boolean ignoreNulls, final boolean ignoreTransient, ForkJoinPool pool, final int parallelThreshold) {
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("parallelThreshold ("+parallelThreshold+") must be at least 1");
+        }
+        if (pool == null) {
+            pool = ForkJoinPool.commonPool();
+        }
+        final CloneState state = new CloneState(parallelThreshold);
+        return pool.invoke(new RecursiveTask<Object>() {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected Object compute() {
+                return internalDeepClone(bean, dest, maxDepth, fieldNamesToSkip, 0, ignoreNulls, ignoreTransient, state);
+            }
+        });
+    }
+
+    /**
+     * This handles the cloning of objects to objects or maps, every object is only cloned once
+     * (objects which are reached more than once get the same copy so loops and shared objects are kept)
+     * and the copy is filled in for the lowest depth the object is reached at,
+     * when converting to maps an object is converted once for each depth it is reached at instead
+     * so a map never contains itself (loops are converted again down to the maxDepth),
+     * the parts of the object are cloned in parallel when this is running in a {@link ForkJoinPool}
+     * and the parallel threshold in the state is reached, the result does not depend on the order
+     * the parts are cloned in so it is the same as
+     * {@link #internalDeepClone(Object, CopyDestination, int, Set, int, boolean, boolean)}
+     *
+     * @param state the state for this clone operation (the copies made so far and the parallel threshold)
+     * @return the object or map which has been cloned
+     * @see #internalDeepClone(Object, CopyDestination, int, Set, int, boolean, boolean)
+     */
+    protected Object internalDeepClone(Object bean, CopyDestination dest, int maxDepth, Set<String> fieldNamesToSkip, int currentDepth, boolean ignoreNulls, boolean ignoreTransient,
+            CloneState state) {
         Object copy = null;
         if ( bean != null ) {
             Class<?> beanClass = bean.getClass();
             // always copy the simple types if possible
-            if (ConstructorUtils.isClassSimple(beanClass) 
+            if (ConstructorUtils.isClassSimple(beanClass)
                     || ConstructorUtils.isClassSpecial(beanClass)) {
                 // simple and special types are just ref copied
                 copy = bean;
+            } else if (state.shareImmutables
+                    && CopyDestination.ORIGINAL.equals(dest)
+                    && isShareable(bean, maxDepth - currentDepth)) {
+                // immutable objects are shared with the original
+                copy = bean;
             } else {
                 if (currentDepth <= maxDepth) {
-                    currentDepth++;
                     try {
-                        // now do the cloning based on the thing to clone
-                        if (beanClass.isArray()) {
-                            // special case, use array reflection
-                            // make new array
-                            int length = ArrayUtils.size((Object[]) bean);
-                            Class<?> componentType = beanClass.getComponentType();
-                            if ( ConstructorUtils.isClassBean(componentType) 
-                                    && CopyDestination.MAP.equals(dest)) {
-                                // special array component type for arrays of objects when map converting
-                                componentType = ArrayOrderedMap.class;
-                            }
-                            copy = ArrayUtils.create(componentType, length);
-                            // now copy the stuff into it
-                            for (int i = 0; i < length; i++) {
-                                Object value = Array.get(bean, i);
-                                Object clone = internalDeepClone(value, dest, maxDepth, null, currentDepth, ignoreNulls, ignoreTransient);
-                                Array.set(copy, i, clone);
-                            }
-                        } else if (Collection.class.isAssignableFrom(beanClass)) {
-                            // special case, clone everything in the list
-                            copy = getConstructorUtils().constructClass(beanClass); // make new list
-                            for (Object element : (Collection) bean) {
-                                Object clone = internalDeepClone(element, dest, maxDepth, null, currentDepth, ignoreNulls, ignoreTransient);
-                                ((Collection) copy).add( clone );
-                            }
-                        } else if (Map.class.isAssignableFrom(beanClass)) {
-                            // special case, clone everything in the map except keys
-                            copy = getConstructorUtils().constructClass(beanClass); // make new map
-                            for (Object key : ((Map) bean).keySet()) {
-                                if ( fieldNamesToSkip != null
-                                        && fieldNamesToSkip.contains(key) ) {
-                                    continue; // skip to next
-                                }
-                                Object value = ((Map) bean).get(key);
-                                if (value == null && ignoreNulls) {
-                                    continue;
-                                }
-                                try {
-                                    ((Map) copy).put(key, 
-                                            internalDeepClone(value, dest, maxDepth, null, currentDepth, ignoreNulls, ignoreTransient) );
-                                } catch (NullPointerException e) {
-                                    // map does not support nulls so skip and keep going
-                                    continue;
-                                }                     
-                            }
-                        } else if (getFieldAdapter().isAdaptableClass(beanClass)) {
-                            // special handling for dynabeans
-                            if (CopyDestination.MAP.equals(dest)) {
-                                copy = new ArrayOrderedMap<String, Object>();
-                            } else {
-                                copy = getFieldAdapter().newInstance(bean); // make new dynabean
-                            }
-                            List<String> propertyNames = getFieldAdapter().getPropertyNames(bean);
-                            for (String name : propertyNames) {
-                                if ( fieldNamesToSkip != null
-                                        && fieldNamesToSkip.contains(name) ) {
-                                    continue; // skip to next
-                                }
-                                try {
-                                    Object value = getFieldAdapter().getSimpleValue(bean, name);
-                                    if (value == null && ignoreNulls) {
-                                        continue;
-                                    }
-                                    if (CopyDestination.MAP.equals(dest)) {
-                                        ((Map<String, Object>) copy).put(name, 
-                                                internalDeepClone(value, dest, maxDepth, null, currentDepth, ignoreNulls, ignoreTransient) );
-                                    } else {
-                                        getFieldUtils().setFieldValue(copy, name, 
-                                                internalDeepClone(value, dest, maxDepth, null, currentDepth, ignoreNulls, ignoreTransient) );
-                                    }
-                                } catch (IllegalArgumentException e) {
-                                    // this is ok, field might not be readable so we will not clone it, continue on
-                                }
-                            }
-                        } else {
-                            // regular javabean
-                            FieldsFilter filter = FieldsFilter.COMPLETE;
-                            if (CopyDestination.MAP.equals(dest)) {
-                                copy = new ArrayOrderedMap<String, Object>();
-                                // maps should pick up all readable fields
-                                if (ignoreTransient) {
-                                    filter = FieldsFilter.SERIALIZABLE;
-                                } else {
-                                    filter = FieldsFilter.READABLE;
-                                }
-                            } else {
-                                copy = getConstructorUtils().constructClass(beanClass); // make new bean
-                            }
-                            ClassFields<?> cf = getFieldUtils().analyzeClass(beanClass);
-                            Map<String, Class<?>> types = cf.getFieldTypes(filter);
-                            for (String name : types.keySet()) {
-                                if (ClassFields.FIELD_CLASS.equals(name)) {
-                                    continue; // No point in trying to set/get an object's class
-                                }
-                                if ( fieldNamesToSkip != null
-                                        && fieldNamesToSkip.contains(name) ) {
-                                    continue; // skip to next
-                                }
-                                try {
-                                    Object value = getFieldUtils().getFieldValue(bean, name);
-                                    if (value == null && ignoreNulls) {
-                                        continue;
-                                    }
-                                    if (CopyDestination.MAP.equals(dest)) {
-                                        ((Map<String, Object>) copy).put(name, 
-                                                internalDeepClone(value, dest, maxDepth, null, currentDepth, ignoreNulls, ignoreTransient) );                     
-                                    } else {
-                                        getFieldUtils().setFieldValue(copy, name, 
-                                                internalDeepClone(value, dest, maxDepth, null, currentDepth, ignoreNulls, ignoreTransient) );
-                                    }
-                                } catch (FieldnameNotFoundException e) {
-                                    // this is ok, field might not exist or might not be readable so we skip it
-                                } catch (FieldGetValueException e) {
-                                    // this is ok, field might not be readable (it should be though)
-                                } catch (FieldSetValueException e) {
-                                    // this is ok, field might not be writeable (should also not happen)
-                                } catch (IllegalArgumentException e) {
-                                    // this is ok, failure should not stop the clone
-                                }
-                            }
+                        Visited visited = state.getVisited(bean, currentDepth, dest);
+                        if (visited == null) {
+                            // the copy is recorded before it is filled in so any references back to the object get the same copy
+                            visited = state.putCopy(bean, makeCopy(bean, dest), currentDepth, dest);
+                        }
+                        copy = visited.copy;
+                        // the copy is filled in again if the object is reached at a lower depth than it was filled in for,
+                        // this way it ends up the same whatever order the references to the object are reached in
+                        for (int fillDepth = visited.startFill(currentDepth); fillDepth >= 0; fillDepth = visited.endFill(fillDepth)) {
+                            fillCopy(bean, copy, dest, maxDepth, fieldNamesToSkip, fillDepth + 1, ignoreNulls, ignoreTransient, state);
                         }
                     } catch (Exception e) {
                         // catch any possible thrown exception and translate (this is not a mistake so ignore findbugs)
@@ -433,6 +503,503 @@ public class DeepUtils {
         return copy;
     }
 
+    /**
+     * Makes the copy of an object which is filled in by {@link #fillCopy(Object, Object, CopyDestination, int, Set, int, boolean, boolean, CloneState)},
+     * primitive arrays only hold values so the copy of one is already complete
+     * @param bean the object to copy (not simple)
+     * @param dest the type of destination
+     * @return the new (empty) copy
+     */
+    private Object makeCopy(Object bean, CopyDestination dest) {
+        Class<?> beanClass = bean.getClass();
+        if (beanClass.isArray()
+                && beanClass.getComponentType().isPrimitive()) {
+            return ArrayUtils.copyPrimitives(bean);
+        } else if (beanClass.isArray()) {
+            Class<?> componentType = beanClass.getComponentType();
+            if ( ConstructorUtils.isClassBean(componentType)
+                    && CopyDestination.MAP.equals(dest)) {
+                // special array component type for arrays of objects when map converting
+                componentType = ArrayOrderedMap.class;
+            }
+            return ArrayUtils.create(componentType, Array.getLength(bean));
+        } else if (Collection.class.isAssignableFrom(beanClass)
+                || Map.class.isAssignableFrom(beanClass)) {
+            return getConstructorUtils().constructClass(beanClass); // make new list or map
+        } else if (CopyDestination.MAP.equals(dest)) {
+            return new ArrayOrderedMap<String, Object>();
+        } else if (getFieldAdapter().isAdaptableClass(beanClass)) {
+            return getFieldAdapter().newInstance(bean); // make new dynabean
+        }
+        return getConstructorUtils().constructClass(beanClass); // make new bean
+    }
+
+    /**
+     * Fills in the copy of an object with clones of the values in it,
+     * this replaces anything already in the copy (so it can be filled in again for a lower depth)
+     * @param bean the object being cloned
+     * @param copy the copy from {@link #makeCopy(Object, CopyDestination)}
+     * @param currentDepth the depth of the values in the object
+     * @param state the state for this clone operation
+     */
+    @SuppressWarnings("unchecked")
+    private void fillCopy(Object bean, Object copy, CopyDestination dest, int maxDepth, Set<String> fieldNamesToSkip, int currentDepth,
+            boolean ignoreNulls, boolean ignoreTransient, CloneState state) {
+        Class<?> beanClass = bean.getClass();
+        // now do the cloning based on the thing to clone
+        if (beanClass.isArray()
+                && beanClass.getComponentType().isPrimitive()) {
+            // primitive arrays only hold values so the copy of the array is a complete clone
+        } else if (beanClass.isArray()) {
+            // special case, use array reflection
+            int length = Array.getLength(bean);
+            if (state.isParallel(length)) {
+                Object[] values = new Object[length];
+                for (int i = 0; i < length; i++) {
+                    values[i] = Array.get(bean, i);
+                }
+                cloneValues(values, dest, maxDepth, currentDepth, ignoreNulls, ignoreTransient, state, false);
+                for (int i = 0; i < length; i++) {
+                    Array.set(copy, i, values[i]);
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    Object value = Array.get(bean, i);
+                    Object clone = internalDeepClone(value, dest, maxDepth, null, currentDepth, ignoreNulls, ignoreTransient, state);
+                    Array.set(copy, i, clone);
+                }
+            }
+        } else if (Collection.class.isAssignableFrom(beanClass)) {
+            // special case, clone everything in the list
+            ((Collection) copy).clear();
+            if (state.isParallel(((Collection) bean).size())) {
+                Object[] values = ((Collection) bean).toArray();
+                cloneValues(values, dest, maxDepth, currentDepth, ignoreNulls, ignoreTransient, state, false);
+                for (Object clone : values) {
+                    ((Collection) copy).add( clone );
+                }
+            } else {
+                for (Object element : (Collection) bean) {
+                    Object clone = internalDeepClone(element, dest, maxDepth, null, currentDepth, ignoreNulls, ignoreTransient, state);
+                    ((Collection) copy).add( clone );
+                }
+            }
+        } else if (Map.class.isAssignableFrom(beanClass)) {
+            // special case, clone everything in the map except keys
+            ((Map) copy).clear();
+            boolean parallel = state.isParallel(((Map) bean).size());
+            List<Object> keys = null;
+            List<Object> values = null;
+            if (parallel) {
+                keys = new ArrayList<Object>(((Map) bean).size());
+                values = new ArrayList<Object>(((Map) bean).size());
+            }
+            for (Object key : ((Map) bean).keySet()) {
+                if ( fieldNamesToSkip != null
+                        && fieldNamesToSkip.contains(key) ) {
+                    continue; // skip to next
+                }
+                Object value = ((Map) bean).get(key);
+                if (value == null && ignoreNulls) {
+                    continue;
+                }
+                if (parallel) {
+                    // cloned all together below
+                    keys.add(key);
+                    values.add(value);
+                    continue;
+                }
+                try {
+                    ((Map) copy).put(key,
+                            internalDeepClone(value, dest, maxDepth, null, currentDepth, ignoreNulls, ignoreTransient, state) );
+                } catch (NullPointerException e) {
+                    // map does not support nulls so skip and keep going
+                    continue;
+                }
+            }
+            if (parallel) {
+                Object[] clones = values.toArray();
+                cloneValues(clones, dest, maxDepth, currentDepth, ignoreNulls, ignoreTransient, state, false);
+                for (int i = 0; i < clones.length; i++) {
+                    try {
+                        ((Map) copy).put(keys.get(i), clones[i]);
+                    } catch (NullPointerException e) {
+                        // map does not support nulls so skip and keep going
+                        continue;
+                    }
+                }
+            }
+        } else if (getFieldAdapter().isAdaptableClass(beanClass)) {
+            // special handling for dynabeans
+            List<String> propertyNames = getFieldAdapter().getPropertyNames(bean);
+            for (String name : propertyNames) {
+                if ( fieldNamesToSkip != null
+                        && fieldNamesToSkip.contains(name) ) {
+                    continue; // skip to next
+                }
+                try {
+                    Object value = getFieldAdapter().getSimpleValue(bean, name);
+                    if (value == null && ignoreNulls) {
+                        continue;
+                    }
+                    if (CopyDestination.MAP.equals(dest)) {
+                        ((Map<String, Object>) copy).put(name,
+                                internalDeepClone(value, dest, maxDepth, null, currentDepth, ignoreNulls, ignoreTransient, state) );
+                    } else {
+                        getFieldUtils().setFieldValue(copy, name,
+                                internalDeepClone(value, dest, maxDepth, null, currentDepth, ignoreNulls, ignoreTransient, state) );
+                    }
+                } catch (IllegalArgumentException e) {
+                    // this is ok, field might not be readable so we will not clone it, continue on
+                }
+            }
+        } else {
+            // regular javabean
+            FieldsFilter filter = FieldsFilter.COMPLETE;
+            if (CopyDestination.MAP.equals(dest)) {
+                // maps should pick up all readable fields
+                if (ignoreTransient) {
+                    filter = FieldsFilter.SERIALIZABLE;
+                } else {
+                    filter = FieldsFilter.READABLE;
+                }
+            }
+            CopyPlan plan = getCopyPlan(beanClass, filter, 
+                    CopyDestination.MAP.equals(dest) ? null : beanClass, fieldNamesToSkip);
+            // read all the values first so the independent values can be cloned together
+            int[] steps = new int[plan.size()];
+            Object[] values = new Object[plan.size()];
+            int count = 0;
+            for (int step = 0; step < steps.length; step++) {
+                try {
+                    Object value = plan.getValue(step, bean);
+                    if (value == null && ignoreNulls) {
+                        continue;
+                    }
+                    steps[count] = step;
+                    values[count] = value;
+                    count++;
+                } catch (FieldGetValueException e) {
+                    // this is ok, field might not be readable (it should be though)
+                } catch (IllegalArgumentException e) {
+                    // this is ok, failure should not stop the clone
+                }
+            }
+            if (count < values.length) {
+                values = ArrayUtils.resize(values, count);
+            }
+            cloneValues(values, dest, maxDepth, currentDepth, ignoreNulls, ignoreTransient, state, 
+                    state.parallelThreshold < Integer.MAX_VALUE && countComplexValues(values) > 1);
+            for (int i = 0; i < count; i++) {
+                try {
+                    if (CopyDestination.MAP.equals(dest)) {
+                        ((Map<String, Object>) copy).put(plan.getName(steps[i]), values[i]);                     
+                    } else {
+                        setPlannedValue(plan, steps[i], copy, values[i]);
+                    }
+                } catch (FieldnameNotFoundException e) {
+                    // this is ok, field might not exist so we skip it
+                } catch (FieldSetValueException e) {
+                    // this is ok, field might not be writeable (should also not happen)
+                } catch (IllegalArgumentException e) {
+                    // this is ok, failure should not stop the clone
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if an object never changes so it can be shared instead of copied when cloning
+     * @param value any object (null is shareable)
+     * @param depth the number of levels of unmodifiable collections which can be checked,
+     * collections further down than this are not shared
+     * @return true if the object is immutable or is an unmodifiable collection or map of shareable values
+     * @see ConstructorUtils#isClassImmutable(Class)
+     */
+    @SuppressWarnings("unchecked")
+    protected boolean isShareable(Object value, int depth) {
+        if (value == null) {
+            return true;
+        }
+        Class<?> type = value.getClass();
+        if (ConstructorUtils.isClassImmutable(type) 
+                || ConstructorUtils.isClassSpecial(type)) {
+            return true;
+        }
+        if (depth < 0 
+                || ! ConstructorUtils.isClassUnmodifiableCollection(type)) {
+            return false;
+        }
+        // the keys of maps are never copied so only the values need to be checked
+        Collection<Object> values = value instanceof Map ? ((Map) value).values() : (Collection) value;
+        for (Object v : values) {
+            if (! isShareable(v, depth - 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param values the values to check
+     * @return the number of values which are not null, simple, or special (and will need to be traversed to clone)
+     */
+    private int countComplexValues(Object[] values) {
+        int count = 0;
+        for (Object value : values) {
+            if (value != null 
+                    && ! ConstructorUtils.isClassSimple(value.getClass()) 
+                    && ! ConstructorUtils.isClassSpecial(value.getClass())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Replaces every value in the array with a deep clone of it, 
+     * this will split the values up and clone them in parallel tasks if parallel is true
+     * @param values the values to clone (replaced with the clones)
+     * @param state the state for this clone operation
+     * @param eachValue if true then every value is cloned in a separate task (for bean values),
+     * otherwise the values are split up into a few ranges per thread in the pool
+     */
+    protected void cloneValues(Object[] values, CopyDestination dest, int maxDepth, int currentDepth, boolean ignoreNulls, boolean ignoreTransient, 
+            CloneState state, boolean eachValue) {
+        if (ForkJoinTask.inForkJoinPool() && values.length > 0 && (eachValue || values.length >= state.parallelThreshold)) {
+            int taskSize = 1;
+            if (! eachValue) {
+                taskSize = Math.max(1, values.length / (ForkJoinTask.getPool().getParallelism() * 4));
+            }
+            new CloneTask(values, 0, values.length, taskSize, dest, maxDepth, currentDepth, ignoreNulls, ignoreTransient, state).invoke();
+        } else {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = internalDeepClone(values[i], dest, maxDepth, null, currentDepth, ignoreNulls, ignoreTransient, state);
+            }
+        }
+    }
+
+    /**
+     * Clones a range of values in place, splits itself until the ranges are small enough
+     */
+    @SuppressWarnings("serial")
+    private final class CloneTask extends RecursiveAction {
+        private final Object[] values;
+        private final int from;
+        private final int to;
+        private final int taskSize;
+        private final CopyDestination dest;
+        private final int maxDepth;
+        private final int currentDepth;
+        private final boolean ignoreNulls;
+        private final boolean ignoreTransient;
+        private final CloneState state;
+
+        CloneTask(Object[] values, int from, int to, int taskSize, CopyDestination dest, int maxDepth, int currentDepth, 
+                boolean ignoreNulls, boolean ignoreTransient, CloneState state) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.taskSize = taskSize;
+            this.dest = dest;
+            this.maxDepth = maxDepth;
+            this.currentDepth = currentDepth;
+            this.ignoreNulls = ignoreNulls;
+            this.ignoreTransient = ignoreTransient;
+            this.state = state;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= taskSize) {
+                for (int i = from; i < to; i++) {
+                    values[i] = internalDeepClone(values[i], dest, maxDepth, null, currentDepth, ignoreNulls, ignoreTransient, state);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new CloneTask(values, from, middle, taskSize, dest, maxDepth, currentDepth, ignoreNulls, ignoreTransient, state),
+                        new CloneTask(values, middle, to, taskSize, dest, maxDepth, currentDepth, ignoreNulls, ignoreTransient, state));
+            }
+        }
+    }
+
+    /**
+     * Holds the state of one deep clone (or copy) operation, this tracks the copy made for each object
+     * (by identity) so that every object is only cloned once even if it is reached many times,
+     * when converting to maps the copies are tracked for each depth instead so a map never ends up containing itself
+     */
+    protected static final class CloneState {
+        /**
+         * the size at which arrays, collections, and maps are split up and cloned in parallel,
+         * {@link Integer#MAX_VALUE} means the clone is sequential
+         */
+        public final int parallelThreshold;
+        /**
+         * if true then immutable objects are shared with the original instead of being copied
+         */
+        public final boolean shareImmutables;
+        private final Map<Object, Visited> visited;
+        private final Map<Object, Visited> visitedMaps;
+
+        /**
+         * @param parallelThreshold the size at which arrays, collections, and maps are split up and cloned in parallel,
+         * {@link Integer#MAX_VALUE} if the clone is sequential
+         */
+        public CloneState(int parallelThreshold) {
+            this(parallelThreshold, false);
+        }
+
+        /**
+         * @param parallelThreshold the size at which arrays, collections, and maps are split up and cloned in parallel,
+         * {@link Integer#MAX_VALUE} if the clone is sequential
+         * @param shareImmutables if true then immutable objects are shared with the original instead of being copied
+         */
+        public CloneState(int parallelThreshold, boolean shareImmutables) {
+            this.parallelThreshold = parallelThreshold;
+            this.shareImmutables = shareImmutables;
+            if (parallelThreshold < Integer.MAX_VALUE) {
+                visited = new ConcurrentHashMap<Object, Visited>();
+                visitedMaps = new ConcurrentHashMap<Object, Visited>();
+            } else {
+                visited = new IdentityHashMap<Object, Visited>();
+                visitedMaps = new HashMap<Object, Visited>();
+            }
+        }
+
+        /**
+         * @param size the number of values in the array, collection, or map
+         * @return true if the values should be cloned in parallel
+         */
+        public boolean isParallel(int size) {
+            return size >= parallelThreshold && ForkJoinTask.inForkJoinPool();
+        }
+
+        /**
+         * @param bean the object being cloned
+         * @param depth the depth the object is at
+         * @param dest the destination type, maps are only reused at the same depth
+         * @return the copy made of this object already OR null if there is none
+         */
+        public Visited getVisited(Object bean, int depth, CopyDestination dest) {
+            return visited(dest).get(key(bean, depth, dest));
+        }
+
+        /**
+         * Records the copy of an object (before it is filled in) so any other references to the object get the same copy
+         * @param bean the object being cloned
+         * @param copy the copy of the object
+         * @param depth the depth the object is at
+         * @param dest the destination type
+         * @return the recorded copy, this only holds a different copy than the given one
+         * if another task recorded a copy for the object at the same time
+         */
+        public Visited putCopy(Object bean, Object copy, int depth, CopyDestination dest) {
+            Map<Object, Visited> map = visited(dest);
+            Object key = key(bean, depth, dest);
+            Visited v = new Visited(copy, depth);
+            if (map instanceof ConcurrentMap) {
+                Visited current = ((ConcurrentMap<Object, Visited>) map).putIfAbsent(key, v);
+                if (current != null) {
+                    return current;
+                }
+            } else {
+                map.put(key, v);
+            }
+            return v;
+        }
+
+        private Map<Object, Visited> visited(CopyDestination dest) {
+            return CopyDestination.MAP.equals(dest) ? visitedMaps : visited;
+        }
+
+        private Object key(Object bean, int depth, CopyDestination dest) {
+            if (CopyDestination.MAP.equals(dest)) {
+                return new IdentityKey(bean, depth);
+            } else if (visited instanceof ConcurrentMap) {
+                return new IdentityKey(bean, 0);
+            }
+            return bean;
+        }
+    }
+
+    /**
+     * A copy of an object and the depth it is filled in for, since the copy is only cloned down to the maxDepth
+     * it is filled in for the lowest depth the object is reached at (and filled in again if the object is reached
+     * at a lower depth later), so the copy ends up the same whatever order the object is reached in
+     */
+    protected static final class Visited {
+        /**
+         * the copy of the object
+         */
+        public final Object copy;
+        private final AtomicInteger depth;
+        private final AtomicBoolean filling = new AtomicBoolean(false);
+        private volatile int filled = Integer.MAX_VALUE;
+
+        Visited(Object copy, int depth) {
+            this.copy = copy;
+            this.depth = new AtomicInteger(depth);
+        }
+
+        /**
+         * Records that the object was reached at a depth
+         * @param depth the depth the object is at
+         * @return the depth to fill in the copy for OR -1 if it is already filled in (or being filled in by another task)
+         * for this depth or a lower one
+         */
+        public int startFill(int depth) {
+            int current = this.depth.get();
+            while (depth < current && ! this.depth.compareAndSet(current, depth)) {
+                current = this.depth.get();
+            }
+            return claim();
+        }
+
+        /**
+         * Marks the copy as filled in
+         * @param depth the depth the copy was filled in for (from {@link #startFill(int)})
+         * @return the depth to fill in the copy for again OR -1 if the object was not reached at a lower depth
+         * while the copy was being filled in
+         */
+        public int endFill(int depth) {
+            filled = depth;
+            filling.set(false);
+            return claim();
+        }
+
+        private int claim() {
+            while (depth.get() < filled && filling.compareAndSet(false, true)) {
+                int d = depth.get();
+                if (d < filled) {
+                    return d;
+                }
+                filling.set(false);
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Wraps an object (and the depth it is at) so it is compared by identity in a normal (concurrent) map
+     */
+    private static final class IdentityKey {
+        private final Object object;
+        private final int depth;
+        IdentityKey(Object object, int depth) {
+            this.object = object;
+            this.depth = depth;
+        }
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof IdentityKey && ((IdentityKey) obj).object == object
+                    && ((IdentityKey) obj).depth == depth;
+        }
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(object) * 31 + depth;
+        }
+    }
+
     /**
      * @param orig the original object to copy from
      * @param dest the object to copy the values to (must have the same fields with the same types)
@@ -455,6 +1022,11 @@ public class DeepUtils {
         }
 
         int currentDepth = 1;
+        // the original is copied into the destination so any references back to it will get the destination
+        CloneState state = new CloneState(Integer.MAX_VALUE);
+        Visited visited = state.putCopy(orig, dest, 0, CopyDestination.ORIGINAL);
+        // the destination is filled in below
+        visited.endFill(visited.startFill(0));
         Class<?> origClass = orig.getClass();
         Class<?> destClass = dest.getClass();
 
@@ -480,7 +1052,12 @@ public class DeepUtils {
         try {
             if (origClass.isArray()) {
                 // special case, copy and overwrite existing array values
-                if (destClass.isArray()) {
+                if (destClass.isArray() 
+                        && origClass.getComponentType().isPrimitive()
+                        && origClass.equals(destClass)) {
+                    // primitive arrays of the same type are copied directly, partial copy is ok
+                    System.arraycopy(orig, 0, dest, 0, Math.min(Array.getLength(orig), Array.getLength(dest)));
+                } else if (destClass.isArray()) {
                     // TODO if the dest array is empty then fail
                     try {
                         for (int i = 0; i < Array.getLength(orig); i++) {
@@ -489,7 +1066,7 @@ public class DeepUtils {
                                 // don't copy this null over the existing value
                             } else {
                                 Array.set(dest, i, 
-                                        internalDeepClone(value, CopyDestination.ORIGINAL, maxDepth, null, currentDepth, ignoreNulls, false));
+                                        internalDeepClone(value, CopyDestination.ORIGINAL, maxDepth, null, currentDepth, ignoreNulls, false, state));
                             }
                         }
                     } catch (ArrayIndexOutOfBoundsException e) {
@@ -505,7 +1082,7 @@ public class DeepUtils {
                         // don't copy this null over the existing value
                     } else {
                         ((Collection) dest).add( 
-                                internalDeepClone(value, CopyDestination.ORIGINAL, maxDepth, null, currentDepth, ignoreNulls, false));
+                                internalDeepClone(value, CopyDestination.ORIGINAL, maxDepth, null, currentDepth, ignoreNulls, false, state));
                     }
                 }
             } else if (Map.class.isAssignableFrom(origClass)) {
@@ -520,23 +1097,27 @@ public class DeepUtils {
                         // don't copy this null over the existing value
                     } else {
                         ((Map) dest).put(key, 
-                                internalDeepClone(value, CopyDestination.ORIGINAL, maxDepth, null, currentDepth, ignoreNulls, false));
+                                internalDeepClone(value, CopyDestination.ORIGINAL, maxDepth, null, currentDepth, ignoreNulls, false, state));
                     }
                 }
             } else if (getFieldAdapter().isAdaptableClass(origClass)) {
+                ClassFields<?> destFields = getDestinationFields(dest);
                 List<String> propertyNames = getFieldAdapter().getPropertyNames(orig);
                 for (String name : propertyNames) {
                     if ( fieldNamesToSkip != null
                             && fieldNamesToSkip.contains(name) ) {
                         continue; // skip to next
                     }
+                    if (! isFieldInDestination(destFields, name)) {
+                        continue; // it is ok for the objects to not be the same
+                    }
                     try {
                         Object value = getFieldAdapter().getSimpleValue(orig, name);
                         if (ignoreNulls && value == null) {
                             // don't copy this null over the existing value
                         } else {
                             getFieldUtils().setFieldValue(dest, name, 
-                                    internalDeepClone(value, CopyDestination.ORIGINAL, maxDepth, null, currentDepth, ignoreNulls, false));
+                                    internalDeepClone(value, CopyDestination.ORIGINAL, maxDepth, null, currentDepth, ignoreNulls, false, state));
                         }
                     } catch (FieldnameNotFoundException e) {
                         // it is ok for the objects to not be the same
@@ -545,24 +1126,32 @@ public class DeepUtils {
                     }
                 }
             } else {
-                // regular javabean
-                Map<String, Object> values = getFieldUtils().getFieldValues(orig, FieldsFilter.READABLE, false);
-                for (Entry<String, Object> entry : values.entrySet()) {
-                    String name = entry.getKey();
-                    if (ClassFields.FIELD_CLASS.equals(name)) {
-                        continue; // No point in trying to set an object's class
+                // regular javabean, fields which do not exist in the destination are not in the plan
+                CopyPlan plan = getCopyPlan(origClass, getFieldUtils().findFieldFindMode(FieldsFilter.READABLE), 
+                        FieldsFilter.READABLE, destClass, fieldNamesToSkip);
+                // read all the values first
+                Object[] values = new Object[plan.size()];
+                boolean[] readable = new boolean[plan.size()];
+                for (int step = 0; step < values.length; step++) {
+                    try {
+                        values[step] = plan.getValue(step, orig);
+                        readable[step] = true;
+                    } catch (RuntimeException e) {
+                        // failed to get the value so we will skip this one
+                        continue;
                     }
-                    if ( fieldNamesToSkip != null
-                            && fieldNamesToSkip.contains(name) ) {
-                        continue; // skip to next
+                }
+                for (int step = 0; step < values.length; step++) {
+                    if (! readable[step]) {
+                        continue;
                     }
                     try {
-                        Object value = getFieldUtils().getFieldValue(orig, name);
+                        Object value = values[step];
                         if (ignoreNulls && value == null) {
                             // don't copy this null over the existing value
                         } else {
-                            getFieldUtils().setFieldValue(dest, name, 
-                                    internalDeepClone(value, CopyDestination.ORIGINAL, maxDepth, null, currentDepth, ignoreNulls, false));
+                            setPlannedValue(plan, step, dest, 
+                                    internalDeepClone(value, CopyDestination.ORIGINAL, maxDepth, null, currentDepth, ignoreNulls, false, state));
                         }
                     } catch (FieldnameNotFoundException e) {
                         // this is ok, field might not exist or might not be readable so we skip it
@@ -582,6 +1171,159 @@ public class DeepUtils {
         }
     }
 
+    /**
+     * Gets the class fields for a destination which is a normal bean so that fields which do not exist
+     * in the destination can be skipped instead of failing when they are set
+     * @param dest the destination object
+     * @return the class fields for the destination OR null if the destination can take any field name (maps, adaptable objects, etc.)
+     */
+    protected ClassFields<?> getDestinationFields(Object dest) {
+        return getDestinationFields(dest.getClass());
+    }
+
+    /**
+     * @param destClass the destination class
+     * @return the class fields for the destination OR null if the destination can take any field name (maps, adaptable objects, etc.)
+     * @see #getDestinationFields(Object)
+     */
+    protected ClassFields<?> getDestinationFields(Class<?> destClass) {
+        if (! ConstructorUtils.isClassBean(destClass)
+                || getFieldAdapter().isAdaptableClass(destClass)) {
+            return null;
+        }
+        return getFieldUtils().analyzeClass(destClass);
+    }
+
+    /**
+     * Holds the copy plans for each source class (source class -> plan key -> plan),
+     * weak keys so the classes can still be unloaded
+     */
+    protected final ReferenceMap<Class<?>, Map<PlanKey, CopyPlan>> copyPlans = 
+        new ReferenceMap<Class<?>, Map<PlanKey, CopyPlan>>(ReferenceType.WEAK, ReferenceType.SOFT);
+
+    /**
+     * Get the cached plan for copying the fields of one class into another (or into a map),
+     * the plan is made the first time and again if the class fields for either class change
+     * @param sourceClass the class to read the values from
+     * @param filter the filter for the fields to read
+     * @param destClass (optional) the class to write the values into, null if the values are written into a map
+     * @param fieldNamesToSkip (optional) the names of fields to leave out
+     * @return the copy plan
+     */
+    protected CopyPlan getCopyPlan(Class<?> sourceClass, FieldsFilter filter, Class<?> destClass, Set<String> fieldNamesToSkip) {
+        return getCopyPlan(sourceClass, null, filter, destClass, fieldNamesToSkip);
+    }
+
+    /**
+     * Get the cached plan for copying the fields of one class into another (or into a map),
+     * the plan is made the first time and again if the class fields for either class change
+     * @param sourceClass the class to read the values from
+     * @param sourceMode (optional) the field find mode to analyze the source class with, null for the current default mode
+     * @param filter the filter for the fields to read
+     * @param destClass (optional) the class to write the values into, null if the values are written into a map
+     * @param fieldNamesToSkip (optional) the names of fields to leave out
+     * @return the copy plan
+     */
+    protected CopyPlan getCopyPlan(Class<?> sourceClass, FieldFindMode sourceMode, FieldsFilter filter, Class<?> destClass, Set<String> fieldNamesToSkip) {
+        ClassFields<?> sourceFields = sourceMode == null ? 
+                getFieldUtils().analyzeClass(sourceClass) : getFieldUtils().analyzeClass(sourceClass, sourceMode);
+        ClassFields<?> destFields = null;
+        if (destClass != null) {
+            destFields = sourceClass.equals(destClass) ? sourceFields : getDestinationFields(destClass);
+        }
+        if (fieldNamesToSkip != null && fieldNamesToSkip.isEmpty()) {
+            fieldNamesToSkip = null;
+        }
+        Map<PlanKey, CopyPlan> plans = copyPlans.get(sourceClass);
+        if (plans == null) {
+            plans = new ConcurrentHashMap<PlanKey, CopyPlan>();
+            Map<PlanKey, CopyPlan> current = copyPlans.putIfAbsent(sourceClass, plans);
+            if (current != null) {
+                plans = current;
+            }
+        }
+        PlanKey key = new PlanKey(sourceMode, filter, destClass, fieldNamesToSkip);
+        CopyPlan plan = plans.get(key);
+        if (plan == null || ! plan.isCurrent(sourceFields, destFields)) {
+            plan = CopyPlan.make(sourceFields, filter, destClass, destFields, fieldNamesToSkip);
+            if (fieldNamesToSkip != null) {
+                // the key holds onto its own copy of the names
+                key = new PlanKey(sourceMode, filter, destClass, new HashSet<String>(fieldNamesToSkip));
+            }
+            plans.put(key, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Writes the value for one step of a copy plan into the destination object,
+     * converts the value if the plan says it is needed
+     * @param plan the copy plan
+     * @param step the step index
+     * @param dest the destination object
+     * @param value the value to write
+     * @throws FieldnameNotFoundException if the field does not exist in the destination
+     * @throws FieldSetValueException if the field is not writeable
+     */
+    protected void setPlannedValue(CopyPlan plan, int step, Object dest, Object value) {
+        ClassProperty writer = plan.getWriter(step);
+        if (writer == null) {
+            getFieldUtils().setFieldValue(dest, plan.getName(step), value);
+        } else {
+            Class<?> convertType = plan.getConvertType(step);
+            if (convertType != null) {
+                value = getConversionUtils().convert(value, convertType);
+            }
+            writer.setValue(dest, value);
+        }
+    }
+
+    /**
+     * The key for a copy plan of a source class
+     */
+    protected static final class PlanKey {
+        private final FieldFindMode sourceMode;
+        private final FieldsFilter filter;
+        private final Class<?> destClass;
+        private final Set<String> fieldNamesToSkip;
+        PlanKey(FieldFindMode sourceMode, FieldsFilter filter, Class<?> destClass, Set<String> fieldNamesToSkip) {
+            this.sourceMode = sourceMode;
+            this.filter = filter;
+            this.destClass = destClass;
+            this.fieldNamesToSkip = fieldNamesToSkip;
+        }
+        @Override
+        public boolean equals(Object obj) {
+            if (! (obj instanceof PlanKey)) {
+                return false;
+            }
+            PlanKey other = (PlanKey) obj;
+            return sourceMode == other.sourceMode
+                && filter == other.filter 
+                && destClass == other.destClass
+                && (fieldNamesToSkip == null ? other.fieldNamesToSkip == null : fieldNamesToSkip.equals(other.fieldNamesToSkip));
+        }
+        @Override
+        public int hashCode() {
+            int hash = sourceMode == null ? 0 : sourceMode.hashCode();
+            hash = 31 * hash + (filter == null ? 0 : filter.hashCode());
+            hash = 31 * hash + (destClass == null ? 0 : destClass.hashCode());
+            hash = 31 * hash + (fieldNamesToSkip == null ? 0 : fieldNamesToSkip.hashCode());
+            return hash;
+        }
+    }
+
+    /**
+     * @param destFields the class fields for the destination (from {@link #getDestinationFields(Object)}), null if any name is ok
+     * @param name the field name
+     * @return true if the field can be set on the destination, false if it does not exist
+     */
+    protected boolean isFieldInDestination(ClassFields<?> destFields, String name) {
+        return destFields == null
+            || destFields.findClassProperty(name) != null
+            || destFields.getClassData().getField(name) != null;
+    }
+
     @Override
     public String toString() {
         return "Deep:"+getClassDataCacher();
@@ -14,9 +14,12 @@
 
 package org.azeckoski.reflectutils;
 
+import org.azeckoski.reflectutils.ClassFields.FieldFindMode;
 import org.azeckoski.reflectutils.ClassFields.FieldsFilter;
 import org.azeckoski.reflectutils.ClassProperty.IndexedProperty;
 import org.azeckoski.reflectutils.ClassProperty.MappedProperty;
+import org.azeckoski.reflectutils.PropertyPath.Segment;
+import org.azeckoski.reflectutils.PropertyPath.SegmentType;
 import org.azeckoski.reflectutils.beanutils.DefaultResolver;
 import org.azeckoski.reflectutils.beanutils.FieldAdapter;
 import org.azeckoski.reflectutils.beanutils.FieldAdapterManager;
@@ -33,6 +36,7 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Class which provides methods for dealing with the fields in objects and classes,
@@ -99,6 +103,46 @@ public class FieldUtils {
         return nameResolver;
     }
 
+    protected PropertyPathCache pathCache = new PropertyPathCache();
+    /**
+     * Set the size of the cache of compiled path expressions, nested/indexed/mapped names which are
+     * passed to the get and set methods are compiled once and reused from this cache
+     * (only when using the {@link DefaultResolver}) <br/>
+     * <b>WARNING</b>: changing this will clear the existing cache
+     * 
+     * @param capacity the max number of paths to cache (default {@link PropertyPathCache#DEFAULT_CAPACITY}), 0 to disable the cache
+     */
+    public void setPathCacheSize(int capacity) {
+        if (capacity > 0) {
+            this.pathCache = new PropertyPathCache(capacity);
+        } else {
+            this.pathCache = null;
+        }
+    }
+    /**
+     * @return the cache of compiled path expressions (has the hit/miss counts) OR null if it is disabled
+     */
+    public PropertyPathCache getPathCache() {
+        return pathCache;
+    }
+    /**
+     * Get the compiled path for a name from the path cache if the name is a path expression,
+     * plain field names skip the cache entirely
+     * @param name any field name
+     * @return the compiled path OR null if the name should be handled by the resolver
+     * (plain names, custom resolvers, invalid expressions, or the cache is disabled)
+     */
+    protected PropertyPath getCachedPath(String name) {
+        PropertyPathCache cache = pathCache;
+        if (cache == null
+                || ! PropertyPathCache.isPathExpression(name)
+                || getResolver().getClass() != DefaultResolver.class) {
+            return null;
+        }
+        // invalid paths are handled by the resolver so the failure is the same as always
+        return cache.findPath(name);
+    }
+
 
     protected FieldAdapterManager fieldAdapterManager;
     /**
@@ -156,25 +200,48 @@ public class FieldUtils {
         if (type == null || name == null) {
             throw new IllegalArgumentException("type and name must not be null");
         }
-        // get the nested class or return Object.class as a cop out
-        while (getResolver().hasNested(name)) {
-            String next = getResolver().next(name);
-            Class<?> nestedClass;
-            if (Object.class.equals(type)
-                    || Map.class.isAssignableFrom(type)
-                    || getResolver().isMapped(next)
-                    || getResolver().isIndexed(next) ) {
-                // these can contain objects or it is Object so we bail out
-                return Object.class;
-            } else {
-                // a real class, hooray, analyze it
-                ClassFields<?> cf = analyzeClass(type);
-                nestedClass = cf.getFieldType(name);
+        String targetName; // simple name of target field
+        boolean indexedOrMapped;
+        PropertyPath path = getCachedPath(name);
+        if (path != null) {
+            // get the nested class from the compiled path or return Object.class as a cop out
+            int last = path.size() - 1;
+            for (int i = 0; i < last; i++) {
+                Segment segment = path.getSegment(i);
+                if (Object.class.equals(type)
+                        || Map.class.isAssignableFrom(type)
+                        || segment.getType() != SegmentType.SIMPLE ) {
+                    // these can contain objects or it is Object so we bail out
+                    return Object.class;
+                }
+                type = analyzeClass(type).getFieldType(segment.getName());
             }
-            type = nestedClass;
-            name = getResolver().remove(name);
+            Segment segment = path.getLastSegment();
+            name = segment.getExpression();
+            targetName = segment.getName();
+            indexedOrMapped = segment.getType() != SegmentType.SIMPLE;
+        } else {
+            // get the nested class or return Object.class as a cop out
+            while (getResolver().hasNested(name)) {
+                String next = getResolver().next(name);
+                Class<?> nestedClass;
+                if (Object.class.equals(type)
+                        || Map.class.isAssignableFrom(type)
+                        || getResolver().isMapped(next)
+                        || getResolver().isIndexed(next) ) {
+                    // these can contain objects or it is Object so we bail out
+                    return Object.class;
+                } else {
+                    // a real class, hooray, analyze it
+                    ClassFields<?> cf = analyzeClass(type);
+                    nestedClass = cf.getFieldType(next);
+                }
+                type = nestedClass;
+                name = getResolver().remove(name);
+            }
+            targetName = getResolver().getProperty(name);
+            indexedOrMapped = getResolver().isIndexed(name) || getResolver().isMapped(name);
         }
-        String targetName = getResolver().getProperty(name); // simple name of target field
         // get the type
         Class<?> fieldType;
         if ( ConstructorUtils.isClassObjectHolder(type) 
@@ -184,20 +251,20 @@ public class FieldUtils {
         } else {
             // normal object
             ClassFields<?> cf = analyzeClass(type);
-            try {
-                fieldType = cf.getFieldType(targetName);
-            } catch (FieldnameNotFoundException fnfe) {
+            ClassProperty cp = cf.findClassProperty(targetName);
+            if (cp != null) {
+                fieldType = cp.getType();
+            } else {
                 // could not find this as a standard field so handle as internal lookup
-                ClassData<?> cd = cf.getClassData();
-                Field field = getFieldIfPossible(cd, name);
+                Field field = getFieldIfPossible(cf.getClassData(), targetName);
                 if (field == null) {
-                    throw new FieldnameNotFoundException("Could not find field with name ("+name+") in class (" + type + ") after extended look into non-visible fields", fnfe);
+                    throw new FieldnameNotFoundException("Could not find field with name ("+name+") in class (" + type + ") after extended look into non-visible fields", name, null);
                 }
                 fieldType = field.getType();
             }
         }
         // special handling for indexed and mapped names
-        if (getResolver().isIndexed(name) || getResolver().isMapped(name)) {
+        if (indexedOrMapped) {
             if ( ConstructorUtils.isClassArray(fieldType) ) {
                 // use the array component type
                 fieldType = type.getComponentType();
@@ -229,28 +296,50 @@ public class FieldUtils {
         if ( Object.class.equals(obj.getClass()) ) {
             return Object.class; // EXIT
         }
-        // get the nested object or die
-        while (getResolver().hasNested(name)) {
-            String next = getResolver().next(name);
-            Object nestedBean;
-            if (Map.class.isAssignableFrom(obj.getClass())) {
-                nestedBean = getValueOfMap((Map) obj, next);
-            } else if (getResolver().isMapped(next)) {
-                nestedBean = getMappedValue(obj, next);
-            } else if (getResolver().isIndexed(next)) {
-                nestedBean = getIndexedValue(obj, next);
-            } else {
-                nestedBean = getSimpleValue(obj, next);
+        String targetName; // simple name of target field
+        boolean indexedOrMapped;
+        PropertyPath path = getCachedPath(name);
+        if (path != null) {
+            // get the nested object from the compiled path or die
+            int last = path.size() - 1;
+            for (int i = 0; i < last; i++) {
+                Object nestedBean = getSegmentValue(obj, path.getSegment(i));
+                if (nestedBean == null) {
+                    // no auto create so we have to fail here
+                    throw new NullPointerException("Nested traversal failure: null field value for name (" 
+                            + name + ") on object class (" + obj.getClass() + ") for object: " + obj);
+                }
+                obj = nestedBean;
             }
-            if (nestedBean == null) {
-                // no auto create so we have to fail here
-                throw new NullPointerException("Nested traversal failure: null field value for name (" 
-                        + name + ") on object class (" + obj.getClass() + ") for object: " + obj);
+            Segment segment = path.getLastSegment();
+            name = segment.getExpression();
+            targetName = segment.getName();
+            indexedOrMapped = segment.getType() != SegmentType.SIMPLE;
+        } else {
+            // get the nested object or die
+            while (getResolver().hasNested(name)) {
+                String next = getResolver().next(name);
+                Object nestedBean;
+                if (Map.class.isAssignableFrom(obj.getClass())) {
+                    nestedBean = getValueOfMap((Map) obj, next);
+                } else if (getResolver().isMapped(next)) {
+                    nestedBean = getMappedValue(obj, next);
+                } else if (getResolver().isIndexed(next)) {
+                    nestedBean = getIndexedValue(obj, next);
+                } else {
+                    nestedBean = getSimpleValue(obj, next);
+                }
+                if (nestedBean == null) {
+                    // no auto create so we have to fail here
+                    throw new NullPointerException("Nested traversal failure: null field value for name (" 
+                            + name + ") on object class (" + obj.getClass() + ") for object: " + obj);
+                }
+                obj = nestedBean;
+                name = getResolver().remove(name);
             }
-            obj = nestedBean;
-            name = getResolver().remove(name);
+            targetName = getResolver().getProperty(name);
+            indexedOrMapped = getResolver().isIndexed(name) || getResolver().isMapped(name);
         }
-        String targetName = getResolver().getProperty(name); // simple name of target field
         // get the type
         Class<?> fieldType;
         if (fieldAdapterManager.isAdaptableObject(obj)) {
@@ -262,21 +351,20 @@ public class FieldUtils {
         } else {
             // normal object
             ClassFields<?> cf = analyzeObject(obj);
-            try {
-                ClassProperty cp = cf.getClassProperty(targetName);
+            ClassProperty cp = cf.findClassProperty(targetName);
+            if (cp != null) {
                 fieldType = cp.getType();
-            } catch (FieldnameNotFoundException fnfe) {
+            } else {
                 // could not find this as a standard field so handle as internal lookup
-                ClassData<?> cd = cf.getClassData();
-                Field field = getFieldIfPossible(cd, name);
+                Field field = getFieldIfPossible(cf.getClassData(), targetName);
                 if (field == null) {
-                    throw new FieldnameNotFoundException("Could not find field with name ("+name+") on object (" + obj + ") after extended look into non-visible fields", fnfe);
+                    throw new FieldnameNotFoundException("Could not find field with name ("+name+") on object (" + obj + ") after extended look into non-visible fields", name, null);
                 }
                 fieldType = field.getType();
             }
         }
         // special handling for indexed and mapped names
-        if (getResolver().isIndexed(name) || getResolver().isMapped(name)) {
+        if (indexedOrMapped) {
             if ( ConstructorUtils.isClassArray(fieldType) ) {
                 // use the array component type
                 fieldType = fieldType.getComponentType();
@@ -293,7 +381,7 @@ public class FieldUtils {
      * returns the method names as fields (without the "get"/"is" part and camelCased)
      * @param type any class
      * @param filter (optional) indicates the fields to return the types for, can be null for defaults
-     * @return a map of field name -> class type
+     * @return a map of field name -> class type (read only view)
      */
     public Map<String, Class<?>> getFieldTypes(Class<?> type, FieldsFilter filter) {
         ClassFields<?> cf = analyzeClass(type, findFieldFindMode(filter));
@@ -301,7 +389,11 @@ public class FieldUtils {
         return types;
     }
 
-    private ClassFields.FieldFindMode findFieldFindMode(FieldsFilter filter) {
+    /**
+     * @param filter (optional) the fields filter
+     * @return the field find mode which finds the fields for this filter
+     */
+    ClassFields.FieldFindMode findFieldFindMode(FieldsFilter filter) {
         ClassFields.FieldFindMode mode = ClassFields.FieldFindMode.HYBRID; // default
         if (FieldsFilter.ALL.equals(filter)) {
             mode = ClassFields.FieldFindMode.ALL;
@@ -314,7 +406,7 @@ public class FieldUtils {
     /**
      * Get the names of all fields in a class
      * @param cls any class
-     * @return a list of the field names
+     * @return a list of the field names (read only view)
      */
     public <T> List<String> getFieldNames(Class<T> cls) {
         ClassFields<T> cf = analyzeClass(cls);
@@ -323,7 +415,7 @@ public class FieldUtils {
 
     public <T> List<String> getFieldNames(Class<T> cls, FieldsFilter filter) {
         ClassFields<T> cf = analyzeClass(cls, findFieldFindMode(filter));
-        return cf.getFieldNames();
+        return cf.getFieldNames(filter);
     }
 
     /**
@@ -358,11 +450,14 @@ public class FieldUtils {
         if (fieldAdapterManager.isAdaptableObject(obj)) {
             values.putAll( fieldAdapterManager.getFieldAdapter().getFieldValues(obj, filter) );
         } else {
-            Map<String, Class<?>> types = getFieldTypes(obj.getClass(), filter);
+            ClassProperty[] cps;
             if (FieldsFilter.WRITEABLE.equals(filter)) {
-                types.clear();
+                cps = new ClassProperty[0]; // writeable fields cannot be read
+            } else {
+                cps = analyzeClass(obj.getClass(), findFieldFindMode(filter)).getSharedClassProperties(filter);
             }
-            for (String name : types.keySet()) {
+            for (ClassProperty cp : cps) {
+                String name = cp.getFieldName();
                 try {
                     Object o = getFieldValue(obj, name);
                     values.put(name, o);
@@ -375,6 +470,38 @@ public class FieldUtils {
         return values;
     }
 
+    /**
+     * Get the values of some fields from a list of objects as columns (one array per field),
+     * this is much faster than getting the values for each object when there are lots of objects,
+     * primitive fields are put into primitive arrays without boxing the values (see {@link ColumnBatch})
+     * @param beans the objects to get the values from, all must be the same class (the class of the first one)
+     * @param pool (optional) the pool to split the work for large lists across, null to do all the work in the current thread
+     * @param names the names of the fields to get the values of (cannot be nested, indexed, or mapped)
+     * @return the columns of values (in the order of the objects)
+     * @throws IllegalArgumentException if the beans are empty or are not all the same class
+     * @throws FieldnameNotFoundException if a name is not a readable field
+     * @throws FieldGetValueException if a field value cannot be read
+     */
+    public ColumnBatch getFieldColumns(List<?> beans, ForkJoinPool pool, String... names) {
+        if (beans == null || beans.isEmpty()) {
+            throw new IllegalArgumentException("beans cannot be null or empty");
+        }
+        Object[] beanArray = beans.toArray();
+        if (beanArray[0] == null) {
+            throw new IllegalArgumentException("beans cannot contain nulls");
+        }
+        ClassFields<?> cf = analyzeObject(beanArray[0]);
+        return cf.readColumns(beanArray, names, pool);
+    }
+
+    /**
+     * Get the values of some fields from a list of objects as columns in the current thread,
+     * see {@link #getFieldColumns(List, ForkJoinPool, String...)}
+     */
+    public ColumnBatch getFieldColumns(List<?> beans, String... names) {
+        return getFieldColumns(beans, null, names);
+    }
+
     /**
      * Get the value of a field on an object,
      * name can be nested, indexed, or mapped
@@ -394,6 +521,11 @@ public class FieldUtils {
             throw new IllegalArgumentException("field name cannot be null or blank");
         }
 
+        PropertyPath path = getCachedPath(name);
+        if (path != null) {
+            return getPathValue(obj, path); // EXIT
+        }
+
         // Resolve nested references
         Holder holder = unpackNestedName(name, obj, false);
         name = holder.getName();
@@ -412,6 +544,30 @@ public class FieldUtils {
         return value;
     }
 
+    /**
+     * Get the value of a field on an object using a compiled path,
+     * this is the same as {@link #getFieldValue(Object, String)} but the path is not parsed again,
+     * use this when the same path is used many times
+     * @param obj any object
+     * @param path the compiled path of a field on this object (see {@link PropertyPath#compile(String)})
+     * @return the value of the field
+     * @throws FieldnameNotFoundException if this field name is invalid for this object
+     * @throws FieldGetValueException if the field is not readable or not visible
+     * @throws IllegalArgumentException if there is a failure getting the value
+     */
+    public Object getPathValue(Object obj, PropertyPath path) {
+        if (obj == null) {
+            throw new IllegalArgumentException("obj cannot be null");
+        }
+        if (path == null) {
+            throw new IllegalArgumentException("path cannot be null");
+        }
+
+        // Resolve nested references
+        obj = unpackNestedPath(path, obj, false);
+        return getSegmentValue(obj, path.getLastSegment());
+    }
+
     /**
      * Get the value of a field on an object as a specific type,
      * name can be nested, indexed, or mapped
@@ -468,6 +624,12 @@ public class FieldUtils {
             throw new IllegalArgumentException("field name cannot be null or blank");
         }
 
+        PropertyPath path = getCachedPath(name);
+        if (path != null) {
+            setPathValue(obj, path, value, autoConvert);
+            return; // EXIT
+        }
+
         // Resolve nested references
         Holder holder = unpackNestedName(name, obj, true);
         name = holder.getName();
@@ -493,6 +655,55 @@ public class FieldUtils {
         }
     }
 
+    /**
+     * Set the value of a field on an object using a compiled path (automatically auto converts),
+     * this is the same as {@link #setFieldValue(Object, String, Object)} but the path is not parsed again
+     * 
+     * @param obj any object
+     * @param path the compiled path of a field on this object (see {@link PropertyPath#compile(String)})
+     * @param value the value to set the field to
+     * @throws FieldnameNotFoundException if this field name is invalid for this object
+     * @throws FieldSetValueException if the field is not writeable or visible
+     * @throws IllegalArgumentException if there is a general failure setting the value
+     */
+    public void setPathValue(Object obj, PropertyPath path, Object value) {
+        setPathValue(obj, path, value, true);
+    }
+
+    /**
+     * Set the value of a field on an object using a compiled path (optionally convert the value to the field type),
+     * this is the same as {@link #setFieldValue(Object, String, Object, boolean)} but the path is not parsed again
+     * 
+     * @param obj any object
+     * @param path the compiled path of a field on this object (see {@link PropertyPath#compile(String)})
+     * @param value the value to set the field to
+     * @param autoConvert if true then the value will be converted to the target value type if it is possible,
+     * otherwise the value must match the target type exactly
+     * @throws FieldnameNotFoundException if this field name is invalid for this object
+     * @throws UnsupportedOperationException if this value cannot be auto converted to the type specified
+     * @throws FieldSetValueException if the field is not writeable or visible
+     * @throws IllegalArgumentException if there is a general failure setting the value
+     */
+    public void setPathValue(Object obj, PropertyPath path, Object value, boolean autoConvert) {
+        if (obj == null) {
+            throw new IllegalArgumentException("obj cannot be null");
+        }
+        if (path == null) {
+            throw new IllegalArgumentException("path cannot be null");
+        }
+
+        // Resolve nested references
+        obj = unpackNestedPath(path, obj, true);
+        Segment segment = path.getLastSegment();
+
+        if (autoConvert) {
+            // attempt to convert the value into the target type
+            Class<?> type = getSegmentType(obj, segment);
+            value = getConversionUtils().convert(value, type);
+        }
+        setSegmentValue(obj, segment, value);
+    }
+
     /**
      * For setting an indexed value on an indexed object directly,
      * indexed objects are lists and arrays <br/>
@@ -563,6 +774,11 @@ public class FieldUtils {
      */
     @SuppressWarnings("unchecked")
     protected Holder unpackNestedName(final String fullName, final Object object, boolean autoCreate) {
+        PropertyPath path = getCachedPath(fullName);
+        if (path != null) {
+            // the compiled path is traversed the same way without parsing the name again
+            return new Holder(path.getLastSegment().getExpression(), unpackNestedPath(path, object, autoCreate)); // EXIT
+        }
         String name = fullName;
         Object obj = object;
         Class<?> cls = object.getClass();
@@ -613,6 +829,157 @@ public class FieldUtils {
         return new Holder(name, obj);
     }
 
+    /**
+     * Traverses the nested segments of a compiled path to get to the object which holds the last segment,
+     * this works the same way as {@link #unpackNestedName(String, Object, boolean)}
+     * @param path the compiled path
+     * @param object the object to traverse
+     * @param autoCreate if true then create the nested objects to force successful traversal, else will throw NPE
+     * @return the nested object which holds the last segment of the path
+     * @throws NullPointerException if the path cannot be traversed
+     * @throws IllegalArgumentException if the path is invalid
+     */
+    protected Object unpackNestedPath(final PropertyPath path, final Object object, boolean autoCreate) {
+        Object obj = object;
+        int last = path.size() - 1;
+        try {
+            for (int i = 0; i < last; i++) {
+                Segment segment = path.getSegment(i);
+                Object nestedBean = getSegmentValue(obj, segment);
+                if (nestedBean == null) {
+                    // could not get the nested bean because it is unset
+                    if (autoCreate) {
+                        // create the nested bean
+                        String next = segment.getExpression();
+                        try {
+                            Class<?> type = getFieldType(obj, next);
+                            if (Object.class.equals(type)) {
+                                // indeterminate type so we will make a map
+                                type = ArrayOrderedMap.class;
+                            }
+                            nestedBean = getConstructorUtils().constructClass(type);
+                            setFieldValue(obj, next, nestedBean, false); // need to put this new object into the parent
+                        } catch (RuntimeException e) {
+                            throw new IllegalArgumentException("Nested path failure: Could not create nested object ("
+                                    +object.getClass().getName()+") in path ("+path+"): " + e.getMessage(), e);
+                        }
+                    } else {
+                        // no auto create so we have to fail here
+                        throw new NullPointerException("Nested traversal failure: null field value for name (" 
+                                + segment.getExpression() + ") in nestedName ("+path+") on object class (" + object.getClass() + ") for object: " + obj);
+                    }
+                }
+                obj = nestedBean;
+            }
+        } catch (FieldnameNotFoundException e) {
+            // convert field name failure into illegal argument
+            throw new IllegalArgumentException("Nested path failure: Invalid path name ("
+                    +path+") contains invalid field names: " + e.getMessage(), e);
+        }
+        return obj;
+    }
+
+    /**
+     * Get the value for a single (already parsed) segment of a path from an object
+     * @param obj any object
+     * @param segment the path segment
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    protected Object getSegmentValue(Object obj, Segment segment) {
+        Object value;
+        if (obj instanceof Map) {
+            value = getValueOfMap((Map) obj, segment.getExpression());
+        } else if (segment.getType() == SegmentType.MAPPED) {
+            value = getMappedValue(obj, segment.getName(), segment.getKey(), resolveSegmentProperty(obj, segment));
+        } else if (segment.getType() == SegmentType.INDEXED) {
+            value = getIndexedValue(obj, segment.getName(), segment.getIndex(), resolveSegmentProperty(obj, segment));
+        } else {
+            ClassProperty cp = resolveSegmentProperty(obj, segment);
+            if (cp != null) {
+                value = findFieldValue(obj, cp);
+            } else {
+                value = getSimpleValue(obj, segment.getName());
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Set the value for a single (already parsed) segment of a path on an object
+     * @param obj any object
+     * @param segment the path segment
+     * @param value the value to set
+     */
+    @SuppressWarnings("unchecked")
+    protected void setSegmentValue(Object obj, Segment segment, Object value) {
+        if (obj instanceof Map) {
+            setValueOfMap((Map) obj, segment.getExpression(), value);
+        } else if (segment.getType() == SegmentType.MAPPED) {
+            setMappedValue(obj, segment.getName(), segment.getKey(), value, resolveSegmentProperty(obj, segment));
+        } else if (segment.getType() == SegmentType.INDEXED) {
+            setIndexedValue(obj, segment.getName(), segment.getIndex(), value, resolveSegmentProperty(obj, segment));
+        } else {
+            ClassProperty cp = resolveSegmentProperty(obj, segment);
+            if (cp != null) {
+                assignFieldValue(obj, cp, value);
+            } else {
+                setSimpleValue(obj, segment.getName(), value);
+            }
+        }
+    }
+
+    /**
+     * Get the type of the field for a single (already parsed) segment of a path on an object
+     * @param obj any object
+     * @param segment the path segment
+     * @return the type of the field (will be {@link Object} if the type is indeterminate)
+     */
+    protected Class<?> getSegmentType(Object obj, Segment segment) {
+        Class<?> type = null;
+        if (segment.getType() == SegmentType.SIMPLE
+                && ! ConstructorUtils.isClassObjectHolder(obj.getClass())) {
+            ClassProperty cp = resolveSegmentProperty(obj, segment);
+            if (cp != null) {
+                type = cp.getType();
+            }
+        }
+        if (type == null) {
+            type = getFieldType(obj, segment.getExpression());
+        }
+        return type;
+    }
+
+    /**
+     * Finds the class property for a path segment on a normal bean,
+     * the property is cached in the segment so the lookup only happens again if the class changes
+     * @param obj any object
+     * @param segment the path segment
+     * @return the property OR null if the object is not a normal bean or the property cannot be found
+     * (arrays, lists, maps, and adaptable objects have no properties)
+     */
+    protected ClassProperty resolveSegmentProperty(Object obj, Segment segment) {
+        Class<?> cls = obj.getClass();
+        if (cls.isArray()
+                || obj instanceof Map
+                || obj instanceof List) {
+            return null;
+        }
+        FieldFindMode mode = getClassDataCacher().getFieldFindMode();
+        ClassProperty cp = segment.getResolvedProperty(cls, mode);
+        if (cp == null) {
+            if (fieldAdapterManager.isAdaptableObject(obj)) {
+                return null;
+            }
+            ClassFields<?> cf = analyzeObject(obj);
+            cp = cf.findClassProperty(segment.getName());
+            if (cp != null) {
+                segment.setResolvedProperty(cls, mode, cp);
+            }
+        }
+        return cp;
+    }
+
     /**
      * For getting a value out of a bean based on a field name
      * <br/>
@@ -635,16 +1002,15 @@ public class FieldUtils {
         } else {
             // normal bean
             ClassFields<?> cf = analyzeObject(obj);
-            try {
+            ClassProperty cp = cf.findClassProperty(name);
+            if (cp != null) {
                 // use the class property
-                ClassProperty cp = cf.getClassProperty(name);
                 value = findFieldValue(obj, cp);
-            } catch (FieldnameNotFoundException fnfe) {
+            } else {
                 // could not find this as a standard field so handle as internal lookup
-                ClassData<?> cd = cf.getClassData();
-                Field field = getFieldIfPossible(cd, name);
+                Field field = getFieldIfPossible(cf.getClassData(), name);
                 if (field == null) {
-                    throw new FieldnameNotFoundException("Could not find field with name ("+name+") on object (" + obj + ") after extended look into non-visible fields", fnfe);
+                    throw new FieldnameNotFoundException("Could not find field with name ("+name+") on object (" + obj + ") after extended look into non-visible fields", name, null);
                 }
                 try {
                     value = field.get(obj);
@@ -677,7 +1043,6 @@ public class FieldUtils {
             throw new IllegalArgumentException("field name cannot be null or blank");
         }
 
-        Object value = null;
         Resolver resolver = getResolver();
 
         // get the index from the indexed name
@@ -692,7 +1057,23 @@ public class FieldUtils {
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid indexed field (" + name + ") on type (" + obj.getClass() + ")", e);
         }
+        return getIndexedValue(obj, name, index, null);
+    }
 
+    /**
+     * For getting an indexed value out of an object when the name and index are already known
+     * (i.e. the name has already been parsed)
+     * @param obj any object
+     * @param name the field name (without the index), can be "" if the object is a list or array
+     * @param index the index to get the value from
+     * @param cp (optional) the property for the name if it is already known, null to look it up
+     * @throws FieldnameNotFoundException if this field name is invalid for this object
+     * @throws IllegalArgumentException if there is a failure
+     * @throws FieldGetValueException if there is an internal failure getting the field
+     */
+    @SuppressWarnings("unchecked")
+    protected Object getIndexedValue(Object obj, String name, int index, ClassProperty cp) {
+        Object value = null;
         boolean indexedProperty = false;
         // Handle DynaBean instances specially
         if (fieldAdapterManager.isAdaptableObject(obj)) {
@@ -707,8 +1088,10 @@ public class FieldUtils {
                 indexedObject = obj;
             } else {
                 // normal bean
-                ClassFields cf = analyzeObject(obj);
-                ClassProperty cp = cf.getClassProperty(name);
+                if (cp == null) {
+                    ClassFields cf = analyzeObject(obj);
+                    cp = cf.getClassProperty(name);
+                }
                 if (! cp.isIndexed()) {
                     throw new IllegalArgumentException("This field ("+name+") is not an indexed field");
                 }
@@ -780,7 +1163,6 @@ public class FieldUtils {
             throw new IllegalArgumentException("field name cannot be null or blank");
         }
 
-        Object value = null;
         Resolver resolver = getResolver();
 
         // get the key from the mapped name
@@ -795,7 +1177,23 @@ public class FieldUtils {
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid mapped field (" + name + ") on type (" + obj.getClass() + ")", e);
         }
+        return getMappedValue(obj, name, key, null);
+    }
 
+    /**
+     * For getting a mapped value out of an object when the name and key are already known
+     * (i.e. the name has already been parsed)
+     * @param obj any object
+     * @param name the field name (without the key), can be "" if the object is a map
+     * @param key the key to get the value for
+     * @param cp (optional) the property for the name if it is already known, null to look it up
+     * @throws FieldnameNotFoundException if this field name is invalid for this object
+     * @throws IllegalArgumentException if there are invalid arguments
+     * @throws FieldGetValueException if there is an internal failure getting the field
+     */
+    @SuppressWarnings("unchecked")
+    protected Object getMappedValue(Object obj, String name, String key, ClassProperty cp) {
+        Object value = null;
         boolean mappedProperty = false;
         // Handle DynaBean instances specially
         if (fieldAdapterManager.isAdaptableObject(obj)) {
@@ -806,8 +1204,10 @@ public class FieldUtils {
                 map = (Map) obj;
             } else {
                 // normal bean
-                ClassFields cf = analyzeObject(obj);
-                ClassProperty cp = cf.getClassProperty(name);
+                if (cp == null) {
+                    ClassFields cf = analyzeObject(obj);
+                    cp = cf.getClassProperty(name);
+                }
                 if (! cp.isMapped()) {
                     throw new IllegalArgumentException("This field ("+name+") is not an mapped field");
                 }
@@ -887,28 +1287,7 @@ public class FieldUtils {
         if (cp == null) {
             throw new IllegalArgumentException("ClassProperty cannot be null");
         }
-
-        Object value;
-        if (cp.isPublicField()) {
-            Field field = cp.getField();
-            try {
-                value = field.get(obj);
-            } catch (Exception e) {
-                // catching the general exception is correct here, translate the exception
-                throw new FieldGetValueException("Field get failure getting value for name ("+cp.getFieldName()+") from: " + obj, cp.getFieldName(), obj, e);
-            }
-        } else {
-            // must be a property then
-            Method getter = cp.getGetter();
-            try {
-                //noinspection RedundantArrayCreation
-                value = getter.invoke(obj, new Object[0]);
-            } catch (Exception e) {
-                // catching the general exception is correct here, translate the exception
-                throw new FieldGetValueException("Getter method failure getting value for name ("+cp.getFieldName()+") from: " + obj, cp.getFieldName(), obj, e);
-            }
-        }
-        return value;
+        return cp.getValue(obj);
     }
 
 
@@ -934,15 +1313,14 @@ public class FieldUtils {
         } else {
             // normal bean
             ClassFields<?> cf = analyzeObject(obj);
-            try {
-                ClassProperty cp = cf.getClassProperty(name);
+            ClassProperty cp = cf.findClassProperty(name);
+            if (cp != null) {
                 assignFieldValue(obj, cp, value);
-            } catch (FieldnameNotFoundException fnfe) {
+            } else {
                 // could not find this as a standard field so handle as internal lookup
-                ClassData<?> cd = cf.getClassData();
-                Field field = getFieldIfPossible(cd, name);
+                Field field = getFieldIfPossible(cf.getClassData(), name);
                 if (field == null) {
-                    throw new FieldnameNotFoundException("Could not find field with name ("+name+") on object (" + obj + ") after extended look into non-visible fields", fnfe);
+                    throw new FieldnameNotFoundException("Could not find field with name ("+name+") on object (" + obj + ") after extended look into non-visible fields", name, null);
                 }
                 try {
                     value = getConversionUtils().convert(value, field.getType());
@@ -986,7 +1364,23 @@ public class FieldUtils {
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid indexed field (" + name + ") on type (" + obj.getClass() + ")", e);
         }
+        setIndexedValue(obj, name, index, value, null);
+    }
 
+    /**
+     * For setting an indexed value on an object when the name and index are already known
+     * (i.e. the name has already been parsed)
+     * @param obj any object
+     * @param name the field name (without the index), can be "" if the object is a list or array
+     * @param index the index to set the value on
+     * @param value the value to set
+     * @param cp (optional) the property for the name if it is already known, null to look it up
+     * @throws FieldnameNotFoundException if this field name is invalid for this object
+     * @throws IllegalArgumentException if there is failure
+     * @throws FieldSetValueException if there is an internal failure setting the field
+     */
+    @SuppressWarnings("unchecked")
+    protected void setIndexedValue(Object obj, String name, int index, Object value, ClassProperty cp) {
         boolean indexedProperty = false;
         // Handle DynaBean instances specially
         if (fieldAdapterManager.isAdaptableObject(obj)) {
@@ -1001,8 +1395,10 @@ public class FieldUtils {
                 indexedObject = obj;
             } else {
                 // normal bean
-                ClassFields cf = analyzeObject(obj);
-                ClassProperty cp = cf.getClassProperty(name);
+                if (cp == null) {
+                    ClassFields cf = analyzeObject(obj);
+                    cp = cf.getClassProperty(name);
+                }
                 if (! cp.isIndexed()) {
                     throw new IllegalArgumentException("This field ("+name+") is not an indexed field");
                 }
@@ -1129,7 +1525,23 @@ public class FieldUtils {
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid mapped field (" + name + ") on type (" + obj.getClass() + ")", e);
         }
+        setMappedValue(obj, name, key, value, null);
+    }
 
+    /**
+     * For setting a mapped value on an object when the name and key are already known
+     * (i.e. the name has already been parsed)
+     * @param obj any object
+     * @param name the field name (without the key), can be "" if the object is a map
+     * @param key the key to set the value for
+     * @param value the value to set
+     * @param cp (optional) the property for the name if it is already known, null to look it up
+     * @throws FieldnameNotFoundException if this field name is invalid for this object
+     * @throws IllegalArgumentException if there is failure
+     * @throws FieldSetValueException if there is an internal failure setting the field
+     */
+    @SuppressWarnings("unchecked")
+    protected void setMappedValue(Object obj, String name, String key, Object value, ClassProperty cp) {
         boolean mappedProperty = false;
         // Handle DynaBean instances specially
         if (fieldAdapterManager.isAdaptableObject(obj)) {
@@ -1140,8 +1552,10 @@ public class FieldUtils {
                 map = (Map) obj;
             } else {
                 // normal bean
-                ClassFields cf = analyzeObject(obj);
-                ClassProperty cp = cf.getClassProperty(name);
+                if (cp == null) {
+                    ClassFields cf = analyzeObject(obj);
+                    cp = cf.getClassProperty(name);
+                }
                 if (! cp.isMapped()) {
                     throw new IllegalArgumentException("This field ("+name+") is not an mapped field");
                 }
@@ -1234,26 +1648,7 @@ public class FieldUtils {
         if (cp == null) {
             throw new IllegalArgumentException("ClassProperty cannot be null");
         }
-        if (cp.isPublicField()) {
-            Field field = cp.getField();
-            try {
-                field.set(obj, value);
-            } catch (Exception e) {
-                // catching the general exception is correct here, translate the exception
-                throw new FieldSetValueException("Field set failure setting value ("+value+") for name ("+cp.getFieldName()+") on: " + obj, 
-                        cp.getFieldName(), value, obj, e);
-            }
-        } else {
-            // must be a property then
-            Method setter = cp.getSetter();
-            try {
-                //noinspection RedundantArrayCreation
-                setter.invoke(obj, new Object[] {value});
-            } catch (Exception e) {
-                throw new FieldSetValueException("Setter method failure setting value ("+value+") for name ("+cp.getFieldName()+") on: " + obj, 
-                        cp.getFieldName(), value, obj, e);
-            }
-        }
+        cp.setValue(obj, value);
     }
 
     /**
@@ -1263,15 +1658,7 @@ public class FieldUtils {
      * @return the field if found OR null if not
      */
     protected Field getFieldIfPossible(ClassData<?> cd, String name) {
-        Field f = null;
-        List<Field> fields = cd.getFields();
-        for (Field field : fields) {
-            if (field.getName().equals(name)) {
-                f = field;
-                break;
-            }
-        }
-        return f;
+        return cd.getField(name);
     }
 
     public static final class Holder {
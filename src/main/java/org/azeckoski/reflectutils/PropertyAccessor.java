@@ -0,0 +1,53 @@
+/**
+ * $Id$
+ * $URL$
+ * PropertyAccessor.java - reflectutils - Oct 18, 2026 10:12:41 AM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils;
+
+/**
+ * Direct access to the value of a single property on objects of a class,
+ * these are generated (when possible) for the getter and setter of a {@link ClassProperty}
+ * and allow the value to be read and written without going through reflection<br/>
+ * Use {@link ClassProperty#getAccessor()} to get the one for a property
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public interface PropertyAccessor {
+
+    /**
+     * @return true if this accessor can get the value of the property (see {@link #getValue(Object)})
+     */
+    public boolean isReadable();
+
+    /**
+     * @return true if this accessor can set the value of the property (see {@link #setValue(Object, Object)})
+     */
+    public boolean isWriteable();
+
+    /**
+     * Get the value of this property from an object
+     * @param obj an object of the class this accessor was made for
+     * @return the value of the property (may be null)
+     * @throws UnsupportedOperationException if this accessor is not readable
+     */
+    public Object getValue(Object obj);
+
+    /**
+     * Set the value of this property on an object, the value type must match the property type
+     * @param obj an object of the class this accessor was made for
+     * @param value the value to set on the property
+     * @throws UnsupportedOperationException if this accessor is not writeable
+     */
+    public void setValue(Object obj, Object value);
+
+}
@@ -0,0 +1,205 @@
+/**
+ * $Id$
+ * $URL$
+ * PropertyAccessorFactory.java - reflectutils - Oct 18, 2026 10:12:41 AM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Generates {@link PropertyAccessor}s for the getters and setters of {@link ClassProperty}s,
+ * the accessors are spun up using the {@link LambdaMetafactory} so calls on them are
+ * plain (inlineable) method calls instead of {@link Method#invoke(Object, Object...)}<br/>
+ * Accessors are only generated for public methods on public classes which are visible
+ * from the classloader of this library, anything else should be accessed using reflection
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public class PropertyAccessorFactory {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Function.class);
+    private static final MethodType GETTER_SAM = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(BiConsumer.class);
+    private static final MethodType SETTER_SAM = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * Make an accessor for the getter and setter of a property
+     * @param cp any class property
+     * @return the accessor OR null if one cannot be generated for this property
+     * (i.e. there are no public getter or setter methods which can be linked to)
+     */
+    public static PropertyAccessor makeAccessor(ClassProperty cp) {
+        if (cp == null) {
+            throw new IllegalArgumentException("ClassProperty cannot be null");
+        }
+        PropertyAccessor accessor = null;
+        if (! cp.isPublicField()) {
+            Function<Object, Object> getter = makeGetter(cp.getGetter());
+            BiConsumer<Object, Object> setter = makeSetter(cp.getSetter());
+            if (getter != null || setter != null) {
+                accessor = new GeneratedAccessor(cp.getFieldName(), getter, setter);
+            }
+        }
+        return accessor;
+    }
+
+    /**
+     * @param getter any getter method (no params, returns a value)
+     * @return the generated getter function OR null if it cannot be made
+     */
+    @SuppressWarnings("unchecked")
+    protected static Function<Object, Object> makeGetter(Method getter) {
+        Function<Object, Object> function = null;
+        if (getter != null
+                && getter.getParameterTypes().length == 0
+                && ! void.class.equals(getter.getReturnType())
+                && isLinkable(getter)
+                && isVisible(getter.getReturnType())) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle handle = lookup.unreflect(getter);
+                MethodType instantiated = MethodType.methodType(wrap(getter.getReturnType()), getter.getDeclaringClass());
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply", GETTER_TYPE, GETTER_SAM, handle, instantiated);
+                function = (Function<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                // catching throwable is correct here, any failure means we fall back to reflection
+                function = null;
+            }
+        }
+        return function;
+    }
+
+    /**
+     * @param setter any setter method (one param)
+     * @return the generated setter function OR null if it cannot be made
+     */
+    @SuppressWarnings("unchecked")
+    protected static BiConsumer<Object, Object> makeSetter(Method setter) {
+        BiConsumer<Object, Object> consumer = null;
+        if (setter != null
+                && setter.getParameterTypes().length == 1
+                && isLinkable(setter)
+                && isVisible(setter.getParameterTypes()[0])) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle handle = lookup.unreflect(setter);
+                MethodType instantiated = MethodType.methodType(void.class, setter.getDeclaringClass(), wrap(setter.getParameterTypes()[0]));
+                CallSite site = LambdaMetafactory.metafactory(lookup, "accept", SETTER_TYPE, SETTER_SAM, handle, instantiated);
+                consumer = (BiConsumer<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                // catching throwable is correct here, any failure means we fall back to reflection
+                consumer = null;
+            }
+        }
+        return consumer;
+    }
+
+    /**
+     * @param method any method
+     * @return true if generated code in this library can call this method directly
+     */
+    protected static boolean isLinkable(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        return Modifier.isPublic(method.getModifiers())
+                && ! Modifier.isStatic(method.getModifiers())
+                && Modifier.isPublic(declaringClass.getModifiers())
+                && isVisible(declaringClass);
+    }
+
+    /**
+     * The generated classes resolve types through the classloader of this library
+     * so any type they reference must resolve to the same class from here
+     * @param type any type
+     * @return true if the type is visible from this library classloader
+     */
+    protected static boolean isVisible(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        ClassLoader loader = PropertyAccessorFactory.class.getClassLoader();
+        if (type.getClassLoader() == loader || type.getClassLoader() == null) {
+            return true;
+        }
+        boolean visible;
+        try {
+            visible = (Class.forName(type.getName(), false, loader) == type);
+        } catch (ClassNotFoundException e) {
+            visible = false;
+        } catch (LinkageError e) {
+            visible = false;
+        }
+        return visible;
+    }
+
+    /**
+     * @param type any type
+     * @return the wrapper type if this is a primitive OR the type if not
+     */
+    protected static Class<?> wrap(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    /**
+     * The accessor which wraps the generated getter and setter functions
+     */
+    protected static class GeneratedAccessor implements PropertyAccessor {
+        private final String fieldName;
+        private final Function<Object, Object> getter;
+        private final BiConsumer<Object, Object> setter;
+
+        public GeneratedAccessor(String fieldName, Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+            this.fieldName = fieldName;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        public boolean isReadable() {
+            return getter != null;
+        }
+
+        public boolean isWriteable() {
+            return setter != null;
+        }
+
+        public Object getValue(Object obj) {
+            if (getter == null) {
+                throw new UnsupportedOperationException("No generated getter for property: " + fieldName);
+            }
+            return getter.apply(obj);
+        }
+
+        public void setValue(Object obj, Object value) {
+            if (setter == null) {
+                throw new UnsupportedOperationException("No generated setter for property: " + fieldName);
+            }
+            setter.accept(obj, value);
+        }
+
+        @Override
+        public String toString() {
+            return "accessor:" + fieldName + "[" + (getter == null ? "-" : "G") + (setter == null ? "-" : "S") + "]";
+        }
+    }
+
+}
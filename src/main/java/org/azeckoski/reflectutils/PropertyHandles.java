@@ -0,0 +1,267 @@
+/**
+ * $Id$
+ * $URL$
+ * PropertyHandles.java - reflectutils - Oct 18, 2026 11:02:17 AM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Holds the {@link MethodHandle}s used to get and set the value of a {@link ClassProperty},
+ * the handles are adapted (with {@link MethodHandle#asType(MethodType)}) to the generic types
+ * {@link #GETTER_TYPE} and {@link #SETTER_TYPE} so they can always be called with {@link MethodHandle#invokeExact(Object...)}<br/>
+ * The handles skip the access checks and the argument array of reflection on each call,
+ * they are not constants to the JIT so the calls are not inlined into the caller,
+ * get the one for a property from {@link ClassProperty#getHandles()}
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public final class PropertyHandles {
+
+    /**
+     * The type of all getter handles: (Object)Object
+     */
+    public static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    /**
+     * The type of all setter handles: (Object,Object)void
+     */
+    public static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * The handle for getting the value (from the public field or the getter method), null if there is none
+     */
+    public final MethodHandle getter;
+    /**
+     * The handle for setting the value (on the public field or with the setter method), null if there is none
+     */
+    public final MethodHandle setter;
+    /**
+     * The handle for getting the value without boxing when the property type is primitive, null if the type is not primitive
+     * or there is no getter, the type is (Object)int, (Object)long, (Object)double, or (Object)boolean
+     * (smaller primitives are widened, see {@link #getPrimitiveGetterType(Class)})
+     */
+    public final MethodHandle primitiveGetter;
+
+    public PropertyHandles(MethodHandle getter, MethodHandle setter) {
+        this(getter, setter, null);
+    }
+
+    public PropertyHandles(MethodHandle getter, MethodHandle setter, MethodHandle primitiveGetter) {
+        this.getter = getter;
+        this.setter = setter;
+        this.primitiveGetter = primitiveGetter;
+    }
+
+    /**
+     * @return true if there is a getter handle
+     */
+    public boolean isReadable() {
+        return getter != null;
+    }
+
+    /**
+     * @return true if there is a setter handle
+     */
+    public boolean isWriteable() {
+        return setter != null;
+    }
+
+    /**
+     * Get the value from an object using the getter handle
+     * @param obj the object to get the value from
+     * @return the value
+     * @throws Throwable anything thrown by the field access or the getter method
+     */
+    public Object getValue(Object obj) throws Throwable {
+        return (Object) getter.invokeExact(obj);
+    }
+
+    /**
+     * Set the value on an object using the setter handle
+     * @param obj the object to set the value on
+     * @param value the value to set
+     * @throws Throwable anything thrown by the field access or the setter method
+     */
+    public void setValue(Object obj, Object value) throws Throwable {
+        setter.invokeExact(obj, value);
+    }
+
+    /**
+     * Make the handles for a property, uses the public field if there is one and otherwise the getter/setter methods
+     * (same as the way the values are accessed by {@link FieldUtils}), 
+     * properties which are only a field (no methods) use the field even if it is not public
+     * @param cp any class property
+     * @return the holder for the handles (the handles will be null if they cannot be made)
+     */
+    public static PropertyHandles make(ClassProperty cp) {
+        if (cp == null) {
+            throw new IllegalArgumentException("ClassProperty cannot be null");
+        }
+        MethodHandle getter;
+        MethodHandle setter;
+        MethodHandle primitiveGetter = null;
+        Class<?> primitiveType = getPrimitiveGetterType(cp.getType());
+        if (cp.isPublicField() || cp.isFieldOnly()) {
+            getter = makeFieldGetter(cp.getField());
+            setter = cp.isFinal() ? null : makeFieldSetter(cp.getField());
+            if (primitiveType != null) {
+                primitiveGetter = makeFieldGetter(cp.getField(), MethodType.methodType(primitiveType, Object.class));
+            }
+        } else {
+            getter = makeGetter(cp.getGetter());
+            setter = makeSetter(cp.getSetter());
+            if (primitiveType != null) {
+                primitiveGetter = makeGetter(cp.getGetter(), MethodType.methodType(primitiveType, Object.class));
+            }
+        }
+        return new PropertyHandles(getter, setter, primitiveGetter);
+    }
+
+    /**
+     * Gets the type that a primitive value is widened to for the {@link #primitiveGetter},
+     * byte/short/char/int are int, float/double are double, long is long, and boolean is boolean
+     * @param type any type
+     * @return the widened primitive type OR null if the type is not primitive
+     */
+    public static Class<?> getPrimitiveGetterType(Class<?> type) {
+        Class<?> widened = null;
+        if (type != null && type.isPrimitive()) {
+            if (boolean.class.equals(type)) {
+                widened = boolean.class;
+            } else if (long.class.equals(type)) {
+                widened = long.class;
+            } else if (double.class.equals(type) || float.class.equals(type)) {
+                widened = double.class;
+            } else if (! void.class.equals(type)) {
+                widened = int.class;
+            }
+        }
+        return widened;
+    }
+
+    /**
+     * @param method a getter method (no params)
+     * @return the adapted handle OR null if it cannot be made
+     */
+    protected static MethodHandle makeGetter(Method method) {
+        return makeGetter(method, GETTER_TYPE);
+    }
+
+    /**
+     * @param method a getter method (no params)
+     * @param type the type to adapt the handle to (must take one Object param)
+     * @return the adapted handle OR null if it cannot be made
+     */
+    protected static MethodHandle makeGetter(Method method, MethodType type) {
+        MethodHandle mh = null;
+        if (method != null
+                && method.getParameterTypes().length == 0
+                && ! void.class.equals(method.getReturnType())) {
+            try {
+                mh = MethodHandles.lookup().unreflect(method);
+                if (Modifier.isStatic(method.getModifiers())) {
+                    mh = MethodHandles.dropArguments(mh, 0, Object.class);
+                }
+                mh = mh.asType(type);
+            } catch (Exception e) {
+                // catching the general exception is correct here, no handle means reflection is used
+                mh = null;
+            }
+        }
+        return mh;
+    }
+
+    /**
+     * @param method a setter method (one param)
+     * @return the adapted handle OR null if it cannot be made
+     */
+    protected static MethodHandle makeSetter(Method method) {
+        MethodHandle mh = null;
+        if (method != null
+                && method.getParameterTypes().length == 1) {
+            try {
+                mh = MethodHandles.lookup().unreflect(method);
+                if (Modifier.isStatic(method.getModifiers())) {
+                    mh = MethodHandles.dropArguments(mh, 0, Object.class);
+                }
+                mh = mh.asType(SETTER_TYPE);
+            } catch (Exception e) {
+                // catching the general exception is correct here, no handle means reflection is used
+                mh = null;
+            }
+        }
+        return mh;
+    }
+
+    /**
+     * @param field any field
+     * @return the adapted handle OR null if it cannot be made
+     */
+    protected static MethodHandle makeFieldGetter(Field field) {
+        return makeFieldGetter(field, GETTER_TYPE);
+    }
+
+    /**
+     * @param field any field
+     * @param type the type to adapt the handle to (must take one Object param)
+     * @return the adapted handle OR null if it cannot be made
+     */
+    protected static MethodHandle makeFieldGetter(Field field, MethodType type) {
+        MethodHandle mh = null;
+        if (field != null) {
+            try {
+                mh = MethodHandles.lookup().unreflectGetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    mh = MethodHandles.dropArguments(mh, 0, Object.class);
+                }
+                mh = mh.asType(type);
+            } catch (Exception e) {
+                // catching the general exception is correct here, no handle means reflection is used
+                mh = null;
+            }
+        }
+        return mh;
+    }
+
+    /**
+     * @param field any non-final field
+     * @return the adapted handle OR null if it cannot be made
+     */
+    protected static MethodHandle makeFieldSetter(Field field) {
+        MethodHandle mh = null;
+        if (field != null) {
+            try {
+                mh = MethodHandles.lookup().unreflectSetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    mh = MethodHandles.dropArguments(mh, 0, Object.class);
+                }
+                mh = mh.asType(SETTER_TYPE);
+            } catch (Exception e) {
+                // catching the general exception is correct here, no handle means reflection is used
+                mh = null;
+            }
+        }
+        return mh;
+    }
+
+    @Override
+    public String toString() {
+        return "handles[" + (getter == null ? "-" : "G") + (setter == null ? "-" : "S") + "]";
+    }
+
+}
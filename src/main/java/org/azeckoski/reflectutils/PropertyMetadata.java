@@ -0,0 +1,111 @@
+/**
+ * $Id$
+ * $URL$
+ * PropertyMetadata.java - reflectutils - Oct 18, 2026 6:09:03 PM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils;
+
+import java.lang.reflect.Modifier;
+
+/**
+ * The build time metadata for a single property of a class, 
+ * this holds everything needed to make the {@link ClassProperty} without using reflection
+ * (the getter, setter, and field are only looked up if they are requested),
+ * these are created by the generated {@link ClassMetadataProvider}s
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public final class PropertyMetadata {
+
+    private final String name;
+    private final Class<?> type;
+    private final String getterName;
+    private final String setterName;
+    private final Class<?> setterType;
+    private final int fieldModifiers;
+    private final boolean transientField;
+    private final PropertyAccessor accessor;
+
+    /**
+     * @param name the property (field) name
+     * @param type the type of the property
+     * @param getterName the name of the public getter method OR null if there is none
+     * @param setterName the name of the public setter method OR null if there is none
+     * @param setterType the parameter type of the setter method OR null if there is no setter
+     * @param fieldModifiers the modifiers of the field with the property name (see {@link Modifier}) OR -1 if there is no field
+     * @param transientField true if the property should be treated as transient
+     * @param accessor the accessor for the value of the property (should not use reflection)
+     */
+    public PropertyMetadata(String name, Class<?> type, String getterName, String setterName, Class<?> setterType, 
+            int fieldModifiers, boolean transientField, PropertyAccessor accessor) {
+        if (name == null || type == null || accessor == null) {
+            throw new IllegalArgumentException("name, type, and accessor cannot be null");
+        }
+        if (setterName != null && setterType == null) {
+            throw new IllegalArgumentException("setterType must be set if there is a setter: " + name);
+        }
+        this.name = name;
+        this.type = type;
+        this.getterName = getterName;
+        this.setterName = setterName;
+        this.setterType = setterType;
+        this.fieldModifiers = fieldModifiers;
+        this.transientField = transientField;
+        this.accessor = accessor;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public String getGetterName() {
+        return getterName;
+    }
+
+    public String getSetterName() {
+        return setterName;
+    }
+
+    public Class<?> getSetterType() {
+        return setterType;
+    }
+
+    public int getFieldModifiers() {
+        return fieldModifiers;
+    }
+
+    /**
+     * @return true if there is a field with the property name
+     */
+    public boolean isField() {
+        return fieldModifiers >= 0;
+    }
+
+    public boolean isTransient() {
+        return transientField;
+    }
+
+    public PropertyAccessor getAccessor() {
+        return accessor;
+    }
+
+    @Override
+    public String toString() {
+        return name + "(" + type.getName() + "):getter=" + getterName + ":setter=" + setterName 
+            + ":field=" + (isField() ? Modifier.toString(fieldModifiers) : "-");
+    }
+
+}
@@ -0,0 +1,356 @@
+/**
+ * $Id$
+ * $URL$
+ * PropertyPath.java - reflectutils - Oct 18, 2026 1:40:05 PM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.azeckoski.reflectutils.ClassFields.FieldFindMode;
+import org.azeckoski.reflectutils.beanutils.DefaultResolver;
+
+/**
+ * A compiled field path expression (e.g. "a.b[2].c(key)"), the expression is parsed once
+ * into an array of segments so it does not have to be parsed again each time it is used<br/>
+ * The syntax is the same as the one supported by the {@link DefaultResolver}:<br/>
+ * <b>Simple:</b> "title", "id"<br/>
+ * <b>Nested:</b> "someBean.title", "someBean.id"<br/>
+ * <b>Indexed:</b> "myList[1]", "anArray[2]"<br/>
+ * <b>Mapped:</b> "myMap(key)", "someMap(thing)"<br/>
+ * <br/>
+ * Paths are immutable and thread safe so compile them once and keep them,
+ * they can be used with {@link FieldUtils#getPathValue(Object, PropertyPath)} and
+ * {@link FieldUtils#setPathValue(Object, PropertyPath, Object)}
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public final class PropertyPath {
+
+    private static final char NESTED        = '.';
+    private static final char MAPPED_START  = '(';
+    private static final char MAPPED_END    = ')';
+    private static final char INDEXED_START = '[';
+    private static final char INDEXED_END   = ']';
+
+    /**
+     * The types of segments in a path
+     */
+    public static enum SegmentType {
+        /**
+         * a plain field name: "title"
+         */
+        SIMPLE,
+        /**
+         * an indexed field name: "myList[1]" (or only the index "[1]")
+         */
+        INDEXED,
+        /**
+         * a mapped field name: "myMap(key)" (or only the key "(key)")
+         */
+        MAPPED
+    }
+
+    private final String expression;
+    private final Segment[] segments;
+
+    private PropertyPath(String expression, Segment[] segments) {
+        this.expression = expression;
+        this.segments = segments;
+    }
+
+    /**
+     * Parse a field path expression into a compiled path
+     * @param expression a field path (e.g. "a.b[2].c(key)"), can be simple, nested, indexed, or mapped
+     * @return the compiled path
+     * @throws IllegalArgumentException if the expression is null, empty, or invalid (e.g. bad index or missing end delimiter)
+     */
+    public static PropertyPath compile(String expression) {
+        if (expression == null || "".equals(expression)) {
+            throw new IllegalArgumentException("path expression cannot be null or blank");
+        }
+        List<Segment> l = new ArrayList<Segment>(4);
+        String remaining = expression;
+        while (true) {
+            String next = next(remaining);
+            l.add( makeSegment(next, expression) );
+            if (remaining.length() == next.length()) {
+                break;
+            }
+            int start = next.length();
+            if (remaining.charAt(start) == NESTED) {
+                start++;
+            }
+            remaining = remaining.substring(start);
+            if (remaining.length() == 0) {
+                // trailing delimiter means a blank final name
+                l.add( makeSegment(remaining, expression) );
+                break;
+            }
+        }
+        return new PropertyPath(expression, l.toArray(new Segment[l.size()]));
+    }
+
+    /**
+     * @return the expression this path was compiled from
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * @return the number of segments in this path (1 if not nested)
+     */
+    public int size() {
+        return segments.length;
+    }
+
+    /**
+     * @return true if this path is a single segment (not nested)
+     */
+    public boolean isSingle() {
+        return segments.length == 1;
+    }
+
+    /**
+     * @param position the position of the segment in the path (0 is the first)
+     * @return the segment at this position
+     * @throws ArrayIndexOutOfBoundsException if the position is invalid
+     */
+    public Segment getSegment(int position) {
+        return segments[position];
+    }
+
+    /**
+     * @return the last segment of the path (the one which holds the value)
+     */
+    public Segment getLastSegment() {
+        return segments[segments.length - 1];
+    }
+
+    /**
+     * @return a copy of the segments array for this path
+     */
+    public Segment[] getSegments() {
+        Segment[] copy = new Segment[segments.length];
+        System.arraycopy(segments, 0, copy, 0, segments.length);
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        return expression.equals( ((PropertyPath) obj).expression );
+    }
+
+    @Override
+    public int hashCode() {
+        return expression.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * Gets the next segment from the expression,
+     * this has to match the way {@link DefaultResolver#next(String)} works
+     */
+    private static String next(String expression) {
+        boolean indexed = false;
+        boolean mapped  = false;
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (indexed) {
+                if (c == INDEXED_END) {
+                    return expression.substring(0, i + 1);
+                }
+            } else if (mapped) {
+                if (c == MAPPED_END) {
+                    return expression.substring(0, i + 1);
+                }
+            } else {
+                if (c == NESTED) {
+                    return expression.substring(0, i);
+                } else if (c == MAPPED_START) {
+                    mapped = true;
+                } else if (c == INDEXED_START) {
+                    indexed = true;
+                }
+            }
+        }
+        return expression;
+    }
+
+    private static Segment makeSegment(String part, String expression) {
+        Segment segment = null;
+        for (int i = 0; i < part.length(); i++) {
+            char c = part.charAt(i);
+            if (c == INDEXED_START) {
+                int end = part.indexOf(INDEXED_END, i);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Invalid indexed name (" + part + ") in path (" + expression + "): Missing End Delimiter");
+                }
+                String value = part.substring(i + 1, end);
+                int index;
+                try {
+                    index = Integer.parseInt(value, 10);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid indexed name (" + part + ") in path (" + expression + "): Invalid index value '" + value + "'", e);
+                }
+                if (index < 0) {
+                    throw new IllegalArgumentException("Invalid indexed name (" + part + ") in path (" + expression + "): Could not find index in name");
+                }
+                segment = new Segment(SegmentType.INDEXED, part, part.substring(0, i), index, null);
+                break;
+            } else if (c == MAPPED_START) {
+                int end = part.indexOf(MAPPED_END, i);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Invalid mapped name (" + part + ") in path (" + expression + "): Missing End Delimiter");
+                }
+                segment = new Segment(SegmentType.MAPPED, part, part.substring(0, i), -1, part.substring(i + 1, end));
+                break;
+            }
+        }
+        if (segment == null) {
+            segment = new Segment(SegmentType.SIMPLE, part, part, -1, null);
+        }
+        return segment;
+    }
+
+    /**
+     * A single part of a compiled path (e.g. "b[2]" in "a.b[2].c"),
+     * also holds the class properties which were resolved for this segment (one per class, up to {@link #MAX_RESOLVED})
+     * so that the lookup can be skipped when the same class is seen again
+     */
+    public static final class Segment {
+        /**
+         * The most classes a segment will hold a resolved property for, the oldest is dropped after this
+         */
+        static final int MAX_RESOLVED = 8;
+        private static final ResolvedProperty[] NO_RESOLVED = new ResolvedProperty[0];
+
+        private final SegmentType type;
+        private final String expression;
+        private final String name;
+        private final int index;
+        private final String key;
+        private volatile ResolvedProperty[] resolved = NO_RESOLVED;
+
+        Segment(SegmentType type, String expression, String name, int index, String key) {
+            this.type = type;
+            this.expression = expression;
+            this.name = name;
+            this.index = index;
+            this.key = key;
+        }
+
+        /**
+         * @return the type of this segment
+         */
+        public SegmentType getType() {
+            return type;
+        }
+        /**
+         * @return the original text of this segment (e.g. "b[2]")
+         */
+        public String getExpression() {
+            return expression;
+        }
+        /**
+         * @return the field name for this segment (e.g. "b" for "b[2]"), may be "" for "[2]" or "(key)"
+         */
+        public String getName() {
+            return name;
+        }
+        /**
+         * @return the index for an indexed segment OR -1 if not indexed
+         */
+        public int getIndex() {
+            return index;
+        }
+        /**
+         * @return the key for a mapped segment OR null if not mapped
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @param cls the class of the object this segment is being resolved against
+         * @param mode the field find mode currently in use
+         * @return the resolved property if it was cached for this class and mode OR null if not
+         */
+        ClassProperty getResolvedProperty(Class<?> cls, FieldFindMode mode) {
+            ResolvedProperty[] current = resolved;
+            for (int i = 0; i < current.length; i++) {
+                ResolvedProperty rp = current[i];
+                if (rp.get() == cls
+                        && rp.mode == mode) {
+                    return rp.property.get();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Cache the property resolved for this segment for this class (replaces the one for the same class and mode),
+         * cleared entries are dropped and the oldest entry is dropped when there are too many,
+         * this is weakly held so it will not hold open the classloader
+         */
+        void setResolvedProperty(Class<?> cls, FieldFindMode mode, ClassProperty property) {
+            ResolvedProperty[] current = resolved;
+            List<ResolvedProperty> entries = new ArrayList<ResolvedProperty>(current.length + 1);
+            for (int i = 0; i < current.length; i++) {
+                ResolvedProperty rp = current[i];
+                if (rp.get() != null 
+                        && rp.property.get() != null 
+                        && ! (rp.get() == cls && rp.mode == mode) ) {
+                    entries.add(rp);
+                }
+            }
+            if (entries.size() >= MAX_RESOLVED) {
+                entries.remove(0);
+            }
+            entries.add(new ResolvedProperty(cls, mode, property));
+            // a lost update from another thread only means that class is resolved again
+            resolved = entries.toArray(new ResolvedProperty[entries.size()]);
+        }
+
+        @Override
+        public String toString() {
+            return expression + "(" + type + ")";
+        }
+    }
+
+    /**
+     * Weak holder for a resolved class property
+     */
+    static final class ResolvedProperty extends WeakReference<Class<?>> {
+        final FieldFindMode mode;
+        final WeakReference<ClassProperty> property;
+        ResolvedProperty(Class<?> cls, FieldFindMode mode, ClassProperty property) {
+            super(cls);
+            this.mode = mode;
+            this.property = new WeakReference<ClassProperty>(property);
+        }
+    }
+
+}
@@ -0,0 +1,220 @@
+/**
+ * $Id$
+ * $URL$
+ * PropertyPathCache.java - reflectutils - Oct 18, 2026 3:21:50 PM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size bounded and thread safe cache of compiled {@link PropertyPath}s (path expression -> compiled path),
+ * this is used by {@link FieldUtils} so that the same path strings are not parsed over and over<br/>
+ * When the cache is full the least recently used paths are removed (this uses the "second chance" (clock)
+ * approximation of LRU so that reads do not need to lock anything)<br/>
+ * Invalid expressions are cached as well so they fail without being compiled again
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public class PropertyPathCache {
+
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private final int capacity;
+    private final ConcurrentHashMap<String, CachedPath> paths;
+    private final ConcurrentLinkedQueue<String> clock = new ConcurrentLinkedQueue<String>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a cache which holds up to {@link #DEFAULT_CAPACITY} paths
+     */
+    public PropertyPathCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the maximum number of paths to cache, must be > 0
+     */
+    public PropertyPathCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than 0: " + capacity);
+        }
+        this.capacity = capacity;
+        this.paths = new ConcurrentHashMap<String, CachedPath>(Math.min(capacity, 256));
+    }
+
+    /**
+     * @param name any field name or path expression
+     * @return true if this name has path delimiters (nested, indexed, or mapped),
+     * false if it is a plain field name (plain names do not need to be compiled or cached)
+     */
+    public static boolean isPathExpression(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '.' || c == '[' || c == '(') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the compiled path for an expression from the cache, compiles and caches the path if it is not cached yet
+     * @param expression a path expression
+     * @return the compiled path
+     * @throws IllegalArgumentException if the expression is invalid (see {@link PropertyPath#compile(String)})
+     */
+    public PropertyPath getPath(String expression) {
+        CachedPath cached = lookup(expression);
+        if (cached.path == null) {
+            throw new IllegalArgumentException(cached.failure.getMessage(), cached.failure);
+        }
+        return cached.path;
+    }
+
+    /**
+     * Get the compiled path for an expression from the cache without throwing an exception for invalid expressions
+     * @param expression a path expression
+     * @return the compiled path OR null if the expression is invalid
+     */
+    PropertyPath findPath(String expression) {
+        return lookup(expression).path;
+    }
+
+    private CachedPath lookup(String expression) {
+        CachedPath cached = paths.get(expression);
+        if (cached != null) {
+            hits.increment();
+            if (! cached.used) {
+                cached.used = true;
+            }
+            return cached;
+        }
+        misses.increment();
+        try {
+            cached = new CachedPath(PropertyPath.compile(expression), null);
+        } catch (IllegalArgumentException e) {
+            cached = new CachedPath(null, e);
+        }
+        CachedPath existing = paths.putIfAbsent(expression, cached);
+        if (existing != null) {
+            // another thread got here first
+            return existing;
+        }
+        clock.offer(expression);
+        if (size.incrementAndGet() > capacity) {
+            evict();
+        }
+        return cached;
+    }
+
+    /**
+     * Remove paths until the cache is back within the capacity,
+     * recently used paths get a second chance and are only removed if they are not used again
+     */
+    private void evict() {
+        while (size.get() > capacity) {
+            String expression = clock.poll();
+            if (expression == null) {
+                break;
+            }
+            CachedPath cached = paths.get(expression);
+            if (cached == null) {
+                continue;
+            }
+            if (cached.used) {
+                cached.used = false;
+                clock.offer(expression);
+            } else if (paths.remove(expression, cached)) {
+                size.decrementAndGet();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Clears all cached paths (does not reset the counters),
+     * paths which are being added by other threads at the same time may stay in the cache
+     */
+    public void clear() {
+        // remove through the clock and only count the removals which happened so the size stays
+        // the same as the number of entries even while other threads are adding paths
+        for (int i = clock.size(); i > 0; i--) {
+            String expression = clock.poll();
+            if (expression == null) {
+                break;
+            }
+            if (paths.remove(expression) != null) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return the number of paths currently in the cache
+     */
+    public int size() {
+        // can be briefly behind while a path is being added
+        return Math.max(0, size.get());
+    }
+
+    /**
+     * @return the maximum number of paths this will cache
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of lookups which found the compiled path in the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups which had to compile the path
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of paths removed to keep the cache within the capacity
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "PathCache::size="+size()+":capacity="+capacity+":hits="+getHits()+":misses="+getMisses()+":evictions="+getEvictions();
+    }
+
+    private static final class CachedPath {
+        final PropertyPath path;
+        final IllegalArgumentException failure;
+        volatile boolean used = false;
+        CachedPath(PropertyPath path, IllegalArgumentException failure) {
+            this.path = path;
+            this.failure = failure;
+        }
+    }
+
+}
@@ -19,6 +19,7 @@ import org.azeckoski.reflectutils.ClassFields.FieldsFilter;
 import org.azeckoski.reflectutils.beanutils.Resolver;
 import org.azeckoski.reflectutils.converters.api.Converter;
 import org.azeckoski.reflectutils.exceptions.FieldnameNotFoundException;
+import org.azeckoski.reflectutils.map.ArrayOrderedMap;
 
 import java.lang.annotation.Annotation;
 import java.lang.ref.SoftReference;
@@ -323,11 +324,14 @@ public class ReflectUtils {
      * returns the method names without the "get"/"is" part and camelCased
      * @param type any class
      * @param filter (optional) indicates the fields to return the types for, can be null for defaults
-     * @return a map of field name -> class type
+     * @return a map of field name -> class type (this is a copy which can be changed,
+     * use {@link FieldUtils#getFieldTypes(Class, FieldsFilter)} for the cheaper read only view)
      */
     @SuppressWarnings("SameParameterValue")
     public Map<String, Class<?>> getFieldTypes(Class<?> type, FieldsFilter filter) {
-        Map<String, Class<?>> types = getFieldUtils().getFieldTypes(type, filter);
+        Map<String, Class<?>> view = getFieldUtils().getFieldTypes(type, filter);
+        ArrayOrderedMap<String, Class<?>> types = new ArrayOrderedMap<String, Class<?>>(view);
+        types.setName(type.getName());
         return types;
     }
 
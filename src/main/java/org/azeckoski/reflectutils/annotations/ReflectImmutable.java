@@ -0,0 +1,36 @@
+/**
+ * $Id$
+ * $URL$
+ * ReflectImmutable.java - reflectutils - Oct 18, 2026 11:41:09 PM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Indicates that the objects of a class never change once they are constructed
+ * so they can be shared instead of copied when cloning (when sharing immutable objects is enabled) <br/>
+ * This is not inherited, subclasses must also be marked if they are immutable <br/>
+ * Classes can also be registered as immutable with 
+ * {@link org.azeckoski.reflectutils.ConstructorUtils#registerImmutableClass(Class)}
+ * 
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ReflectImmutable { }
@@ -0,0 +1,46 @@
+/**
+ * $Id$
+ * $URL$
+ * ReflectPrecompiled.java - reflectutils - Oct 18, 2026 6:02:17 PM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Indicate that the field metadata and accessors for a class should be generated at build time
+ * so that the class does not need to be analyzed with reflection when the application starts <br/>
+ * This only has an effect when the {@link org.azeckoski.reflectutils.processor.ReflectMetadataProcessor}
+ * is run by the compiler, for example: <br/>
+ * javac -processor org.azeckoski.reflectutils.processor.ReflectMetadataProcessor ... <br/>
+ * The generated metadata is used for the default field find mode (HYBRID) only,
+ * the other modes still use reflection
+ * <pre>
+ *    &#064;ReflectPrecompiled
+ *    public class Person {
+ *        public String getName() { ... }
+ *        public void setName(String name) { ... }
+ *        ... 
+ *    }
+ * </pre>
+ * 
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface ReflectPrecompiled { }
@@ -0,0 +1,609 @@
+/**
+ * $Id$
+ * $URL$
+ * ReflectMetadataProcessor.java - reflectutils - Oct 18, 2026 6:20:33 PM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import org.azeckoski.reflectutils.ClassFields;
+import org.azeckoski.reflectutils.ClassMetadataProvider;
+import org.azeckoski.reflectutils.annotations.ReflectIgnoreClassFields;
+import org.azeckoski.reflectutils.annotations.ReflectIncludeStaticFields;
+import org.azeckoski.reflectutils.annotations.ReflectPrecompiled;
+import org.azeckoski.reflectutils.annotations.ReflectTransient;
+import org.azeckoski.reflectutils.annotations.ReflectTransientClassFields;
+
+/**
+ * Annotation processor which generates the class metadata ({@link ClassMetadataProvider}) and direct accessors
+ * for all classes marked with {@link ReflectPrecompiled} so they do not have to be analyzed with reflection
+ * at runtime, this also generates the META-INF/services entries so the {@link org.azeckoski.reflectutils.ClassDataCacher}
+ * can find the metadata<br/>
+ * This is not registered automatically, it has to be enabled for the compiler like so:<br/>
+ * javac -processor org.azeckoski.reflectutils.processor.ReflectMetadataProcessor ...<br/>
+ * (or in the annotationProcessors config of the maven compiler plugin)<br/>
+ * <br/>
+ * The metadata matches the fields found for the {@link ClassFields.FieldFindMode#HYBRID} mode,
+ * classes which cannot be handled (e.g. private classes) are reported as warnings and will use reflection
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+@SupportedAnnotationTypes("org.azeckoski.reflectutils.annotations.ReflectPrecompiled")
+public class ReflectMetadataProcessor extends AbstractProcessor {
+
+    /**
+     * Added to the (flattened) class name to make the name of the generated metadata class
+     */
+    public static final String SUFFIX = "_ReflectMetadata";
+    public static final String SERVICE_FILE = "META-INF/services/" + ClassMetadataProvider.class.getName();
+
+    private static final String PREFIX_IS = "is";
+    private static final String PREFIX_GET = "get";
+    private static final String PREFIX_SET = "set";
+
+    private final Set<String> providerNames = new TreeSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(ReflectPrecompiled.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                processingEnv.getMessager().printMessage(Kind.WARNING,
+                        "@" + ReflectPrecompiled.class.getSimpleName() + " can only be used on classes, ignoring it", element);
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            try {
+                List<PropertyModel> properties = findProperties(type);
+                providerNames.add( writeProvider(type, properties) );
+            } catch (UnsupportedTypeException e) {
+                processingEnv.getMessager().printMessage(Kind.WARNING,
+                        "No metadata generated for " + type + " (reflection will be used): " + e.getMessage(), type);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Kind.ERROR,
+                        "Failed to write the metadata for " + type + ": " + e, type);
+            }
+        }
+        if (roundEnv.processingOver() && ! providerNames.isEmpty()) {
+            try {
+                writeServiceFile();
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Kind.ERROR, "Failed to write " + SERVICE_FILE + ": " + e);
+            }
+        }
+        return false;
+    }
+
+    // ANALYSIS - this has to find the same things as the ClassFields does with reflection (HYBRID mode)
+
+    /**
+     * Finds the properties of the class in the same way (and order) as the {@link ClassFields} does when it
+     * uses reflection on the class in the HYBRID mode
+     */
+    private List<PropertyModel> findProperties(TypeElement type) {
+        checkAccessible(type);
+        Types types = processingEnv.getTypeUtils();
+
+        // check for reflect annotations on the class
+        boolean includeStatic = false;
+        Set<String> ignored = new HashSet<String>();
+        Set<String> transients = new HashSet<String>();
+        for (AnnotationMirror am : type.getAnnotationMirrors()) {
+            // compare the simple name to match the way ClassFields does it
+            String name = am.getAnnotationType().asElement().getSimpleName().toString();
+            if (ReflectIncludeStaticFields.class.getSimpleName().equals(name)) {
+                includeStatic = true;
+            } else if (ReflectIgnoreClassFields.class.getSimpleName().equals(name)) {
+                ignored.addAll( getStringValues(am) );
+            } else if (ReflectTransientClassFields.class.getSimpleName().equals(name)) {
+                transients.addAll( getStringValues(am) );
+            }
+        }
+
+        // get all the members in the same order as the ClassData
+        List<ExecutableElement> methods = new ArrayList<ExecutableElement>();
+        List<VariableElement> fields = new ArrayList<VariableElement>();
+        getAllMembers(type, methods, fields);
+        Collections.sort(methods, new MemberComparator());
+        Collections.sort(fields, new MemberComparator());
+
+        // find the property methods from all public methods
+        Map<String, PropertyModel> propertyMap = new LinkedHashMap<String, PropertyModel>();
+        for (ExecutableElement method : methods) {
+            if (! method.getModifiers().contains(Modifier.PUBLIC)) {
+                continue;
+            }
+            String name = method.getSimpleName().toString();
+            int paramCount = method.getParameters().size();
+            if (! includeStatic && method.getModifiers().contains(Modifier.STATIC)) {
+                continue; // skip statics
+            } else if (ClassFields.METHOD_GET_CLASS.equals(name)) {
+                continue; // skip class field
+            } else if (paramCount == 0) {
+                if (name.startsWith(PREFIX_GET) || name.startsWith(PREFIX_IS)) {
+                    if (method.getReturnType().getKind() == TypeKind.VOID) {
+                        throw new UnsupportedTypeException("void getter method: " + name);
+                    }
+                    PropertyModel p = getProperty(propertyMap, ClassFields.makeFieldNameFromMethod(name));
+                    p.getter = method;
+                    p.type = types.erasure(method.getReturnType()); // getter type always wins
+                }
+            } else if (paramCount == 1) {
+                if (name.startsWith(PREFIX_SET)) {
+                    PropertyModel p = getProperty(propertyMap, ClassFields.makeFieldNameFromMethod(name));
+                    if (p.setter != null
+                            && p.setter.getEnclosingElement().equals(method.getEnclosingElement())) {
+                        throw new UnsupportedTypeException("overloaded setter methods: " + name);
+                    }
+                    p.setter = method;
+                    if (p.type == null) {
+                        p.type = types.erasure(method.getParameters().get(0).asType());
+                    }
+                }
+            }
+        }
+        List<PropertyModel> properties = new ArrayList<PropertyModel>();
+        for (PropertyModel p : propertyMap.values()) {
+            if (! ignored.contains(p.name)) {
+                properties.add(p);
+            }
+        }
+
+        // public fields
+        for (VariableElement field : fields) {
+            if (! field.getModifiers().contains(Modifier.PUBLIC)) {
+                continue;
+            }
+            if (! includeStatic && field.getModifiers().contains(Modifier.STATIC)) {
+                continue; // skip statics
+            }
+            String name = field.getSimpleName().toString();
+            if (ignored.contains(name) || findProperty(properties, name) != null) {
+                continue;
+            }
+            PropertyModel p = new PropertyModel(name);
+            p.type = types.erasure(field.asType());
+            p.setField(field);
+            properties.add(p);
+        }
+
+        // annotations and the fields for all properties
+        for (ExecutableElement method : methods) {
+            if (method.getParameters().size() <= 2) {
+                PropertyModel p = findProperty(properties, ClassFields.makeFieldNameFromMethod(method.getSimpleName().toString()));
+                if (p != null && hasTransientAnnotation(method)) {
+                    p.transientField = true;
+                }
+            }
+        }
+        for (VariableElement field : fields) {
+            String name = field.getSimpleName().toString();
+            PropertyModel p = findProperty(properties, name);
+            if (p == null) {
+                continue;
+            }
+            if ( (! includeStatic && field.getModifiers().contains(Modifier.STATIC))
+                    || ignored.contains(name) ) {
+                properties.remove(p); // as a final check, take this out if it is in there
+                continue;
+            }
+            if (p.field == null) {
+                p.setField(field);
+            }
+            if (hasTransientAnnotation(field)) {
+                p.transientField = true;
+            }
+        }
+        for (String name : transients) {
+            PropertyModel p = findProperty(properties, name);
+            if (p != null) {
+                p.transientField = true;
+            }
+        }
+        for (PropertyModel p : properties) {
+            if (p.name.length() == 0) {
+                throw new UnsupportedTypeException("invalid property method name (no field name)");
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Gets the members in the same order as {@link org.azeckoski.reflectutils.ClassData}:
+     * the class, then the interfaces, then the superclass
+     */
+    private void getAllMembers(TypeElement type, List<ExecutableElement> methods, List<VariableElement> fields) {
+        fields.addAll( ElementFilter.fieldsIn(type.getEnclosedElements()) );
+        methods.addAll( ElementFilter.methodsIn(type.getEnclosedElements()) );
+        for (TypeMirror iface : type.getInterfaces()) {
+            getAllMembers((TypeElement) ((DeclaredType) iface).asElement(), methods, fields);
+        }
+        TypeMirror superClass = type.getSuperclass();
+        if (superClass.getKind() == TypeKind.DECLARED) {
+            getAllMembers((TypeElement) ((DeclaredType) superClass).asElement(), methods, fields);
+        }
+    }
+
+    /**
+     * The generated class has to be able to see the class
+     */
+    private void checkAccessible(TypeElement type) {
+        Element e = type;
+        while (e instanceof TypeElement) {
+            TypeElement te = (TypeElement) e;
+            if (te.getNestingKind() != NestingKind.TOP_LEVEL && te.getNestingKind() != NestingKind.MEMBER) {
+                throw new UnsupportedTypeException("local and anonymous classes are not supported");
+            }
+            if (te.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new UnsupportedTypeException("private classes are not supported");
+            }
+            e = te.getEnclosingElement();
+        }
+    }
+
+    private boolean hasTransientAnnotation(Element element) {
+        for (AnnotationMirror am : element.getAnnotationMirrors()) {
+            if (ReflectTransient.class.getSimpleName().equals(am.getAnnotationType().asElement().getSimpleName().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> getStringValues(AnnotationMirror am) {
+        List<String> values = new ArrayList<String>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : am.getElementValues().entrySet()) {
+            if ("value".equals(entry.getKey().getSimpleName().toString())) {
+                Object value = entry.getValue().getValue();
+                if (value instanceof List) {
+                    for (Object v : (List<?>) value) {
+                        values.add( String.valueOf(((AnnotationValue) v).getValue()) );
+                    }
+                } else {
+                    values.add( String.valueOf(value) );
+                }
+            }
+        }
+        return values;
+    }
+
+    private PropertyModel getProperty(Map<String, PropertyModel> propertyMap, String name) {
+        PropertyModel p = propertyMap.get(name);
+        if (p == null) {
+            p = new PropertyModel(name);
+            propertyMap.put(name, p);
+        }
+        return p;
+    }
+
+    private PropertyModel findProperty(List<PropertyModel> properties, String name) {
+        for (PropertyModel p : properties) {
+            if (p.name.equals(name)) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    // GENERATION
+
+    /**
+     * Writes the metadata provider class for a type
+     * @return the binary name of the generated class
+     */
+    private String writeProvider(TypeElement type, List<PropertyModel> properties) throws IOException {
+        Types types = processingEnv.getTypeUtils();
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String simpleName = makeProviderSimpleName(type);
+        String providerName = packageName.length() == 0 ? simpleName : packageName + "." + simpleName;
+        String typeName = type.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        DeclaredType memberOf = (DeclaredType) types.erasure(type.asType());
+
+        StringBuilder sb = new StringBuilder();
+        if (packageName.length() > 0) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("/**\n");
+        sb.append(" * Build time class metadata for {@link ").append(typeName).append("}<br/>\n");
+        sb.append(" * Generated by ").append(getClass().getName()).append(" - do not edit\n");
+        sb.append(" */\n");
+        sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        sb.append("public final class ").append(simpleName).append(" implements org.azeckoski.reflectutils.ClassMetadataProvider {\n\n");
+        sb.append("    public String getTypeName() {\n");
+        sb.append("        return \"").append(binaryName).append("\";\n");
+        sb.append("    }\n\n");
+        sb.append("    public Class<?> getType() {\n");
+        sb.append("        return ").append(typeName).append(".class;\n");
+        sb.append("    }\n\n");
+        sb.append("    public org.azeckoski.reflectutils.PropertyMetadata[] getProperties() {\n");
+        sb.append("        return new org.azeckoski.reflectutils.PropertyMetadata[] {\n");
+        for (int i = 0; i < properties.size(); i++) {
+            PropertyModel p = properties.get(i);
+            sb.append("            new org.azeckoski.reflectutils.PropertyMetadata(\"").append(p.name).append("\", ")
+                .append(p.type).append(".class, ")
+                .append(p.getter == null ? "null" : "\"" + p.getter.getSimpleName() + "\"").append(", ")
+                .append(p.setter == null ? "null" : "\"" + p.setter.getSimpleName() + "\"").append(", ")
+                .append(p.setter == null ? "null" : types.erasure(p.setter.getParameters().get(0).asType()) + ".class").append(", ")
+                .append(p.fieldModifiers).append(", ").append(p.transientField).append(", ")
+                .append("new Accessor(").append(i).append(", ").append(p.isReadable()).append(", ").append(p.isWriteable()).append("))")
+                .append(i < properties.size() - 1 ? "," : "").append("\n");
+        }
+        sb.append("        };\n");
+        sb.append("    }\n\n");
+
+        // the accessors for all properties in one class
+        sb.append("    private static final class Accessor implements org.azeckoski.reflectutils.PropertyAccessor {\n");
+        sb.append("        private final int index;\n");
+        sb.append("        private final boolean readable;\n");
+        sb.append("        private final boolean writeable;\n");
+        sb.append("        Accessor(int index, boolean readable, boolean writeable) {\n");
+        sb.append("            this.index = index;\n");
+        sb.append("            this.readable = readable;\n");
+        sb.append("            this.writeable = writeable;\n");
+        sb.append("        }\n");
+        sb.append("        public boolean isReadable() {\n");
+        sb.append("            return readable;\n");
+        sb.append("        }\n");
+        sb.append("        public boolean isWriteable() {\n");
+        sb.append("            return writeable;\n");
+        sb.append("        }\n");
+        sb.append("        public Object getValue(Object obj) {\n");
+        sb.append("            ").append(typeName).append(" bean = (").append(typeName).append(") obj;\n");
+        sb.append("            switch (index) {\n");
+        for (int i = 0; i < properties.size(); i++) {
+            PropertyModel p = properties.get(i);
+            if (p.getter != null) {
+                sb.append("            case ").append(i).append(": return ")
+                    .append(target(p.getter, typeName)).append(".").append(p.getter.getSimpleName()).append("();\n");
+            } else if (p.isPublicField()) {
+                sb.append("            case ").append(i).append(": return ")
+                    .append(target(p.field, typeName)).append(".").append(p.name).append(";\n");
+            }
+        }
+        sb.append("            default: throw new UnsupportedOperationException(\"No generated getter for property: \" + index);\n");
+        sb.append("            }\n");
+        sb.append("        }\n");
+        sb.append("        public void setValue(Object obj, Object value) {\n");
+        sb.append("            ").append(typeName).append(" bean = (").append(typeName).append(") obj;\n");
+        sb.append("            switch (index) {\n");
+        for (int i = 0; i < properties.size(); i++) {
+            PropertyModel p = properties.get(i);
+            if (! p.isWriteable()) {
+                continue;
+            }
+            if (p.setter != null) {
+                TypeMirror paramType = ((ExecutableType) types.asMemberOf(memberOf, p.setter)).getParameterTypes().get(0);
+                sb.append("            case ").append(i).append(": ")
+                    .append(target(p.setter, typeName)).append(".").append(p.setter.getSimpleName())
+                    .append("((").append(castType(paramType)).append(") value); return;\n");
+            } else {
+                TypeMirror fieldType = types.asMemberOf(memberOf, p.field);
+                sb.append("            case ").append(i).append(": ")
+                    .append(target(p.field, typeName)).append(".").append(p.name)
+                    .append(" = (").append(castType(fieldType)).append(") value; return;\n");
+            }
+        }
+        sb.append("            default: throw new UnsupportedOperationException(\"No generated setter for property: \" + index);\n");
+        sb.append("            }\n");
+        sb.append("        }\n");
+        sb.append("    }\n\n");
+        sb.append("}\n");
+
+        JavaFileObject source = processingEnv.getFiler().createSourceFile(providerName, type);
+        Writer writer = source.openWriter();
+        try {
+            writer.write(sb.toString());
+        } finally {
+            writer.close();
+        }
+        return providerName;
+    }
+
+    /**
+     * Writes (or adds to) the service file which lists all the generated providers
+     */
+    private void writeServiceFile() throws IOException {
+        Filer filer = processingEnv.getFiler();
+        Set<String> names = new TreeSet<String>();
+        try {
+            // keep the providers from earlier (incremental) compiles
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            Reader reader = existing.openReader(true);
+            try {
+                BufferedReader br = new BufferedReader(reader);
+                String line;
+                while ((line = br.readLine()) != null) {
+                    line = line.trim();
+                    if (line.length() > 0 && ! line.startsWith("#")) {
+                        names.add(line);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            // no existing file
+        }
+        names.addAll(providerNames);
+        FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+        Writer writer = file.openWriter();
+        try {
+            for (String name : names) {
+                writer.write(name);
+                writer.write("\n");
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * @return the simple name of the generated class (e.g. Outer_Inner_ReflectMetadata)
+     */
+    public static String makeProviderSimpleName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element e = type.getEnclosingElement();
+        while (e instanceof TypeElement) {
+            name.insert(0, e.getSimpleName() + "_");
+            e = e.getEnclosingElement();
+        }
+        return name.append(SUFFIX).toString();
+    }
+
+    /**
+     * @return the expression to use to get to the member (the static class name or the bean)
+     */
+    private String target(Element member, String typeName) {
+        return member.getModifiers().contains(Modifier.STATIC) ? typeName : "bean";
+    }
+
+    /**
+     * @return the type to cast the value to (primitives use the wrapper so they are unboxed)
+     */
+    private String castType(TypeMirror type) {
+        Types types = processingEnv.getTypeUtils();
+        if (type.getKind().isPrimitive()) {
+            return types.boxedClass(types.getPrimitiveType(type.getKind())).getQualifiedName().toString();
+        }
+        return types.erasure(type).toString();
+    }
+
+    /**
+     * Sorts the members by visibility and name order (the same as the ClassData.MemberComparator)
+     */
+    private static final class MemberComparator implements Comparator<Element> {
+        public int compare(Element o1, Element o2) {
+            String c1 = getModifierPrefix(o1.getModifiers()) + o1.getSimpleName();
+            String c2 = getModifierPrefix(o2.getModifiers()) + o2.getSimpleName();
+            return c1.compareTo(c2);
+        }
+        private static String getModifierPrefix(Set<Modifier> modifiers) {
+            String prefix = "0public-";
+            if (modifiers.contains(Modifier.PROTECTED)) {
+                prefix = "1protected-";
+            } else if (modifiers.contains(Modifier.PRIVATE)) {
+                prefix = "2private-";
+            }
+            return prefix;
+        }
+    }
+
+    /**
+     * Holds the information about a property while the class is analyzed
+     */
+    private static final class PropertyModel {
+        final String name;
+        TypeMirror type;
+        ExecutableElement getter;
+        ExecutableElement setter;
+        VariableElement field;
+        int fieldModifiers = -1;
+        boolean transientField = false;
+
+        PropertyModel(String name) {
+            this.name = name;
+        }
+
+        void setField(VariableElement field) {
+            this.field = field;
+            fieldModifiers = toModifiers(field.getModifiers());
+            transientField = field.getModifiers().contains(Modifier.TRANSIENT);
+        }
+
+        boolean isPublicField() {
+            return field != null && field.getModifiers().contains(Modifier.PUBLIC);
+        }
+
+        boolean isFinal() {
+            return field != null && field.getModifiers().contains(Modifier.FINAL);
+        }
+
+        boolean isReadable() {
+            return getter != null || isPublicField();
+        }
+
+        boolean isWriteable() {
+            return ! isFinal() && (setter != null || isPublicField());
+        }
+
+        /**
+         * @return the modifiers in the same form as {@link java.lang.reflect.Field#getModifiers()}
+         */
+        static int toModifiers(Set<Modifier> modifiers) {
+            int mod = 0;
+            if (modifiers.contains(Modifier.PUBLIC)) mod |= java.lang.reflect.Modifier.PUBLIC;
+            if (modifiers.contains(Modifier.PROTECTED)) mod |= java.lang.reflect.Modifier.PROTECTED;
+            if (modifiers.contains(Modifier.PRIVATE)) mod |= java.lang.reflect.Modifier.PRIVATE;
+            if (modifiers.contains(Modifier.STATIC)) mod |= java.lang.reflect.Modifier.STATIC;
+            if (modifiers.contains(Modifier.FINAL)) mod |= java.lang.reflect.Modifier.FINAL;
+            if (modifiers.contains(Modifier.TRANSIENT)) mod |= java.lang.reflect.Modifier.TRANSIENT;
+            if (modifiers.contains(Modifier.VOLATILE)) mod |= java.lang.reflect.Modifier.VOLATILE;
+            return mod;
+        }
+    }
+
+    /**
+     * Indicates a class which the metadata cannot be generated for
+     */
+    private static final class UnsupportedTypeException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        UnsupportedTypeException(String message) {
+            super(message);
+        }
+    }
+
+}
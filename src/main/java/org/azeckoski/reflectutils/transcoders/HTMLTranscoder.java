@@ -21,7 +21,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import org.azeckoski.reflectutils.ArrayUtils;
 import org.azeckoski.reflectutils.ConstructorUtils;
 import org.azeckoski.reflectutils.ReflectUtils;
 import org.azeckoski.reflectutils.ClassFields.FieldsFilter;
@@ -174,8 +173,8 @@ public class HTMLTranscoder implements Transcoder {
             } else if ( ConstructorUtils.isClassArray(type) ) {
                 // ARRAY
                 tagName = validate(tagName == null ? "array" : tagName);
-                int length = ArrayUtils.size((Object[])object);
-                Class<?> elementType = ArrayUtils.type((Object[])object);
+                int length = Array.getLength(object);
+                Class<?> elementType = object.getClass().getComponentType();
                 makeLevelSpaces(sb, level, humanOutput);
                 sb.append("<tr><td width='3%'>");
                 sb.append(tagName);
@@ -14,21 +14,22 @@
 
 package org.azeckoski.reflectutils.transcoders;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
 import java.lang.reflect.Array;
-import java.math.BigDecimal;
-import java.math.BigInteger;
+import java.lang.reflect.Type;
 import java.sql.Timestamp;
 import java.text.CharacterIterator;
-import java.text.StringCharacterIterator;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import org.azeckoski.reflectutils.ArrayUtils;
 import org.azeckoski.reflectutils.ConstructorUtils;
 import org.azeckoski.reflectutils.ConversionUtils;
 import org.azeckoski.reflectutils.ReflectUtils;
@@ -37,7 +38,9 @@ import org.azeckoski.reflectutils.map.ArrayOrderedMap;
 
 
 /**
- * Provides methods for encoding and decoding JSON
+ * Provides methods for encoding and decoding JSON <br/>
+ * Use the {@link JsonParser} to read large JSON inputs one token at a time instead of decoding them all at once
+ * and {@link #decode(String, Class)} to decode JSON straight into beans without making the maps first
  *
  * @author Aaron Zeckoski (azeckoski @ gmail.com)
  */
@@ -65,8 +68,75 @@ public class JSONTranscoder implements Transcoder {
 //            }
 //        }
         // allow the transcoder to deal with the data directly, no need to convert it to a map first
-        String encoded = JSONTranscoder.makeJSON(object, properties, humanOutput, includeNulls, includeClassField, maxDepth, null);
-        return encoded;
+        StringBuilder sb = new StringBuilder();
+        try {
+            JSONTranscoder.makeJSON(object, sb, properties, humanOutput, includeNulls, includeClassField, maxDepth, null);
+        } catch (IOException e) {
+            // should not be possible when writing into a StringBuilder
+            throw new IllegalStateException("Failure while writing JSON into a string: " + e.getMessage(), e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Encode an object as JSON directly into a writer, the JSON is written out as the object is traversed
+     * so the whole document is never held in memory as a string
+     * @param object any java object
+     * @param writer the writer to write the JSON into, this will be flushed but not closed
+     * @param name (optional) the name of the data (not used for JSON)
+     * @param properties (optional) additional properties which will be added to the encoding
+     * as if it were a property of the bean or map being encoded
+     * @throws IOException if the JSON cannot be written
+     */
+    public void encode(Object object, Writer writer, String name, Map<String, Object> properties) throws IOException {
+        encode(object, writer, name, properties, this.maxLevel);
+    }
+
+    /**
+     * Encode an object as JSON directly into a writer, the JSON is written out as the object is traversed
+     * so the whole document is never held in memory as a string
+     * @param object any java object
+     * @param writer the writer to write the JSON into, this will be flushed but not closed
+     * (it will be buffered if it is not already a buffered or in memory writer)
+     * @param name (optional) the name of the data (not used for JSON)
+     * @param properties (optional) additional properties which will be added to the encoding
+     * as if it were a property of the bean or map being encoded
+     * @param maxDepth the maximum traversal depth to use for this specific object
+     * @throws IOException if the JSON cannot be written
+     */
+    public void encode(Object object, Writer writer, String name, Map<String, Object> properties, int maxDepth) throws IOException {
+        Writer out = TranscoderUtils.makeBufferedWriter(writer);
+        JSONTranscoder.makeJSON(object, out, properties, humanOutput, includeNulls, includeClassField, maxDepth, null);
+        out.flush();
+    }
+
+    /**
+     * Encode an object as JSON (UTF-8) directly into a stream, the JSON is written out as the object is traversed
+     * so the whole document is never held in memory as a string
+     * @param object any java object
+     * @param output the stream to write the JSON into, this will be flushed but not closed
+     * @param name (optional) the name of the data (not used for JSON)
+     * @param properties (optional) additional properties which will be added to the encoding
+     * as if it were a property of the bean or map being encoded
+     * @throws IOException if the JSON cannot be written
+     */
+    public void encode(Object object, OutputStream output, String name, Map<String, Object> properties) throws IOException {
+        encode(object, output, name, properties, this.maxLevel);
+    }
+
+    /**
+     * Encode an object as JSON (UTF-8) directly into a stream, the JSON is written out as the object is traversed
+     * so the whole document is never held in memory as a string
+     * @param object any java object
+     * @param output the stream to write the JSON into, this will be flushed but not closed
+     * @param name (optional) the name of the data (not used for JSON)
+     * @param properties (optional) additional properties which will be added to the encoding
+     * as if it were a property of the bean or map being encoded
+     * @param maxDepth the maximum traversal depth to use for this specific object
+     * @throws IOException if the JSON cannot be written
+     */
+    public void encode(Object object, OutputStream output, String name, Map<String, Object> properties, int maxDepth) throws IOException {
+        encode(object, TranscoderUtils.makeBufferedWriter(output), name, properties, maxDepth);
     }
 
     public Map<String, Object> decode(String string) {
@@ -82,6 +152,95 @@ public class JSONTranscoder implements Transcoder {
         return decoded;
     }
 
+    /**
+     * Decode JSON straight into an object of the given type, the JSON values are set onto the object
+     * as they are read so the JSON is never turned into maps and lists first,
+     * JSON fields which do not match a settable field are skipped
+     * @param <T> the type to decode into
+     * @param string the JSON string
+     * @param type the class to decode into (a bean, map, collection, array, or simple type)
+     * @return the decoded object OR null if the string is empty or the JSON value is null
+     * @throws IllegalArgumentException if the JSON is invalid, there is more input after the value, or the type cannot be constructed
+     * @throws UnsupportedOperationException if a JSON value cannot be converted to the type of its field
+     */
+    public <T> T decode(String string, Class<T> type) {
+        return decodeString(string, type);
+    }
+
+    /**
+     * Decode JSON straight into an object of the given generic type, the JSON values are set onto the object
+     * as they are read so the JSON is never turned into maps and lists first
+     * @param <T> the type to decode into
+     * @param string the JSON string
+     * @param type the full type to decode into, e.g. <code>new TypeReference&lt;List&lt;TestBean&gt;&gt;() {}</code>
+     * @return the decoded object OR null if the string is empty or the JSON value is null
+     * @throws IllegalArgumentException if the JSON is invalid, there is more input after the value, or the type cannot be constructed
+     * @throws UnsupportedOperationException if a JSON value cannot be converted to the type of its field
+     */
+    public <T> T decode(String string, TypeReference<T> type) {
+        return decodeString(string, type.getType());
+    }
+
+    /**
+     * Decode JSON from a reader straight into an object of the given type,
+     * the reader must hold one JSON value (and nothing after it except whitespace), the reader is not closed
+     * @param <T> the type to decode into
+     * @param reader the reader to read the JSON from
+     * @param type the class to decode into (a bean, map, collection, array, or simple type)
+     * @return the decoded object OR null if there is no JSON or the JSON value is null
+     * @throws IOException if the JSON cannot be read
+     * @throws IllegalArgumentException if the JSON is invalid, there is more input after the value, or the type cannot be constructed
+     * @throws UnsupportedOperationException if a JSON value cannot be converted to the type of its field
+     */
+    public <T> T decode(Reader reader, Class<T> type) throws IOException {
+        return decodeReader(reader, type);
+    }
+
+    /**
+     * Decode JSON from a reader straight into an object of the given generic type,
+     * the reader must hold one JSON value (and nothing after it except whitespace), the reader is not closed
+     * @param <T> the type to decode into
+     * @param reader the reader to read the JSON from
+     * @param type the full type to decode into, e.g. <code>new TypeReference&lt;List&lt;TestBean&gt;&gt;() {}</code>
+     * @return the decoded object OR null if there is no JSON or the JSON value is null
+     * @throws IOException if the JSON cannot be read
+     * @throws IllegalArgumentException if the JSON is invalid, there is more input after the value, or the type cannot be constructed
+     * @throws UnsupportedOperationException if a JSON value cannot be converted to the type of its field
+     */
+    public <T> T decode(Reader reader, TypeReference<T> type) throws IOException {
+        return decodeReader(reader, type.getType());
+    }
+
+    private static final JsonBinder binder = new JsonBinder();
+
+    private <T> T decodeString(String string, Type type) {
+        if (string == null) {
+            throw new IllegalArgumentException("string to decode cannot be null");
+        }
+        try {
+            return decodeReader(new StringReader(string), type);
+        } catch (IOException e) {
+            // cannot happen when reading a string
+            throw new IllegalStateException("Failure reading JSON string: " + e.getMessage(), e);
+        }
+    }
+
+    private <T> T decodeReader(Reader reader, Type type) throws IOException {
+        if (reader == null || type == null) {
+            throw new IllegalArgumentException("reader and type cannot be null");
+        }
+        T decoded = null;
+        JsonParser parser = new JsonParser(reader);
+        if (parser.nextToken() != null) {
+            decoded = (T) binder.bind(parser, type);
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException("Invalid JSON at char " + parser.getPosition() 
+                        + ": expected the end of the input after the value but found " + parser.getCurrentToken());
+            }
+        }
+        return decoded;
+    }
+
     /**
      * Default constructor:
      * See other constructors for options
@@ -180,13 +339,38 @@ public class JSONTranscoder implements Transcoder {
         return toJSON(object, 0, maxLevel, humanOutput, includeNulls, includeClassField, properties, encoders);
     }
 
+    /**
+     * Write an object as JSON directly into a writer (or any other appendable),
+     * the JSON is written out as the object is traversed so the whole document is never held in memory as a string
+     * @param object any object
+     * @param out the place to write the JSON into (e.g. a {@link Writer} or {@link StringBuilder}), this will not be flushed or closed
+     * @param humanOutput true of human readable output
+     * @param includeNulls true to include null values when generating tags
+     * @param includeClassField if true then include the value from the "getClass()" method as "class" when encoding beans and maps
+     * @param maxLevel maximum level to traverse the objects before stopping
+     * @param encoders the external encoders to allow to process complex objects
+     * @throws IOException if the JSON cannot be written
+     */
+    public static void makeJSON(Object object, Appendable out, Map<String, Object> properties, boolean humanOutput, boolean includeNulls, boolean includeClassField, int maxLevel, List<ObjectEncoder> encoders) throws IOException {
+        toJSON(object, out, 0, maxLevel, humanOutput, includeNulls, includeClassField, properties, encoders);
+    }
+
     protected static String toJSON(Object object, int level, int maxLevel, boolean humanOutput, boolean includeNulls, boolean includeClassField, Map<String, Object> properties, List<ObjectEncoder> encoders) {
         StringBuilder sb = new StringBuilder();
+        try {
+            toJSON(object, sb, level, maxLevel, humanOutput, includeNulls, includeClassField, properties, encoders);
+        } catch (IOException e) {
+            // should not be possible when writing into a StringBuilder
+            throw new IllegalStateException("Failure while writing JSON into a string: " + e.getMessage(), e);
+        }
+        return sb.toString();
+    }
 
+    protected static void toJSON(Object object, Appendable out, int level, int maxLevel, boolean humanOutput, boolean includeNulls, boolean includeClassField, Map<String, Object> properties, List<ObjectEncoder> encoders) throws IOException {
         if (object == null) {
             if (includeNulls) {
                 // nulls use the constant
-                sb.append(NULL);
+                out.append(NULL);
             }
         } else {
             Class<?> type = ConstructorUtils.getWrapper(object.getClass());
@@ -195,59 +379,53 @@ public class JSONTranscoder implements Transcoder {
                 if (Date.class.isAssignableFrom(type) || Timestamp.class.isAssignableFrom(type)) {
                     // date
                     Date d = (Date) object;
-                    sb.append(d.getTime());
+                    out.append( String.valueOf(d.getTime()) );
                 } else if (Number.class.isAssignableFrom(type)) {
                     // number
-                    sb.append(object.toString());
+                    out.append(object.toString());
                 } else if (Boolean.class.isAssignableFrom(type)) {
                     // boolean
                     if ( ((Boolean)object).booleanValue() ) {
-                        sb.append(BOOLEAN_TRUE);
+                        out.append(BOOLEAN_TRUE);
                     } else {
-                        sb.append(BOOLEAN_FALSE);
+                        out.append(BOOLEAN_FALSE);
                     }
                 } else {
-                    sb.append(QUOT);
-                    sb.append( escapeForJSON(object.toString()) );
-                    sb.append(QUOT);
+                    out.append(QUOT);
+                    escapeForJSON(object.toString(), out);
+                    out.append(QUOT);
                 }
+            } else if ( ConstructorUtils.isClassArray(type) 
+                    && type.getComponentType().isPrimitive() ) {
+                // ARRAY of primitives
+                appendPrimitiveArray(out, object, level, humanOutput);
             } else if ( ConstructorUtils.isClassArray(type) ) {
                 // ARRAY
-                int length = ArrayUtils.size((Object[])object);
-                sb.append(ARRAY_BEG);
+                int length = Array.getLength(object);
+                out.append(ARRAY_BEG);
                 if (length > 0) {
                     for (int i = 0; i < length; ++i) {
-                        if (i > 0) {
-                            sb.append(JSON_SEP);
-                        }
-                        makeEOL(sb, humanOutput);
-                        makeLevelSpaces(sb, level+1, humanOutput);
-                        sb.append( toJSON(Array.get(object, i), level+1, maxLevel, humanOutput, includeNulls, includeClassField, properties, encoders) );
+                        makeElementStart(out, i, level, humanOutput);
+                        toJSON(Array.get(object, i), out, level+1, maxLevel, humanOutput, includeNulls, includeClassField, properties, encoders);
                     }
-                    makeEOL(sb, humanOutput);
-                    makeLevelSpaces(sb, level, humanOutput);
+                    makeEOL(out, humanOutput);
+                    makeLevelSpaces(out, level, humanOutput);
                 }
-                sb.append(ARRAY_END);
+                out.append(ARRAY_END);
             } else if ( ConstructorUtils.isClassCollection(type) ) {
                 // COLLECTION
                 Collection<Object> collection = (Collection) object;
-                sb.append(ARRAY_BEG);
+                out.append(ARRAY_BEG);
                 if (! collection.isEmpty()) {
-                    boolean first = true;
+                    int i = 0;
                     for (Object element : collection) {
-                        if (first) {
-                            first = false;
-                        } else {
-                            sb.append(JSON_SEP);
-                        }
-                        makeEOL(sb, humanOutput);
-                        makeLevelSpaces(sb, level+1, humanOutput);
-                        sb.append( toJSON(element, level+1, maxLevel, humanOutput, includeNulls, includeClassField, properties, encoders) );
+                        makeElementStart(out, i++, level, humanOutput);
+                        toJSON(element, out, level+1, maxLevel, humanOutput, includeNulls, includeClassField, properties, encoders);
                     }
-                    makeEOL(sb, humanOutput);
-                    makeLevelSpaces(sb, level, humanOutput);
+                    makeEOL(out, humanOutput);
+                    makeLevelSpaces(out, level, humanOutput);
                 }
-                sb.append(ARRAY_END);
+                out.append(ARRAY_END);
             } else {
                 // must be a bean or map, make sure it is a map
                 // special handling for certain object types
@@ -255,23 +433,23 @@ public class JSONTranscoder implements Transcoder {
                 if (special != null) {
                     if ("".equals(special)) {
                         // skip this one entirely
-                        sb.append(NULL);
+                        out.append(NULL);
                     } else {
                         // just use the value in special to represent this
-                        sb.append(QUOT);
-                        sb.append( escapeForJSON(special) );
-                        sb.append(QUOT);
+                        out.append(QUOT);
+                        escapeForJSON(special, out);
+                        out.append(QUOT);
                     }
                 } else {
                     // normal handling
                     if (maxLevel <= level) {
                         // if the max level was reached then stop
-                        sb.append(QUOT);
-                        sb.append( "MAX level reached (" );
-                        sb.append( level );
-                        sb.append( "):" );
-                        sb.append( escapeForJSON(object.toString()) );
-                        sb.append(QUOT);
+                        out.append(QUOT);
+                        out.append( "MAX level reached (" );
+                        out.append( String.valueOf(level) );
+                        out.append( "):" );
+                        escapeForJSON(object.toString(), out);
+                        out.append(QUOT);
                     } else {
                         Map<String, Object> map = null;
                         if (Map.class.isAssignableFrom(type)) {
@@ -284,36 +462,145 @@ public class JSONTranscoder implements Transcoder {
                         if (level == 0 && properties != null && ! properties.isEmpty()) {
                             map.putAll(properties);
                         }
-                        sb.append(OBJ_BEG);
-                        boolean first = true;
+                        out.append(OBJ_BEG);
+                        int i = 0;
                         for (Entry<String, Object> entry : map.entrySet()) {
                             if (entry.getKey() != null) {
                                 Object value = entry.getValue();
                                 if (value != null || includeNulls) {
-                                    if (first) {
-                                        first = false;
-                                    } else {
-                                        sb.append(JSON_SEP);
-                                    }
-                                    makeEOL(sb, humanOutput);
-                                    makeLevelSpaces(sb, level+1, humanOutput);
-                                    sb.append(QUOT);
-                                    sb.append(entry.getKey());
-                                    sb.append(QUOT);
-                                    sb.append(OBJ_SEP);
-                                    if (humanOutput) { sb.append(SPACE); }
-                                    sb.append( toJSON(value, level+1, maxLevel, humanOutput, includeNulls, includeClassField, properties, encoders) );
+                                    makeElementStart(out, i++, level, humanOutput);
+                                    out.append(QUOT);
+                                    out.append(entry.getKey());
+                                    out.append(QUOT);
+                                    out.append(OBJ_SEP);
+                                    if (humanOutput) { out.append(SPACE); }
+                                    toJSON(value, out, level+1, maxLevel, humanOutput, includeNulls, includeClassField, properties, encoders);
                                 }
                             }
                         }
-                        makeEOL(sb, humanOutput);
-                        makeLevelSpaces(sb, level, humanOutput);
-                        sb.append(OBJ_END);
+                        makeEOL(out, humanOutput);
+                        makeLevelSpaces(out, level, humanOutput);
+                        out.append(OBJ_END);
                     }
                 }
             }
         }
-        return sb.toString();
+    }
+
+    /**
+     * the most chars a long can take up when written out (Long.MIN_VALUE)
+     */
+    private static final int MAX_LONG_CHARS = 20;
+
+    /**
+     * Append the decimal digits of a number without making a string for it,
+     * the digits are written into the given buffer from the end and then appended in one go
+     * @param out the output to append to
+     * @param value the number
+     * @param digits a buffer of at least {@value #MAX_LONG_CHARS} chars, reused between calls
+     * @throws IOException if the output cannot be written
+     */
+    protected static void appendDigits(Appendable out, long value, char[] digits) throws IOException {
+        int pos = digits.length;
+        // work with the negative value so that Long.MIN_VALUE does not overflow
+        long v = value < 0 ? value : -value;
+        do {
+            long q = v / 10;
+            digits[--pos] = (char) ('0' + (q * 10 - v));
+            v = q;
+        } while (v != 0);
+        if (value < 0) {
+            digits[--pos] = '-';
+        }
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(digits, pos, digits.length - pos);
+        } else if (out instanceof Writer) {
+            ((Writer) out).write(digits, pos, digits.length - pos);
+        } else {
+            for (int i = pos; i < digits.length; i++) {
+                out.append(digits[i]);
+            }
+        }
+    }
+
+    /**
+     * Writes an array of primitives (int[], double[], etc.) directly without boxing the values,
+     * the output is the same as for an array of the wrapper objects
+     * @param out the place to write to
+     * @param array any array of primitives
+     * @param level the level of the array
+     * @param humanOutput true of human readable output
+     * @throws IOException if the array cannot be written
+     */
+    protected static void appendPrimitiveArray(Appendable out, Object array, int level, boolean humanOutput) throws IOException {
+        int length = Array.getLength(array);
+        out.append(ARRAY_BEG);
+        if (array instanceof int[]) {
+            int[] values = (int[]) array;
+            char[] digits = new char[MAX_LONG_CHARS];
+            for (int i = 0; i < length; i++) {
+                makeElementStart(out, i, level, humanOutput);
+                appendDigits(out, values[i], digits);
+            }
+        } else if (array instanceof long[]) {
+            long[] values = (long[]) array;
+            char[] digits = new char[MAX_LONG_CHARS];
+            for (int i = 0; i < length; i++) {
+                makeElementStart(out, i, level, humanOutput);
+                appendDigits(out, values[i], digits);
+            }
+        } else if (array instanceof double[]) {
+            double[] values = (double[]) array;
+            for (int i = 0; i < length; i++) {
+                makeElementStart(out, i, level, humanOutput);
+                out.append( String.valueOf(values[i]) );
+            }
+        } else if (array instanceof float[]) {
+            float[] values = (float[]) array;
+            for (int i = 0; i < length; i++) {
+                makeElementStart(out, i, level, humanOutput);
+                out.append( String.valueOf(values[i]) );
+            }
+        } else if (array instanceof byte[]) {
+            byte[] values = (byte[]) array;
+            for (int i = 0; i < length; i++) {
+                makeElementStart(out, i, level, humanOutput);
+                out.append( String.valueOf(values[i]) );
+            }
+        } else if (array instanceof short[]) {
+            short[] values = (short[]) array;
+            for (int i = 0; i < length; i++) {
+                makeElementStart(out, i, level, humanOutput);
+                out.append( String.valueOf(values[i]) );
+            }
+        } else if (array instanceof boolean[]) {
+            boolean[] values = (boolean[]) array;
+            for (int i = 0; i < length; i++) {
+                makeElementStart(out, i, level, humanOutput);
+                out.append(values[i] ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+            }
+        } else if (array instanceof char[]) {
+            char[] values = (char[]) array;
+            for (int i = 0; i < length; i++) {
+                makeElementStart(out, i, level, humanOutput);
+                out.append(QUOT);
+                escapeForJSON(String.valueOf(values[i]), out);
+                out.append(QUOT);
+            }
+        }
+        if (length > 0) {
+            makeEOL(out, humanOutput);
+            makeLevelSpaces(out, level, humanOutput);
+        }
+        out.append(ARRAY_END);
+    }
+
+    private static void makeElementStart(Appendable out, int index, int level, boolean humanOutput) throws IOException {
+        if (index > 0) {
+            out.append(JSON_SEP);
+        }
+        makeEOL(out, humanOutput);
+        makeLevelSpaces(out, level+1, humanOutput);
     }
 
     protected static void makeEOL(StringBuilder sb, boolean includeEOL) {
@@ -322,6 +609,12 @@ public class JSONTranscoder implements Transcoder {
         }
     }
 
+    protected static void makeEOL(Appendable out, boolean includeEOL) throws IOException {
+        if (includeEOL) {
+            out.append(EOL);
+        }
+    }
+
     protected static final String SPACES = "  ";
     protected static void makeLevelSpaces(StringBuilder sb, int level, boolean includeEOL) {
         if (includeEOL) {
@@ -331,6 +624,14 @@ public class JSONTranscoder implements Transcoder {
         }
     }
 
+    protected static void makeLevelSpaces(Appendable out, int level, boolean includeEOL) throws IOException {
+        if (includeEOL) {
+            for (int i = 0; i < level; i++) {
+                out.append(SPACES);
+            }
+        }
+    }
+
     /**
      * Escape a string for JSON encoding
      * @param string any string
@@ -338,50 +639,75 @@ public class JSONTranscoder implements Transcoder {
      */
     public static String escapeForJSON(String string) {
         StringBuilder sb = new StringBuilder();
+        try {
+            escapeForJSON(string, sb);
+        } catch (IOException e) {
+            // should not be possible when writing into a StringBuilder
+            throw new IllegalStateException("Failure while escaping JSON into a string: " + e.getMessage(), e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Escape a string for JSON encoding and write it out,
+     * the parts of the string which need no escaping are written as whole ranges instead of one char at a time
+     * @param string any string
+     * @param out the place to write the escaped string into
+     * @throws IOException if the string cannot be written
+     */
+    public static void escapeForJSON(String string, Appendable out) throws IOException {
         if (string != null) {
-            for (int i = 0, len = string.length(); i < len; i++) {
+            int len = string.length();
+            int start = 0;
+            for (int i = 0; i < len; i++) {
                 char c = string.charAt(i);
+                String escape = null;
                 switch (c) {
                 case QUOT:
-                    sb.append("\\\"");
+                    escape = "\\\"";
                     break;
                 case BACK:
-                    sb.append("\\\\");
+                    escape = "\\\\";
                     break;
                 case SLASH:
-                    sb.append("\\/");
+                    escape = "\\/";
                     break;
                 case '\b':
-                    sb.append("\\b");
+                    escape = "\\b";
                     break;
                 case '\f':
-                    sb.append("\\f");
+                    escape = "\\f";
                     break;
                 case '\n':
-                    sb.append("\\n");
+                    escape = "\\n";
                     break;
                 case '\r':
-                    sb.append("\\r");
+                    escape = "\\r";
                     break;
                 case '\t':
-                    sb.append("\\t");
+                    escape = "\\t";
                     break;
                 default:
-                    if (Character.isISOControl(c)) {
-                        sb.append("\\u");
-                        int n = c;
-                        for (int j = 0; j < 4; ++j) {
-                            int digit = (n & 0xf000) >> 12;
-                            sb.append(hex[digit]);
-                            n <<= 4;
-                        }
-                    } else {
-                        sb.append(c);
+                    if (! Character.isISOControl(c)) {
+                        continue; // written out with the rest of the range
                     }
                 }
+                out.append(string, start, i);
+                if (escape != null) {
+                    out.append(escape);
+                } else {
+                    out.append("\\u");
+                    int n = c;
+                    for (int j = 0; j < 4; ++j) {
+                        int digit = (n & 0xf000) >> 12;
+                        out.append(hex[digit]);
+                        n <<= 4;
+                    }
+                }
+                start = i + 1;
             }
+            out.append(string, start, len);
         }
-        return sb.toString();
     }
 
 
@@ -396,18 +722,6 @@ public class JSONTranscoder implements Transcoder {
     public static final int CURRENT = 1;
     public static final int NEXT = 2;
 
-    private static Map<Character, Character> escapes = new HashMap<Character, Character>();
-    static {
-        escapes.put(new Character('"'), new Character('"'));
-        escapes.put(new Character('\\'), new Character('\\'));
-        escapes.put(new Character('/'), new Character('/'));
-        escapes.put(new Character('b'), new Character('\b'));
-        escapes.put(new Character('f'), new Character('\f'));
-        escapes.put(new Character('n'), new Character('\n'));
-        escapes.put(new Character('r'), new Character('\r'));
-        escapes.put(new Character('t'), new Character('\t'));
-    }
-
     protected static char[] hex = "0123456789ABCDEF".toCharArray();
 
     /**
@@ -417,57 +731,85 @@ public class JSONTranscoder implements Transcoder {
      * floating point is handled similarly: float, double, BigDecimal <br/>
      * JSON arrays come back as a List always, similarly, any collection or array that was output will come back as a list <br/>
      * You can use the {@link ConversionUtils} to help with conversion if needed <br/>
+     * The reader holds no state between reads so one reader can be used by many threads at once <br/>
      *
      * Derived from code at:
      * https://svn.sourceforge.net/svnroot/stringtree/trunk/src/delivery/java/org/stringtree/json/JSONWriter.java
      */
     public class JsonReader {
 
-        private CharacterIterator it; // TODO crikey - thread safety
-        private char c; // TODO crikey - thread safety
-        private Object token; // TODO crikey - thread safety
-        private StringBuffer buf = new StringBuffer(); // TODO crikey - thread safety
-
-        private char next() {
-            c = it.next();
-            return c;
-        }
-
-        private void skipWhiteSpace() {
-            while (Character.isWhitespace(c)) {
-                next();
-            }
-        }
-
         public Object read(CharacterIterator it) {
             return read(it, NEXT);
         }
 
         public Object read(String string) {
-            CharacterIterator ci = new StringCharacterIterator(string);
-            return read(ci, FIRST);
+            char[] chars = string.toCharArray();
+            return new JsonScanner(chars, 0).readAll();
         }
 
         /**
          * 3rd public input method, should mostly not be used directly
-         * Called ONLY by the other 2 read methods ({@link #read(String)} and {@link #read(CharacterIterator)})
+         * Called by {@link #read(CharacterIterator)}, the chars of the iterator are copied out once and then scanned,
+         * the iterator is left at the char after the value which was read
          * @param ci
-         * @param start
+         * @param start where to start reading: {@link JSONTranscoder#FIRST}, {@link JSONTranscoder#CURRENT}, or {@link JSONTranscoder#NEXT}
          * @return the Object which represents the JSON string, null for invalid
+         * @throws IllegalArgumentException if a number in the JSON is invalid (e.g. "1e" or "-")
          */
         public Object read(CharacterIterator ci, int start) {
-            it = ci;
+            int begin = ci.getBeginIndex();
+            int index = ci.getIndex() - begin;
+            // copy the chars out once so they can be scanned directly
+            char[] chars = new char[ci.getEndIndex() - begin];
+            int i = 0;
+            for (char ch = ci.first(); i < chars.length; ch = ci.next()) {
+                chars[i++] = ch;
+            }
             switch (start) {
             case FIRST:
-                c = it.first();
-                break;
-            case CURRENT:
-                c = it.current();
+                index = 0;
                 break;
             case NEXT:
-                c = it.next();
+                index = Math.min(index + 1, chars.length);
+                break;
+            default:
                 break;
             }
+            JsonScanner scanner = new JsonScanner(chars, index);
+            Object o = scanner.readAll();
+            // leave the iterator where the reading stopped
+            ci.setIndex(begin + scanner.pos);
+            return o;
+        }
+
+    }
+
+    /**
+     * The state for reading one JSON string, a new one is made for every read so reads never share state <br/>
+     * The chars are scanned directly and strings without escapes are made straight from the chars,
+     * field names which repeat (e.g. in a list of objects) are only made once per read
+     */
+    private static final class JsonScanner {
+
+        private static final int KEY_CACHE_SIZE = 256;
+        private static final int MAX_CACHED_KEY_LENGTH = 64;
+
+        private final char[] chars;
+        private final int length;
+        private int pos;
+        private char c;
+        private Object token;
+        private StringBuilder buf; // only made if a string has escapes
+        private String[] keys; // only made if there are field names
+
+        JsonScanner(char[] chars, int start) {
+            this.chars = chars;
+            this.length = chars.length;
+            this.pos = start;
+            this.c = pos < length ? chars[pos] : CharacterIterator.DONE;
+        }
+
+        Object readAll() {
             Object o = read();
             if (MARK_END_INPUT.equals(o) || MARK_COLON.equals(o)) {
                 o = null; // SPECIAL cases - empty or invalid input
@@ -475,12 +817,26 @@ public class JSONTranscoder implements Transcoder {
             return o;
         }
 
+        private char next() {
+            if (pos < length) {
+                pos++;
+            }
+            c = pos < length ? chars[pos] : CharacterIterator.DONE;
+            return c;
+        }
+
+        private void skipWhiteSpace() {
+            while (Character.isWhitespace(c)) {
+                next();
+            }
+        }
+
         private Object read() {
             skipWhiteSpace();
             char ch = c;
             next();
             switch (ch) {
-                case '"': token = string(); break;
+                case '"': token = string(false); break;
                 case '[': token = array(); break;
                 case ']': token = MARK_ARRAY_END; break;
                 case ',': token = MARK_COMMA; break;
@@ -499,29 +855,42 @@ public class JSONTranscoder implements Transcoder {
                     next(); next(); next(); // assumed u-l-l
                     token = null;
                     break;
-                case StringCharacterIterator.DONE:
+                case CharacterIterator.DONE:
                     token = MARK_END_INPUT;
                     break;
                 default:
                     if (Character.isDigit(ch) || ch == '-') {
                         // Push this back on so it's part of the number
-                        c = it.previous();
+                        pos--;
+                        c = ch;
                         token = number();
                     }
             }
-            // System.out.println("token: " + token); // enable this line to see the token stream
             return token;
         }
 
+        /**
+         * Same as {@link #read()} but field names are reused when they repeat
+         */
+        private Object readKey() {
+            skipWhiteSpace();
+            if (c == '"') {
+                next();
+                token = string(true);
+                return token;
+            }
+            return read();
+        }
+
         private Object object() {
-            Map<Object, Object> ret = new ArrayOrderedMap<Object, Object>();
-            Object key = read();
+            Map<String, Object> ret = new ArrayOrderedMap<String, Object>();
+            Object key = readKey();
             while (token != MARK_OBJECT_END && token != MARK_END_INPUT) {
                 read(); // should be a colon
                 if (token != MARK_OBJECT_END) {
-                    ret.put(key, read());
+                    ret.put(key instanceof String ? (String) key : String.valueOf(key), read());
                     if (read() == MARK_COMMA) {
-                        key = read();
+                        key = readKey();
                     }
                 }
             }
@@ -547,88 +916,108 @@ public class JSONTranscoder implements Transcoder {
         }
 
         private Object number() {
+            int start = pos;
             int length = 0;
             boolean isFloatingPoint = false;
-            buf.setLength(0);
 
             if (c == '-') {
-                add();
+                next();
             }
-            length += addDigits();
+            length += skipDigits();
             if (c == '.') {
-                add();
-                length += addDigits();
+                next();
+                length += skipDigits();
                 isFloatingPoint = true;
             }
             if (c == 'e' || c == 'E') {
-                add();
+                next();
                 if (c == '+' || c == '-') {
-                    add();
+                    next();
                 }
-                addDigits();
+                skipDigits();
                 isFloatingPoint = true;
             }
 
-            String s = buf.toString();
             // more friendly handling of numbers
             Object num = null;
-            if (isFloatingPoint) {
-                if (length < 10) {
-                    num = Float.valueOf(s);
-                } else if (length < 17) {
-                    num = Double.valueOf(s);
-                } else {
-                    num = new BigDecimal(s);
-                }
-            } else {
-                if (length < 10) {
-                    num = Integer.valueOf(s);
-                } else if (length < 19) {
-                    num = Long.valueOf(s);
-                } else {
-                    num = new BigInteger(s);
-                }
+            String text = new String(chars, start, pos - start);
+            try {
+                num = JsonParser.makeLegacyNumber(text, length, isFloatingPoint);
+            } catch (NumberFormatException e) {
+                // invalid number (e.g. "-" or "1e")
+                throw new IllegalArgumentException("Invalid JSON at char " + pos + ": invalid number (" + text + ")", e);
             }
             return num;
         }
 
-        private int addDigits() {
+        private int skipDigits() {
             int ret;
             for (ret = 0; Character.isDigit(c); ++ret) {
-                add();
+                next();
             }
             return ret;
         }
 
-        private Object string() {
-            buf.setLength(0);
-            while (c != '"' && c != StringCharacterIterator.DONE) {
-                if (c == '\\') {
-                    next();
-                    if (c == 'u') {
-                        add(unicode());
+        private String string(boolean key) {
+            int start = pos;
+            while (c != '"' && c != '\\' && c != CharacterIterator.DONE) {
+                next();
+            }
+            String value;
+            if (c != '\\') {
+                // no escapes so the string is made directly from the chars
+                value = key ? makeKey(start, pos) : new String(chars, start, pos - start);
+            } else {
+                if (buf == null) {
+                    buf = new StringBuilder();
+                }
+                buf.setLength(0);
+                buf.append(chars, start, pos - start);
+                while (c != '"' && c != CharacterIterator.DONE) {
+                    if (c == '\\') {
+                        next();
+                        if (c == 'u') {
+                            buf.append(unicode());
+                            next();
+                        } else {
+                            int escaped = escape(c);
+                            if (escaped >= 0) {
+                                buf.append((char) escaped);
+                                next();
+                            }
+                        }
                     } else {
-                        Object value = escapes.get(new Character(c));
-                        if (value != null) {
-                            add(((Character) value).charValue());
+                        int run = pos;
+                        while (c != '"' && c != '\\' && c != CharacterIterator.DONE) {
+                            next();
                         }
+                        buf.append(chars, run, pos - run);
                     }
-                } else {
-                    add();
                 }
+                value = buf.toString();
             }
             // unterminated string will terminate automatically
             next();
-            return buf.toString();
+            return value;
         }
 
-        private void add(char cc) {
-            buf.append(cc);
-            next();
-        }
-
-        private void add() {
-            add(c);
+        /**
+         * @return the escaped char OR -1 if this is not a known escape (the char is then used as is)
+         */
+        private int escape(char ch) {
+            int escaped;
+            switch (ch) {
+            case '"': escaped = '"'; break;
+            case '\\': escaped = '\\'; break;
+            case '/': escaped = '/'; break;
+            case 'b': escaped = '\b'; break;
+            case 'f': escaped = '\f'; break;
+            case 'n': escaped = '\n'; break;
+            case 'r': escaped = '\r'; break;
+            case 't': escaped = '\t'; break;
+            default: escaped = -1;
+            }
+            return escaped;
         }
 
         private char unicode() {
@@ -650,6 +1039,42 @@ public class JSONTranscoder implements Transcoder {
             return (char) value;
         }
 
+        /**
+         * @return the field name for these chars, the same string is returned when a name repeats
+         */
+        private String makeKey(int start, int end) {
+            int len = end - start;
+            if (len > MAX_CACHED_KEY_LENGTH) {
+                return new String(chars, start, len);
+            }
+            int hash = len;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + chars[i];
+            }
+            if (keys == null) {
+                keys = new String[KEY_CACHE_SIZE];
+            }
+            int slot = (hash ^ (hash >>> 16)) & (KEY_CACHE_SIZE - 1);
+            String key = keys[slot];
+            if (key == null || ! matches(key, start, len)) {
+                key = new String(chars, start, len);
+                keys[slot] = key;
+            }
+            return key;
+        }
+
+        private boolean matches(String key, int start, int len) {
+            if (key.length() != len) {
+                return false;
+            }
+            for (int i = 0; i < len; i++) {
+                if (key.charAt(i) != chars[start + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
     }
 
 }
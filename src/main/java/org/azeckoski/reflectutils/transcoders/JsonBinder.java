@@ -0,0 +1,286 @@
+/**
+ * $Id$
+ * $URL$
+ * JsonBinder.java - reflectutils - Oct 19, 2026 1:52:07 AM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils.transcoders;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.azeckoski.reflectutils.ClassFields;
+import org.azeckoski.reflectutils.ClassProperty;
+import org.azeckoski.reflectutils.ConstructorUtils;
+import org.azeckoski.reflectutils.ConversionUtils;
+import org.azeckoski.reflectutils.FieldUtils;
+import org.azeckoski.reflectutils.refmap.ReferenceMap;
+import org.azeckoski.reflectutils.refmap.ReferenceType;
+import org.azeckoski.reflectutils.transcoders.JsonParser.JsonToken;
+
+/**
+ * Binds JSON tokens straight onto java objects (beans, maps, collections, arrays, and simple types)
+ * without building the maps and lists for the JSON first <br/>
+ * Bean fields are set with the cached {@link ClassFields} properties and values are only converted
+ * (with {@link ConversionUtils}) when the JSON value is not already the type of the field,
+ * JSON fields which do not match a settable field in the bean are skipped <br/>
+ * This holds no state between binds so it can be used by many threads at once
+ * 
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public class JsonBinder {
+
+    /**
+     * The binding data for each bean class (class -> binding),
+     * a binding is only valid while the class fields it was made from are cached
+     */
+    private static final ReferenceMap<Class<?>, BeanBinding> beanBindings = 
+        new ReferenceMap<Class<?>, BeanBinding>(ReferenceType.WEAK, ReferenceType.SOFT);
+
+    /**
+     * Binds the current value of the parser (and everything in it) onto the given type,
+     * after this the current token is the end of the value
+     * @param parser the parser which is on the first token of the value
+     * @param type the type to bind the value to (can be generic, e.g. from {@link TypeReference#getType()}),
+     * Object means the value is built the same way as {@link JsonParser#readValue()}
+     * @return the value as the given type (or null if the JSON value is null)
+     * @throws IOException if the input cannot be read
+     * @throws IllegalArgumentException if the input is not valid JSON or the type cannot be constructed
+     * @throws UnsupportedOperationException if a value cannot be converted to the type it is bound to
+     */
+    public Object bind(JsonParser parser, Type type) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == null) {
+            throw new IllegalStateException("there is no current value to bind, nextToken must be called first");
+        }
+        Class<?> rawType = getRawClass(type);
+        Object value;
+        if (Object.class.equals(rawType)) {
+            value = parser.readValue();
+        } else if (token == JsonToken.START_OBJECT) {
+            if (ConstructorUtils.isClassMap(rawType)) {
+                value = bindMap(parser, type, rawType);
+            } else if (ConstructorUtils.isClassBean(rawType)) {
+                value = bindBean(parser, rawType);
+            } else {
+                value = convert(parser.readValue(), rawType);
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            if (ConstructorUtils.isClassArray(rawType)) {
+                value = bindArray(parser, type, rawType);
+            } else if (ConstructorUtils.isClassCollection(rawType)) {
+                value = bindCollection(parser, type, rawType);
+            } else {
+                value = convert(parser.readValue(), rawType);
+            }
+        } else if (token == JsonToken.VALUE_NUMBER) {
+            Number number = parser.getNumberValue();
+            if (ConstructorUtils.getWrapper(rawType).isInstance(number)) {
+                value = number;
+            } else if (Number.class.isAssignableFrom(ConstructorUtils.getWrapper(rawType))) {
+                // convert from the text so no precision is lost on the way (e.g. 0.1 as a float)
+                value = convert(parser.getText(), rawType);
+            } else {
+                value = convert(number, rawType);
+            }
+        } else if (token.isScalarValue()) {
+            value = convert(parser.readValue(), rawType);
+        } else {
+            throw new IllegalStateException("there is no value to bind at token: " + token);
+        }
+        return value;
+    }
+
+    protected Object bindBean(JsonParser parser, Class<?> beanClass) throws IOException {
+        Object bean = ConstructorUtils.getInstance().constructClass(beanClass);
+        BeanBinding binding = getBeanBinding(beanClass);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            PropertyBinding property = binding.getProperty(parser.getText());
+            parser.nextToken();
+            if (property == null) {
+                // nowhere to put this value
+                parser.skipChildren();
+            } else {
+                property.property.setValue(bean, bind(parser, property.type));
+            }
+        }
+        return bean;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Object bindMap(JsonParser parser, Type type, Class<?> mapClass) throws IOException {
+        Map<Object, Object> map = (Map<Object, Object>) ConstructorUtils.getInstance().constructClass(mapClass);
+        Class<?> keyType = getRawClass(getTypeArgument(type, 0));
+        Type valueType = getTypeArgument(type, 1);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Object key = convert(parser.getText(), keyType);
+            parser.nextToken();
+            map.put(key, bind(parser, valueType));
+        }
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Object bindCollection(JsonParser parser, Type type, Class<?> collectionClass) throws IOException {
+        Collection<Object> collection = (Collection<Object>) ConstructorUtils.getInstance().constructClass(collectionClass);
+        Type elementType = getTypeArgument(type, 0);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            collection.add(bind(parser, elementType));
+        }
+        return collection;
+    }
+
+    protected Object bindArray(JsonParser parser, Type type, Class<?> arrayClass) throws IOException {
+        Type componentType = type instanceof GenericArrayType ? 
+                ((GenericArrayType) type).getGenericComponentType() : arrayClass.getComponentType();
+        List<Object> values = new ArrayList<Object>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(bind(parser, componentType));
+        }
+        Object array = Array.newInstance(arrayClass.getComponentType(), values.size());
+        for (int i = 0; i < values.size(); i++) {
+            Array.set(array, i, values.get(i));
+        }
+        return array;
+    }
+
+    /**
+     * Converts a value only if it is not already the type
+     */
+    protected Object convert(Object value, Class<?> type) {
+        Object converted = value;
+        if (value == null 
+                || ! ConstructorUtils.getWrapper(type).isInstance(value)) {
+            // nulls only change for primitives
+            converted = ConversionUtils.getInstance().convert(value, type);
+        }
+        return converted;
+    }
+
+    /**
+     * @param beanClass any bean class
+     * @return the binding for the class (made if it is not cached or the class fields have changed)
+     */
+    protected BeanBinding getBeanBinding(Class<?> beanClass) {
+        ClassFields<?> cf = FieldUtils.getInstance().analyzeClass(beanClass);
+        BeanBinding binding = beanBindings.get(beanClass);
+        if (binding == null || binding.classFields != cf) {
+            binding = new BeanBinding(cf);
+            beanBindings.put(beanClass, binding);
+        }
+        return binding;
+    }
+
+    /**
+     * @param type any type
+     * @return the class for the type (Object if the type is a type variable or wildcard with no bounds)
+     */
+    protected static Class<?> getRawClass(Type type) {
+        Class<?> rawClass = Object.class;
+        if (type instanceof Class) {
+            rawClass = (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            rawClass = getRawClass(((ParameterizedType) type).getRawType());
+        } else if (type instanceof GenericArrayType) {
+            Class<?> componentClass = getRawClass(((GenericArrayType) type).getGenericComponentType());
+            rawClass = Array.newInstance(componentClass, 0).getClass();
+        } else if (type instanceof WildcardType) {
+            rawClass = getRawClass(((WildcardType) type).getUpperBounds()[0]);
+        } else if (type instanceof TypeVariable) {
+            rawClass = getRawClass(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        return rawClass;
+    }
+
+    /**
+     * @param type any type
+     * @param index the index of the type argument
+     * @return the type argument (e.g. the V in Map&lt;K,V&gt;) OR Object if the type has no arguments
+     */
+    protected static Type getTypeArgument(Type type, int index) {
+        Type argument = Object.class;
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) {
+                argument = arguments[index];
+            }
+        }
+        return argument;
+    }
+
+    /**
+     * The settable properties of a bean class and their full generic types, the properties are looked up
+     * the first time each name is seen and then reused
+     */
+    protected static final class BeanBinding {
+        private static final PropertyBinding NONE = new PropertyBinding(null, null);
+        final ClassFields<?> classFields;
+        private final Map<String, PropertyBinding> properties = new ConcurrentHashMap<String, PropertyBinding>();
+
+        BeanBinding(ClassFields<?> classFields) {
+            this.classFields = classFields;
+        }
+
+        /**
+         * @param name the JSON field name
+         * @return the property to set OR null if there is no settable property with this name
+         */
+        PropertyBinding getProperty(String name) {
+            PropertyBinding property = properties.get(name);
+            if (property == null) {
+                property = NONE;
+                ClassProperty cp = classFields.findClassProperty(name);
+                if (cp != null && cp.isSettable() && ! cp.isStatic()) {
+                    property = new PropertyBinding(cp, getGenericType(cp));
+                }
+                properties.put(name, property);
+            }
+            return property == NONE ? null : property;
+        }
+
+        private static Type getGenericType(ClassProperty cp) {
+            Type type = null;
+            Method setter = cp.getSetter();
+            if (setter != null) {
+                type = setter.getGenericParameterTypes()[0];
+            } else if (cp.getField() != null) {
+                type = cp.getField().getGenericType();
+            }
+            if (type == null || type instanceof TypeVariable) {
+                // the declared type cannot be resolved from here so use the type of the property
+                type = cp.getType();
+            }
+            return type;
+        }
+    }
+
+    protected static final class PropertyBinding {
+        final ClassProperty property;
+        final Type type;
+
+        PropertyBinding(ClassProperty property, Type type) {
+            this.property = property;
+            this.type = type;
+        }
+    }
+
+}
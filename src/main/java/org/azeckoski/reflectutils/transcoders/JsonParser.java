@@ -0,0 +1,680 @@
+/**
+ * $Id$
+ * $URL$
+ * JsonParser.java - reflectutils - Oct 19, 2026 12:24:51 AM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils.transcoders;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.azeckoski.reflectutils.map.ArrayOrderedMap;
+
+/**
+ * Pull parser for JSON which reads from a stream one token at a time,
+ * only the current token and the nesting of the objects and arrays are held in memory so
+ * JSON documents of any size can be processed and whole subtrees can be skipped without building them <br/>
+ * Use {@link #nextToken()} to move through the document and the getters to get the data for the current token,
+ * use {@link #readValue()} to build the current value into maps and lists (the same way {@link JSONTranscoder#decode(String)} does)
+ * and {@link #skipChildren()} to jump over the current object or array <br/>
+ * The input can hold more than one JSON value (e.g. one per line), {@link #nextToken()} returns null when the input runs out <br/>
+ * Invalid JSON causes an {@link IllegalArgumentException} with the position of the problem <br/>
+ * This is not thread safe, each parser must only be used by one thread at a time
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public class JsonParser implements Closeable {
+
+    /**
+     * The types of tokens in JSON
+     */
+    public static enum JsonToken {
+        START_OBJECT, END_OBJECT, START_ARRAY, END_ARRAY, FIELD_NAME,
+        VALUE_STRING, VALUE_NUMBER, VALUE_TRUE, VALUE_FALSE, VALUE_NULL;
+
+        /**
+         * @return true if this token is a simple value (string, number, boolean, or null)
+         */
+        public boolean isScalarValue() {
+            return this.ordinal() >= VALUE_STRING.ordinal();
+        }
+    }
+
+    /**
+     * The default number of chars to read from the input at a time
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int CONTEXT_ROOT = 0;
+    private static final int CONTEXT_ARRAY = 1;
+    private static final int CONTEXT_OBJECT = 2;
+    // nothing has been read in the container yet
+    private static final int STATE_START = 0;
+    // a field name was read so a colon and the value are next
+    private static final int STATE_NAME = 1;
+    // a value was read so a comma or the end of the container is next
+    private static final int STATE_VALUE = 2;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position = 0;
+    private int limit = 0;
+    private long offset = 0;
+
+    private int depth = 0;
+    private int[] contexts = new int[16];
+    private int[] states = new int[16];
+    private String[] names = new String[16];
+
+    private final StringBuilder sb = new StringBuilder();
+    private boolean skipping = false;
+    private JsonToken token;
+    private String text;
+    private String name;
+    private int digits;
+    private boolean floatingPoint;
+
+    /**
+     * @param reader the JSON to parse, this does not need to be buffered
+     */
+    public JsonParser(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param input the JSON to parse (UTF-8), this does not need to be buffered
+     */
+    public JsonParser(InputStream input) {
+        this(makeReader(input), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param reader the JSON to parse, this does not need to be buffered
+     * @param bufferSize the number of chars to read from the reader at a time
+     */
+    public JsonParser(Reader reader, int bufferSize) {
+        if (reader == null) {
+            throw new IllegalArgumentException("reader cannot be null");
+        }
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be at least 1: " + bufferSize);
+        }
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    private static Reader makeReader(InputStream input) {
+        if (input == null) {
+            throw new IllegalArgumentException("input cannot be null");
+        }
+        return new InputStreamReader(input, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Move to the next token in the input
+     * @return the next token OR null if the input has ended
+     * @throws IOException if the input cannot be read
+     * @throws IllegalArgumentException if the input is not valid JSON
+     */
+    public JsonToken nextToken() throws IOException {
+        int ch = skipWhiteSpace();
+        int context = contexts[depth];
+        if (context == CONTEXT_ROOT) {
+            if (ch < 0) {
+                return setToken(null, null, null);
+            }
+            return value(ch, null);
+        }
+        if (ch < 0) {
+            throw error("input ended inside an " + (context == CONTEXT_ARRAY ? "array" : "object"));
+        }
+        int state = states[depth];
+        if (context == CONTEXT_ARRAY) {
+            if (ch == ']') {
+                return end(JsonToken.END_ARRAY);
+            }
+            if (state == STATE_VALUE) {
+                ch = separator(ch, ']');
+            }
+            states[depth] = STATE_VALUE;
+            return value(ch, null);
+        }
+        // inside an object
+        if (state == STATE_NAME) {
+            if (ch != ':') {
+                throw error("expected ':' after the field name but found '" + (char) ch + "'");
+            }
+            read();
+            ch = skipWhiteSpace();
+            if (ch < 0) {
+                throw error("input ended before the value for a field");
+            }
+            states[depth] = STATE_VALUE;
+            return value(ch, names[depth]);
+        }
+        if (ch == '}') {
+            return end(JsonToken.END_OBJECT);
+        }
+        if (state == STATE_VALUE) {
+            ch = separator(ch, '}');
+        }
+        if (ch != '"') {
+            throw error("expected a field name but found '" + (char) ch + "'");
+        }
+        read();
+        String fieldName = string();
+        names[depth] = fieldName;
+        states[depth] = STATE_NAME;
+        return setToken(JsonToken.FIELD_NAME, fieldName, fieldName);
+    }
+
+    /**
+     * @return the current token OR null if {@link #nextToken()} has not been called or the input has ended
+     */
+    public JsonToken getCurrentToken() {
+        return token;
+    }
+
+    /**
+     * @return the field name for the current token (the name itself for {@link JsonToken#FIELD_NAME},
+     * the name of the field holding the value for values and the start and end of objects and arrays),
+     * null if the current value is not in an object
+     */
+    public String getCurrentName() {
+        return name;
+    }
+
+    /**
+     * @return the text for the current token (the string value, the field name, the number as it was written,
+     * "true", "false", "null", or the bracket for the start and end of objects and arrays),
+     * null if there is no current token
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return the current number, this will be an int if it is small, long if it is big, and BigInteger if it is huge,
+     * floating point numbers are a float if a float holds the value exactly as written, otherwise a double if that does,
+     * otherwise a BigDecimal (so no range or precision is lost)
+     * @throws IllegalStateException if the current token is not a number
+     */
+    public Number getNumberValue() {
+        if (token != JsonToken.VALUE_NUMBER) {
+            throw new IllegalStateException("current token is not a number: " + token);
+        }
+        return makeNumber(text, digits, floatingPoint);
+    }
+
+    /**
+     * @return the current boolean value
+     * @throws IllegalStateException if the current token is not true or false
+     */
+    public boolean getBooleanValue() {
+        if (token != JsonToken.VALUE_TRUE && token != JsonToken.VALUE_FALSE) {
+            throw new IllegalStateException("current token is not a boolean: " + token);
+        }
+        return token == JsonToken.VALUE_TRUE;
+    }
+
+    /**
+     * @return the number of objects and arrays the parser is currently inside (0 is the root)
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the number of chars which have been read from the input
+     */
+    public long getPosition() {
+        return offset + position;
+    }
+
+    /**
+     * If the current token starts an object or array then this skips to the token which ends it,
+     * nothing inside the object or array is built (no strings or numbers) so this is very fast,
+     * does nothing for any other token
+     * @return this parser
+     * @throws IOException if the input cannot be read
+     * @throws IllegalArgumentException if the input is not valid JSON
+     */
+    public JsonParser skipChildren() throws IOException {
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            int target = depth - 1;
+            skipping = true;
+            try {
+                while (depth > target) {
+                    nextToken();
+                }
+            } finally {
+                skipping = false;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Reads the current value (and everything in it if it is an object or array) into java objects,
+     * after this the current token is the end of the object or array (or the same token for simple values) <br/>
+     * NOTE: this recurses once for each level of nesting and builds the whole value in memory,
+     * values nested very deeply (around 100,000 levels with the default thread stack size) cause a {@link StackOverflowError},
+     * use {@link #nextToken()} and {@link #skipChildren()} (which do not recurse) for input which cannot be trusted
+     * @return the value, objects are maps ({@link ArrayOrderedMap}), arrays are lists, and simple values are
+     * String, Number (see {@link #getNumberValue()}), Boolean, or null
+     * @throws IOException if the input cannot be read
+     * @throws IllegalArgumentException if the input is not valid JSON
+     * @throws IllegalStateException if the current token is not the start of a value
+     */
+    public Object readValue() throws IOException {
+        if (token == null) {
+            throw new IllegalStateException("there is no current value, nextToken must be called first");
+        }
+        Object value = null;
+        switch (token) {
+        case START_OBJECT:
+            Map<String, Object> map = new ArrayOrderedMap<String, Object>();
+            while (nextToken() == JsonToken.FIELD_NAME) {
+                String key = text;
+                nextToken();
+                map.put(key, readValue());
+            }
+            value = map;
+            break;
+        case START_ARRAY:
+            List<Object> list = new ArrayList<Object>();
+            while (nextToken() != JsonToken.END_ARRAY) {
+                list.add(readValue());
+            }
+            value = list;
+            break;
+        case VALUE_STRING:
+            value = text;
+            break;
+        case VALUE_NUMBER:
+            value = getNumberValue();
+            break;
+        case VALUE_TRUE:
+            value = Boolean.TRUE;
+            break;
+        case VALUE_FALSE:
+            value = Boolean.FALSE;
+            break;
+        case VALUE_NULL:
+            value = null;
+            break;
+        default:
+            throw new IllegalStateException("there is no value to read at token: " + token);
+        }
+        return value;
+    }
+
+    /**
+     * Closes the input
+     */
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    @Override
+    public String toString() {
+        return "JsonParser:token=" + token + ":name=" + name + ":depth=" + depth + ":position=" + getPosition();
+    }
+
+    private JsonToken setToken(JsonToken token, String text, String name) {
+        this.token = token;
+        this.text = text;
+        this.name = name;
+        return token;
+    }
+
+    private JsonToken value(int ch, String fieldName) throws IOException {
+        JsonToken next;
+        switch (ch) {
+        case '{':
+            read();
+            push(CONTEXT_OBJECT);
+            next = setToken(JsonToken.START_OBJECT, "{", fieldName);
+            break;
+        case '[':
+            read();
+            push(CONTEXT_ARRAY);
+            next = setToken(JsonToken.START_ARRAY, "[", fieldName);
+            break;
+        case '"':
+            read();
+            next = setToken(JsonToken.VALUE_STRING, string(), fieldName);
+            break;
+        case 't':
+            next = setToken(JsonToken.VALUE_TRUE, literal(JSONTranscoder.BOOLEAN_TRUE), fieldName);
+            break;
+        case 'f':
+            next = setToken(JsonToken.VALUE_FALSE, literal(JSONTranscoder.BOOLEAN_FALSE), fieldName);
+            break;
+        case 'n':
+            next = setToken(JsonToken.VALUE_NULL, literal(JSONTranscoder.NULL), fieldName);
+            break;
+        default:
+            if (ch == '-' || (ch >= '0' && ch <= '9')) {
+                next = setToken(JsonToken.VALUE_NUMBER, number(), fieldName);
+            } else {
+                throw error("expected a value but found '" + (char) ch + "'");
+            }
+        }
+        return next;
+    }
+
+    private JsonToken end(JsonToken endToken) throws IOException {
+        read();
+        depth--;
+        String fieldName = contexts[depth] == CONTEXT_OBJECT ? names[depth] : null;
+        return setToken(endToken, endToken == JsonToken.END_OBJECT ? "}" : "]", fieldName);
+    }
+
+    private void push(int context) {
+        depth++;
+        if (depth == contexts.length) {
+            contexts = Arrays.copyOf(contexts, depth * 2);
+            states = Arrays.copyOf(states, depth * 2);
+            names = Arrays.copyOf(names, depth * 2);
+        }
+        contexts[depth] = context;
+        states[depth] = STATE_START;
+        names[depth] = null;
+    }
+
+    /**
+     * Reads the comma between values
+     * @return the first char after the comma
+     */
+    private int separator(int ch, char endChar) throws IOException {
+        if (ch != ',') {
+            throw error("expected ',' or '" + endChar + "' but found '" + (char) ch + "'");
+        }
+        read();
+        ch = skipWhiteSpace();
+        if (ch < 0) {
+            throw error("input ended after a ','");
+        } else if (ch == endChar) {
+            throw error("found '" + endChar + "' after a ','");
+        }
+        return ch;
+    }
+
+    /**
+     * Reads a string after the opening quote up to and including the closing quote
+     * @return the string OR null if skipping
+     */
+    private String string() throws IOException {
+        sb.setLength(0);
+        while (true) {
+            if (position >= limit && ! fill()) {
+                throw error("input ended inside a string");
+            }
+            // copy the chars which need no handling as a whole range
+            int start = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == '"' || c == '\\') {
+                    break;
+                }
+                position++;
+            }
+            if (! skipping) {
+                sb.append(buffer, start, position - start);
+            }
+            if (position < limit) {
+                char c = buffer[position++];
+                if (c == '"') {
+                    break;
+                }
+                char escaped = escape();
+                if (! skipping) {
+                    sb.append(escaped);
+                }
+            }
+        }
+        return skipping ? null : sb.toString();
+    }
+
+    private char escape() throws IOException {
+        int c = read();
+        char escaped;
+        switch (c) {
+        case '"': escaped = '"'; break;
+        case '\\': escaped = '\\'; break;
+        case '/': escaped = '/'; break;
+        case 'b': escaped = '\b'; break;
+        case 'f': escaped = '\f'; break;
+        case 'n': escaped = '\n'; break;
+        case 'r': escaped = '\r'; break;
+        case 't': escaped = '\t'; break;
+        case 'u':
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                int digit = Character.digit(read(), 16);
+                if (digit < 0) {
+                    throw error("invalid unicode escape in a string");
+                }
+                value = (value << 4) + digit;
+            }
+            escaped = (char) value;
+            break;
+        default:
+            throw error(c < 0 ? "input ended inside a string" : "invalid escape '\\" + (char) c + "' in a string");
+        }
+        return escaped;
+    }
+
+    /**
+     * @return the number text OR null if skipping
+     */
+    private String number() throws IOException {
+        sb.setLength(0);
+        floatingPoint = false;
+        if (peek() == '-') {
+            add();
+        }
+        if (peek() == '0') {
+            add();
+            digits = 1;
+            int next = peek();
+            if (next >= '0' && next <= '9') {
+                throw error("a number cannot start with a leading zero");
+            }
+        } else {
+            digits = addDigits();
+        }
+        if (digits == 0) {
+            throw error("expected a digit in a number");
+        }
+        if (peek() == '.') {
+            add();
+            int fraction = addDigits();
+            if (fraction == 0) {
+                throw error("expected a digit after the '.' in a number");
+            }
+            digits += fraction;
+            floatingPoint = true;
+        }
+        int ch = peek();
+        if (ch == 'e' || ch == 'E') {
+            add();
+            ch = peek();
+            if (ch == '+' || ch == '-') {
+                add();
+            }
+            if (addDigits() == 0) {
+                throw error("expected a digit in the exponent of a number");
+            }
+            floatingPoint = true;
+        }
+        return skipping ? null : sb.toString();
+    }
+
+    private int addDigits() throws IOException {
+        int count = 0;
+        for (int ch = peek(); ch >= '0' && ch <= '9'; ch = peek()) {
+            add();
+            count++;
+        }
+        return count;
+    }
+
+    private void add() throws IOException {
+        int ch = read();
+        if (! skipping) {
+            sb.append((char) ch);
+        }
+    }
+
+    /**
+     * Reads a word (true, false, null) and makes sure it is complete
+     * @return the word
+     */
+    private String literal(String word) throws IOException {
+        for (int i = 0; i < word.length(); i++) {
+            if (read() != word.charAt(i)) {
+                throw error("expected the value '" + word + "'");
+            }
+        }
+        if (Character.isLetterOrDigit(peek())) {
+            throw error("expected the value '" + word + "' but found more letters");
+        }
+        return word;
+    }
+
+    /**
+     * @return the next char which is not whitespace (it is not consumed) OR -1 if the input ended
+     */
+    private int skipWhiteSpace() throws IOException {
+        while (true) {
+            if (position >= limit && ! fill()) {
+                return -1;
+            }
+            char c = buffer[position];
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                position++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private int peek() throws IOException {
+        if (position >= limit && ! fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c >= 0) {
+            position++;
+        }
+        return c;
+    }
+
+    /**
+     * @return true if more chars were read into the buffer, false if the input ended
+     */
+    private boolean fill() throws IOException {
+        offset += limit;
+        position = 0;
+        limit = 0;
+        int count;
+        do {
+            count = reader.read(buffer, 0, buffer.length);
+        } while (count == 0);
+        if (count > 0) {
+            limit = count;
+        }
+        return count > 0;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid JSON at char " + getPosition() + ": " + message);
+    }
+
+    /**
+     * Makes a number using the smallest type which holds it without losing anything
+     * @param s the number as it was written in the JSON
+     * @param digits the number of digits in the number (not counting the exponent)
+     * @param floatingPoint true if the number has a fraction or exponent
+     * @return an int if it is small, long if it is big, and BigInteger if it is huge,
+     * floating point is a float if it holds the exact value, otherwise a double if it does, otherwise a BigDecimal
+     */
+    static Number makeNumber(String s, int digits, boolean floatingPoint) {
+        Number num = null;
+        if (floatingPoint) {
+            BigDecimal exact = new BigDecimal(s);
+            float f = Float.parseFloat(s);
+            if (! Float.isInfinite(f) && new BigDecimal(Float.toString(f)).compareTo(exact) == 0) {
+                num = Float.valueOf(f);
+            } else {
+                double d = Double.parseDouble(s);
+                if (! Double.isInfinite(d) && new BigDecimal(Double.toString(d)).compareTo(exact) == 0) {
+                    num = Double.valueOf(d);
+                } else {
+                    num = exact;
+                }
+            }
+        } else {
+            num = makeLegacyNumber(s, digits, false);
+        }
+        return num;
+    }
+
+    /**
+     * Makes a number with the type picked by the number of digits only,
+     * this is the way {@link JSONTranscoder.JsonReader} has always sized numbers so it is kept for that,
+     * floating point numbers can lose precision (or become infinite) this way so use {@link #makeNumber(String, int, boolean)}
+     * @param s the number as it was written in the JSON
+     * @param digits the number of digits in the number (not counting the exponent)
+     * @param floatingPoint true if the number has a fraction or exponent
+     * @return an int if it is small, long if it is big, and BigInteger if it is huge,
+     * floating point is handled similarly: float, double, BigDecimal
+     */
+    static Number makeLegacyNumber(String s, int digits, boolean floatingPoint) {
+        Number num = null;
+        if (floatingPoint) {
+            if (digits < 10) {
+                num = Float.valueOf(s);
+            } else if (digits < 17) {
+                num = Double.valueOf(s);
+            } else {
+                num = new BigDecimal(s);
+            }
+        } else {
+            if (digits < 10) {
+                num = Integer.valueOf(s);
+            } else if (digits < 19) {
+                num = Long.valueOf(s);
+            } else {
+                num = new BigInteger(s);
+            }
+        }
+        return num;
+    }
+
+}
@@ -14,12 +14,17 @@
 
 package org.azeckoski.reflectutils.transcoders;
 
+import java.io.BufferedWriter;
+import java.io.CharArrayWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 
@@ -60,6 +65,36 @@ public class TranscoderUtils {
         return encoded;
     }
 
+    /**
+     * Makes sure a writer is buffered so the transcoders can stream lots of small writes into it cheaply
+     * @param writer any writer
+     * @return the writer if it is already buffered or writes into memory, otherwise a buffered writer wrapping it
+     * (this must be flushed when the writing is done)
+     */
+    public static Writer makeBufferedWriter(Writer writer) {
+        if (writer == null) {
+            throw new IllegalArgumentException("writer cannot be null");
+        }
+        Writer buffered = writer;
+        if (! (writer instanceof BufferedWriter 
+                || writer instanceof StringWriter 
+                || writer instanceof CharArrayWriter) ) {
+            buffered = new BufferedWriter(writer);
+        }
+        return buffered;
+    }
+
+    /**
+     * @param output any stream
+     * @return a buffered UTF-8 writer for the stream (this must be flushed when the writing is done)
+     */
+    public static Writer makeBufferedWriter(OutputStream output) {
+        if (output == null) {
+            throw new IllegalArgumentException("output cannot be null");
+        }
+        return new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
     /**
      * This will ensure that no objects that are known to be impossible to serialize properly will
      * cause problems with the transcoders by allowing them to go into loops
@@ -0,0 +1,55 @@
+/**
+ * $Id$
+ * $URL$
+ * TypeReference.java - reflectutils - Oct 19, 2026 1:46:22 AM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils.transcoders;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Holds a full generic type (e.g. List&lt;TestBean&gt;) so it can be passed to the decoders,
+ * java erases the generics from class objects so make an anonymous subclass to keep them: <br/>
+ * <code>new TypeReference&lt;List&lt;TestBean&gt;&gt;() {}</code>
+ * 
+ * @param <T> the type to decode into
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public abstract class TypeReference<T> {
+
+    private final Type type;
+
+    /**
+     * @throws IllegalArgumentException if this is not made as a subclass with the type filled in
+     */
+    protected TypeReference() {
+        Type superclass = getClass().getGenericSuperclass();
+        if (! (superclass instanceof ParameterizedType)) {
+            throw new IllegalArgumentException("TypeReference must be made with the type filled in, e.g. new TypeReference<List<String>>() {}");
+        }
+        this.type = ((ParameterizedType) superclass).getActualTypeArguments()[0];
+    }
+
+    /**
+     * @return the full generic type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return "TypeReference:" + type;
+    }
+
+}
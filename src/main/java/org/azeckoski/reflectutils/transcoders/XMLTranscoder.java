@@ -17,6 +17,8 @@ package org.azeckoski.reflectutils.transcoders;
 import java.io.ByteArrayInputStream;
 import java.io.CharArrayWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -34,7 +36,6 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
-import org.azeckoski.reflectutils.ArrayUtils;
 import org.azeckoski.reflectutils.ConstructorUtils;
 import org.azeckoski.reflectutils.DateUtils;
 import org.azeckoski.reflectutils.FieldUtils;
@@ -79,6 +80,74 @@ public class XMLTranscoder implements Transcoder {
         return encoded;
     }
 
+    /**
+     * Encode an object as XML directly into a writer, the XML is written out as the object is traversed
+     * so the whole document is never held in memory as a string
+     * @param object any java object
+     * @param writer the writer to write the XML into, this will be flushed but not closed
+     * @param name (optional) the name of the data (the root tag), null for default: {@link #DATA_KEY}
+     * @param properties (optional) additional properties which will be added to the encoding
+     * as if it were a property of the bean or map being encoded
+     * @throws IOException if the XML cannot be written
+     */
+    public void encode(Object object, Writer writer, String name, Map<String, Object> properties) throws IOException {
+        encode(object, writer, name, properties, this.maxLevel);
+    }
+
+    /**
+     * Encode an object as XML directly into a writer, the XML is written out as the object is traversed
+     * so the whole document is never held in memory as a string
+     * @param object any java object
+     * @param writer the writer to write the XML into, this will be flushed but not closed
+     * (it will be buffered if it is not already a buffered or in memory writer)
+     * @param name (optional) the name of the data (the root tag), null for default: {@link #DATA_KEY}
+     * @param properties (optional) additional properties which will be added to the encoding
+     * as if it were a property of the bean or map being encoded
+     * @param maxDepth the maximum traversal depth to use for this specific object
+     * @throws IOException if the XML cannot be written
+     */
+    public void encode(Object object, Writer writer, String name, Map<String, Object> properties, int maxDepth) throws IOException {
+        Writer out = TranscoderUtils.makeBufferedWriter(writer);
+        if (object != null) {
+            // only set the name if this is not null to preserve the "null" tag
+            if (name == null || "".equals(name)) {
+                name = DATA_KEY;
+            }
+        }
+        XMLTranscoder.makeXML(object, out, name, properties, this.humanOutput, this.includeNulls, 
+                this.includeClass, this.includeClassField, maxDepth, this.fixTags, this.encoders);
+        out.flush();
+    }
+
+    /**
+     * Encode an object as XML (UTF-8) directly into a stream, the XML is written out as the object is traversed
+     * so the whole document is never held in memory as a string
+     * @param object any java object
+     * @param output the stream to write the XML into, this will be flushed but not closed
+     * @param name (optional) the name of the data (the root tag), null for default: {@link #DATA_KEY}
+     * @param properties (optional) additional properties which will be added to the encoding
+     * as if it were a property of the bean or map being encoded
+     * @throws IOException if the XML cannot be written
+     */
+    public void encode(Object object, OutputStream output, String name, Map<String, Object> properties) throws IOException {
+        encode(object, output, name, properties, this.maxLevel);
+    }
+
+    /**
+     * Encode an object as XML (UTF-8) directly into a stream, the XML is written out as the object is traversed
+     * so the whole document is never held in memory as a string
+     * @param object any java object
+     * @param output the stream to write the XML into, this will be flushed but not closed
+     * @param name (optional) the name of the data (the root tag), null for default: {@link #DATA_KEY}
+     * @param properties (optional) additional properties which will be added to the encoding
+     * as if it were a property of the bean or map being encoded
+     * @param maxDepth the maximum traversal depth to use for this specific object
+     * @throws IOException if the XML cannot be written
+     */
+    public void encode(Object object, OutputStream output, String name, Map<String, Object> properties, int maxDepth) throws IOException {
+        encode(object, TranscoderUtils.makeBufferedWriter(output), name, properties, maxDepth);
+    }
+
     public Map<String, Object> decode(String string) {
 //        Object decode = new XMLparser(string).getObject();
 //        if (decode instanceof Map) {
@@ -255,19 +324,45 @@ public class XMLTranscoder implements Transcoder {
         return toXML(object, tagName, 0, maxLevel, humanOutput, includeNulls, includeClass, includeClassField, fixTags, properties, encoders);
     }
 
+    /**
+     * Write an object as well-formed, element-normal XML directly into a writer (or any other appendable),
+     * the XML is written out as the object is traversed so the whole document is never held in memory as a string
+     * @param object any object
+     * @param out the place to write the XML into (e.g. a {@link Writer} or {@link StringBuilder}), this will not be flushed or closed
+     * @param tagName (optional) enclosing root tag
+     * @param properties (optional) optional properties to add into the encoded data
+     * @param humanOutput true of human readable output
+     * @param includeNulls true to include null values when generating tags
+     * @param maxLevel the maximum number of levels of objects to encode before stopping
+     * @param fixTags fix up tag names (instead of throwing an exception)
+     * @throws IOException if the XML cannot be written
+     */
+    public static void makeXML(Object object, Appendable out, String tagName, Map<String, Object> properties, boolean humanOutput, boolean includeNulls, boolean includeClass, boolean includeClassField, int maxLevel, boolean fixTags, List<ObjectEncoder> encoders) throws IOException {
+        toXML(object, out, tagName, 0, maxLevel, humanOutput, includeNulls, includeClass, includeClassField, fixTags, properties, encoders);
+    }
+
     protected static String toXML(Object object, String tagName, int level, int maxLevel, boolean humanOutput, boolean includeNulls, boolean includeClass, boolean includeClassField, boolean fixTags, Map<String, Object> properties, List<ObjectEncoder> encoders) {
         StringBuilder sb = new StringBuilder();
+        try {
+            toXML(object, sb, tagName, level, maxLevel, humanOutput, includeNulls, includeClass, includeClassField, fixTags, properties, encoders);
+        } catch (IOException e) {
+            // should not be possible when writing into a StringBuilder
+            throw new IllegalStateException("Failure while writing XML into a string: " + e.getMessage(), e);
+        }
+        return sb.toString();
+    }
 
+    protected static void toXML(Object object, Appendable out, String tagName, int level, int maxLevel, boolean humanOutput, boolean includeNulls, boolean includeClass, boolean includeClassField, boolean fixTags, Map<String, Object> properties, List<ObjectEncoder> encoders) throws IOException {
         if (object == null) {
             if (includeNulls) {
                 // nulls are empty tags always
                 tagName = validate(tagName == null ? "null" : tagName, fixTags);
-                makeLevelSpaces(sb, level, humanOutput);
-                sb.append(LT);
-                sb.append(tagName);
-                sb.append(SLASH);
-                sb.append(GT);
-                makeEOL(sb, humanOutput);
+                makeLevelSpaces(out, level, humanOutput);
+                out.append(LT);
+                out.append(tagName);
+                out.append(SLASH);
+                out.append(GT);
+                makeEOL(out, humanOutput);
             }
         } else {
             Class<?> type = ConstructorUtils.getWrapper(object.getClass());
@@ -275,92 +370,98 @@ public class XMLTranscoder implements Transcoder {
                 // Simple (String, Number, etc.)
                 tagName = validate(tagName == null ? makeElementName(type) : tagName, fixTags);
                 String value = "";
-                makeLevelSpaces(sb, level, humanOutput);
-                sb.append(LT);
-                sb.append(tagName);
+                boolean escape = false;
+                makeLevelSpaces(out, level, humanOutput);
+                out.append(LT);
+                out.append(tagName);
                 if (Date.class.isAssignableFrom(type) || Timestamp.class.isAssignableFrom(type)) {
                     // date
                     Date d = (Date) object;
-                    value = d.getTime()+"";
-                    sb.append(" type='date' date='");
-                    sb.append( DateUtils.makeDateISO8601(d) );
-                    sb.append(APOS);
+                    value = String.valueOf(d.getTime());
+                    out.append(" type='date' date='");
+                    out.append( DateUtils.makeDateISO8601(d) );
+                    out.append(APOS);
                 } else if (Number.class.isAssignableFrom(type)) {
                     // number
-                    sb.append(" type='number'");
+                    out.append(" type='number'");
                     if (includeClass) {
-                        makeClassName(sb, type);
+                        makeClassName(out, type);
                     }
                     value = object.toString();
                 } else if (Boolean.class.isAssignableFrom(type)) {
                     // boolean
                     value = object.toString();
-                    sb.append(" type='boolean'");
+                    out.append(" type='boolean'");
                 } else {
-                    value = escapeForXML( object.toString() );
+                    value = object.toString();
+                    escape = true;
                 }
-                sb.append(GT);
-                sb.append(value);
-                sb.append(LT);
-                sb.append(SLASH);
-                sb.append(tagName);
-                sb.append(GT);
-                makeEOL(sb, humanOutput);
+                out.append(GT);
+                if (escape) {
+                    escapeForXML(value, out);
+                } else {
+                    out.append(value);
+                }
+                out.append(LT);
+                out.append(SLASH);
+                out.append(tagName);
+                out.append(GT);
+                makeEOL(out, humanOutput);
             } else if ( ConstructorUtils.isClassArray(type) ) {
                 // ARRAY
                 tagName = validate(tagName == null ? "array" : tagName, fixTags);
-                int length = ArrayUtils.size((Object[])object);
-                Class<?> elementType = ArrayUtils.type((Object[])object);
-                makeLevelSpaces(sb, level, humanOutput);
-                sb.append(LT);
-                sb.append(tagName);
-                sb.append(" type='array' length='");
-                sb.append(length);
-                sb.append(APOS);
+                int length = Array.getLength(object);
+                Class<?> elementType = object.getClass().getComponentType();
+                makeLevelSpaces(out, level, humanOutput);
+                out.append(LT);
+                out.append(tagName);
+                out.append(" type='array' length='");
+                out.append( String.valueOf(length) );
+                out.append(APOS);
                 if (includeClass) {
-                    sb.append(" component='");
-                    sb.append( ConstructorUtils.getTypeFromInnerCollection(elementType).getName() );
-                    sb.append(APOS);
+                    out.append(" component='");
+                    out.append( ConstructorUtils.getTypeFromInnerCollection(elementType).getName() );
+                    out.append(APOS);
                 }
-                sb.append(GT);
-                makeEOL(sb, humanOutput);
+                out.append(GT);
+                makeEOL(out, humanOutput);
                 for (int i = 0; i < length; ++i) {
-                    sb.append( toXML(Array.get(object, i), makeElementName(elementType), level+1, maxLevel, humanOutput, includeNulls, includeClass, includeClassField, fixTags, properties, encoders) );
+                    toXML(Array.get(object, i), out, makeElementName(elementType), level+1, maxLevel, humanOutput, includeNulls, includeClass, includeClassField, fixTags, properties, encoders);
                 }
-                makeLevelSpaces(sb, level, humanOutput);
-                sb.append(LT);
-                sb.append(SLASH);
-                sb.append(tagName);
-                sb.append(GT);
-                makeEOL(sb, humanOutput);
+                makeLevelSpaces(out, level, humanOutput);
+                out.append(LT);
+                out.append(SLASH);
+                out.append(tagName);
+                out.append(GT);
+                makeEOL(out, humanOutput);
             } else if ( ConstructorUtils.isClassCollection(type) ) {
                 // COLLECTION
                 tagName = validate(tagName == null ? "collection" : tagName, fixTags);
                 Collection<Object> collection = (Collection) object;
-                makeLevelSpaces(sb, level, humanOutput);
-                sb.append(LT);
-                sb.append(tagName);
-                sb.append(" type='collection' size='");
-                sb.append(collection.size());
-                sb.append(APOS);
+                makeLevelSpaces(out, level, humanOutput);
+                out.append(LT);
+                out.append(tagName);
+                out.append(" type='collection' size='");
+                out.append( String.valueOf(collection.size()) );
+                out.append(APOS);
                 if (includeClass) {
-                    makeClassName(sb, ConstructorUtils.getTypeFromInnerCollection(type));
+                    makeClassName(out, ConstructorUtils.getTypeFromInnerCollection(type));
                 }
-                sb.append(GT);
-                makeEOL(sb, humanOutput);
+                out.append(GT);
+                makeEOL(out, humanOutput);
                 for (Object element : collection) {
                     Class<?> elementType = null;
                     if (element != null) {
                         elementType = element.getClass();
                     }
-                    sb.append( toXML(element, makeElementName(elementType), level+1, maxLevel, humanOutput, includeNulls, includeClass, includeClassField, fixTags, properties, encoders) );
+                    toXML(element, out, makeElementName(elementType), level+1, maxLevel, humanOutput, includeNulls, includeClass, includeClassField, fixTags, properties, encoders);
                 }
-                makeLevelSpaces(sb, level, humanOutput);
-                sb.append(LT);
-                sb.append(SLASH);
-                sb.append(tagName);
-                sb.append(GT);
-                makeEOL(sb, humanOutput);
+                makeLevelSpaces(out, level, humanOutput);
+                out.append(LT);
+                out.append(SLASH);
+                out.append(tagName);
+                out.append(GT);
+                makeEOL(out, humanOutput);
             } else {
                 // must be a bean or map, make sure it is a map
                 tagName = validate(tagName == null ? makeElementName(type) : tagName, fixTags);
@@ -371,33 +472,33 @@ public class XMLTranscoder implements Transcoder {
                         // skip this one entirely
                     } else {
                         // just use the value in special to represent this
-                        makeLevelSpaces(sb, level, humanOutput);
-                        sb.append(LT);
-                        sb.append(tagName);
-                        sb.append(GT);
-                        sb.append( escapeForXML(special) );
-                        sb.append(LT);
-                        sb.append(SLASH);
-                        sb.append(tagName);
-                        sb.append(GT);
-                        makeEOL(sb, humanOutput);
+                        makeLevelSpaces(out, level, humanOutput);
+                        out.append(LT);
+                        out.append(tagName);
+                        out.append(GT);
+                        escapeForXML(special, out);
+                        out.append(LT);
+                        out.append(SLASH);
+                        out.append(tagName);
+                        out.append(GT);
+                        makeEOL(out, humanOutput);
                     }
                 } else {
                     // normal handling
                     if (maxLevel <= level) {
                         // if the max level was reached then stop
-                        sb.append(LT);
-                        sb.append(tagName);
-                        sb.append(GT);
-                        sb.append( "MAX level reached (" );
-                        sb.append( level );
-                        sb.append( "):" );
-                        sb.append( escapeForXML(object.toString()) );
-                        sb.append(LT);
-                        sb.append(SLASH);
-                        sb.append(tagName);
-                        sb.append(GT);
-                        makeEOL(sb, humanOutput);
+                        out.append(LT);
+                        out.append(tagName);
+                        out.append(GT);
+                        out.append( "MAX level reached (" );
+                        out.append( String.valueOf(level) );
+                        out.append( "):" );
+                        escapeForXML(object.toString(), out);
+                        out.append(LT);
+                        out.append(SLASH);
+                        out.append(tagName);
+                        out.append(GT);
+                        makeEOL(out, humanOutput);
                     } else {
                         String xmlType = "bean";
                         Map<String, Object> map = null;
@@ -412,36 +513,35 @@ public class XMLTranscoder implements Transcoder {
                         if (level == 0 && properties != null && ! properties.isEmpty()) {
                             map.putAll(properties);
                         }
-                        makeLevelSpaces(sb, level, humanOutput);
-                        sb.append(LT);
-                        sb.append(tagName);
-                        sb.append(" type='");
-                        sb.append(xmlType);
-                        sb.append(APOS);
-                        sb.append(" size='");
-                        sb.append(map.size());
-                        sb.append(APOS);
+                        makeLevelSpaces(out, level, humanOutput);
+                        out.append(LT);
+                        out.append(tagName);
+                        out.append(" type='");
+                        out.append(xmlType);
+                        out.append(APOS);
+                        out.append(" size='");
+                        out.append( String.valueOf(map.size()) );
+                        out.append(APOS);
                         if (includeClass) {
-                            makeClassName(sb, ConstructorUtils.getTypeFromInnerCollection(type));
+                            makeClassName(out, ConstructorUtils.getTypeFromInnerCollection(type));
                         }
-                        sb.append(GT);
-                        makeEOL(sb, humanOutput);
+                        out.append(GT);
+                        makeEOL(out, humanOutput);
                         for (Entry<String, Object> entry : map.entrySet()) {
                             if (entry.getKey() != null) {
-                                sb.append( toXML(entry.getValue(), entry.getKey().toString(), level+1, maxLevel, humanOutput, includeNulls, includeClass, includeClassField, fixTags, properties, encoders) );
+                                toXML(entry.getValue(), out, entry.getKey().toString(), level+1, maxLevel, humanOutput, includeNulls, includeClass, includeClassField, fixTags, properties, encoders);
                             }
                         }
-                        makeLevelSpaces(sb, level, humanOutput);
-                        sb.append(LT);
-                        sb.append(SLASH);
-                        sb.append(tagName);
-                        sb.append(GT);
-                        makeEOL(sb, humanOutput);
+                        makeLevelSpaces(out, level, humanOutput);
+                        out.append(LT);
+                        out.append(SLASH);
+                        out.append(tagName);
+                        out.append(GT);
+                        makeEOL(out, humanOutput);
                     }
                 }
             }
         }
-        return sb.toString();
     }
 
     protected static String makeElementName(Class<?> type) {
@@ -475,12 +575,26 @@ public class XMLTranscoder implements Transcoder {
         }
     }
 
+    protected static void makeClassName(Appendable out, Class<?> type) throws IOException {
+        if (type != null) {
+            out.append(" class='");
+            out.append( type.getName() );
+            out.append(APOS);
+        }
+    }
+
     protected static void makeEOL(StringBuilder sb, boolean includeEOL) {
         if (includeEOL) {
             sb.append(EOL);
         }
     }
 
+    protected static void makeEOL(Appendable out, boolean includeEOL) throws IOException {
+        if (includeEOL) {
+            out.append(EOL);
+        }
+    }
+
     protected static final String SPACES = "  ";
     protected static void makeLevelSpaces(StringBuilder sb, int level, boolean includeEOL) {
         if (includeEOL) {
@@ -490,6 +604,14 @@ public class XMLTranscoder implements Transcoder {
         }
     }
 
+    protected static void makeLevelSpaces(Appendable out, int level, boolean includeEOL) throws IOException {
+        if (includeEOL) {
+            for (int i = 0; i < level; i++) {
+                out.append(SPACES);
+            }
+        }
+    }
+
     /**
      * Escape a string for XML encoding: replace special characters with XML escapes:
      * <pre>
@@ -499,30 +621,67 @@ public class XMLTranscoder implements Transcoder {
      * &quot; <small>(double quote)</small> is replaced by &amp;quot;
      * </pre>
      * @param string The string to be escaped.
-     * @return The escaped string.
+     * @return The escaped string (the same string if nothing needed escaping).
      */
     public static String escapeForXML(String string) {
-        StringBuilder sb = new StringBuilder();
+        String escaped = string;
         for (int i = 0, len = string.length(); i < len; i++) {
-            char c = string.charAt(i);
-            switch (c) {
-            case AMP:
-                sb.append("&amp;");
-                break;
-            case LT:
-                sb.append("&lt;");
-                break;
-            case GT:
-                sb.append("&gt;");
-                break;
-            case QUOT:
-                sb.append("&quot;");
+            if (getXMLEscape(string.charAt(i)) != null) {
+                // only make a new string when something actually needs to be escaped
+                StringBuilder sb = new StringBuilder(len + 16);
+                try {
+                    escapeForXML(string, sb);
+                } catch (IOException e) {
+                    // should not be possible when writing into a StringBuilder
+                    throw new IllegalStateException("Failure while escaping XML into a string: " + e.getMessage(), e);
+                }
+                escaped = sb.toString();
                 break;
-            default:
-                sb.append(c);
             }
         }
-        return sb.toString();
+        return escaped;
+    }
+
+    /**
+     * Escape a string for XML encoding and write it out (see {@link #escapeForXML(String)}),
+     * the parts of the string which need no escaping are written as whole ranges instead of one char at a time
+     * @param string The string to be escaped.
+     * @param out the place to write the escaped string into
+     * @throws IOException if the string cannot be written
+     */
+    public static void escapeForXML(String string, Appendable out) throws IOException {
+        int len = string.length();
+        int start = 0;
+        for (int i = 0; i < len; i++) {
+            String escape = getXMLEscape(string.charAt(i));
+            if (escape != null) {
+                out.append(string, start, i);
+                out.append(escape);
+                start = i + 1;
+            }
+        }
+        out.append(string, start, len);
+    }
+
+    private static String getXMLEscape(char c) {
+        String escape = null;
+        switch (c) {
+        case AMP:
+            escape = "&amp;";
+            break;
+        case LT:
+            escape = "&lt;";
+            break;
+        case GT:
+            escape = "&gt;";
+            break;
+        case QUOT:
+            escape = "&quot;";
+            break;
+        default:
+            break;
+        }
+        return escape;
     }
 
     /**
@@ -553,7 +712,8 @@ public class XMLTranscoder implements Transcoder {
         if (length == 0) {
             throw new IllegalArgumentException("Empty string.");
         }
-        StringBuilder sb = new StringBuilder();
+        // only make a new string if something has to be corrected
+        StringBuilder sb = null;
         for (i = 0; i < length; i += 1) {
             char c = string.charAt(i);
             if (i==0) {
@@ -562,6 +722,7 @@ public class XMLTranscoder implements Transcoder {
                     // XML names MUST start with a letter OR _ or :, anything else is invalid
                     // technically: ":" | [A-Z] | "_" | [a-z] | [#xC0-#xD6] | [#xD8-#xF6] | [#xF8-#x2FF] | [#x370-#x37D] | [#x37F-#x1FFF] | [#x200C-#x200D] | [#x2070-#x218F] | [#x2C00-#x2FEF] | [#x3001-#xD7FF] | [#xF900-#xFDCF] | [#xFDF0-#xFFFD] | [#x10000-#xEFFFF]
                     if (correct) {
+                        sb = new StringBuilder(length);
                         sb.append('_');
                     } else {
                         throw new IllegalArgumentException("'" + string + "' starts with a non-letter ("+c+") which is also not an underscore (_) or colon (:).");
@@ -571,6 +732,7 @@ public class XMLTranscoder implements Transcoder {
                     // XML names special case - cannot start with "xml" (in any case)
                     if (string.toLowerCase().startsWith("xml")) {
                         if (correct) {
+                            sb = new StringBuilder(length);
                             sb.append('_');
                             i += 2; // skip chars
                         } else {
@@ -582,6 +744,7 @@ public class XMLTranscoder implements Transcoder {
             }
             if (Character.isWhitespace(c)) {
                 if (correct) {
+                    sb = startCorrection(sb, string, i);
                     sb.append('_');
                 } else {
                     throw new IllegalArgumentException("'" + string + "' contains a whitespace character.");
@@ -590,15 +753,25 @@ public class XMLTranscoder implements Transcoder {
                 // technically: ":" | [A-Z] | "_" | [a-z] | "-" | "." | [0-9] plus #xB7 | [#x0300-#x036F] | [#x203F-#x2040] | [#xC0-#xD6] | [#xD8-#xF6] | [#xF8-#x2FF] | [#x370-#x37D] | [#x37F-#x1FFF] | [#x200C-#x200D] | [#x2070-#x218F] | [#x2C00-#x2FEF] | [#x3001-#xD7FF] | [#xF900-#xFDCF] | [#xFDF0-#xFFFD] | [#x10000-#xEFFFF]
                 // old check - if ('=' == c || '\'' == c || '\"' == c || '>' == c || '<' == c || '&' == c)
                 if (correct) {
+                    sb = startCorrection(sb, string, i);
                     sb.append('_');
                 } else {
                     throw new IllegalArgumentException("'" + string + "' contains an illegal xml character ("+c+") such as (=,',\",>,<,&), valid chars are (A-Za-z0-9:._-).");
                 }
-            } else {
+            } else if (sb != null) {
                 sb.append(c);
             }
         }
-        return sb.toString();
+        return sb == null ? string : sb.toString();
+    }
+
+    private static StringBuilder startCorrection(StringBuilder sb, String string, int index) {
+        if (sb == null) {
+            // copy the part of the string which was already valid
+            sb = new StringBuilder(string.length());
+            sb.append(string, 0, index);
+        }
+        return sb;
     }
 
 
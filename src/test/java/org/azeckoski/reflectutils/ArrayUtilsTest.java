@@ -15,6 +15,7 @@
 package org.azeckoski.reflectutils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import junit.framework.TestCase;
@@ -65,6 +66,33 @@ public class ArrayUtilsTest extends TestCase {
         assertEquals("B", s[1]);
     }
 
+    /**
+     * Test method for {@link org.azeckoski.reflectutils.ArrayUtils#copyPrimitives(Object)}.
+     */
+    public void testCopyPrimitives() {
+        int[] ints = new int[] {1,2,3};
+        int[] intsCopy = (int[]) ArrayUtils.copyPrimitives(ints);
+        assertNotSame(ints, intsCopy);
+        assertTrue(Arrays.equals(ints, intsCopy));
+
+        double[] doubles = new double[] {1.5, 2.5};
+        assertTrue(Arrays.equals(doubles, (double[]) ArrayUtils.copyPrimitives(doubles)));
+        byte[] bytes = new byte[] {1, 0, -1};
+        assertTrue(Arrays.equals(bytes, (byte[]) ArrayUtils.copyPrimitives(bytes)));
+        char[] chars = new char[] {'a', 'z'};
+        assertTrue(Arrays.equals(chars, (char[]) ArrayUtils.copyPrimitives(chars)));
+        boolean[] booleans = new boolean[] {true, false};
+        assertTrue(Arrays.equals(booleans, (boolean[]) ArrayUtils.copyPrimitives(booleans)));
+        assertEquals(0, ((long[]) ArrayUtils.copyPrimitives(new long[0])).length);
+
+        try {
+            ArrayUtils.copyPrimitives(new String[] {"A"});
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
     /**
      * Test method for {@link org.azeckoski.reflectutils.ArrayUtils#removeDuplicates(java.util.List)}.
      */
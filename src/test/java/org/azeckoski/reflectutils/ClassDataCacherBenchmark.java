@@ -0,0 +1,98 @@
+/**
+ * $Id$
+ * $URL$
+ * ClassDataCacherBenchmark.java - reflectutils - Oct 18, 2026 5:12:09 PM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils;
+
+import org.azeckoski.reflectutils.ClassDataCacher.CacheType;
+import org.azeckoski.reflectutils.ClassFields.FieldFindMode;
+import org.azeckoski.reflectutils.classes.*;
+
+/**
+ * Compares the lookup speed of the class data cache storage types ({@link CacheType}),
+ * this is not a unit test (it is not run by the build), run the main method to see the results:<br/>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.azeckoski.reflectutils.ClassDataCacherBenchmark
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public class ClassDataCacherBenchmark {
+
+    private static final Class<?>[] CLASSES = {
+        TestBean.class, TestPea.class, TestNesting.class, TestEntity.class,
+        TestExtendBean.class, TestCompound.class, TestUltraNested.class, TestImplFour.class
+    };
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+    private static final int LOOKUPS = 2000000;
+
+    // keeps the JIT from removing the lookups
+    private static int sink = 0;
+
+    public static void main(String[] args) {
+        int threads = (args.length > 0 ? Integer.parseInt(args[0]) : 1);
+        for (CacheType cacheType : CacheType.values()) {
+            ClassDataCacher cdc = new ClassDataCacher(FieldFindMode.HYBRID);
+            cdc.setCacheType(cacheType);
+            cdc.setStatsEnabled(false);
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                run(cdc, threads);
+            }
+            long best = Long.MAX_VALUE;
+            long total = 0;
+            for (int i = 0; i < ROUNDS; i++) {
+                long time = run(cdc, threads);
+                best = Math.min(best, time);
+                total += time;
+            }
+            double lookups = (double) LOOKUPS * threads;
+            System.out.println(cacheType + " (" + threads + " threads): best="
+                    + String.format("%.2f", best / lookups) + " ns/lookup, avg="
+                    + String.format("%.2f", (total / ROUNDS) / lookups) + " ns/lookup");
+        }
+        System.out.println("(sink=" + sink + ")");
+    }
+
+    /**
+     * @return the time in nanos to do all the lookups in all the threads
+     */
+    private static long run(final ClassDataCacher cdc, int threads) {
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(new Runnable() {
+                public void run() {
+                    int local = 0;
+                    for (int j = 0; j < LOOKUPS; j++) {
+                        ClassFields<?> cf = cdc.getClassFields(CLASSES[j & 7]);
+                        local += (cf == null ? 0 : 1);
+                    }
+                    synchronized (ClassDataCacherBenchmark.class) {
+                        sink += local;
+                    }
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+}
@@ -0,0 +1,404 @@
+/**
+ * $Id$
+ * $URL$
+ * ClassDataCacherTest.java - reflectutils - Oct 18, 2026 4:30:44 PM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils;
+
+import junit.framework.TestCase;
+import org.azeckoski.reflectutils.ClassFields.FieldFindMode;
+import org.azeckoski.reflectutils.classes.TestBean;
+import org.azeckoski.reflectutils.classes.TestExtendBean;
+import org.azeckoski.reflectutils.classes.TestNesting;
+import org.azeckoski.reflectutils.classes.TestNone;
+import org.azeckoski.reflectutils.classes.TestPea;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Tests the caching of the class data
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public class ClassDataCacherTest extends TestCase {
+
+    /**
+     * Test method for {@link ClassDataCacher#snapshot()}
+     */
+    @SuppressWarnings("deprecation")
+    public void testStats() {
+        ClassDataCacher cdc = new ClassDataCacher(FieldFindMode.HYBRID);
+        assertTrue(cdc.isStatsEnabled());
+        ClassDataCacheStats stats = cdc.snapshot();
+        assertEquals(0, stats.getLookups());
+        assertEquals(1.0, stats.getHitRatio());
+
+        cdc.getClassFields(TestBean.class);
+        cdc.getClassFields(TestBean.class);
+        cdc.getClassFields(TestBean.class);
+        cdc.getClassFields(TestPea.class);
+        stats = cdc.snapshot();
+        assertEquals(4, stats.getLookups());
+        assertEquals(2, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(0.5, stats.getHitRatio());
+        assertEquals(2, stats.getBuilds());
+        assertTrue(stats.getBuildTimeNanos() > 0);
+        assertTrue(stats.getAverageBuildTimeNanos() > 0);
+        assertEquals(0, stats.getEvictions());
+
+        // the deprecated counters are updated by the snapshot
+        assertEquals(4, cdc.lookups);
+        assertEquals(2, cdc.cacheHits);
+        assertEquals(2, cdc.cacheMisses);
+
+        // snapshot does not change
+        cdc.getClassFields(TestExtendBean.class);
+        assertEquals(4, stats.getLookups());
+        assertEquals(5, cdc.snapshot().getLookups());
+
+        cdc.clear();
+        assertEquals(3, cdc.snapshot().getEvictions());
+        assertNotNull(cdc.toString());
+
+        // disabled
+        cdc.setStatsEnabled(false);
+        assertFalse(cdc.isStatsEnabled());
+        cdc.getClassFields(TestBean.class);
+        assertEquals(0, cdc.snapshot().getLookups());
+        assertNotNull(cdc.toString());
+        cdc.setStatsEnabled(true);
+        cdc.getClassFields(TestBean.class);
+        assertEquals(1, cdc.snapshot().getHits());
+    }
+
+    /**
+     * Test that concurrent first lookups of a class only build the class data once
+     */
+    public void testSingleBuild() throws Exception {
+        final ClassDataCacher cdc = new ClassDataCacher(FieldFindMode.HYBRID);
+        final int threadCount = 16;
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch doneLatch = new CountDownLatch(threadCount);
+        final ClassFields<?>[] results = new ClassFields<?>[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            final int num = i;
+            Thread t = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        startLatch.await();
+                        results[num] = cdc.getClassFields(TestNesting.class);
+                    } catch (InterruptedException e) {
+                        // test will fail on the null result
+                    } finally {
+                        doneLatch.countDown();
+                    }
+                }
+            });
+            t.start();
+        }
+        startLatch.countDown();
+        doneLatch.await();
+
+        assertEquals(1, cdc.snapshot().getBuilds());
+        assertEquals(threadCount, cdc.snapshot().getLookups());
+        assertNotNull(results[0]);
+        for (int i = 1; i < threadCount; i++) {
+            assertSame(results[0], results[i]);
+        }
+        assertTrue(cdc.runningBuilds.isEmpty());
+    }
+
+    /**
+     * Test the class value cache storage
+     */
+    public void testClassValueCache() {
+        ClassDataCacher cdc = new ClassDataCacher(FieldFindMode.HYBRID);
+        assertEquals(ClassDataCacher.CacheType.MAP, cdc.getCacheType());
+        cdc.getClassFields(TestBean.class);
+        assertEquals(1, cdc.size());
+
+        cdc.setCacheType(ClassDataCacher.CacheType.CLASS_VALUE);
+        assertEquals(ClassDataCacher.CacheType.CLASS_VALUE, cdc.getCacheType());
+        assertEquals(0, cdc.size());
+
+        ClassFields<TestBean> cf = cdc.getClassFields(TestBean.class);
+        assertNotNull(cf);
+        assertSame(cf, cdc.getClassFields(TestBean.class));
+        assertEquals(1, cdc.size());
+
+        // each mode has its own slot
+        ClassFields<TestBean> cfField = cdc.getClassFields(TestBean.class, FieldFindMode.FIELD);
+        assertEquals(FieldFindMode.FIELD, cfField.getFieldFindMode());
+        assertNotSame(cf, cfField);
+        assertSame(cf, cdc.getClassFields(TestBean.class));
+        assertSame(cfField, cdc.getClassFields(TestBean.class, FieldFindMode.FIELD));
+        assertEquals(2, cdc.size());
+
+        cdc.getClassFields(TestPea.class);
+        assertEquals(3, cdc.size());
+
+        cdc.clear();
+        assertEquals(0, cdc.size());
+        assertNotSame(cf, cdc.getClassFields(TestBean.class));
+
+        cdc.setCacheType(null);
+        assertEquals(ClassDataCacher.CacheType.MAP, cdc.getCacheType());
+    }
+
+    /**
+     * Test that the class data for each mode and include class field setting is kept separately
+     */
+    public void testModeSlots() {
+        ClassDataCacher cdc = new ClassDataCacher(FieldFindMode.HYBRID);
+        assertNotNull(cdc.getReflectionCache());
+        assertEquals(0, cdc.getReflectionCache().size());
+
+        ClassFields<TestBean> cfHybrid = cdc.getClassFields(TestBean.class);
+        ClassFields<TestBean> cfField = cdc.getClassFields(TestBean.class, FieldFindMode.FIELD);
+        assertEquals(FieldFindMode.HYBRID, cfHybrid.getFieldFindMode());
+        assertEquals(FieldFindMode.FIELD, cfField.getFieldFindMode());
+        for (int i = 0; i < 5; i++) {
+            assertSame(cfHybrid, cdc.getClassFields(TestBean.class, FieldFindMode.HYBRID));
+            assertSame(cfField, cdc.getClassFields(TestBean.class, FieldFindMode.FIELD));
+        }
+        assertEquals(2, cdc.size());
+        ClassDataCacheStats stats = cdc.snapshot();
+        assertEquals(2, stats.getBuilds());
+        assertEquals(0, stats.getEvictions());
+        assertEquals(5, stats.getHits(FieldFindMode.HYBRID));
+        assertEquals(1, stats.getMisses(FieldFindMode.HYBRID));
+        assertEquals(5, stats.getHits(FieldFindMode.FIELD));
+        assertEquals(1, stats.getMisses(FieldFindMode.FIELD));
+        assertEquals(0, stats.getHits(FieldFindMode.PROPERTY));
+        assertEquals(1.0, stats.getHitRatio(FieldFindMode.PROPERTY));
+        assertTrue(stats.toString().indexOf("HYBRID=5/6") > 0);
+
+        // changing the default mode does not clear the cache
+        cdc.setFieldFindMode(FieldFindMode.FIELD);
+        assertSame(cfField, cdc.getClassFields(TestBean.class));
+        assertSame(cfField, cdc.getReflectionCache().get(TestBean.class));
+        cdc.setFieldFindMode(FieldFindMode.HYBRID);
+        assertSame(cfHybrid, cdc.getClassFields(TestBean.class));
+
+        // the cache map shows the class data for the current mode
+        Map<Class<?>, ClassFields> view = cdc.getReflectionCache();
+        assertSame(cfHybrid, view.get(TestBean.class));
+        assertTrue(view.containsKey(TestBean.class));
+        assertEquals(1, view.size());
+        assertEquals(TestBean.class, view.keySet().iterator().next());
+        assertNull(view.get(TestPea.class));
+
+        // include class field variants are separate
+        cdc.setIncludeClassField(true);
+        ClassFields<TestBean> cfClass = cdc.getClassFields(TestBean.class);
+        assertNotSame(cfHybrid, cfClass);
+        assertTrue(cfClass.isIncludeClassField());
+        assertTrue(cfClass.isFieldNameValid(ClassFields.FIELD_CLASS, ClassFields.FieldsFilter.READABLE));
+        assertFalse(cfHybrid.isFieldNameValid(ClassFields.FIELD_CLASS, ClassFields.FieldsFilter.READABLE));
+        cdc.setIncludeClassField(false);
+        assertSame(cfHybrid, cdc.getClassFields(TestBean.class));
+        assertEquals(3, cdc.size());
+        assertEquals(0, cdc.snapshot().getEvictions());
+
+        cdc.clear();
+        assertEquals(0, cdc.size());
+        assertEquals(3, cdc.snapshot().getEvictions());
+    }
+
+    /**
+     * Test that a custom cache map keeps a single entry per class
+     */
+    public void testCustomReflectionCache() {
+        Map<Class<?>, ClassFields> cache = new HashMap<Class<?>, ClassFields>();
+        ClassDataCacher cdc = new ClassDataCacher(FieldFindMode.HYBRID, cache);
+        assertSame(cache, cdc.getReflectionCache());
+
+        ClassFields<TestBean> cfHybrid = cdc.getClassFields(TestBean.class);
+        assertSame(cfHybrid, cache.get(TestBean.class));
+        assertSame(cfHybrid, cdc.getClassFields(TestBean.class));
+
+        // mode mismatch replaces the entry
+        ClassFields<TestBean> cfField = cdc.getClassFields(TestBean.class, FieldFindMode.FIELD);
+        assertSame(cfField, cache.get(TestBean.class));
+        assertEquals(1, cdc.size());
+        assertEquals(1, cdc.snapshot().getEvictions());
+        assertNotSame(cfHybrid, cdc.getClassFields(TestBean.class));
+
+        // revert to the internal storage
+        cdc.setReflectionCache(null);
+        assertNotNull(cdc.getReflectionCache());
+        assertNotSame(cache, cdc.getReflectionCache());
+        assertEquals(0, cdc.size());
+        ClassFields<TestBean> cf = cdc.getClassFields(TestBean.class);
+        assertEquals(1, cdc.size());
+        assertSame(cf, cdc.getReflectionCache().get(TestBean.class));
+        cdc.getReflectionCache().clear();
+        assertEquals(0, cdc.size());
+
+        // a subclass can supply the cache map by overriding the accessor
+        final Map<Class<?>, ClassFields> supplied = new HashMap<Class<?>, ClassFields>();
+        ClassDataCacher custom = new ClassDataCacher(FieldFindMode.HYBRID) {
+            @Override
+            protected Map<Class<?>, ClassFields> getReflectionCache() {
+                return supplied;
+            }
+        };
+        ClassFields<TestBean> suppliedCf = custom.getClassFields(TestBean.class);
+        assertSame(suppliedCf, supplied.get(TestBean.class));
+        assertSame(suppliedCf, custom.getClassFields(TestBean.class));
+        assertEquals(1, custom.size());
+        custom.clear();
+        assertTrue(supplied.isEmpty());
+    }
+
+    /**
+     * Test that a classloader which cannot list the metadata providers falls back to reflection
+     */
+    public void testMetadataProviderFailure() throws Exception {
+        final String name = TestNone.class.getName();
+        ClassLoader broken = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String className, boolean resolve) throws ClassNotFoundException {
+                if (! name.equals(className)) {
+                    return super.loadClass(className, resolve);
+                }
+                Class<?> c = findLoadedClass(className);
+                if (c == null) {
+                    try {
+                        InputStream in = getParent().getResourceAsStream(className.replace('.', '/') + ".class");
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        byte[] buf = new byte[4096];
+                        for (int n = in.read(buf); n > 0; n = in.read(buf)) {
+                            out.write(buf, 0, n);
+                        }
+                        in.close();
+                        byte[] bytes = out.toByteArray();
+                        c = defineClass(className, bytes, 0, bytes.length);
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(className, e);
+                    }
+                }
+                return c;
+            }
+            @Override
+            public Enumeration<URL> getResources(String resource) throws IOException {
+                throw new IOException("cannot list " + resource);
+            }
+        };
+        final Class<?> cls = broken.loadClass(name);
+        assertSame(broken, cls.getClassLoader());
+
+        final ClassDataCacher cdc = new ClassDataCacher(FieldFindMode.HYBRID);
+        final ClassFields<?>[] result = new ClassFields<?>[1];
+        Thread t = new Thread(new Runnable() {
+            public void run() {
+                result[0] = cdc.getClassFields(cls);
+            }
+        });
+        t.setDaemon(true);
+        t.start();
+        t.join(10000);
+        assertFalse("the lookup of the metadata providers did not stop", t.isAlive());
+        assertNotNull(result[0]);
+        assertNull(cdc.getMetadataProvider(cls));
+    }
+
+    /**
+     * Test method for {@link ClassDataCacher#preload(java.util.Collection, int)}
+     */
+    public void testPreload() {
+        ClassDataCacher cdc = new ClassDataCacher(FieldFindMode.HYBRID);
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+        classes.add(TestBean.class);
+        classes.add(TestPea.class);
+        classes.add(TestNesting.class);
+        classes.add(TestExtendBean.class);
+        ClassDataPreloadReport report = cdc.preload(classes, 2);
+        assertEquals(4, report.getClassCount());
+        assertEquals(0, report.getAlreadyCached());
+        assertTrue(report.getFailures().isEmpty());
+        assertTrue(report.getBuildTimes().containsKey(TestBean.class.getName()));
+        assertTrue(report.getTotalBuildTimeNanos() > 0);
+        assertTrue(report.getElapsedTimeNanos() > 0);
+        assertNotNull(report.toString());
+        assertEquals(4, cdc.snapshot().getBuilds());
+        assertEquals(4, cdc.size());
+        assertEquals(4, cdc.getPinnedCount());
+
+        // everything is cached now
+        report = cdc.preload(classes, 0);
+        assertEquals(4, report.getClassCount());
+        assertEquals(4, report.getAlreadyCached());
+        assertEquals(4, cdc.snapshot().getBuilds());
+
+        // pinned data survives the cache releasing it
+        ClassFields<TestBean> cf = cdc.getClassFields(TestBean.class);
+        cdc.getVariantCache().clear();
+        assertSame(cf, cdc.getClassFields(TestBean.class));
+        assertEquals(4, cdc.snapshot().getBuilds());
+
+        // unpinning lets the cache release the data again
+        assertTrue(cdc.unpin(TestPea.class));
+        assertFalse(cdc.unpin(TestPea.class));
+        assertEquals(3, cdc.getPinnedCount());
+        assertEquals(0, cdc.unpin(new ClassLoader(null) {}));
+        assertEquals(3, cdc.unpin(TestBean.class.getClassLoader()));
+        assertEquals(0, cdc.getPinnedCount());
+        cdc.preload(classes, 1);
+        assertEquals(4, cdc.getPinnedCount());
+
+        // clearing the cache removes the pins
+        cdc.clear();
+        assertEquals(0, cdc.getPinnedCount());
+        assertNotSame(cf, cdc.getClassFields(TestBean.class));
+
+        try {
+            cdc.preload((List<Class<?>>) null, 1);
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+        try {
+            cdc.unpin((ClassLoader) null);
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    /**
+     * Test method for {@link ClassDataCacher#preload(String, int)}
+     */
+    public void testPreloadPackage() {
+        ClassDataCacher cdc = new ClassDataCacher(FieldFindMode.HYBRID);
+        ClassDataPreloadReport report = cdc.preload("org.azeckoski.reflectutils.classes", 0);
+        assertTrue(report.getClassCount() > 0);
+        assertTrue(report.getBuildTimes().containsKey(TestBean.class.getName()));
+        assertEquals(report.getClassCount(), cdc.getPinnedCount());
+        assertEquals(report.getClassCount(), cdc.snapshot().getBuilds());
+
+        List<String> names = ClassLoaderUtils.getClassNamesInPackage("org.azeckoski.reflectutils.classes", null);
+        assertTrue(names.contains(TestPea.class.getName()));
+        assertTrue(ClassLoaderUtils.getClassNamesInPackage("org.azeckoski.nothing.here", null).isEmpty());
+    }
+
+}
@@ -19,6 +19,7 @@ import org.azeckoski.reflectutils.ClassFields.FieldFindMode;
 import org.azeckoski.reflectutils.ClassFields.FieldsFilter;
 import org.azeckoski.reflectutils.annotations.*;
 import org.azeckoski.reflectutils.classes.*;
+import org.azeckoski.reflectutils.exceptions.FieldnameNotFoundException;
 
 import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
@@ -27,6 +28,7 @@ import java.beans.PropertyDescriptor;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -1237,6 +1239,136 @@ public class ClassFieldsTest extends TestCase {
 
     }
 
+    /**
+     * Test method for {@link org.azeckoski.reflectutils.ClassFields#findClassProperty(java.lang.String)}.
+     */
+    public void testFindClassProperty() {
+        ClassFields<TestBean> cf = new ClassFields<TestBean>(TestBean.class);
+        ClassProperty cp = cf.findClassProperty("myInt");
+        assertNotNull(cp);
+        assertSame(cf.getClassProperty("myInt"), cp);
+        assertNull(cf.findClassProperty("xxxxxx"));
+        assertNull(cf.findClassProperty(null));
+        try {
+            cf.getClassProperty("xxxxxx");
+            fail("should have thrown exception");
+        } catch (FieldnameNotFoundException e) {
+            assertEquals("xxxxxx", e.fieldName);
+            // these are real errors for the caller so they keep the stack trace
+            assertTrue(e.getStackTrace().length > 0);
+            assertTrue(e.getMessage().contains(TestBean.class.getName()));
+        }
+        try {
+            new FieldUtils().getFieldValue(new TestBean(), "xxxxxx");
+            fail("should have thrown exception");
+        } catch (FieldnameNotFoundException e) {
+            assertEquals("xxxxxx", e.fieldName);
+            assertTrue(e.getStackTrace().length > 0);
+        }
+        try {
+            new FieldUtils().getFieldType(TestBean.class, "xxxxxx");
+            fail("should have thrown exception");
+        } catch (FieldnameNotFoundException e) {
+            assertTrue(e.getStackTrace().length > 0);
+        }
+    }
+
+    /**
+     * Test method for {@link org.azeckoski.reflectutils.ClassFields#getClassProperties(FieldsFilter)}.
+     */
+    public void testGetClassProperties() {
+        ClassFields<TestEntity> cf = new ClassFields<TestEntity>(TestEntity.class);
+        for (FieldsFilter filter : FieldsFilter.values()) {
+            ClassProperty[] cps = cf.getClassProperties(filter);
+            // copies of the shared array
+            assertNotSame(cps, cf.getClassProperties(filter));
+            assertTrue(Arrays.equals(cps, cf.getClassProperties(filter)));
+            assertSame(cf.getSharedClassProperties(filter), cf.getSharedClassProperties(filter));
+            List<String> names = cf.getFieldNames(filter);
+            Map<String, Class<?>> types = cf.getFieldTypes(filter);
+            assertEquals(cps.length, names.size());
+            assertEquals(cps.length, types.size());
+            assertEquals(cps.length, cf.size(filter));
+            int i = 0;
+            for (Map.Entry<String, Class<?>> entry : types.entrySet()) {
+                assertEquals(cps[i].getFieldName(), names.get(i));
+                assertEquals(cps[i].getFieldName(), entry.getKey());
+                assertEquals(cps[i].getType(), entry.getValue());
+                assertEquals(cps[i].getType(), types.get(entry.getKey()));
+                assertTrue(cf.isFieldInFilter(cps[i], filter));
+                i++;
+            }
+        }
+        assertSame(cf.getSharedClassProperties(FieldsFilter.COMPLETE), cf.getSharedClassProperties(null));
+        cf.getClassProperties(null)[0] = null;
+        assertNotNull(cf.getClassProperties(null)[0]);
+        assertNull(cf.getFieldTypes(FieldsFilter.SERIALIZABLE).get("transStr"));
+        assertFalse(cf.getFieldTypes(FieldsFilter.SERIALIZABLE).containsKey("transStr"));
+        assertTrue(cf.getFieldTypes(FieldsFilter.ALL).containsKey("transStr"));
+
+        // the views are read only
+        try {
+            cf.getFieldNames().add("xxxxx");
+            fail("should have thrown exception");
+        } catch (UnsupportedOperationException e) {
+            assertNotNull(e);
+        }
+        try {
+            cf.getFieldTypes().put("xxxxx", String.class);
+            fail("should have thrown exception");
+        } catch (UnsupportedOperationException e) {
+            assertNotNull(e);
+        }
+    }
+
+    /**
+     * Test method for {@link org.azeckoski.reflectutils.ClassFields#readInto(Object, FieldsFilter, Object[])}
+     * and {@link org.azeckoski.reflectutils.ClassFields#writeFrom(Object[], FieldsFilter, Object)}.
+     */
+    public void testReadIntoWriteFrom() {
+        ClassFields<TestBean> cf = new ClassFields<TestBean>(TestBean.class);
+        List<String> names = cf.getFieldNames();
+        Object[] row = new Object[names.size()];
+        TestBean tb = new TestBean(5, "five");
+        assertEquals(2, cf.readInto(tb, null, row));
+        assertEquals(5, row[names.indexOf("myInt")]);
+        assertEquals("five", row[names.indexOf("myString")]);
+
+        // reuse the row
+        assertEquals(2, cf.readInto(new TestBean(6, "six"), null, row));
+        assertEquals(6, row[names.indexOf("myInt")]);
+        assertEquals("six", row[names.indexOf("myString")]);
+
+        TestBean copy = new TestBean();
+        assertEquals(2, cf.writeFrom(row, copy));
+        assertEquals(6, copy.getMyInt());
+        assertEquals("six", copy.getMyString());
+
+        // field mode reads the non-visible fields
+        ClassFields<TestPea> cfField = new ClassFields<TestPea>(TestPea.class, FieldFindMode.FIELD);
+        List<String> fieldNames = cfField.getFieldNames(FieldsFilter.ALL);
+        row = new Object[fieldNames.size() + 2]; // longer rows are fine
+        assertEquals(fieldNames.size(), cfField.readInto(new TestPea(), FieldsFilter.ALL, row));
+        assertEquals("priv", row[fieldNames.indexOf("priv")]);
+        row[fieldNames.indexOf("priv")] = "changed";
+        TestPea pea = new TestPea();
+        assertEquals(fieldNames.size(), cfField.writeFrom(row, FieldsFilter.ALL, pea));
+        assertEquals("changed", new FieldUtils().getFieldValue(pea, "priv"));
+
+        try {
+            cf.readInto(new TestPea(), null, new Object[2]);
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+        try {
+            cf.readInto(tb, null, new Object[1]);
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
     public void testPartialComplete() {
         ClassFields<?> cf = null;
         ClassProperty cp = null;
@@ -0,0 +1,179 @@
+/**
+ * $Id$
+ * $URL$
+ * ColumnBatchTest.java - reflectutils - Oct 18, 2026 9:40:18 PM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+
+import org.azeckoski.reflectutils.ClassFields.FieldFindMode;
+import org.azeckoski.reflectutils.classes.TestBean;
+import org.azeckoski.reflectutils.classes.TestPea;
+import org.azeckoski.reflectutils.exceptions.FieldnameNotFoundException;
+
+/**
+ * Tests reading the values of objects into columns
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public class ColumnBatchTest extends TestCase {
+
+    public static class Measure {
+        private int count;
+        private long total;
+        private double average;
+        private float ratio;
+        private boolean valid;
+        private char code;
+        private String label;
+        public Measure() {}
+        public Measure(int i) {
+            count = i;
+            total = i * 1000L;
+            average = i / 2.0;
+            ratio = i / 4.0f;
+            valid = i % 2 == 0;
+            code = (char) ('a' + (i % 26));
+            label = "m" + i;
+        }
+        public int getCount() { return count; }
+        public void setCount(int count) { this.count = count; }
+        public long getTotal() { return total; }
+        public void setTotal(long total) { this.total = total; }
+        public double getAverage() { return average; }
+        public void setAverage(double average) { this.average = average; }
+        public float getRatio() { return ratio; }
+        public void setRatio(float ratio) { this.ratio = ratio; }
+        public boolean isValid() { return valid; }
+        public void setValid(boolean valid) { this.valid = valid; }
+        public char getCode() { return code; }
+        public void setCode(char code) { this.code = code; }
+        public String getLabel() { return label; }
+        public void setLabel(String label) { this.label = label; }
+    }
+
+    private List<Measure> makeMeasures(int size) {
+        List<Measure> measures = new ArrayList<Measure>(size);
+        for (int i = 0; i < size; i++) {
+            measures.add(new Measure(i));
+        }
+        return measures;
+    }
+
+    private void checkColumns(ColumnBatch batch, int size) {
+        assertEquals(size, batch.getRowCount());
+        assertEquals(Measure.class, batch.getBeanClass());
+        assertEquals(int.class, batch.getColumnType("count"));
+        assertEquals(long.class, batch.getColumnType("total"));
+        assertEquals(double.class, batch.getColumnType("average"));
+        assertEquals(double.class, batch.getColumnType("ratio"));
+        assertEquals(boolean.class, batch.getColumnType("valid"));
+        assertEquals(int.class, batch.getColumnType("code"));
+        assertEquals(Object.class, batch.getColumnType("label"));
+        int[] counts = batch.getIntColumn("count");
+        long[] totals = batch.getLongColumn("total");
+        double[] averages = batch.getDoubleColumn("average");
+        double[] ratios = batch.getDoubleColumn("ratio");
+        boolean[] valids = batch.getBooleanColumn("valid");
+        int[] codes = batch.getIntColumn("code");
+        Object[] labels = batch.getObjectColumn("label");
+        for (int i = 0; i < size; i++) {
+            assertEquals(i, counts[i]);
+            assertEquals(i * 1000L, totals[i]);
+            assertEquals(i / 2.0, averages[i]);
+            assertEquals((double) (i / 4.0f), ratios[i]);
+            assertEquals(i % 2 == 0, valids[i]);
+            assertEquals('a' + (i % 26), codes[i]);
+            assertEquals("m" + i, labels[i]);
+        }
+    }
+
+    public void testReadColumns() {
+        FieldUtils fu = FieldUtils.getInstance();
+        List<Measure> measures = makeMeasures(100);
+        ColumnBatch batch = fu.getFieldColumns(measures, "count", "total", "average", "ratio", "valid", "code", "label");
+        assertEquals(Arrays.asList("count", "total", "average", "ratio", "valid", "code", "label"), batch.getNames());
+        checkColumns(batch, 100);
+        assertSame(batch.getColumn("count"), batch.getIntColumn("count"));
+        assertNotNull(batch.toString());
+
+        // class fields directly
+        ClassFields<Measure> cf = new ClassFields<Measure>(Measure.class);
+        batch = cf.readColumns(new ArrayList<Measure>(), "count", "label");
+        assertEquals(0, batch.getRowCount());
+        assertEquals(0, batch.getIntColumn("count").length);
+
+        // private fields are read in field mode
+        ClassFields<TestPea> cfField = new ClassFields<TestPea>(TestPea.class, FieldFindMode.FIELD);
+        batch = cfField.readColumns(Arrays.asList(new TestPea(), new TestPea()), "priv", "id");
+        assertEquals("priv", batch.getObjectColumn("priv")[1]);
+        assertEquals("id", batch.getObjectColumn("id")[0]);
+    }
+
+    public void testReadColumnsParallel() {
+        FieldUtils fu = FieldUtils.getInstance();
+        int size = ColumnBatch.MIN_ROWS_PER_TASK * 20 + 7;
+        List<Measure> measures = makeMeasures(size);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ColumnBatch batch = fu.getFieldColumns(measures, pool, "count", "total", "average", "ratio", "valid", "code", "label");
+            checkColumns(batch, size);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public void testReadColumnsInvalid() {
+        FieldUtils fu = FieldUtils.getInstance();
+        List<Measure> measures = makeMeasures(3);
+        ColumnBatch batch = fu.getFieldColumns(measures, "count");
+        try {
+            batch.getLongColumn("count");
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+        try {
+            batch.getColumn("label");
+            fail("should have thrown exception");
+        } catch (FieldnameNotFoundException e) {
+            assertEquals("label", e.fieldName);
+        }
+        try {
+            fu.getFieldColumns(measures, "count", "xxxxx");
+            fail("should have thrown exception");
+        } catch (FieldnameNotFoundException e) {
+            assertEquals("xxxxx", e.fieldName);
+        }
+        try {
+            fu.getFieldColumns(new ArrayList<Object>(), "count");
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+        List<Object> mixed = new ArrayList<Object>(measures);
+        mixed.add(new TestBean());
+        try {
+            fu.getFieldColumns(mixed, "count");
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+}
@@ -33,6 +33,7 @@ import junit.framework.TestCase;
 
 import org.azeckoski.reflectutils.classes.TestBean;
 import org.azeckoski.reflectutils.classes.TestExtendBean;
+import org.azeckoski.reflectutils.classes.TestImmutable;
 import org.azeckoski.reflectutils.classes.TestNesting;
 import org.azeckoski.reflectutils.classes.TestNoPubConstructor;
 import org.azeckoski.reflectutils.classes.TestPea;
@@ -406,4 +407,37 @@ public class ConstructorUtilsTest extends TestCase {
         assertFalse( ConstructorUtils.isClassSpecial(int.class) );
         assertFalse( ConstructorUtils.isClassSpecial(TestBean.class) );
     }
+
+    public void testImmutableCheck() {
+        assertTrue( ConstructorUtils.isClassImmutable(String.class) );
+        assertTrue( ConstructorUtils.isClassImmutable(Integer.class) );
+        assertTrue( ConstructorUtils.isClassImmutable(int.class) );
+        assertTrue( ConstructorUtils.isClassImmutable(Thread.State.class) );
+        assertTrue( ConstructorUtils.isClassImmutable(TestImmutable.class) );
+        assertFalse( ConstructorUtils.isClassImmutable(TestBean.class) );
+        assertFalse( ConstructorUtils.isClassImmutable(ArrayList.class) );
+
+        try {
+            ConstructorUtils.registerImmutableClass(TestPea.class);
+            assertTrue( ConstructorUtils.isClassImmutable(TestPea.class) );
+        } finally {
+            ConstructorUtils.unregisterImmutableClass(TestPea.class);
+        }
+        assertFalse( ConstructorUtils.isClassImmutable(TestPea.class) );
+        try {
+            ConstructorUtils.registerImmutableClass(null);
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+
+        assertTrue( ConstructorUtils.isClassUnmodifiableCollection(Collections.unmodifiableList(new ArrayList<String>()).getClass()) );
+        assertTrue( ConstructorUtils.isClassUnmodifiableCollection(Collections.unmodifiableMap(new HashMap<String, String>()).getClass()) );
+        assertTrue( ConstructorUtils.isClassUnmodifiableCollection(Collections.emptySet().getClass()) );
+        assertTrue( ConstructorUtils.isClassUnmodifiableCollection(Collections.singletonList("A").getClass()) );
+        assertFalse( ConstructorUtils.isClassUnmodifiableCollection(ArrayList.class) );
+        assertFalse( ConstructorUtils.isClassUnmodifiableCollection(Collections.synchronizedList(new ArrayList<String>()).getClass()) );
+        assertFalse( ConstructorUtils.isClassUnmodifiableCollection(Arrays.asList("A").getClass()) );
+        assertFalse( ConstructorUtils.isClassUnmodifiableCollection(TestBean.class) );
+    }
 }
@@ -15,25 +15,34 @@
 package org.azeckoski.reflectutils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import junit.framework.TestCase;
 
+import org.azeckoski.reflectutils.ClassFields.FieldFindMode;
+import org.azeckoski.reflectutils.ClassFields.FieldsFilter;
 import org.azeckoski.reflectutils.classes.TestBean;
 import org.azeckoski.reflectutils.classes.TestCollections;
 import org.azeckoski.reflectutils.classes.TestCompound;
 import org.azeckoski.reflectutils.classes.TestDateSpecial;
 import org.azeckoski.reflectutils.classes.TestEntity;
+import org.azeckoski.reflectutils.classes.TestImmutable;
+import org.azeckoski.reflectutils.classes.TestLoopOne;
 import org.azeckoski.reflectutils.classes.TestNesting;
 import org.azeckoski.reflectutils.classes.TestPea;
 import org.azeckoski.reflectutils.classes.TestUltraNested;
 import org.azeckoski.reflectutils.map.ArrayOrderedMap;
+import org.azeckoski.reflectutils.transcoders.JSONTranscoder;
 
 /**
  * Testing the deep utils
@@ -117,6 +126,356 @@ public class DeepUtilsTest extends TestCase {
 
     }
 
+    public void testClonePrimitiveArrays() {
+        DeepUtils deepUtils = new DeepUtils();
+
+        int[] ints = new int[] {1,2,3};
+        int[] cints = deepUtils.deepClone(ints, 0, null);
+        assertNotSame(ints, cints);
+        assertTrue(Arrays.equals(ints, cints));
+
+        Map<String, Object> m = new HashMap<String, Object>();
+        m.put("doubles", new double[] {1.5, 2.5});
+        m.put("bytes", new byte[] {1, 2});
+        m.put("chars", new char[] {'a', 'b'});
+        m.put("booleans", new boolean[] {true, false});
+        m.put("longs", new long[] {5L});
+        Map<String, Object> cm = deepUtils.deepClone(m, 2, null);
+        assertNotSame(m.get("doubles"), cm.get("doubles"));
+        assertTrue(Arrays.equals((double[]) m.get("doubles"), (double[]) cm.get("doubles")));
+        assertTrue(Arrays.equals((byte[]) m.get("bytes"), (byte[]) cm.get("bytes")));
+        assertTrue(Arrays.equals((char[]) m.get("chars"), (char[]) cm.get("chars")));
+        assertTrue(Arrays.equals((boolean[]) m.get("booleans"), (boolean[]) cm.get("booleans")));
+        assertTrue(Arrays.equals((long[]) m.get("longs"), (long[]) cm.get("longs")));
+
+        // primitive arrays stay primitive arrays in maps
+        Map<String, Object> map = deepUtils.deepMap(m, 2, null, false, false, null);
+        assertTrue(Arrays.equals((double[]) m.get("doubles"), (double[]) map.get("doubles")));
+        map = deepUtils.deepMap(ints, 2, null, false, false, null);
+        assertTrue(Arrays.equals(ints, (int[]) map.get("data")));
+
+        // copy into an existing array
+        int[] dest = new int[2];
+        deepUtils.deepCopy(ints, dest, 0, null, false);
+        assertEquals(1, dest[0]);
+        assertEquals(2, dest[1]);
+        long[] destLongs = new long[3];
+        deepUtils.deepCopy(ints, destLongs, 0, null, false);
+        assertEquals(3L, destLongs[2]);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testCloneSharedObjects() {
+        DeepUtils deepUtils = new DeepUtils();
+
+        // shared objects are only cloned once
+        TestPea tp = new TestPea("A","AZ");
+        TestNesting tn = new TestNesting();
+        tn.testPea = tp;
+        List<Object> l = new ArrayList<Object>();
+        l.add(tp);
+        l.add(tn);
+        l.add(tp);
+        List<Object> cl = deepUtils.deepClone(l, 5, null);
+        assertEquals(3, cl.size());
+        assertNotSame(tp, cl.get(0));
+        assertSame(cl.get(0), cl.get(2));
+        assertSame(cl.get(0), ((TestNesting) cl.get(1)).testPea);
+        assertEquals("AZ", ((TestPea) cl.get(0)).entityId);
+
+        // loops are kept
+        l.add(l);
+        Map<String, Object> m = new HashMap<String, Object>();
+        m.put("list", l);
+        m.put("self", m);
+        Map<String, Object> cm = deepUtils.deepClone(m, 5, null);
+        assertNotSame(m, cm);
+        assertSame(cm, cm.get("self"));
+        cl = (List<Object>) cm.get("list");
+        assertNotSame(l, cl);
+        assertEquals(4, cl.size());
+        assertSame(cl, cl.get(3));
+        assertSame(cl.get(0), cl.get(2));
+
+        // objects reached again deeper use the same copy, ones reached first beyond the max depth are cloned again
+        List<Object> deep = new ArrayList<Object>();
+        deep.add(tn);
+        deep.add(tp);
+        List<Object> cdeep = deepUtils.deepClone(deep, 1, null);
+        assertNull(((TestNesting) cdeep.get(0)).testPea);
+        assertEquals("AZ", ((TestPea) cdeep.get(1)).entityId);
+
+        // maps keep the objects shared at the same depth (one reached deeper is converted again)
+        Map<String, Object> map = deepUtils.deepMap(l, 5, null, false, true, null);
+        cl = (List<Object>) map.get("data");
+        assertTrue(cl.get(0) instanceof Map);
+        assertSame(cl.get(0), cl.get(2));
+        assertNotSame(cl.get(0), ((Map<String, Object>) cl.get(1)).get("testPea"));
+        assertEquals(cl.get(0), ((Map<String, Object>) cl.get(1)).get("testPea"));
+        // but never contain themselves (the loop is cut off by the max depth instead)
+        assertNotSame(cl, cl.get(3));
+        assertTrue(cl.get(3) instanceof List);
+        assertEquals(4, ((List<Object>) cl.get(3)).size());
+        map.hashCode();
+        List<Object> peaLoop = new ArrayList<Object>();
+        peaLoop.add(tp);
+        peaLoop.add(new TestPea("B","BZ"));
+        peaLoop.add(peaLoop);
+        Map<String, Object> peaMap = deepUtils.deepMap(peaLoop, 5, null, false, true, null);
+        assertEquals(peaMap.hashCode(), deepUtils.deepMap(peaLoop, 5, null, false, true, null).hashCode());
+        String json = new JSONTranscoder().encode(peaMap, null, null);
+        assertTrue(json.contains("BZ"));
+
+        Map<String, Object> loopMap = deepUtils.deepMap(new TestLoopOne(1), 5, null, false, false, null);
+        Map<String, Object> loopSelf = (Map<String, Object>) loopMap.get("self");
+        assertNotSame(loopMap, loopSelf);
+        assertEquals(1000, loopSelf.get("id"));
+        loopMap.hashCode();
+        assertTrue(new JSONTranscoder().encode(loopMap, null, null).contains("\"self\""));
+        ForkJoinPool mapPool = new ForkJoinPool(2);
+        try {
+            Map<String, Object> parallelMap = deepUtils.deepMap(peaLoop, 5, null, false, true, null, mapPool, 1);
+            cl = (List<Object>) parallelMap.get("data");
+            assertNotSame(cl, cl.get(2));
+            assertEquals(peaMap, parallelMap);
+            assertEquals(json, new JSONTranscoder().encode(parallelMap, null, null));
+        } finally {
+            mapPool.shutdown();
+        }
+
+        // copying keeps references to the original pointing at the destination
+        List<Object> dest = new ArrayList<Object>();
+        deepUtils.deepCopy(l, dest, 5, null, false);
+        assertEquals(4, dest.size());
+        assertSame(dest, dest.get(3));
+        assertSame(dest.get(0), dest.get(2));
+
+        // parallel clones also share
+        List<Object> many = new ArrayList<Object>();
+        for (int i = 0; i < 200; i++) {
+            many.add(tp);
+            many.add(new TestPea("B"+i, "BZ"+i));
+        }
+        many.add(many);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Object> cmany = deepUtils.deepClone(many, 3, null, pool, 10);
+            assertEquals(many.size(), cmany.size());
+            assertSame(cmany, cmany.get(400));
+            for (int i = 0; i < 200; i++) {
+                assertSame(cmany.get(0), cmany.get(i*2));
+                assertEquals("BZ"+i, ((TestPea) cmany.get(i*2+1)).entityId);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testParallelCloneSharedAtDepths() {
+        DeepUtils deepUtils = new DeepUtils();
+
+        // the shared object is reached at depth 1 and 2, the max depth cuts it off at depth 2
+        TestNesting shared = new TestNesting();
+        shared.testPea = new TestPea("A","AZ");
+        List<Object> depths = new ArrayList<Object>();
+        for (int i = 0; i < 50; i++) {
+            List<Object> holder = new ArrayList<Object>();
+            holder.add(shared);
+            depths.add(holder);
+            depths.add(shared);
+        }
+
+        // the copy is the same one everywhere and is filled in for depth 1 whichever reference is cloned first
+        List<Object> sequential = deepUtils.deepClone(depths, 2, null);
+        checkSharedAtDepths(shared, sequential);
+
+        Random random = new Random();
+        for (int run = 0; run < 20; run++) {
+            long seed = random.nextLong();
+            Random order = new Random(seed);
+            List<Object> shuffled = new ArrayList<Object>(depths);
+            Collections.shuffle(shuffled, order);
+            ForkJoinPool pool = new ForkJoinPool(2 + order.nextInt(7));
+            try {
+                int threshold = 1 + order.nextInt(10);
+                String message = "seed=" + seed;
+                sequential = deepUtils.deepClone(shuffled, 2, null);
+                List<Object> parallel = deepUtils.deepClone(shuffled, 2, null, pool, threshold);
+                assertEquals(message, sequential.size(), parallel.size());
+                checkSharedAtDepths(shared, sequential);
+                checkSharedAtDepths(shared, parallel);
+
+                // maps are shared at the same depth only
+                Map<String, Object> sequentialMap = deepUtils.deepMap(shuffled, 2, null, false, false, null);
+                Map<String, Object> parallelMap = deepUtils.deepMap(shuffled, 2, null, false, false, null, pool, threshold);
+                assertEquals(message, new JSONTranscoder().encode(sequentialMap, null, null), 
+                        new JSONTranscoder().encode(parallelMap, null, null));
+                Object deeper = null;
+                Object shallower = null;
+                for (Object value : (List<Object>) parallelMap.get("data")) {
+                    if (value instanceof List) {
+                        if (deeper == null) {
+                            deeper = ((List<Object>) value).get(0);
+                            assertNull(message, ((Map<String, Object>) deeper).get("testPea"));
+                        }
+                        assertSame(message, deeper, ((List<Object>) value).get(0));
+                    } else {
+                        if (shallower == null) {
+                            shallower = value;
+                            assertEquals(message, "AZ", ((Map<String, Object>) ((Map<String, Object>) shallower).get("testPea")).get("entityId"));
+                        }
+                        assertSame(message, shallower, value);
+                    }
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void checkSharedAtDepths(TestNesting shared, List<Object> clone) {
+        TestNesting copy = null;
+        for (Object value : clone) {
+            TestNesting tn;
+            if (value instanceof List) {
+                tn = (TestNesting) ((List<Object>) value).get(0);
+            } else {
+                tn = (TestNesting) value;
+            }
+            if (copy == null) {
+                copy = tn;
+                assertNotSame(shared, copy);
+                assertNotNull(copy.testPea);
+                assertNotSame(shared.testPea, copy.testPea);
+                assertEquals("AZ", copy.testPea.entityId);
+            }
+            assertSame(copy, tn);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testCloneShareImmutables() {
+        DeepUtils deepUtils = new DeepUtils();
+
+        TestImmutable ti = new TestImmutable("AZ", 5);
+        List<String> names = Collections.unmodifiableList(Arrays.asList("A", "B"));
+        List<Object> beans = Collections.unmodifiableList(Arrays.asList((Object) new TestPea("A","AZ")));
+        Map<String, Object> m = new HashMap<String, Object>();
+        m.put("immutable", ti);
+        m.put("names", names);
+        m.put("beans", beans);
+        m.put("pea", new TestPea());
+
+        // nothing is shared by default (and immutable objects often cannot be constructed empty)
+        try {
+            deepUtils.deepClone(m, 5, null);
+            fail("should have thrown exception");
+        } catch (RuntimeException e) {
+            assertNotNull(e.getMessage());
+        }
+        assertNotSame(names, deepUtils.deepClone(names, 5, null));
+
+        Map<String, Object> cm = deepUtils.deepClone(m, 5, null, true);
+        assertNotSame(m, cm);
+        assertSame(ti, cm.get("immutable"));
+        assertSame(names, cm.get("names"));
+        // collections holding mutable objects are still copied
+        assertNotSame(beans, cm.get("beans"));
+        assertNotSame(beans.get(0), ((List<Object>) cm.get("beans")).get(0));
+        assertNotSame(m.get("pea"), cm.get("pea"));
+        assertSame(ti, deepUtils.deepClone(ti, 0, null, true));
+
+        // registered classes are shared
+        try {
+            ConstructorUtils.registerImmutableClass(TestPea.class);
+            cm = deepUtils.deepClone(m, 5, null, true);
+            assertSame(m.get("pea"), cm.get("pea"));
+            assertSame(beans, cm.get("beans"));
+        } finally {
+            ConstructorUtils.unregisterImmutableClass(TestPea.class);
+        }
+        cm = deepUtils.deepClone(m, 5, null, true);
+        assertNotSame(m.get("pea"), cm.get("pea"));
+
+        // unmodifiable collections beyond the max depth are not shared
+        cm = deepUtils.deepClone(m, 0, null, true);
+        assertSame(ti, cm.get("immutable"));
+        assertNull(cm.get("names"));
+    }
+
+    public void testParallelClone() {
+        DeepUtils deepUtils = new DeepUtils();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // large list of nested objects
+            List<TestNesting> ltn = new ArrayList<TestNesting>();
+            for (int i = 0; i < 500; i++) {
+                TestNesting tn = new TestNesting(i, "title"+i, new String[] {"A"+i,"B"+i});
+                tn.testPea = new TestPea("id"+i, "entity"+i);
+                ltn.add(tn);
+            }
+            List<TestNesting> seq = deepUtils.deepClone(ltn, 3, null);
+            List<TestNesting> par = deepUtils.deepClone(ltn, 3, null, pool, 10);
+            assertEquals(ltn.size(), par.size());
+            for (int i = 0; i < ltn.size(); i++) {
+                TestNesting tn = par.get(i);
+                assertNotSame(ltn.get(i), tn);
+                assertEquals(i, tn.getId());
+                assertEquals("title"+i, tn.getTitle());
+                assertEquals("A"+i, tn.getSList().get(0));
+                assertEquals(seq.get(i).getSList(), tn.getSList());
+                assertEquals(seq.get(i).getSMap(), tn.getSMap());
+                assertEquals(seq.get(i).getMyArray()[1], tn.getMyArray()[1]);
+                assertNotSame(ltn.get(i).testPea, tn.testPea);
+                assertEquals("entity"+i, tn.testPea.entityId);
+                assertNotSame(ltn.get(i).getTestEntity(), tn.getTestEntity());
+                assertEquals(seq.get(i).getTestEntity().getId(), tn.getTestEntity().getId());
+            }
+
+            // large arrays and maps
+            TestBean[] tbs = new TestBean[300];
+            Map<String, TestPea> mtp = new HashMap<String, TestPea>();
+            for (int i = 0; i < tbs.length; i++) {
+                tbs[i] = new TestBean();
+                tbs[i].setMyInt(i);
+                mtp.put("key"+i, new TestPea("id"+i, "entity"+i));
+            }
+            mtp.put("null", null);
+            TestBean[] ctbs = deepUtils.deepClone(tbs, 1, null, pool, 10);
+            assertEquals(tbs.length, ctbs.length);
+            for (int i = 0; i < tbs.length; i++) {
+                assertNotSame(tbs[i], ctbs[i]);
+                assertEquals(i, ctbs[i].getMyInt());
+            }
+            Map<String, TestPea> cmtp = deepUtils.deepClone(mtp, 1, new String[] {"key5"}, pool, 10);
+            assertEquals(mtp.size() - 2, cmtp.size());
+            assertFalse(cmtp.containsKey("key5"));
+            assertEquals("entity7", cmtp.get("key7").entityId);
+            assertNotSame(mtp.get("key7"), cmtp.get("key7"));
+
+            // maps are the same as the sequential ones
+            assertEquals(deepUtils.deepMap(mtp, 3, null, false, true, null), 
+                    deepUtils.deepMap(mtp, 3, null, false, true, null, pool, 10));
+            assertEquals(deepUtils.deepMap(tbs, 3, null, true, true, "beans").keySet(), 
+                    deepUtils.deepMap(tbs, 3, null, true, true, "beans", null, 1).keySet());
+
+            // small objects are fine too
+            assertNull(deepUtils.deepClone(null, 3, null, pool, 10));
+            assertEquals("AZ", deepUtils.deepClone("AZ", 3, null, pool, 10));
+
+            try {
+                deepUtils.deepClone(ltn, 3, null, pool, 0);
+                fail("should have thrown exception");
+            } catch (IllegalArgumentException e) {
+                assertNotNull(e.getMessage());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     /**
      * Test method for {@link org.sakaiproject.ReflectUtils.util.reflect.ReflectUtil#deepCopy(java.lang.Object, java.lang.Object, int, java.lang.String[], boolean)}.
      */
@@ -145,6 +504,74 @@ public class DeepUtilsTest extends TestCase {
         assertNotNull(dest);
         assertEquals(orig.getMyInt(), dest.getMyInt());
         assertEquals(orig.getMyString(), dest.getMyString());
+
+        // copy between different classes only copies the matching fields
+        TestEntity entity = new TestEntity();
+        entity.setEntityId("EID-copy");
+        TestPea pea = new TestPea();
+        deepUtils.deepCopy(entity, pea, 0, null, false);
+        assertEquals("EID-copy", pea.entityId);
+        assertEquals("3", pea.id);
+    }
+
+    public void testCopyPlan() {
+        DeepUtils deepUtils = new DeepUtils();
+
+        // plans are cached
+        CopyPlan plan = deepUtils.getCopyPlan(TestBean.class, FieldsFilter.COMPLETE, TestBean.class, null);
+        assertSame(plan, deepUtils.getCopyPlan(TestBean.class, FieldsFilter.COMPLETE, TestBean.class, null));
+        assertEquals(TestBean.class, plan.getSourceClass());
+        assertEquals(TestBean.class, plan.getDestinationClass());
+        assertEquals(2, plan.size());
+        assertTrue(plan.getNames().contains("myInt"));
+        assertTrue(plan.getNames().contains("myString"));
+        for (int i = 0; i < plan.size(); i++) {
+            assertNotNull(plan.getWriter(i));
+            assertNull(plan.getConvertType(i));
+        }
+        assertNotNull(plan.toString());
+
+        // skipped fields are left out of the plan
+        Set<String> skip = new HashSet<String>();
+        skip.add("myInt");
+        CopyPlan skipPlan = deepUtils.getCopyPlan(TestBean.class, FieldsFilter.COMPLETE, TestBean.class, skip);
+        assertNotSame(plan, skipPlan);
+        assertEquals(1, skipPlan.size());
+        assertEquals("myString", skipPlan.getName(0));
+        skip.add("other");
+        assertNotSame(skipPlan, deepUtils.getCopyPlan(TestBean.class, FieldsFilter.COMPLETE, TestBean.class, skip));
+        skip.remove("other");
+        assertSame(skipPlan, deepUtils.getCopyPlan(TestBean.class, FieldsFilter.COMPLETE, TestBean.class, skip));
+
+        // maps take every value as is
+        CopyPlan mapPlan = deepUtils.getCopyPlan(TestBean.class, FieldsFilter.READABLE, null, null);
+        assertNull(mapPlan.getDestinationClass());
+        assertNull(mapPlan.getWriter(0));
+
+        // copy between classes only has the matching fields and converts as needed
+        CopyPlan copyPlan = deepUtils.getCopyPlan(TestEntity.class, FieldsFilter.READABLE, TestPea.class, null);
+        assertTrue(copyPlan.getNames().contains("id"));
+        assertTrue(copyPlan.getNames().contains("entityId"));
+        assertFalse(copyPlan.getNames().contains("extra"));
+        int idStep = copyPlan.getNames().indexOf("id");
+        assertEquals(String.class, copyPlan.getConvertType(idStep));
+        assertNull(copyPlan.getConvertType(copyPlan.getNames().indexOf("entityId")));
+
+        // properties which cannot be set in the destination are left out of the plan
+        CopyPlan entityPlan = deepUtils.getCopyPlan(TestEntity.class, FieldsFilter.READABLE, TestEntity.class, null);
+        assertFalse(entityPlan.getNames().contains("prefix"));
+        assertTrue(entityPlan.getNames().contains("extra"));
+
+        // the source class is analyzed with the find mode given for the plan
+        CopyPlan fieldPlan = deepUtils.getCopyPlan(TestEntity.class, FieldFindMode.FIELD, FieldsFilter.ALL, null, null);
+        assertNotSame(fieldPlan, deepUtils.getCopyPlan(TestEntity.class, FieldsFilter.ALL, null, null));
+        assertSame(fieldPlan, deepUtils.getCopyPlan(TestEntity.class, FieldFindMode.FIELD, FieldsFilter.ALL, null, null));
+        assertTrue(fieldPlan.getNames().contains("privateFieldOnly"));
+        assertFalse(fieldPlan.getNames().contains("prefix"));
+
+        // a plan is made again when the class is analyzed again
+        ClassDataCacher.getInstance().clearCache();
+        assertNotSame(plan, deepUtils.getCopyPlan(TestBean.class, FieldsFilter.COMPLETE, TestBean.class, null));
     }
 
     public void testSimpleCopy() {
@@ -16,6 +16,8 @@ package org.azeckoski.reflectutils;
 
 import junit.framework.TestCase;
 import org.azeckoski.reflectutils.classes.*;
+import org.azeckoski.reflectutils.ClassFields.FieldFindMode;
+import org.azeckoski.reflectutils.beanutils.DefaultResolver;
 import org.azeckoski.reflectutils.exceptions.FieldSetValueException;
 import org.azeckoski.reflectutils.exceptions.FieldnameNotFoundException;
 
@@ -234,6 +236,140 @@ public class FieldUtilsTest extends TestCase {
         assertEquals(0, tn.getSMap().size());
     }
 
+    /**
+     * Test the generated accessors are used for getting and setting when enabled
+     */
+    @SuppressWarnings("unchecked")
+    public void testGeneratedAccessors() {
+        FieldUtils fu = new FieldUtils();
+        ClassFields<?> cf;
+        ClassProperty cp;
+
+        TestBean tb = new TestBean(5, "five");
+        cf = new ClassFields(tb.getClass());
+        assertFalse(cf.isUseAccessors());
+        cp = cf.getClassProperty("myInt");
+        assertNull(cp.getAccessor());
+
+        cf.setUseAccessors(true);
+        assertTrue(cf.isUseAccessors());
+        cp = cf.getClassProperty("myInt");
+        PropertyAccessor accessor = cp.getAccessor();
+        assertNotNull(accessor);
+        assertTrue(accessor.isReadable());
+        assertTrue(accessor.isWriteable());
+        assertSame(accessor, cp.getAccessor());
+        assertEquals(5, fu.findFieldValue(tb, cp));
+        fu.assignFieldValue(tb, cp, 10);
+        assertEquals(10, tb.getMyInt());
+
+        cp = cf.getClassProperty("myString");
+        assertNotNull(cp.getAccessor());
+        assertEquals("five", fu.findFieldValue(tb, cp));
+        fu.assignFieldValue(tb, cp, null);
+        assertNull(tb.getMyString());
+
+        // failures are translated the same as with reflection
+        cp = cf.getClassProperty("myInt");
+        try {
+            fu.assignFieldValue(tb, cp, null);
+            fail("should have thrown exception");
+        } catch (FieldSetValueException e) {
+            assertNotNull(e.getMessage());
+        }
+        try {
+            fu.assignFieldValue(tb, cp, "string");
+            fail("should have thrown exception");
+        } catch (FieldSetValueException e) {
+            assertNotNull(e.getMessage());
+        }
+
+        // public fields do not use accessors
+        TestPea tp = new TestPea();
+        cf = new ClassFields(tp.getClass());
+        cf.setUseAccessors(true);
+        cp = cf.getClassProperty("id");
+        assertNull(cp.getAccessor());
+        assertEquals("id", fu.findFieldValue(tp, cp));
+
+        // non-public classes fall back to reflection
+        ClassFields<?> cfh = new ClassFields(HiddenBean.class);
+        cfh.setUseAccessors(true);
+        HiddenBean hb = new HiddenBean();
+        cp = cfh.getClassProperty("name");
+        assertNull(cp.getAccessor());
+        fu.assignFieldValue(hb, cp, "hidden");
+        assertEquals("hidden", fu.findFieldValue(hb, cp));
+
+        // the cacher enables them by default
+        assertTrue(ClassDataCacher.getInstance().isUseAccessors());
+        assertNotNull(ClassDataCacher.getInstance().getClassFields(TestBean.class).getClassProperty("myInt").getAccessor());
+    }
+
+    /**
+     * Test the method handles are made for fields and properties and used when there is no accessor
+     */
+    @SuppressWarnings("unchecked")
+    public void testPropertyHandles() throws Throwable {
+        FieldUtils fu = new FieldUtils();
+        ClassFields<?> cf;
+        ClassProperty cp;
+        PropertyHandles handles;
+
+        // public field
+        TestPea tp = new TestPea();
+        cf = new ClassFields(tp.getClass());
+        cp = cf.getClassProperty("id");
+        handles = cp.getHandles();
+        assertNotNull(handles);
+        assertSame(handles, cp.getHandles());
+        assertTrue(handles.isReadable());
+        assertTrue(handles.isWriteable());
+        assertEquals(PropertyHandles.GETTER_TYPE, handles.getter.type());
+        assertEquals(PropertyHandles.SETTER_TYPE, handles.setter.type());
+        assertEquals("id", handles.getValue(tp));
+        handles.setValue(tp, "newid");
+        assertEquals("newid", tp.id);
+        fu.setSimpleValue(tp, "id", "simple");
+        assertEquals("simple", fu.getSimpleValue(tp, "id"));
+
+        // getter and setter with a primitive type
+        TestBean tb = new TestBean(3, "three");
+        cf = new ClassFields(tb.getClass());
+        cp = cf.getClassProperty("myInt");
+        handles = cp.getHandles();
+        assertEquals(3, handles.getValue(tb));
+        handles.setValue(tb, 7);
+        assertEquals(7, tb.getMyInt());
+        try {
+            fu.assignFieldValue(tb, cp, "seven");
+            fail("should have thrown exception");
+        } catch (FieldSetValueException e) {
+            assertNotNull(e.getMessage());
+        }
+
+        // non-public class (no generated accessor) still gets handles
+        HiddenBean hb = new HiddenBean();
+        cf = new ClassFields(HiddenBean.class);
+        cf.setUseAccessors(true);
+        cp = cf.getClassProperty("name");
+        assertNull(cp.getAccessor());
+        assertTrue(cp.getHandles().isWriteable());
+        fu.setSimpleValue(hb, "name", "hb");
+        assertEquals("hb", hb.getName());
+        assertEquals("hb", fu.getSimpleValue(hb, "name"));
+    }
+
+    static class HiddenBean {
+        private String name;
+        public String getName() {
+            return name;
+        }
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
     /**
      * Test method for getSimpleValue
      */
@@ -805,6 +941,197 @@ public class FieldUtilsTest extends TestCase {
     /**
      * Test method for {@link org.azeckoski.reflectutils.FieldUtils#setFieldValue(java.lang.Object, java.lang.String, java.lang.Object)}.
      */
+    /**
+     * Test compiled paths and the get/set methods which use them
+     */
+    @SuppressWarnings("unchecked")
+    public void testPropertyPath() {
+        FieldUtils fu = new FieldUtils();
+        PropertyPath path;
+        Object value;
+
+        path = PropertyPath.compile("a.b[2].c(key)");
+        assertEquals("a.b[2].c(key)", path.getExpression());
+        assertEquals(3, path.size());
+        assertEquals(PropertyPath.SegmentType.SIMPLE, path.getSegment(0).getType());
+        assertEquals("a", path.getSegment(0).getName());
+        assertEquals(PropertyPath.SegmentType.INDEXED, path.getSegment(1).getType());
+        assertEquals("b", path.getSegment(1).getName());
+        assertEquals(2, path.getSegment(1).getIndex());
+        assertEquals("b[2]", path.getSegment(1).getExpression());
+        assertEquals(PropertyPath.SegmentType.MAPPED, path.getSegment(2).getType());
+        assertEquals("c", path.getSegment(2).getName());
+        assertEquals("key", path.getSegment(2).getKey());
+        assertEquals(PropertyPath.compile("a.b[2].c(key)"), path);
+
+        path = PropertyPath.compile("map(a.b).thing");
+        assertEquals(2, path.size());
+        assertEquals("a.b", path.getSegment(0).getKey());
+
+        path = PropertyPath.compile("title");
+        assertTrue(path.isSingle());
+
+        String[] invalid = {null, "", "list[x]", "list[-1]", "list[1", "map(key"};
+        for (String expression : invalid) {
+            try {
+                PropertyPath.compile(expression);
+                fail("should have thrown exception: " + expression);
+            } catch (IllegalArgumentException e) {
+                assertNotNull(e.getMessage());
+            }
+        }
+
+        TestNesting tn = new TestNesting(8, "AZ", new String[] {"1", "B", "three"});
+        PropertyPath idPath = PropertyPath.compile("id");
+        assertEquals(8, fu.getPathValue(tn, idPath));
+        // twice to use the resolved property
+        assertEquals(8, fu.getPathValue(tn, idPath));
+        fu.setPathValue(tn, idPath, "99");
+        assertEquals(99, tn.getId());
+
+        value = fu.getPathValue(tn, PropertyPath.compile("testEntity.id"));
+        assertEquals((long) 3, value);
+        value = fu.getPathValue(tn, PropertyPath.compile("myArray[1]"));
+        assertEquals("B", value);
+        value = fu.getPathValue(tn, PropertyPath.compile("sList[2]"));
+        assertEquals("three", value);
+        value = fu.getPathValue(tn, PropertyPath.compile("sMap(A1)"));
+        assertEquals("ONE", value);
+
+        fu.setPathValue(tn, PropertyPath.compile("sList[0]"), "alpha");
+        assertEquals("alpha", tn.getSList().get(0));
+        fu.setPathValue(tn, PropertyPath.compile("sMap(C3)"), "THREE");
+        assertEquals("THREE", tn.getSMap().get("C3"));
+        fu.setPathValue(tn, PropertyPath.compile("testEntity.id"), 5);
+        assertEquals((long) 5, fu.getFieldValue(tn, "testEntity.id"));
+
+        // same path on different classes
+        TestBean tb = new TestBean(4, "four");
+        TestExtendBean teb = new TestExtendBean();
+        PropertyPath myInt = PropertyPath.compile("myInt");
+        assertEquals(4, fu.getPathValue(tb, myInt));
+        fu.setPathValue(teb, myInt, 6);
+        assertEquals(6, fu.getPathValue(teb, myInt));
+        assertEquals(4, fu.getPathValue(tb, myInt));
+        // both classes stay resolved
+        FieldFindMode mode = fu.getClassDataCacher().getFieldFindMode();
+        assertNotNull(myInt.getSegment(0).getResolvedProperty(TestBean.class, mode));
+        assertNotNull(myInt.getSegment(0).getResolvedProperty(TestExtendBean.class, mode));
+        assertSame(myInt.getSegment(0).getResolvedProperty(TestBean.class, mode),
+                myInt.getSegment(0).getResolvedProperty(TestBean.class, mode));
+
+        // maps
+        Map<String, Integer> myMap = new HashMap<String, Integer>();
+        myMap.put("A", 10);
+        myMap.put("B", 2);
+        assertEquals(10, fu.getPathValue(myMap, PropertyPath.compile("A")));
+        assertEquals(2, fu.getPathValue(myMap, PropertyPath.compile("(B)")));
+
+        try {
+            fu.getPathValue(tn, PropertyPath.compile("xxxxx"));
+            fail("should have thrown exception");
+        } catch (FieldnameNotFoundException e) {
+            assertNotNull(e.getMessage());
+        }
+        try {
+            fu.getPathValue(tn, PropertyPath.compile("xxxxx.id"));
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+        try {
+            fu.getPathValue(tn, (PropertyPath) null);
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    /**
+     * Test the cache of compiled paths is used by the get and set methods
+     */
+    public void testPathCache() {
+        FieldUtils fu = new FieldUtils();
+        PropertyPathCache cache = fu.getPathCache();
+        assertNotNull(cache);
+        assertEquals(PropertyPathCache.DEFAULT_CAPACITY, cache.getCapacity());
+
+        TestNesting tn = new TestNesting(8, "AZ", new String[] {"1", "B", "three"});
+        // plain names skip the cache
+        assertEquals(8, fu.getFieldValue(tn, "id"));
+        fu.setFieldValue(tn, "title", "AZ2");
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getMisses());
+
+        assertEquals((long) 3, fu.getFieldValue(tn, "testEntity.id"));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getHits());
+        assertEquals((long) 3, fu.getFieldValue(tn, "testEntity.id"));
+        fu.setFieldValue(tn, "testEntity.id", "7");
+        assertEquals((long) 7, fu.getFieldValue(tn, "testEntity.id"));
+        assertEquals(1, cache.size());
+        assertEquals(3, cache.getHits());
+
+        fu.setFieldValue(tn, "sList[0]", "alpha");
+        assertEquals("alpha", fu.getFieldValue(tn, "sList[0]"));
+        assertEquals(2, cache.size());
+
+        // type lookups use the cached paths as well
+        long hits = cache.getHits();
+        assertEquals(Long.class, fu.getFieldType(tn, "testEntity.id"));
+        assertEquals(Long.class, fu.getFieldType(TestNesting.class, "testEntity.id"));
+        assertEquals(Object.class, fu.getFieldType(TestNesting.class, "sList[0].id"));
+        assertEquals(hits + 2, cache.getHits());
+        assertEquals(3, cache.size());
+        // a custom resolver parses the names itself and gets the same types
+        FieldUtils resolved = new FieldUtils(new DefaultResolver() {});
+        assertEquals(Long.class, resolved.getFieldType(TestNesting.class, "testEntity.id"));
+        assertEquals(Long.class, resolved.getFieldType(tn, "testEntity.id"));
+        assertEquals(3, cache.size());
+        long misses = cache.getMisses();
+
+        // invalid paths are cached as failures and fail the same way every time
+        for (int i = 0; i < 2; i++) {
+            try {
+                fu.getFieldValue(tn, "sList[X]");
+                fail("should have thrown exception");
+            } catch (IllegalArgumentException e) {
+                assertNotNull(e.getMessage());
+            }
+        }
+        assertEquals(4, cache.size());
+        assertEquals(misses + 1, cache.getMisses());
+        try {
+            cache.getPath("sList[X]");
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+        assertEquals(misses + 1, cache.getMisses());
+
+        // bounded size
+        PropertyPathCache small = new PropertyPathCache(3);
+        small.getPath("a.b");
+        small.getPath("a.c");
+        small.getPath("a.d");
+        small.getPath("a.b"); // used so it stays
+        small.getPath("a.e");
+        assertEquals(3, small.size());
+        assertEquals(1, small.getEvictions());
+        small.getPath("a.b");
+        assertEquals(2, small.getHits());
+        small.clear();
+        assertEquals(0, small.size());
+        small.getPath("a.b");
+        assertEquals(1, small.size());
+
+        // disabled cache still works
+        fu.setPathCacheSize(0);
+        assertNull(fu.getPathCache());
+        assertEquals((long) 7, fu.getFieldValue(tn, "testEntity.id"));
+    }
+
     public void testSetFieldValue() {
         FieldUtils fu = new FieldUtils();
 
@@ -1189,4 +1516,41 @@ public class FieldUtilsTest extends TestCase {
 
     }
 
+    public void testShadowedNonVisibleFields() {
+        FieldUtils fu = FieldUtils.getInstance();
+        ShadowChild sc = new ShadowChild();
+        assertEquals(7, fu.getFieldValue(sc, "code"));
+        assertEquals(Integer.class, fu.getFieldType(sc, "code"));
+        assertEquals(Integer.class, fu.getFieldType(ShadowChild.class, "code"));
+        fu.setFieldValue(sc, "code", "42");
+        assertEquals(Integer.valueOf(42), sc.getChildCode());
+        assertEquals("base", sc.getBaseCode());
+        assertEquals("base", fu.getFieldValue(new ShadowBase(), "code"));
+
+        ClassData<ShadowChild> cd = new ClassData<ShadowChild>(ShadowChild.class);
+        assertEquals(ShadowChild.class, cd.getField("code").getDeclaringClass());
+        assertNull(cd.getField("nothing"));
+
+        try {
+            fu.getFieldValue(sc, "nothing");
+            fail("should have thrown exception");
+        } catch (FieldnameNotFoundException e) {
+            assertEquals("nothing", e.fieldName);
+        }
+    }
+
+    static class ShadowBase {
+        protected String code = "base";
+        public String getBaseCode() {
+            return code;
+        }
+    }
+
+    static class ShadowChild extends ShadowBase {
+        private Integer code = 7;
+        public Integer getChildCode() {
+            return code;
+        }
+    }
+
 }
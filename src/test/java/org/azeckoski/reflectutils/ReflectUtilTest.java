@@ -461,6 +461,11 @@ public class ReflectUtilTest extends TestCase {
         assertEquals(2, types.size());
         assertEquals(String.class, types.get("myString"));
         assertEquals(int.class, types.get("myInt"));
+
+        // the facade returns a copy which can be changed
+        types.put("extra", Long.class);
+        assertEquals(3, types.size());
+        assertEquals(2, reflectUtil.getFieldTypes(TestBean.class).size());
     }
 
     /**
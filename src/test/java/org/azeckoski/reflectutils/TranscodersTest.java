@@ -14,12 +14,21 @@
 
 package org.azeckoski.reflectutils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.sql.Timestamp;
+import java.text.CharacterIterator;
+import java.text.StringCharacterIterator;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import junit.framework.TestCase;
 
@@ -183,6 +192,68 @@ public class TranscodersTest extends TestCase {
 
     }
 
+    @SuppressWarnings("unchecked")
+    public void testJSONReader() throws Exception {
+        JSONTranscoder transcoder = new JSONTranscoder();
+        final JsonReader reader = transcoder.new JsonReader();
+
+        // repeated field names are the same strings
+        List<Map<String, Object>> list = (List<Map<String, Object>>) reader.read("[{\"name\":\"a\"},{\"name\":\"b\"}]");
+        String key0 = list.get(0).keySet().iterator().next();
+        String key1 = list.get(1).keySet().iterator().next();
+        assertEquals("name", key0);
+        assertSame(key0, key1);
+        Map<String, Object> map = (Map<String, Object>) reader.read("{\"a\\tb\":\"c\\u0041\\/\\x\", 5:true}");
+        assertEquals("cA/x", map.get("a\tb"));
+        assertEquals(Boolean.TRUE, map.get("5"));
+
+        // invalid numbers fail with the position
+        String[] invalidNumbers = new String[] {"[1e, 2]", "[-, 2]", "[--1]", "{\"n\":1e}"};
+        for (String json : invalidNumbers) {
+            try {
+                reader.read(json);
+                fail("should have thrown exception: " + json);
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid JSON at char"));
+            }
+        }
+
+        // iterators are left where the reading stopped
+        CharacterIterator ci = new StringCharacterIterator("[1] {\"a\":2}");
+        assertEquals(1, ((List<Object>) reader.read(ci, JSONTranscoder.FIRST)).size());
+        assertEquals(2, ((Map<String, Object>) reader.read(ci, JSONTranscoder.CURRENT)).get("a"));
+        assertEquals(CharacterIterator.DONE, ci.current());
+
+        // one reader can be used by many threads
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int t = 0; t < 8; t++) {
+                final int num = t;
+                results.add(executor.submit(new Callable<Boolean>() {
+                    public Boolean call() {
+                        for (int i = 0; i < 500; i++) {
+                            String json = "{\"thread\":" + num + ",\"i\":" + i + ",\"text\":\"t" + num + "\\n" + i + "\",\"list\":[" + i + ",\"x\"]}";
+                            Map<String, Object> m = (Map<String, Object>) reader.read(json);
+                            if (! Integer.valueOf(num).equals(m.get("thread"))
+                                    || ! Integer.valueOf(i).equals(m.get("i"))
+                                    || ! ("t" + num + "\n" + i).equals(m.get("text"))
+                                    || ! Integer.valueOf(i).equals(((List<Object>) m.get("list")).get(0)) ) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     public void testJSONEncodeInvalid() {
         JSONTranscoder transcoder = new JSONTranscoder();
         JsonReader reader = transcoder.new JsonReader();
@@ -234,10 +305,17 @@ public class TranscodersTest extends TestCase {
         assertEquals(1, list.get(1));
         assertEquals(5, list.get(5));
 
-        String rnd = generateString(new Random(),
+        // random input read as an array runs into an invalid number (e.g. "5e"),
+        // the seed keeps the input (and the nesting) the same every run
+        String rnd = generateString(new Random(2),
                 "abcdefghijklmnopqrstuvwxyz012344567789{}[]'\";;&<>\\!?",
                 10000000);
-        reader.read(rnd);
+        try {
+            reader.read("[" + rnd);
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid JSON at char"));
+        }
     }
 
     public static String generateString(Random rng, String characters,
@@ -1345,6 +1423,123 @@ public class TranscodersTest extends TestCase {
 
     }
 
+    public void testPrimitiveArrays() throws IOException {
+        Transcoder json = new JSONTranscoder(false, true, false);
+        assertEquals("[1,2,3]", json.encode(new int[] {1,2,3}, null, null));
+        assertEquals("[]", json.encode(new int[0], null, null));
+        assertEquals("[-2147483648,2147483647,0]", json.encode(new int[] {Integer.MIN_VALUE, Integer.MAX_VALUE, 0}, null, null));
+        assertEquals("[-9223372036854775808,9223372036854775807,-10]", 
+                json.encode(new long[] {Long.MIN_VALUE, Long.MAX_VALUE, -10}, null, null));
+        StringWriter writer = new StringWriter();
+        JSONTranscoder.makeJSON(new long[] {-7, 42}, writer, null, false, true, false, 5, null);
+        assertEquals("[-7,42]", writer.toString());
+        assertEquals("[true,false]", json.encode(new boolean[] {true, false}, null, null));
+        assertEquals("[\"a\",\"\\\"\"]", json.encode(new char[] {'a', '"'}, null, null));
+
+        // primitives encode the same as the wrappers
+        Object[][] pairs = new Object[][] {
+                {new int[] {1, -2}, new Integer[] {1, -2}},
+                {new long[] {10000000000L, 0}, new Long[] {10000000000L, 0L}},
+                {new double[] {1.5, -0.25}, new Double[] {1.5, -0.25}},
+                {new float[] {1.5f, 3.1f}, new Float[] {1.5f, 3.1f}},
+                {new byte[] {1, 127}, new Byte[] {1, 127}},
+                {new short[] {1, 300}, new Short[] {1, 300}},
+                {new boolean[] {false, true}, new Boolean[] {false, true}},
+                {new char[] {'x', '\n'}, new Character[] {'x', '\n'}},
+        };
+        Transcoder human = new JSONTranscoder(true, true, false);
+        for (Object[] pair : pairs) {
+            assertEquals(json.encode(pair[1], null, null), json.encode(pair[0], null, null));
+            assertEquals(human.encode(pair[1], null, null), human.encode(pair[0], null, null));
+        }
+        Map<String, Object> m = new ArrayOrderedMap<String, Object>();
+        m.put("ints", new int[] {5, 6});
+        assertTrue(human.encode(m, null, null).contains("6"));
+
+        // other transcoders can handle primitive arrays
+        String encoded = new XMLTranscoder(true, true, false).encode(new int[] {123, 456}, null, null);
+        assertTrue(encoded.contains("123"));
+        assertTrue(encoded.contains("456"));
+        encoded = new HTMLTranscoder(true, true, false).encode(new double[] {1.5}, null, null);
+        assertTrue(encoded.contains("1.5"));
+    }
+
+    public void testJSONEncodeStreaming() throws IOException {
+        JSONTranscoder transcoder = new JSONTranscoder(true, true, false);
+        Map<String, Object> m = new ArrayOrderedMap<String, Object>();
+        m.put("nesting", new TestNesting(10, "100", new String[] {"A", "B"}));
+        m.put("bean", new TestBean(5, "five"));
+        m.put("text", "quote\" slash/ tab\t ctrl\u0001 caf\u00e9");
+        m.put("ints", new int[] {1, 2});
+        m.put("nothing", null);
+
+        String encoded = transcoder.encode(m, null, null);
+        StringWriter writer = new StringWriter();
+        transcoder.encode(m, writer, null, null);
+        assertEquals(encoded, writer.toString());
+        assertTrue(encoded.contains("quote\\\" slash\\/ tab\\t ctrl\\u0001 caf\u00e9"));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        transcoder.encode(m, output, null, null);
+        assertEquals(encoded, new String(output.toByteArray(), "UTF-8"));
+
+        // depth and properties work the same way as for strings
+        Map<String, Object> props = new ArrayOrderedMap<String, Object>();
+        props.put("prop", "value");
+        TestPea pea = new TestPea();
+        writer = new StringWriter();
+        transcoder.encode(pea, writer, null, props, 0);
+        assertEquals(transcoder.encode(pea, null, props, 0), writer.toString());
+        assertTrue(writer.toString().contains("MAX level"));
+        writer = new StringWriter();
+        transcoder.encode(pea, writer, null, props, 1);
+        assertEquals(transcoder.encode(pea, null, props, 1), writer.toString());
+        assertTrue(writer.toString().contains("prop"));
+
+        StringBuilder sb = new StringBuilder();
+        JSONTranscoder.makeJSON(m, sb, null, false, false, false, 5, null);
+        assertEquals(JSONTranscoder.makeJSON(m, null, false, false, false, 5, null), sb.toString());
+        assertFalse(sb.toString().contains("nothing"));
+        assertEquals("a\\nb\\\"c", JSONTranscoder.escapeForJSON("a\nb\"c"));
+        assertEquals("", JSONTranscoder.escapeForJSON(null));
+    }
+
+    public void testXMLEncodeStreaming() throws IOException {
+        XMLTranscoder transcoder = new XMLTranscoder(true, true, false, true);
+        Map<String, Object> m = new ArrayOrderedMap<String, Object>();
+        m.put("nesting", new TestNesting(10, "100", new String[] {"A", "B"}));
+        m.put("bean", new TestBean(5, "five"));
+        m.put("text", "<tag attr=\"a&b\"> caf\u00e9");
+        m.put("ints", new int[] {1, 2});
+        m.put("bad name", "fixed");
+        m.put("nothing", null);
+
+        String encoded = transcoder.encode(m, "root", null);
+        StringWriter writer = new StringWriter();
+        transcoder.encode(m, writer, "root", null);
+        assertEquals(encoded, writer.toString());
+        assertTrue(encoded.contains("&lt;tag attr=&quot;a&amp;b&quot;&gt; caf\u00e9"));
+        assertTrue(encoded.contains("<bad_name>fixed</bad_name>"));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        transcoder.encode(m, output, null, null, 3);
+        assertEquals(transcoder.encode(m, null, null, 3), new String(output.toByteArray(), "UTF-8"));
+
+        StringBuilder sb = new StringBuilder();
+        XMLTranscoder.makeXML(m, sb, "root", null, false, false, false, false, 5, true, null);
+        assertEquals(XMLTranscoder.makeXML(m, "root", null, false, false, false, false, 5, true, null), sb.toString());
+        assertFalse(sb.toString().contains("nothing"));
+
+        // valid strings are returned as is
+        String valid = "valid_name";
+        assertSame(valid, XMLTranscoder.validate(valid, true));
+        assertSame(valid, XMLTranscoder.escapeForXML(valid));
+        assertEquals("_name", XMLTranscoder.validate("xmlname", true));
+        assertEquals("_23", XMLTranscoder.validate("123", true));
+        assertEquals("a_b_c", XMLTranscoder.validate("a b=c", true));
+        assertEquals("a&amp;b&lt;", XMLTranscoder.escapeForXML("a&b<"));
+    }
+
     public void testLoopStoppingJSON() {
         Transcoder transcoder = new JSONTranscoder(true, true, false);
         String encoded = null;
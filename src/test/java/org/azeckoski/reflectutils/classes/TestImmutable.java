@@ -0,0 +1,43 @@
+/**
+ * $Id$
+ * $URL$
+ * TestImmutable.java - reflectutils - Oct 18, 2026 11:58:32 PM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ * 
+ * A copy of the Apache License has been included in this 
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski@gmail.com) (aaronz@vt.edu) (aaron@caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils.classes;
+
+import org.azeckoski.reflectutils.annotations.ReflectImmutable;
+
+/**
+ * {@link ReflectImmutable} on the class <br/>
+ * String name (final) <br/>
+ * int count (final)
+ * 
+ * @author Aaron Zeckoski (azeckoski@gmail.com)
+ */
+@ReflectImmutable
+public class TestImmutable {
+    private final String name;
+    private final int count;
+
+    public TestImmutable(String name, int count) {
+        this.name = name;
+        this.count = count;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
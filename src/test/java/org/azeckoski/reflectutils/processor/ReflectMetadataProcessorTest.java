@@ -0,0 +1,246 @@
+/**
+ * $Id$
+ * $URL$
+ * ReflectMetadataProcessorTest.java - reflectutils - Oct 18, 2026 7:04:52 PM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils.processor;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import junit.framework.TestCase;
+
+import org.azeckoski.reflectutils.ClassDataCacher;
+import org.azeckoski.reflectutils.ClassFields;
+import org.azeckoski.reflectutils.ClassFields.FieldFindMode;
+import org.azeckoski.reflectutils.ClassFields.FieldsFilter;
+import org.azeckoski.reflectutils.ClassProperty;
+import org.azeckoski.reflectutils.FieldUtils;
+import org.azeckoski.reflectutils.annotations.ReflectTransient;
+
+/**
+ * Tests the generation of class metadata at build time,
+ * compiles some classes with the processor and checks the metadata matches the reflection results
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public class ReflectMetadataProcessorTest extends TestCase {
+
+    private static final String[][] SOURCES = {
+        {"pre/Named.java",
+            "package pre;\n"
+            + "public interface Named {\n"
+            + "    String getName();\n"
+            + "}\n"},
+        {"pre/Base.java",
+            "package pre;\n"
+            + "public class Base<T> {\n"
+            + "    private T value;\n"
+            + "    public T getValue() { return value; }\n"
+            + "    public void setValue(T value) { this.value = value; }\n"
+            + "}\n"},
+        {"pre/Person.java",
+            "package pre;\n"
+            + "import org.azeckoski.reflectutils.annotations.*;\n"
+            + "@ReflectPrecompiled\n"
+            + "@ReflectTransientClassFields(\"nick\")\n"
+            + "public class Person extends Base<String> implements Named {\n"
+            + "    public static int count = 0;\n"
+            + "    private String name;\n"
+            + "    private int age;\n"
+            + "    private transient String secret;\n"
+            + "    private String nick;\n"
+            + "    private String marked;\n"
+            + "    public String title;\n"
+            + "    public final String id = \"ID\";\n"
+            + "    private boolean active;\n"
+            + "    public String getName() { return name; }\n"
+            + "    public void setName(String name) { this.name = name; }\n"
+            + "    public int getAge() { return age; }\n"
+            + "    public void setAge(int age) { this.age = age; }\n"
+            + "    public boolean isActive() { return active; }\n"
+            + "    public void setActive(boolean active) { this.active = active; }\n"
+            + "    public String getSecret() { return secret; }\n"
+            + "    public void setSecret(String secret) { this.secret = secret; }\n"
+            + "    public String getNick() { return nick; }\n"
+            + "    public void setNick(String nick) { this.nick = nick; }\n"
+            + "    @ReflectTransient\n"
+            + "    public String getMarked() { return marked; }\n"
+            + "    public void setMarked(String marked) { this.marked = marked; }\n"
+            + "    public String getReadOnly() { return \"RO\"; }\n"
+            + "    public void setWriteOnly(String thing) { this.nick = thing; }\n"
+            + "    public static String getStatic() { return \"S\"; }\n"
+            + "    @ReflectPrecompiled\n"
+            + "    public static class Inner {\n"
+            + "        private String thing;\n"
+            + "        public String getThing() { return thing; }\n"
+            + "        public void setThing(String thing) { this.thing = thing; }\n"
+            + "    }\n"
+            + "    @ReflectPrecompiled\n"
+            + "    private static class Hidden {\n"
+            + "        public String getThing() { return null; }\n"
+            + "    }\n"
+            + "}\n"},
+    };
+
+    private File outputDir;
+    private ClassLoader loader;
+
+    @Override
+    protected void setUp() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            return; // running on a JRE so there is no compiler
+        }
+        outputDir = File.createTempFile("reflectmetadata", "");
+        outputDir.delete();
+        File sourceDir = new File(outputDir, "src");
+        File classesDir = new File(outputDir, "classes");
+        classesDir.mkdirs();
+        List<String> args = new ArrayList<String>();
+        args.addAll( Arrays.asList("-classpath", System.getProperty("java.class.path"),
+                "-processor", ReflectMetadataProcessor.class.getName(),
+                "-d", classesDir.getAbsolutePath(), "-s", sourceDir.getAbsolutePath()) );
+        for (String[] source : SOURCES) {
+            File f = new File(sourceDir, source[0]);
+            f.getParentFile().mkdirs();
+            Writer w = new OutputStreamWriter(new FileOutputStream(f), "UTF-8");
+            try {
+                w.write(source[1]);
+            } finally {
+                w.close();
+            }
+            args.add(f.getAbsolutePath());
+        }
+        int result = compiler.run(null, null, null, args.toArray(new String[args.size()]));
+        assertEquals(0, result);
+        loader = new URLClassLoader(new URL[] {classesDir.toURI().toURL()}, getClass().getClassLoader());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (outputDir != null) {
+            delete(outputDir);
+        }
+    }
+
+    private void delete(File f) {
+        File[] children = f.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        f.delete();
+    }
+
+    private String signature(Method m) {
+        return m == null ? null : m.getName() + Arrays.toString(m.getParameterTypes());
+    }
+
+    public void testGeneratedFiles() throws IOException {
+        if (loader == null) {
+            return;
+        }
+        File classesDir = new File(outputDir, "classes");
+        File serviceFile = new File(classesDir, ReflectMetadataProcessor.SERVICE_FILE);
+        assertTrue(serviceFile.exists());
+        Scanner scanner = new Scanner(serviceFile, "UTF-8");
+        List<String> names = new ArrayList<String>();
+        try {
+            while (scanner.hasNextLine()) {
+                names.add(scanner.nextLine());
+            }
+        } finally {
+            scanner.close();
+        }
+        assertEquals(Arrays.asList("pre.Person_Inner_ReflectMetadata", "pre.Person_ReflectMetadata"), names);
+        assertTrue(new File(classesDir, "pre/Person_ReflectMetadata.class").exists());
+        assertFalse(new File(classesDir, "pre/Person_Hidden_ReflectMetadata.class").exists());
+    }
+
+    public void testMetadataMatchesReflection() throws Exception {
+        if (loader == null) {
+            return;
+        }
+        Class<?> personClass = loader.loadClass("pre.Person");
+        ClassDataCacher cdc = new ClassDataCacher(FieldFindMode.HYBRID);
+        ClassFields<?> cf = cdc.getClassFields(personClass);
+        assertTrue(cf.isPrecompiled());
+        assertTrue(cdc.getClassFields(loader.loadClass("pre.Person$Inner")).isPrecompiled());
+        assertFalse(cdc.getClassFields(loader.loadClass("pre.Person$Hidden")).isPrecompiled());
+        // other modes use reflection
+        assertFalse(cdc.getClassFields(personClass, FieldFindMode.FIELD).isPrecompiled());
+
+        ClassFields<?> reflected = new ClassFields(personClass);
+        assertFalse(reflected.isPrecompiled());
+        for (FieldsFilter filter : FieldsFilter.values()) {
+            assertEquals(filter.name(), reflected.getFieldNames(filter), cf.getFieldNames(filter));
+            assertEquals(filter.name(), reflected.getFieldTypes(filter), cf.getFieldTypes(filter));
+        }
+        assertEquals(reflected.getAllClassProperties().keySet(), cf.getAllClassProperties().keySet());
+        for (String name : reflected.getAllClassProperties().keySet()) {
+            ClassProperty rp = reflected.getClassProperty(name);
+            ClassProperty cp = cf.getClassProperty(name);
+            assertTrue(cp instanceof ClassProperty.PrecompiledProperty);
+            assertEquals(name, rp.getType(), cp.getType());
+            assertEquals(name, rp.isTransient(), cp.isTransient());
+            assertEquals(name, rp.isFinal(), cp.isFinal());
+            assertEquals(name, rp.isPublicField(), cp.isPublicField());
+            assertEquals(name, rp.getModifiers(), cp.getModifiers());
+            assertEquals(name, rp.isComplete(), cp.isComplete());
+            // the method may be found on a different class in the hierarchy but it must be the same method
+            assertEquals(name, signature(rp.getGetter()), signature(cp.getGetter()));
+            assertEquals(name, signature(rp.getSetter()), signature(cp.getSetter()));
+            assertEquals(name, rp.getField(), cp.getField());
+            assertEquals(name, rp.toString(), cp.toString());
+        }
+        assertNotNull(cf.getFieldAnnotation(ReflectTransient.class, "marked"));
+        assertEquals(reflected.getFieldAnnotations("marked"), cf.getFieldAnnotations("marked"));
+        assertEquals(personClass, cf.getClassData().getType());
+
+        // get and set values through the generated accessors
+        FieldUtils fu = FieldUtils.getInstance();
+        Object person = personClass.newInstance();
+        fu.setFieldValue(person, "name", "aaron");
+        fu.setFieldValue(person, "age", 30);
+        fu.setFieldValue(person, "value", "val");
+        fu.setFieldValue(person, "title", "Mr");
+        assertEquals("aaron", fu.getFieldValue(person, "name"));
+        assertEquals(30, fu.getFieldValue(person, "age"));
+        assertEquals("val", fu.getFieldValue(person, "value"));
+        assertEquals("Mr", fu.getFieldValue(person, "title"));
+        assertEquals("ID", fu.getFieldValue(person, "id"));
+        assertEquals("RO", fu.getFieldValue(person, "readOnly"));
+        assertNotNull(cf.getClassProperty("name").getAccessor());
+        assertFalse(cf.getClassProperty("id").getAccessor().isWriteable());
+        assertFalse(cf.getClassProperty("writeOnly").getAccessor().isReadable());
+
+        // turning off the metadata uses reflection
+        cdc.setUseMetadataProviders(false);
+        assertFalse(cdc.getClassFields(personClass).isPrecompiled());
+    }
+
+}
@@ -0,0 +1,211 @@
+/**
+ * $Id$
+ * $URL$
+ * JsonBinderTest.java - reflectutils - Oct 19, 2026 2:18:40 AM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils.transcoders;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.azeckoski.reflectutils.classes.TestBean;
+import org.azeckoski.reflectutils.classes.TestNesting;
+import org.azeckoski.reflectutils.classes.TestPea;
+
+/**
+ * Tests decoding JSON straight into beans
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public class JsonBinderTest extends TestCase {
+
+    public static class Holder {
+        private Long total;
+        private double average;
+        private float ratio;
+        private boolean valid;
+        private BigDecimal amount;
+        private int[] counts;
+        private TestBean[] beans;
+        private List<TestBean> beanList;
+        private Map<String, Integer> sizes;
+        private Set<Long> ids;
+        private Object anything;
+        public Long getTotal() { return total; }
+        public void setTotal(Long total) { this.total = total; }
+        public double getAverage() { return average; }
+        public void setAverage(double average) { this.average = average; }
+        public float getRatio() { return ratio; }
+        public void setRatio(float ratio) { this.ratio = ratio; }
+        public boolean isValid() { return valid; }
+        public void setValid(boolean valid) { this.valid = valid; }
+        public BigDecimal getAmount() { return amount; }
+        public void setAmount(BigDecimal amount) { this.amount = amount; }
+        public int[] getCounts() { return counts; }
+        public void setCounts(int[] counts) { this.counts = counts; }
+        public TestBean[] getBeans() { return beans; }
+        public void setBeans(TestBean[] beans) { this.beans = beans; }
+        public List<TestBean> getBeanList() { return beanList; }
+        public void setBeanList(List<TestBean> beanList) { this.beanList = beanList; }
+        public Map<String, Integer> getSizes() { return sizes; }
+        public void setSizes(Map<String, Integer> sizes) { this.sizes = sizes; }
+        public Set<Long> getIds() { return ids; }
+        public void setIds(Set<Long> ids) { this.ids = ids; }
+        public Object getAnything() { return anything; }
+        public void setAnything(Object anything) { this.anything = anything; }
+    }
+
+    public void testDecodeBean() {
+        JSONTranscoder transcoder = new JSONTranscoder();
+        TestBean bean = transcoder.decode(transcoder.encode(new TestBean(8, "eight"), null, null), TestBean.class);
+        assertEquals(8, bean.getMyInt());
+        assertEquals("eight", bean.getMyString());
+
+        // nested beans, arrays, lists, and maps
+        TestNesting nesting = new TestNesting(10, "100", new String[] {"A", "B"});
+        nesting.setTestBean(new TestBean(3, "three"));
+        nesting.testPea = new TestPea("p", "EP");
+        nesting.getSMap().put("key", "value");
+        TestNesting decoded = transcoder.decode(transcoder.encode(nesting, null, null), TestNesting.class);
+        assertEquals(10, decoded.getId());
+        assertEquals("100", decoded.getTitle());
+        assertNull(decoded.getExtra());
+        assertTrue(Arrays.equals(new String[] {"A", "B"}, decoded.getMyArray()));
+        assertEquals(nesting.getSList(), decoded.getSList());
+        assertEquals("value", decoded.getSMap().get("key"));
+        assertEquals(3, decoded.getTestBean().getMyInt());
+        assertEquals("three", decoded.getTestBean().getMyString());
+        assertEquals("p", decoded.testPea.id);
+        assertEquals("EP", decoded.testPea.entityId);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testDecodeTypes() throws IOException {
+        JSONTranscoder transcoder = new JSONTranscoder();
+        String json = "{\"total\":5, \"average\":2, \"ratio\":0.1, \"valid\":\"true\", \"amount\":12.345678901234567890,"
+            + "\"unknown\":{\"a\":[1,{\"b\":2}]}, \"counts\":[1,2,\"3\"], \"beans\":[{\"myInt\":1},null],"
+            + "\"beanList\":[{\"myString\":\"x\", \"extra\":[]}], \"sizes\":{\"a\":1,\"b\":\"2\"}, \"ids\":[7,7,9],"
+            + "\"anything\":{\"n\":[1,\"two\"]}, \"other\":null}";
+        Holder holder = transcoder.decode(json, Holder.class);
+        assertEquals(Long.valueOf(5), holder.getTotal());
+        assertEquals(2.0, holder.getAverage());
+        assertEquals(0.1f, holder.getRatio());
+        assertTrue(holder.isValid());
+        assertEquals(new BigDecimal("12.345678901234567890"), holder.getAmount());
+        assertTrue(Arrays.equals(new int[] {1, 2, 3}, holder.getCounts()));
+        assertEquals(2, holder.getBeans().length);
+        assertEquals(1, holder.getBeans()[0].getMyInt());
+        assertNull(holder.getBeans()[1]);
+        assertEquals(1, holder.getBeanList().size());
+        assertEquals("x", holder.getBeanList().get(0).getMyString());
+        assertEquals(Integer.valueOf(1), holder.getSizes().get("a"));
+        assertEquals(Integer.valueOf(2), holder.getSizes().get("b"));
+        assertEquals(2, holder.getIds().size());
+        assertTrue(holder.getIds().contains(7L));
+        Map<String, Object> anything = (Map<String, Object>) holder.getAnything();
+        assertEquals(Arrays.asList(1, "two"), anything.get("n"));
+
+        // the same from a reader, nulls become the primitive defaults
+        holder = transcoder.decode(new StringReader("{\"average\":null, \"total\":null}"), Holder.class);
+        assertEquals(0.0, holder.getAverage());
+        assertNull(holder.getTotal());
+
+        // simple values and empty input
+        assertEquals(Long.valueOf(3), transcoder.decode("3", Long.class));
+        assertEquals("abc", transcoder.decode("\"abc\"", String.class));
+        assertNull(transcoder.decode("null", TestBean.class));
+        assertNull(transcoder.decode("  ", TestBean.class));
+        assertTrue(Arrays.equals(new long[] {1, 2}, transcoder.decode("[1,2]", long[].class)));
+    }
+
+    @SuppressWarnings("rawtypes")
+    public void testDecodeGenericTypes() throws IOException {
+        JSONTranscoder transcoder = new JSONTranscoder();
+        List<TestPea> peas = transcoder.decode("[{\"id\":\"a\"},{\"id\":\"b\",\"entityId\":\"E\"}]", new TypeReference<List<TestPea>>() {});
+        assertEquals(2, peas.size());
+        assertEquals("a", peas.get(0).id);
+        assertEquals("EID", peas.get(0).entityId);
+        assertEquals("E", peas.get(1).entityId);
+
+        Map<String, List<Integer>> map = transcoder.decode(new StringReader("{\"x\":[1,\"2\"],\"y\":[]}"), 
+                new TypeReference<Map<String, List<Integer>>>() {});
+        assertEquals(Arrays.asList(1, 2), map.get("x"));
+        assertTrue(map.get("y").isEmpty());
+
+        Map<Integer, TestBean>[] maps = transcoder.decode("[{\"5\":{\"myInt\":5}}]", new TypeReference<Map<Integer, TestBean>[]>() {});
+        assertEquals(5, maps[0].get(5).getMyInt());
+
+        TypeReference<List<String>> type = new TypeReference<List<String>>() {};
+        assertNotNull(type.toString());
+        try {
+            new TypeReference() {};
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    public void testDecodeInvalid() throws IOException {
+        JSONTranscoder transcoder = new JSONTranscoder();
+        try {
+            transcoder.decode("{\"myInt\":1", TestBean.class);
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+        try {
+            transcoder.decode("{\"myInt\":\"abc\"}", TestBean.class);
+            fail("should have thrown exception");
+        } catch (UnsupportedOperationException e) {
+            assertNotNull(e.getMessage());
+        }
+        try {
+            transcoder.decode((String) null, TestBean.class);
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+
+        // the whole input must be one value
+        String[] trailing = new String[] {"{\"myInt\":1}}", "{\"myInt\":1} {\"myInt\":2}", "{\"myInt\":1} 5"};
+        for (String json : trailing) {
+            try {
+                transcoder.decode(json, TestBean.class);
+                fail("should have thrown exception: " + json);
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid JSON at char"));
+            }
+            try {
+                transcoder.decode(new StringReader(json), TestBean.class);
+                fail("should have thrown exception: " + json);
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid JSON at char"));
+            }
+        }
+        try {
+            transcoder.decode("[1] [2]", new TypeReference<List<Integer>>() {});
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid JSON at char"));
+        }
+        // whitespace after the value is fine
+        assertEquals(1, transcoder.decode(" {\"myInt\":1}\n ", TestBean.class).getMyInt());
+    }
+
+}
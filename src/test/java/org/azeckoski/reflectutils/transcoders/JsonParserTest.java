@@ -0,0 +1,200 @@
+/**
+ * $Id$
+ * $URL$
+ * JsonParserTest.java - reflectutils - Oct 19, 2026 1:07:16 AM - azeckoski
+ **************************************************************************
+ * Copyright (c) 2008 Aaron Zeckoski
+ * Licensed under the Apache License, Version 2.0
+ *
+ * A copy of the Apache License has been included in this
+ * distribution and is available at: http://www.apache.org/licenses/LICENSE-2.0.txt
+ *
+ * Aaron Zeckoski (azeckoski @ gmail.com) (aaronz @ vt.edu) (aaron @ caret.cam.ac.uk)
+ */
+
+package org.azeckoski.reflectutils.transcoders;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.azeckoski.reflectutils.classes.TestNesting;
+import org.azeckoski.reflectutils.transcoders.JsonParser.JsonToken;
+
+/**
+ * Tests the pull parser for JSON
+ *
+ * @author Aaron Zeckoski (azeckoski @ gmail.com)
+ */
+public class JsonParserTest extends TestCase {
+
+    private JsonParser makeParser(String json) {
+        // tiny buffer so the tokens cross the buffer edges
+        return new JsonParser(new StringReader(json), 3);
+    }
+
+    public void testTokens() throws IOException {
+        String json = "{\"id\":123, \"name\" : \"a\\\"z\\u00e9\", \"list\":[1.5,-2e3,true,false,null,[],{}],"
+            + "\"big\":12345678901234567890, \"map\":{\"x\":\"y\"}}";
+        JsonParser parser = makeParser(json);
+        assertNull(parser.getCurrentToken());
+        assertEquals(JsonToken.START_OBJECT, parser.nextToken());
+        assertEquals(1, parser.getDepth());
+        assertEquals(JsonToken.FIELD_NAME, parser.nextToken());
+        assertEquals("id", parser.getText());
+        assertEquals(JsonToken.VALUE_NUMBER, parser.nextToken());
+        assertEquals("id", parser.getCurrentName());
+        assertEquals(123, parser.getNumberValue());
+        assertEquals(JsonToken.FIELD_NAME, parser.nextToken());
+        assertEquals(JsonToken.VALUE_STRING, parser.nextToken());
+        assertEquals("a\"z\u00e9", parser.getText());
+        assertEquals(JsonToken.FIELD_NAME, parser.nextToken());
+        assertEquals(JsonToken.START_ARRAY, parser.nextToken());
+        assertEquals("list", parser.getCurrentName());
+        assertEquals(JsonToken.VALUE_NUMBER, parser.nextToken());
+        assertEquals(1.5f, parser.getNumberValue());
+        assertNull(parser.getCurrentName());
+        assertEquals(JsonToken.VALUE_NUMBER, parser.nextToken());
+        assertEquals("-2e3", parser.getText());
+        assertEquals(JsonToken.VALUE_TRUE, parser.nextToken());
+        assertTrue(parser.getBooleanValue());
+        assertEquals(JsonToken.VALUE_FALSE, parser.nextToken());
+        assertFalse(parser.getBooleanValue());
+        assertEquals(JsonToken.VALUE_NULL, parser.nextToken());
+        assertTrue(parser.getCurrentToken().isScalarValue());
+        assertEquals(JsonToken.START_ARRAY, parser.nextToken());
+        assertEquals(JsonToken.END_ARRAY, parser.nextToken());
+        assertEquals(JsonToken.START_OBJECT, parser.nextToken());
+        assertEquals(JsonToken.END_OBJECT, parser.nextToken());
+        assertEquals(JsonToken.END_ARRAY, parser.nextToken());
+        assertEquals("list", parser.getCurrentName());
+        assertEquals(JsonToken.FIELD_NAME, parser.nextToken());
+        assertEquals(JsonToken.VALUE_NUMBER, parser.nextToken());
+        assertEquals(new BigInteger("12345678901234567890"), parser.getNumberValue());
+        assertEquals(JsonToken.FIELD_NAME, parser.nextToken());
+        assertEquals(JsonToken.START_OBJECT, parser.nextToken());
+        assertEquals(2, parser.getDepth());
+        assertEquals(JsonToken.FIELD_NAME, parser.nextToken());
+        assertEquals(JsonToken.VALUE_STRING, parser.nextToken());
+        assertEquals("y", parser.getText());
+        assertEquals(JsonToken.END_OBJECT, parser.nextToken());
+        assertEquals(JsonToken.END_OBJECT, parser.nextToken());
+        assertEquals(0, parser.getDepth());
+        assertNull(parser.nextToken());
+        assertNull(parser.nextToken());
+        assertEquals(json.length(), parser.getPosition());
+        parser.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testReadAndSkip() throws IOException {
+        JsonParser parser = makeParser("{\"skip\":{\"a\":[1,2,{\"b\":\"c\"}],\"d\":\"e\\\\\"}, \"keep\":{\"a\":[1,\"two\"]}, \"last\":3}");
+        assertEquals(JsonToken.START_OBJECT, parser.nextToken());
+        assertEquals(JsonToken.FIELD_NAME, parser.nextToken());
+        assertEquals(JsonToken.START_OBJECT, parser.nextToken());
+        parser.skipChildren();
+        assertEquals(JsonToken.END_OBJECT, parser.getCurrentToken());
+        assertEquals("skip", parser.getCurrentName());
+        assertEquals(1, parser.getDepth());
+        assertEquals(JsonToken.FIELD_NAME, parser.nextToken());
+        assertEquals("keep", parser.getText());
+        parser.nextToken();
+        Map<String, Object> keep = (Map<String, Object>) parser.readValue();
+        assertEquals(JsonToken.END_OBJECT, parser.getCurrentToken());
+        List<Object> a = (List<Object>) keep.get("a");
+        assertEquals(2, a.size());
+        assertEquals(1, a.get(0));
+        assertEquals("two", a.get(1));
+        assertEquals(JsonToken.FIELD_NAME, parser.nextToken());
+        assertEquals(JsonToken.VALUE_NUMBER, parser.nextToken());
+        assertEquals(3, parser.readValue());
+        // skipping a simple value does nothing
+        parser.skipChildren();
+        assertEquals(JsonToken.VALUE_NUMBER, parser.getCurrentToken());
+        assertEquals(JsonToken.END_OBJECT, parser.nextToken());
+        assertNull(parser.nextToken());
+
+        // values come out the same as the decoder
+        String json = new JSONTranscoder().encode(new TestNesting(10, "100", new String[] {"A", "B"}), null, null);
+        parser = new JsonParser(new ByteArrayInputStream(json.getBytes("UTF-8")));
+        parser.nextToken();
+        assertEquals(new JSONTranscoder().decode(json), parser.readValue());
+
+        // more than one value in the input
+        parser = makeParser("{\"n\":1}\n{\"n\":2}\n[3]");
+        int count = 0;
+        while (parser.nextToken() != null) {
+            assertNotNull(parser.readValue());
+            count++;
+        }
+        assertEquals(3, count);
+    }
+
+    public void testNumbers() throws IOException {
+        JsonParser parser = makeParser("[0, -0, 7, 10000000000, 12345678901234567890, 1.5, 123456.789, 1e308, 1e400, 0.1000000000000000000001, -0.0, 0.5e-2]");
+        parser.nextToken();
+        List<Object> numbers = (List<Object>) parser.readValue();
+        assertEquals(0, numbers.get(0));
+        assertEquals(0, numbers.get(1));
+        assertEquals(7, numbers.get(2));
+        assertEquals(10000000000L, numbers.get(3));
+        assertEquals(new BigInteger("12345678901234567890"), numbers.get(4));
+        // floating point values keep the value exactly as written
+        assertEquals(1.5f, numbers.get(5));
+        assertEquals(123456.789d, numbers.get(6));
+        assertEquals(1e308d, numbers.get(7));
+        assertEquals(new BigDecimal("1e400"), numbers.get(8));
+        assertEquals(new BigDecimal("0.1000000000000000000001"), numbers.get(9));
+        assertEquals(-0.0f, numbers.get(10));
+        assertEquals(0.005f, numbers.get(11));
+
+        // the reader still sizes numbers by the number of digits
+        assertEquals(123456.79f, JsonParser.makeLegacyNumber("123456.789", 9, true));
+    }
+
+    public void testInvalid() throws IOException {
+        String[] invalid = new String[] {"{\"a\" 1}", "{\"a\":1,}", "[1,]", "[1 2]", "{a:1}", "[tru]", "[nulls]",
+                "\"abc", "[1,", "{\"a\":", "[-]", "[1.]", "[1e]", "[\"\\x\"]", "[\"\\u12G4\"]", "}", "@",
+                "[01]", "[-01]", "[00]"};
+        for (String json : invalid) {
+            JsonParser parser = makeParser(json);
+            try {
+                while (parser.nextToken() != null) {
+                    // just read until the end
+                }
+                fail("should have thrown exception: " + json);
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid JSON at char"));
+            }
+        }
+
+        JsonParser parser = makeParser("[\"a\"]");
+        try {
+            parser.readValue();
+            fail("should have thrown exception");
+        } catch (IllegalStateException e) {
+            assertNotNull(e.getMessage());
+        }
+        parser.nextToken();
+        parser.nextToken();
+        try {
+            parser.getNumberValue();
+            fail("should have thrown exception");
+        } catch (IllegalStateException e) {
+            assertNotNull(e.getMessage());
+        }
+        try {
+            new JsonParser(new StringReader("[]"), 0);
+            fail("should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+}